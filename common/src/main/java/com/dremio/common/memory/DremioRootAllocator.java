@@ -25,6 +25,7 @@ import org.apache.arrow.memory.AllocationOutcome;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.BufferManager;
 import org.apache.arrow.memory.OutOfMemoryException;
+import org.apache.arrow.memory.RecyclingAllocationManagerFactory;
 import org.apache.arrow.memory.RootAllocator;
 
 /**
@@ -37,8 +38,26 @@ public class DremioRootAllocator extends RootAllocator {
   private final ConcurrentMap<String, BufferAllocator> children;
 
   public static DremioRootAllocator create(final long limit, long maxBufferCount) {
+    return create(limit, maxBufferCount, 0);
+  }
+
+  /**
+   * Create a root allocator that recycles the memory of released batch sized buffers.
+   *
+   * @param limit maximum memory, including the memory held for recycling
+   * @param maxBufferCount maximum number of buffers
+   * @param recyclingPoolBytes maximum memory held for recycling, 0 to disable recycling
+   */
+  public static DremioRootAllocator create(final long limit, long maxBufferCount, long recyclingPoolBytes) {
     RootAllocatorListener listener = new RootAllocatorListener(maxBufferCount);
-    DremioRootAllocator rootAllocator = new DremioRootAllocator(listener, limit);
+    final DremioRootAllocator rootAllocator;
+    if (recyclingPoolBytes > 0) {
+      // memory held for recycling isn't accounted to any allocator, take it out of the limit.
+      final RecyclingAllocationManagerFactory recyclingPool = new RecyclingAllocationManagerFactory(recyclingPoolBytes);
+      rootAllocator = new DremioRootAllocator(listener, recyclingPool, Math.max(0, limit - recyclingPoolBytes));
+    } else {
+      rootAllocator = new DremioRootAllocator(listener, limit);
+    }
     listener.setRootAllocator(rootAllocator);
     return rootAllocator;
   }
@@ -52,11 +71,40 @@ public class DremioRootAllocator extends RootAllocator {
    */
 
   private RootAllocatorListener listener;
+  private final RecyclingAllocationManagerFactory recyclingPool;
 
   private DremioRootAllocator(final RootAllocatorListener listener, final long limit) {
     super(listener, limit);
     children = new ConcurrentHashMap<>();
     this.listener = listener;
+    this.recyclingPool = null;
+  }
+
+  private DremioRootAllocator(final RootAllocatorListener listener, final RecyclingAllocationManagerFactory recyclingPool,
+                              final long limit) {
+    super(configBuilder()
+      .listener(listener)
+      .maxAllocation(limit)
+      .allocationManagerFactory(recyclingPool)
+      .build());
+    children = new ConcurrentHashMap<>();
+    this.listener = listener;
+    this.recyclingPool = recyclingPool;
+  }
+
+  /**
+   * @return pool recycling the memory of released buffers, or null if recycling is disabled
+   */
+  public RecyclingAllocationManagerFactory getRecyclingPool() {
+    return recyclingPool;
+  }
+
+  @Override
+  public void close() {
+    super.close();
+    if (recyclingPool != null) {
+      recyclingPool.clear();
+    }
   }
 
   @Override
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.function.IntFunction;
 
 import com.dremio.io.file.Path;
 import com.google.common.collect.ImmutableList;
@@ -92,6 +93,18 @@ public interface AsyncByteReader extends AutoCloseable {
     }).whenComplete((a,b) -> buf.release());
   }
 
+  /**
+   * Read several ranges of the file, merging nearby ranges and splitting large ones into parallel requests.
+   * @param ranges Ranges of the file to read
+   * @param allocator Allocates the buffers the merged ranges are read into
+   * @param options Tuning of the merging and splitting of the requests
+   * @return A CompletableFuture that will carry one buffer per range, to be released by the caller
+   */
+  default CompletableFuture<List<ByteBuf>> readRanges(List<VectoredReader.Range> ranges, IntFunction<ByteBuf> allocator,
+                                                      VectoredReader.Options options) {
+    return new VectoredReader(this, options).read(ranges, allocator);
+  }
+
   @Override
   default void close() throws Exception {
   }
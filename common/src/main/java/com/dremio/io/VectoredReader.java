@@ -0,0 +1,292 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.io;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntFunction;
+
+import com.google.common.base.Preconditions;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Reads several ranges of a file through an {@link AsyncByteReader}.
+ *
+ * Ranges separated by less than the merge gap are fetched with a single request, and requests larger than the split
+ * size are issued as several parallel sub-requests, since the latency of each request rather than the bandwidth
+ * bounds reads from object stores. The bytes of the requests in flight are bounded, a request larger than the bound
+ * being issued alone. The buffers of all the ranges are allocated before the first request is issued, so callers
+ * should bound the total size of the ranges they read at once.
+ */
+public class VectoredReader {
+
+  private final AsyncByteReader reader;
+  private final Options options;
+
+  public VectoredReader(AsyncByteReader reader, Options options) {
+    this.reader = reader;
+    this.options = options;
+  }
+
+  /**
+   * Read the given ranges.
+   *
+   * @param ranges ranges of the file to read, possibly overlapping
+   * @param allocator allocates the buffers the merged ranges are read into
+   * @return a future of one buffer per range, in the order of the ranges, to be released by the caller
+   */
+  public CompletableFuture<List<ByteBuf>> read(List<Range> ranges, IntFunction<ByteBuf> allocator) {
+    if (ranges.isEmpty()) {
+      return CompletableFuture.completedFuture(Collections.emptyList());
+    }
+
+    final List<MergedRange> mergedRanges = merge(ranges);
+    final Deque<SubRead> subReads = new ArrayDeque<>();
+    try {
+      for (MergedRange mergedRange : mergedRanges) {
+        mergedRange.buffer = allocator.apply(mergedRange.length);
+        for (int position = 0; position < mergedRange.length; position += options.splitSize) {
+          subReads.add(new SubRead(mergedRange, position, Math.min(options.splitSize, mergedRange.length - position)));
+        }
+      }
+    } catch (RuntimeException e) {
+      release(mergedRanges);
+      final CompletableFuture<List<ByteBuf>> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      return failed;
+    }
+
+    return new ReadScheduler(subReads).run()
+      .thenApply(v -> {
+        final ByteBuf[] buffers = new ByteBuf[ranges.size()];
+        for (MergedRange mergedRange : mergedRanges) {
+          for (int index : mergedRange.rangeIndices) {
+            final Range range = ranges.get(index);
+            buffers[index] = mergedRange.buffer.retainedSlice((int) (range.offset - mergedRange.offset), range.length);
+          }
+        }
+        return Arrays.asList(buffers);
+      })
+      .whenComplete((buffers, e) -> release(mergedRanges));
+  }
+
+  /**
+   * Group the ranges sorted by offset while the gap between them, and the size of the group, remain small enough.
+   */
+  List<MergedRange> merge(List<Range> ranges) {
+    final Integer[] order = new Integer[ranges.size()];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, Comparator.comparingLong(i -> ranges.get(i).offset));
+
+    final List<MergedRange> mergedRanges = new ArrayList<>();
+    MergedRange current = null;
+    for (int index : order) {
+      final Range range = ranges.get(index);
+      final long end = range.offset + range.length;
+      if (current != null
+        && range.offset - current.end() <= options.mergeGap
+        && Math.max(end, current.end()) - current.offset <= options.maxMergedSize) {
+        current.length = (int) (Math.max(end, current.end()) - current.offset);
+      } else {
+        current = new MergedRange(range.offset, range.length);
+        mergedRanges.add(current);
+      }
+      current.rangeIndices.add(index);
+    }
+    return mergedRanges;
+  }
+
+  private static void release(List<MergedRange> mergedRanges) {
+    for (MergedRange mergedRange : mergedRanges) {
+      if (mergedRange.buffer != null) {
+        mergedRange.buffer.release();
+        mergedRange.buffer = null;
+      }
+    }
+  }
+
+  /**
+   * Issues the sub-reads while the bytes in flight remain under the bound, stopping at the first failure.
+   */
+  private final class ReadScheduler {
+    private final Deque<SubRead> pending;
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+    private long inFlightBytes;
+    private int inFlightReads;
+    private Throwable failure;
+
+    private ReadScheduler(Deque<SubRead> pending) {
+      this.pending = pending;
+    }
+
+    CompletableFuture<Void> run() {
+      submit();
+      return future;
+    }
+
+    private void submit() {
+      final List<SubRead> toSubmit = new ArrayList<>();
+      final boolean done;
+      final Throwable error;
+      synchronized (this) {
+        while (failure == null && !pending.isEmpty()
+          && (inFlightReads == 0 || inFlightBytes + pending.peek().length <= options.maxInFlightBytes)) {
+          final SubRead subRead = pending.poll();
+          inFlightBytes += subRead.length;
+          inFlightReads++;
+          toSubmit.add(subRead);
+        }
+        // all reads are done, or the reads in flight when the first one failed
+        done = inFlightReads == 0;
+        error = failure;
+      }
+
+      if (done) {
+        if (error != null) {
+          future.completeExceptionally(error);
+        } else {
+          future.complete(null);
+        }
+        return;
+      }
+
+      for (SubRead subRead : toSubmit) {
+        CompletableFuture<Void> read;
+        try {
+          read = reader.readFully(subRead.mergedRange.offset + subRead.position, subRead.mergedRange.buffer,
+            subRead.position, subRead.length);
+        } catch (RuntimeException e) {
+          read = new CompletableFuture<>();
+          read.completeExceptionally(e);
+        }
+        read.whenComplete((v, e) -> onComplete(subRead, e));
+      }
+    }
+
+    private void onComplete(SubRead subRead, Throwable e) {
+      synchronized (this) {
+        inFlightBytes -= subRead.length;
+        inFlightReads--;
+        if (e != null && failure == null) {
+          failure = e;
+        }
+      }
+      submit();
+    }
+  }
+
+  /**
+   * Ranges read with a single buffer.
+   */
+  static final class MergedRange {
+    private final long offset;
+    private int length;
+    private final List<Integer> rangeIndices = new ArrayList<>();
+    private ByteBuf buffer;
+
+    private MergedRange(long offset, int length) {
+      this.offset = offset;
+      this.length = length;
+    }
+
+    private long end() {
+      return offset + length;
+    }
+
+    long getOffset() {
+      return offset;
+    }
+
+    int getLength() {
+      return length;
+    }
+  }
+
+  private static final class SubRead {
+    private final MergedRange mergedRange;
+    private final int position;
+    private final int length;
+
+    private SubRead(MergedRange mergedRange, int position, int length) {
+      this.mergedRange = mergedRange;
+      this.position = position;
+      this.length = length;
+    }
+  }
+
+  /**
+   * A range of bytes of a file.
+   */
+  public static final class Range {
+    private final long offset;
+    private final int length;
+
+    public Range(long offset, int length) {
+      Preconditions.checkArgument(offset >= 0 && length >= 0, "invalid range %s, %s", offset, length);
+      this.offset = offset;
+      this.length = length;
+    }
+
+    public long getOffset() {
+      return offset;
+    }
+
+    public int getLength() {
+      return length;
+    }
+
+    @Override
+    public String toString() {
+      return "[" + offset + ", " + (offset + length) + ")";
+    }
+  }
+
+  /**
+   * Tuning of vectored reads.
+   */
+  public static final class Options {
+    private final long mergeGap;
+    private final int maxMergedSize;
+    private final int splitSize;
+    private final long maxInFlightBytes;
+
+    /**
+     * @param mergeGap largest number of unneeded bytes read to merge two ranges
+     * @param maxMergedSize largest size of merged ranges
+     * @param splitSize size of the sub-requests larger requests are split into
+     * @param maxInFlightBytes bound of the bytes of the requests in flight
+     */
+    public Options(long mergeGap, int maxMergedSize, int splitSize, long maxInFlightBytes) {
+      Preconditions.checkArgument(mergeGap >= 0, "invalid merge gap %s", mergeGap);
+      Preconditions.checkArgument(maxMergedSize > 0, "invalid max merged size %s", maxMergedSize);
+      Preconditions.checkArgument(splitSize > 0, "invalid split size %s", splitSize);
+      Preconditions.checkArgument(maxInFlightBytes > 0, "invalid max in flight bytes %s", maxInFlightBytes);
+      this.mergeGap = mergeGap;
+      this.maxMergedSize = maxMergedSize;
+      this.splitSize = splitSize;
+      this.maxInFlightBytes = maxInFlightBytes;
+    }
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.arrow.memory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import com.google.common.base.Preconditions;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Creates ArrowBufs over memory mapped regions of files.
+ *
+ * The mapped region is accounted to the allocator like any other allocation of the same size, so allocator limits
+ * and leak detection apply, and it is unmapped once the last buffer referencing it is released.
+ *
+ * Lives in the arrow package to create ledgers for the mapped memory.
+ */
+public final class MappedArrowBufs {
+
+  private MappedArrowBufs() {
+  }
+
+  /**
+   * Map a region of a file as read only, and wrap it in a buffer owned by the given allocator.
+   *
+   * @param allocator allocator the mapped region is accounted to
+   * @param channel channel of the file
+   * @param offset start of the region in the file
+   * @param length length of the region, at most 2GB
+   * @return a buffer over the mapped region
+   * @throws IOException if the region cannot be mapped
+   * @throws OutOfMemoryException if the allocator cannot account for the region
+   */
+  public static ArrowBuf map(BufferAllocator allocator, FileChannel channel, long offset, long length)
+      throws IOException {
+    Preconditions.checkArgument(allocator instanceof BaseAllocator, "unsupported allocator %s", allocator);
+    Preconditions.checkArgument(length >= 0 && length <= Integer.MAX_VALUE, "invalid length %s", length);
+    if (length == 0) {
+      return allocator.getEmpty();
+    }
+
+    final BaseAllocator baseAllocator = (BaseAllocator) allocator;
+    final AllocationOutcome outcome = baseAllocator.allocateBytes(length);
+    if (!outcome.isOk()) {
+      throw new OutOfMemoryException(String.format("Unable to map %d bytes of file (allocator %s limit %d)",
+        length, allocator.getName(), allocator.getLimit()), outcome.getDetails());
+    }
+
+    boolean success = false;
+    try {
+      final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+      final BufferLedger ledger = new MappedAllocationManager(baseAllocator, mapped).associate(baseAllocator);
+      final ArrowBuf buffer = ledger.newArrowBuf(length, null);
+      success = true;
+      return buffer;
+    } finally {
+      if (!success) {
+        baseAllocator.releaseBytes(length);
+      }
+    }
+  }
+
+  /**
+   * Allocation manager of a mapped region, which unmaps it on release.
+   */
+  private static final class MappedAllocationManager extends AllocationManager {
+    private final MappedByteBuffer mapped;
+    private final long address;
+    private final long size;
+
+    private MappedAllocationManager(BufferAllocator accountingAllocator, MappedByteBuffer mapped) {
+      super(accountingAllocator);
+      this.mapped = mapped;
+      this.address = PlatformDependent.directBufferAddress(mapped);
+      this.size = mapped.capacity();
+    }
+
+    @Override
+    public long getSize() {
+      return size;
+    }
+
+    @Override
+    protected long memoryAddress() {
+      return address;
+    }
+
+    @Override
+    protected void release0() {
+      PlatformDependent.freeDirectBuffer(mapped);
+    }
+  }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.arrow.memory;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.arrow.memory.util.MemoryUtil;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Allocation manager factory that keeps the memory of released batch sized buffers in size classed free lists and
+ * hands it out again to the next allocation of the same size, instead of freeing it.
+ *
+ * Only the raw memory is recycled. Buffers of the recycled sizes are backed by direct byte buffers allocated by this
+ * factory, outside of any allocation manager, so that they count against {@code -XX:MaxDirectMemorySize} and show
+ * in the JVM direct buffer pool metrics. Every allocation still gets a new allocation manager and ledger, and is
+ * reserved from and released to the allocator tree as usual, so allocator accounting, limits and leak detection
+ * behave exactly as without recycling. Memory is only put back in a free list once every ledger of the allocation
+ * manager has been released, so a recycled chunk can never be shared with a buffer still in use. Other sizes are
+ * allocated by the delegate factory.
+ *
+ * The free lists hold at most {@code maxPooledBytes}. That memory is not accounted to any allocator, so the root
+ * allocator limit should be reduced by the same amount.
+ */
+public class RecyclingAllocationManagerFactory implements AllocationManager.Factory {
+  // smallest and largest buffers recycled: vector buffers of a batch are usually in between, and rounded to a power
+  // of two by the allocator.
+  private static final int MIN_SIZE_CLASS = 12; // 4KB
+  private static final int MAX_SIZE_CLASS = 24; // 16MB
+
+  private static final ThreadLocal<Boolean> lastAllocationRecycled = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+  private final AllocationManager.Factory delegate;
+  private final long maxPooledBytes;
+  // free chunks of each size class
+  private final ConcurrentLinkedDeque<ByteBuffer>[] freeLists;
+  private final AtomicLong pooledBytes = new AtomicLong();
+  private final AtomicLong recycled = new AtomicLong();
+  private final AtomicLong allocated = new AtomicLong();
+
+  public RecyclingAllocationManagerFactory(long maxPooledBytes) {
+    // go through the allocator config so that BaseAllocator is initialized before the default factory is loaded
+    this(BaseAllocator.configBuilder().build().getAllocationManagerFactory(), maxPooledBytes);
+  }
+
+  @SuppressWarnings("unchecked")
+  @VisibleForTesting
+  RecyclingAllocationManagerFactory(AllocationManager.Factory delegate, long maxPooledBytes) {
+    Preconditions.checkArgument(maxPooledBytes >= 0, "pool size must be non-negative");
+    this.delegate = delegate;
+    this.maxPooledBytes = maxPooledBytes;
+    this.freeLists = new ConcurrentLinkedDeque[MAX_SIZE_CLASS - MIN_SIZE_CLASS + 1];
+    for (int i = 0; i < freeLists.length; i++) {
+      freeLists[i] = new ConcurrentLinkedDeque<>();
+    }
+  }
+
+  /**
+   * Whether the last allocation made by the current thread reused recycled memory. Meant to be called from
+   * {@link AllocationListener#onAllocation(long)}, which runs right after the allocation manager was created.
+   */
+  public static boolean wasLastAllocationRecycled() {
+    return lastAllocationRecycled.get();
+  }
+
+  @Override
+  public AllocationManager create(BufferAllocator accountingAllocator, long size) {
+    final int sizeClass = sizeClass(size);
+    if (sizeClass < 0) {
+      lastAllocationRecycled.set(Boolean.FALSE);
+      return delegate.create(accountingAllocator, size);
+    }
+
+    ByteBuffer chunk = freeLists[sizeClass].pollFirst();
+    if (chunk != null) {
+      pooledBytes.addAndGet(-size);
+      recycled.incrementAndGet();
+      lastAllocationRecycled.set(Boolean.TRUE);
+    } else {
+      // throws OutOfMemoryError once the direct memory limit is reached, like the delegate's allocations
+      chunk = ByteBuffer.allocateDirect((int) size);
+      allocated.incrementAndGet();
+      lastAllocationRecycled.set(Boolean.FALSE);
+    }
+    return new RecyclableAllocationManager(accountingAllocator, chunk, sizeClass);
+  }
+
+  @Override
+  public ArrowBuf empty() {
+    return delegate.empty();
+  }
+
+  /**
+   * Free the memory held in the free lists.
+   */
+  public void clear() {
+    for (int sizeClass = 0; sizeClass < freeLists.length; sizeClass++) {
+      ByteBuffer chunk;
+      while ((chunk = freeLists[sizeClass].pollFirst()) != null) {
+        pooledBytes.addAndGet(-sizeOf(sizeClass));
+        PlatformDependent.freeDirectBuffer(chunk);
+      }
+    }
+  }
+
+  public long getPooledBytes() {
+    return pooledBytes.get();
+  }
+
+  public long getRecycledCount() {
+    return recycled.get();
+  }
+
+  public long getAllocatedCount() {
+    return allocated.get();
+  }
+
+  /**
+   * @return fraction of the allocations of the recycled sizes that reused recycled memory, 0 if there was none
+   */
+  public double getHitRatio() {
+    final long hits = recycled.get();
+    final long total = hits + allocated.get();
+    return total == 0 ? 0 : (double) hits / total;
+  }
+
+  private static int sizeClass(long size) {
+    if (Long.bitCount(size) != 1) {
+      return -1;
+    }
+    final int log2 = Long.numberOfTrailingZeros(size);
+    if (log2 < MIN_SIZE_CLASS || log2 > MAX_SIZE_CLASS) {
+      return -1;
+    }
+    return log2 - MIN_SIZE_CLASS;
+  }
+
+  private static long sizeOf(int sizeClass) {
+    return 1L << (sizeClass + MIN_SIZE_CLASS);
+  }
+
+  private void recycle(ByteBuffer chunk, int sizeClass) {
+    final long size = sizeOf(sizeClass);
+    if (pooledBytes.addAndGet(size) <= maxPooledBytes) {
+      freeLists[sizeClass].offerFirst(chunk);
+      return;
+    }
+    pooledBytes.addAndGet(-size);
+    PlatformDependent.freeDirectBuffer(chunk);
+  }
+
+  /**
+   * Allocation manager over a chunk of memory that goes back to the free lists once released.
+   */
+  private final class RecyclableAllocationManager extends AllocationManager {
+    private final ByteBuffer chunk;
+    private final long address;
+    private final int sizeClass;
+
+    private RecyclableAllocationManager(BufferAllocator accountingAllocator, ByteBuffer chunk, int sizeClass) {
+      super(accountingAllocator);
+      this.chunk = chunk;
+      this.address = MemoryUtil.getByteBufferAddress(chunk);
+      this.sizeClass = sizeClass;
+    }
+
+    @Override
+    public long getSize() {
+      return chunk.capacity();
+    }
+
+    @Override
+    protected long memoryAddress() {
+      return address;
+    }
+
+    @Override
+    protected void release0() {
+      recycle(chunk, sizeClass);
+    }
+  }
+}
@@ -55,11 +55,17 @@ public class RootAllocatorFactory {
   public synchronized static BufferAllocator newRoot(final DremioConfig config) {
     return newRoot(config.getSabotConfig().getLong(TOP_LEVEL_MAX_ALLOC),
         config.getLong("debug.alloc.est_heap_buf_size_bytes"),
-        config.getInt("debug.alloc.max_occupancy_percent")
+        config.getInt("debug.alloc.max_occupancy_percent"),
+        config.getLong("debug.alloc.recycling_pool_bytes")
         );
   }
 
   private synchronized static DremioRootAllocator newRoot(long maxAllocBytes, long estBytesPerBuf, int maxOccupancyPercent) {
+    return newRoot(maxAllocBytes, estBytesPerBuf, maxOccupancyPercent, 0);
+  }
+
+  private synchronized static DremioRootAllocator newRoot(long maxAllocBytes, long estBytesPerBuf, int maxOccupancyPercent,
+                                                          long recyclingPoolBytes) {
     // DX-11065: the Netty 4.1 caching algorithm changes causes more objects to be cached, which in turn causes the
     // DirectMemoryArena(s) to contain a lot of PoolChunk objects that are mostly free, with just a few kilobytes locked
     // in the caches. These chunks then become unavailable to the other arenas, which causes execution to run out of
@@ -68,7 +74,7 @@ public class RootAllocatorFactory {
     try {
       System.setProperty(IO_NETTY_ALLOCATOR_USE_CACHE_FOR_ALL_THREADS_PROPERTY, "false");
       long maxBuffers = estBytesPerBuf > 0 ? (long) (VM.getMaxHeapMemory() * maxOccupancyPercent * 0.01d /estBytesPerBuf): Long.MAX_VALUE;
-      return DremioRootAllocator.create(Math.min(VM.getMaxDirectMemory(), maxAllocBytes), maxBuffers);
+      return DremioRootAllocator.create(Math.min(VM.getMaxDirectMemory(), maxAllocBytes), maxBuffers, recyclingPoolBytes);
     } finally {
       if (previousProperty == null) {
         System.getProperties().remove(IO_NETTY_ALLOCATOR_USE_CACHE_FOR_ALL_THREADS_PROPERTY);
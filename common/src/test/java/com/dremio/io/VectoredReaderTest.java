@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Tests for {@link VectoredReader}
+ */
+public class VectoredReaderTest {
+
+  /**
+   * Reader over an in memory file, recording the requests and completing them on demand.
+   */
+  private static final class TestReader implements AsyncByteReader {
+    private final byte[] data;
+    private final List<long[]> requests = new ArrayList<>();
+    private final List<CompletableFuture<Void>> pending = new ArrayList<>();
+    private final boolean completeImmediately;
+    private long failAt = -1;
+    private long inFlightBytes;
+    private long maxInFlightBytes;
+
+    private TestReader(int size, boolean completeImmediately) {
+      this.data = new byte[size];
+      for (int i = 0; i < size; i++) {
+        data[i] = (byte) i;
+      }
+      this.completeImmediately = completeImmediately;
+    }
+
+    @Override
+    public synchronized CompletableFuture<Void> readFully(long offset, ByteBuf dst, int dstOffset, int len) {
+      requests.add(new long[] {offset, len});
+      inFlightBytes += len;
+      maxInFlightBytes = Math.max(maxInFlightBytes, inFlightBytes);
+      final CompletableFuture<Void> future = new CompletableFuture<>();
+      final CompletableFuture<Void> read = new CompletableFuture<>();
+      read.thenRun(() -> {
+        synchronized (this) {
+          inFlightBytes -= len;
+        }
+        if (offset == failAt) {
+          future.completeExceptionally(new RuntimeException("read failed"));
+        } else {
+          dst.setBytes(dstOffset, data, (int) offset, len);
+          future.complete(null);
+        }
+      });
+      if (completeImmediately) {
+        read.complete(null);
+      } else {
+        pending.add(read);
+      }
+      return future;
+    }
+
+    private void completePending() {
+      while (true) {
+        final List<CompletableFuture<Void>> toComplete;
+        synchronized (this) {
+          if (pending.isEmpty()) {
+            return;
+          }
+          toComplete = new ArrayList<>(pending);
+          pending.clear();
+        }
+        toComplete.forEach(f -> f.complete(null));
+      }
+    }
+  }
+
+  private static void checkBuffer(ByteBuf buf, VectoredReader.Range range) {
+    assertEquals(range.getLength(), buf.readableBytes());
+    for (int i = 0; i < range.getLength(); i++) {
+      assertEquals((byte) (range.getOffset() + i), buf.getByte(i));
+    }
+  }
+
+  @Test
+  public void testMergeNearbyRanges() {
+    final TestReader reader = new TestReader(1000, true);
+    final List<VectoredReader.Range> ranges = Arrays.asList(
+      new VectoredReader.Range(500, 50),
+      new VectoredReader.Range(0, 100),
+      new VectoredReader.Range(110, 40),
+      new VectoredReader.Range(120, 10),
+      new VectoredReader.Range(900, 100));
+    final List<ByteBuf> buffers = reader.readRanges(ranges, Unpooled::buffer,
+      new VectoredReader.Options(20, 1000, 1000, 1000)).join();
+
+    // [0, 150) and [500, 550) and [900, 1000)
+    assertEquals(3, reader.requests.size());
+    assertEquals(ranges.size(), buffers.size());
+    for (int i = 0; i < ranges.size(); i++) {
+      checkBuffer(buffers.get(i), ranges.get(i));
+      buffers.get(i).release();
+    }
+  }
+
+  @Test
+  public void testMergedSizeLimit() {
+    final VectoredReader reader = new VectoredReader(new TestReader(1000, true),
+      new VectoredReader.Options(100, 200, 1000, 1000));
+    final List<VectoredReader.MergedRange> mergedRanges = reader.merge(Arrays.asList(
+      new VectoredReader.Range(0, 100),
+      new VectoredReader.Range(100, 100),
+      new VectoredReader.Range(200, 100)));
+    assertEquals(2, mergedRanges.size());
+    assertEquals(0, mergedRanges.get(0).getOffset());
+    assertEquals(200, mergedRanges.get(0).getLength());
+    assertEquals(200, mergedRanges.get(1).getOffset());
+    assertEquals(100, mergedRanges.get(1).getLength());
+  }
+
+  @Test
+  public void testSplitLargeRanges() {
+    final TestReader reader = new TestReader(1000, false);
+    final VectoredReader.Range range = new VectoredReader.Range(100, 850);
+    final CompletableFuture<List<ByteBuf>> future = reader.readRanges(Arrays.asList(range), Unpooled::buffer,
+      new VectoredReader.Options(0, 1000, 100, 1000));
+
+    // all sub-requests are issued before any completes
+    assertEquals(9, reader.requests.size());
+    reader.completePending();
+    final ByteBuf buffer = future.join().get(0);
+    checkBuffer(buffer, range);
+    buffer.release();
+  }
+
+  @Test
+  public void testInFlightBytesBound() {
+    final TestReader reader = new TestReader(1000, false);
+    final VectoredReader.Range range = new VectoredReader.Range(0, 1000);
+    final CompletableFuture<List<ByteBuf>> future = reader.readRanges(Arrays.asList(range), Unpooled::buffer,
+      new VectoredReader.Options(0, 1000, 100, 300));
+
+    assertEquals(3, reader.requests.size());
+    reader.completePending();
+    final ByteBuf buffer = future.join().get(0);
+    assertEquals(10, reader.requests.size());
+    assertTrue(reader.maxInFlightBytes <= 300);
+    checkBuffer(buffer, range);
+    buffer.release();
+  }
+
+  @Test
+  public void testFailedRead() {
+    final TestReader reader = new TestReader(1000, true);
+    reader.failAt = 200;
+    final List<ByteBuf> allocated = new ArrayList<>();
+    try {
+      reader.readRanges(Arrays.asList(new VectoredReader.Range(0, 1000)),
+        size -> {
+          final ByteBuf buf = Unpooled.buffer(size);
+          allocated.add(buf);
+          return buf;
+        },
+        new VectoredReader.Options(0, 1000, 100, 100)).join();
+      fail("Expect to throw exception");
+    } catch (CompletionException e) {
+      assertEquals("read failed", e.getCause().getMessage());
+    }
+    // reads stop at the first failure, and the buffers are released
+    assertEquals(3, reader.requests.size());
+    assertEquals(1, allocated.size());
+    assertEquals(0, allocated.get(0).refCnt());
+  }
+}
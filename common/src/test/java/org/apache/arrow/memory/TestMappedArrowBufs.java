@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.arrow.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link MappedArrowBufs}
+ */
+public class TestMappedArrowBufs {
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File newFile(int size) throws Exception {
+    final byte[] bytes = new byte[size];
+    for (int i = 0; i < size; i++) {
+      bytes[i] = (byte) i;
+    }
+    final File file = temporaryFolder.newFile();
+    Files.write(file.toPath(), bytes);
+    return file;
+  }
+
+  @Test
+  public void testMapRegion() throws Exception {
+    final File file = newFile(4096);
+    try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      try (ArrowBuf buf = MappedArrowBufs.map(allocator, channel, 1000, 100)) {
+        assertEquals(100, buf.capacity());
+        assertEquals(100, allocator.getAllocatedMemory());
+        for (int i = 0; i < 100; i++) {
+          assertEquals((byte) (1000 + i), buf.getByte(i));
+        }
+
+        // slices share the mapped region
+        try (ArrowBuf slice = buf.slice(10, 10)) {
+          slice.getReferenceManager().retain();
+          assertEquals((byte) 1010, slice.getByte(0));
+        }
+      }
+      assertEquals(0, allocator.getAllocatedMemory());
+    }
+  }
+
+  @Test
+  public void testAllocatorLimit() throws Exception {
+    final File file = newFile(4096);
+    try (BufferAllocator allocator = new RootAllocator(1024);
+         FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      try {
+        MappedArrowBufs.map(allocator, channel, 0, 2048).close();
+        fail("the mapped region should be accounted to the allocator");
+      } catch (OutOfMemoryException e) {
+        // expected
+      }
+      assertEquals(0, allocator.getAllocatedMemory());
+    }
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.arrow.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Unit test for the RecyclingAllocationManagerFactory
+ */
+public class TestRecyclingAllocationManagerFactory {
+  private static final long MB = 1024 * 1024;
+
+  private static RootAllocator newRoot(RecyclingAllocationManagerFactory factory) {
+    return new RootAllocator(BaseAllocator.configBuilder()
+      .maxAllocation(64 * MB)
+      .allocationManagerFactory(factory)
+      .build());
+  }
+
+  @Test
+  public void testReleasedMemoryIsReused() {
+    final RecyclingAllocationManagerFactory factory = new RecyclingAllocationManagerFactory(4 * MB);
+    try (RootAllocator root = newRoot(factory);
+         BufferAllocator child = root.newChildAllocator("child", 0, 8 * MB)) {
+      final ArrowBuf first = child.buffer(MB);
+      final long address = first.memoryAddress();
+      assertFalse(RecyclingAllocationManagerFactory.wasLastAllocationRecycled());
+      first.close();
+
+      // accounting is unchanged by recycling
+      assertEquals(0, child.getAllocatedMemory());
+      assertEquals(MB, factory.getPooledBytes());
+
+      try (ArrowBuf second = child.buffer(MB)) {
+        assertTrue(RecyclingAllocationManagerFactory.wasLastAllocationRecycled());
+        assertEquals(address, second.memoryAddress());
+        assertEquals(MB, child.getAllocatedMemory());
+        assertEquals(0, factory.getPooledBytes());
+      }
+      assertEquals(1, factory.getRecycledCount());
+      assertEquals(1, factory.getAllocatedCount());
+      assertEquals(0.5, factory.getHitRatio(), 0);
+    } finally {
+      factory.clear();
+    }
+    assertEquals(0, factory.getPooledBytes());
+  }
+
+  @Test
+  public void testPoolIsBounded() {
+    final RecyclingAllocationManagerFactory factory = new RecyclingAllocationManagerFactory(MB);
+    try (RootAllocator root = newRoot(factory)) {
+      final ArrowBuf first = root.buffer(MB);
+      final ArrowBuf second = root.buffer(MB);
+      first.close();
+      second.close();
+      assertEquals(MB, factory.getPooledBytes());
+
+      // sizes outside of the size classes are not pooled
+      root.buffer(1000).close();
+      root.buffer(64 * 1024 * 1024 / 2 + 1).close();
+      assertEquals(MB, factory.getPooledBytes());
+    } finally {
+      factory.clear();
+    }
+  }
+
+  @Test
+  public void testMemoryIsNotRecycledWhileTransferred() {
+    final RecyclingAllocationManagerFactory factory = new RecyclingAllocationManagerFactory(4 * MB);
+    try (RootAllocator root = newRoot(factory);
+         BufferAllocator source = root.newChildAllocator("source", 0, 8 * MB);
+         BufferAllocator target = root.newChildAllocator("target", 0, 8 * MB)) {
+      final ArrowBuf buf = source.buffer(MB);
+      final ArrowBuf transferred = buf.getReferenceManager().transferOwnership(buf, target).getTransferredBuffer();
+      buf.close();
+      assertEquals(0, factory.getPooledBytes());
+
+      transferred.close();
+      assertEquals(MB, factory.getPooledBytes());
+    } finally {
+      factory.clear();
+    }
+  }
+}
@@ -216,7 +216,7 @@ public class HomeFileSystemStoragePlugin extends FileSystemPlugin<HomeFileConf>
     final FileUpdateKey.Builder updateKey = FileUpdateKey.newBuilder();
     final FileAttributes rootAttributes = fs.getFileAttributes(Path.of(fileConfig.getLocation()));
     final Path combined = Path.of("/").resolve(PathUtils.removeLeadingSlash(fileConfig.getLocation()));
-    final FileSelection fileSelection = FileSelection.create(fs, combined);
+    final FileSelection fileSelection = FileSelection.create(fs, combined, FileDatasetHandle.getListingParallelism(getContext()));
 
     if (fileSelection == null) {
       return null;
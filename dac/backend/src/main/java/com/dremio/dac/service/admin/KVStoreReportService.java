@@ -203,7 +203,7 @@ public class KVStoreReportService implements Service {
             key.getSplitIdentifier(),
             value.getRowCount(),
             (value.getPartitionExtendedProperty() != null) ? value.getPartitionExtendedProperty().size() : 0,
-            (value.getDatasetSplit() != null) ? value.getDatasetSplit().getSerializedSize() : 0,
+            value.hasDatasetSplitData() ? value.getDatasetSplitData().size() : value.getDatasetSplit().getSerializedSize(),
             value.getSerializedSize(),
             value.getSplitKey(),
             value.getSplitCount()
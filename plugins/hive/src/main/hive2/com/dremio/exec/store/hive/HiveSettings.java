@@ -15,6 +15,8 @@
  */
 package com.dremio.exec.store.hive;
 
+import java.util.concurrent.TimeUnit;
+
 import com.dremio.options.OptionManager;
 import com.dremio.options.TypeValidators;
 
@@ -68,6 +70,13 @@ public final class HiveSettings {
     return options.getOption(HivePluginOptions.HIVE_MAX_INPUTSPLITS_PER_PARTITION_VALIDATOR);
   }
 
+  /**
+   * Time to live of the tables and partitions cached from the metastore, 0 if not cached.
+   */
+  public long getMetastoreCacheTtlMillis() {
+    return TimeUnit.SECONDS.toMillis(options.getOption(HivePluginOptions.HIVE_METASTORE_CACHE_TTL_SECONDS_VALIDATOR));
+  }
+
   /**
    * Option to use bytebuffers using direct memory while reading ORC files;
    */
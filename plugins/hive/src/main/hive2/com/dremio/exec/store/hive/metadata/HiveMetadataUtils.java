@@ -74,6 +74,7 @@ import org.apache.hadoop.mapred.JobConf;
 import org.apache.parquet.Strings;
 import org.slf4j.helpers.MessageFormatter;
 
+import com.dremio.common.concurrent.CloseableThreadPool;
 import com.dremio.common.exceptions.UserException;
 import com.dremio.common.util.DateTimes;
 import com.dremio.common.util.Closeable;
@@ -117,6 +118,11 @@ public class HiveMetadataUtils {
   private static final String EMPTY_STRING = "";
   private static final Long ONE = Long.valueOf(1l);
   private static final int INPUT_SPLIT_LENGTH_RUNNABLE_PARALLELISM = 16;
+  private static final int PARTITION_INPUTS_RUNNABLE_PARALLELISM = 16;
+  // listing the files of the partitions was not bounded when done one partition at a time
+  private static final long PARTITION_INPUTS_TIMEOUT_MILLIS = 30 * 60 * 1000L;
+  // threads listing the input splits of the partitions, shared by all the tables
+  private static final CloseableThreadPool PARTITION_INPUTS_EXECUTOR = new CloseableThreadPool("hive-partition-inputs-");
   private static final Joiner PARTITION_FIELD_SPLIT_KEY_JOINER = Joiner.on("__");
 
   public static class SchemaComponents {
@@ -814,98 +820,211 @@ public class HiveMetadataUtils {
                                                        int partitionId,
                                                        int maxInputSplitsPerPartition) {
     try (final Closeable ccls = HivePf4jPlugin.swapClassLoader()) {
-      final Table table = tableMetadata.getTable();
-      final Properties tableProperties = tableMetadata.getTableProperties();
-      final JobConf job = new JobConf(hiveConf);
-      final PartitionXattr partitionXattr;
+      final PartitionInputs partitionInputs = getPartitionInputs(storageImpersonationEnabled, tableMetadata, partition, hiveConf, partitionId);
+      return buildPartitionMetadata(enforceVarcharWidth, tableMetadata, metadataAccumulator, partition, partitionId,
+        maxInputSplitsPerPartition, partitionInputs);
+    }
+  }
 
-      List<InputSplit> inputSplits = Collections.emptyList();
-      HiveDatasetStats metastoreStats = null;
-      InputFormat<?, ?> format = null;
+  /**
+   * Reads the metadata of several partitions, listing the input splits of the partitions concurrently.
+   *
+   * @param firstPartitionId id of the first partition, the following partitions having the following ids
+   * @return the metadata of the partitions, in the same order
+   */
+  public static List<PartitionMetadata> getPartitionMetadata(final boolean storageImpersonationEnabled,
+                                                             final boolean enforceVarcharWidth,
+                                                             TableMetadata tableMetadata,
+                                                             MetadataAccumulator metadataAccumulator,
+                                                             List<Partition> partitions,
+                                                             HiveConf hiveConf,
+                                                             int firstPartitionId,
+                                                             int maxInputSplitsPerPartition) {
+    final List<TimedRunnable<PartitionInputs>> partitionInputsRunnables = new ArrayList<>(partitions.size());
+    for (int i = 0; i < partitions.size(); i++) {
+      partitionInputsRunnables.add(new PartitionInputsRunnable(storageImpersonationEnabled, tableMetadata,
+        partitions.get(i), hiveConf, firstPartitionId + i));
+    }
 
-      if (null == partition) {
-        partitionXattr = getPartitionXattr(table, fromProperties(tableMetadata.getTableProperties()));
+    final List<PartitionInputs> partitionInputs;
+    try {
+      partitionInputs = TimedRunnable.run(
+        MessageFormatter.format("Table '{}', Get input splits of partitions", tableMetadata.getTable().getTableName()).getMessage(),
+        logger,
+        partitionInputsRunnables,
+        PARTITION_INPUTS_EXECUTOR,
+        PARTITION_INPUTS_RUNNABLE_PARALLELISM,
+        PARTITION_INPUTS_TIMEOUT_MILLIS);
+    } catch (IOException e) {
+      throw UserException.dataReadError(e).message(e.getMessage()).build(logger);
+    }
 
-        final HiveStorageCapabilities tableStorageCapabilities = tableMetadata.getTableStorageCapabilities();
+    // the metadata accumulator is updated in the order of the partitions
+    try (final Closeable ccls = HivePf4jPlugin.swapClassLoader()) {
+      final List<PartitionMetadata> partitionMetadata = new ArrayList<>(partitions.size());
+      for (int i = 0; i < partitions.size(); i++) {
+        partitionMetadata.add(buildPartitionMetadata(enforceVarcharWidth, tableMetadata, metadataAccumulator, partitions.get(i),
+          firstPartitionId + i, maxInputSplitsPerPartition, partitionInputs.get(i)));
+      }
+      return partitionMetadata;
+    }
+  }
 
-        final Class<? extends InputFormat> inputFormatClazz = getInputFormatClass(job, table, null);
-        job.setInputFormat(inputFormatClazz);
-        format = job.getInputFormat();
+  /**
+   * Input format, input splits and file system update key of a partition, or of the table if not partitioned. Read
+   * without updating the metadata accumulator, so that partitions can be read concurrently.
+   */
+  private static final class PartitionInputs {
+    private final JobConf job;
+    private final Class<? extends InputFormat> inputFormatClazz;
+    private final InputFormat<?, ?> format;
+    private final Properties partitionProperties;
+    private final List<InputSplit> inputSplits;
+    private final boolean generateFileSystemUpdateKey;
+    private final HiveReaderProto.FileSystemPartitionUpdateKey updateKey;
+
+    private PartitionInputs(JobConf job, Class<? extends InputFormat> inputFormatClazz, InputFormat<?, ?> format,
+                            Properties partitionProperties, List<InputSplit> inputSplits,
+                            boolean generateFileSystemUpdateKey, HiveReaderProto.FileSystemPartitionUpdateKey updateKey) {
+      this.job = job;
+      this.inputFormatClazz = inputFormatClazz;
+      this.format = format;
+      this.partitionProperties = partitionProperties;
+      this.inputSplits = inputSplits;
+      this.generateFileSystemUpdateKey = generateFileSystemUpdateKey;
+      this.updateKey = updateKey;
+    }
+  }
 
-        final StorageDescriptor storageDescriptor = table.getSd();
-        if (inputPathExists(storageDescriptor, job)) {
-          configureJob(job, table, tableProperties, null, storageDescriptor);
-          inputSplits = getInputSplits(format, job);
-        }
+  private static PartitionInputs getPartitionInputs(final boolean storageImpersonationEnabled,
+                                                    TableMetadata tableMetadata,
+                                                    Partition partition,
+                                                    HiveConf hiveConf,
+                                                    int partitionId) {
+    final Table table = tableMetadata.getTable();
+    final Properties tableProperties = tableMetadata.getTableProperties();
+    final JobConf job = new JobConf(hiveConf);
+
+    final Properties partitionProperties = null == partition ? null : buildPartitionProperties(partition, table);
+    final HiveStorageCapabilities storageCapabilities = null == partition
+      ? tableMetadata.getTableStorageCapabilities()
+      : getHiveStorageCapabilities(partition.getSd());
+
+    final Class<? extends InputFormat> inputFormatClazz = getInputFormatClass(job, table, partition);
+    job.setInputFormat(inputFormatClazz);
+    final InputFormat<?, ?> format = job.getInputFormat();
+
+    List<InputSplit> inputSplits = Collections.emptyList();
+    final StorageDescriptor storageDescriptor = null == partition ? table.getSd() : partition.getSd();
+    if (inputPathExists(storageDescriptor, job)) {
+      configureJob(job, table, tableProperties, partitionProperties, storageDescriptor);
+      inputSplits = getInputSplits(format, job);
+    }
 
-        if (shouldGenerateFileSystemUpdateKeys(tableStorageCapabilities, format)) {
-          final boolean generateFSUKeysForDirectoriesOnly =
-            shouldGenerateFSUKeysForDirectoriesOnly(tableStorageCapabilities, storageImpersonationEnabled);
-          final HiveReaderProto.FileSystemPartitionUpdateKey updateKey =
-            getFSBasedUpdateKey(table.getSd().getLocation(), job, isRecursive(tableProperties), generateFSUKeysForDirectoriesOnly, 0);
-          if (updateKey != null) {
-            metadataAccumulator.accumulateFileSystemPartitionUpdateKey(updateKey);
-          } else {
-            metadataAccumulator.setNotAllFSBasedPartitions();
-          }
+    final boolean generateFileSystemUpdateKey = shouldGenerateFileSystemUpdateKeys(storageCapabilities, format);
+    HiveReaderProto.FileSystemPartitionUpdateKey updateKey = null;
+    if (generateFileSystemUpdateKey) {
+      final boolean generateFSUKeysForDirectoriesOnly =
+        shouldGenerateFSUKeysForDirectoriesOnly(storageCapabilities, storageImpersonationEnabled);
+      updateKey = null == partition
+        ? getFSBasedUpdateKey(table.getSd().getLocation(), job, isRecursive(tableProperties), generateFSUKeysForDirectoriesOnly, 0)
+        : getFSBasedUpdateKey(partition.getSd().getLocation(), job, isRecursive(partitionProperties), generateFSUKeysForDirectoriesOnly, partitionId);
+    }
+
+    return new PartitionInputs(job, inputFormatClazz, format, partitionProperties, inputSplits,
+      generateFileSystemUpdateKey, updateKey);
+  }
+
+  private static PartitionMetadata buildPartitionMetadata(final boolean enforceVarcharWidth,
+                                                          TableMetadata tableMetadata,
+                                                          MetadataAccumulator metadataAccumulator,
+                                                          Partition partition,
+                                                          int partitionId,
+                                                          int maxInputSplitsPerPartition,
+                                                          PartitionInputs partitionInputs) {
+    final Table table = tableMetadata.getTable();
+    final PartitionXattr partitionXattr;
+    final HiveDatasetStats metastoreStats;
+
+    if (null == partition) {
+      partitionXattr = getPartitionXattr(table, fromProperties(tableMetadata.getTableProperties()));
+
+      if (partitionInputs.generateFileSystemUpdateKey) {
+        if (partitionInputs.updateKey != null) {
+          metadataAccumulator.accumulateFileSystemPartitionUpdateKey(partitionInputs.updateKey);
+        } else {
+          metadataAccumulator.setNotAllFSBasedPartitions();
         }
+      }
 
-        metadataAccumulator.accumulateReaderType(inputFormatClazz);
-        metastoreStats = getStatsFromProps(tableProperties);
+      metadataAccumulator.accumulateReaderType(partitionInputs.inputFormatClazz);
+      metastoreStats = getStatsFromProps(tableMetadata.getTableProperties());
+    } else {
+      if (partitionInputs.generateFileSystemUpdateKey) {
+        if (partitionInputs.updateKey != null) {
+          metadataAccumulator.accumulateFileSystemPartitionUpdateKey(partitionInputs.updateKey);
+        }
       } else {
-        final Properties partitionProperties = buildPartitionProperties(partition, table);
-        final HiveStorageCapabilities partitionStorageCapabilities = getHiveStorageCapabilities(partition.getSd());
+        metadataAccumulator.setNotAllFSBasedPartitions();
+      }
 
-        final Class<? extends InputFormat> inputFormatClazz = getInputFormatClass(job, table, partition);
-        job.setInputFormat(inputFormatClazz);
-        format = job.getInputFormat();
+      metadataAccumulator.accumulateReaderType(partitionInputs.inputFormatClazz);
+      metadataAccumulator.accumulatePartitionHash(partition);
+      partitionXattr = metadataAccumulator.buildPartitionXattrDictionaries(partition, fromProperties(partitionInputs.partitionProperties));
 
-        final StorageDescriptor storageDescriptor = partition.getSd();
-        if (inputPathExists(storageDescriptor, job)) {
-          configureJob(job, table, tableProperties, partitionProperties, storageDescriptor);
-          inputSplits = getInputSplits(format, job);
-        }
+      metastoreStats = getStatsFromProps(partitionInputs.partitionProperties);
+    }
 
-        if (shouldGenerateFileSystemUpdateKeys(partitionStorageCapabilities, format)) {
-          final boolean generateFSUKeysForDirectoriesOnly =
-            shouldGenerateFSUKeysForDirectoriesOnly(partitionStorageCapabilities, storageImpersonationEnabled);
-          final HiveReaderProto.FileSystemPartitionUpdateKey updateKey =
-            getFSBasedUpdateKey(partition.getSd().getLocation(), job, isRecursive(partitionProperties), generateFSUKeysForDirectoriesOnly, partitionId);
-          if (updateKey != null) {
-            metadataAccumulator.accumulateFileSystemPartitionUpdateKey(updateKey);
-          }
-        } else {
-          metadataAccumulator.setNotAllFSBasedPartitions();
-        }
+    List<PartitionValue> partitionValues = getPartitionValues(table, partition, enforceVarcharWidth);
+
+    return PartitionMetadata.newBuilder()
+      .partitionId(partitionId)
+      .partition(partition)
+      .partitionValues(partitionValues)
+      .inputSplitBatchIterator(
+        InputSplitBatchIterator.newBuilder()
+          .tableMetadata(tableMetadata)
+          .partition(partition)
+          .inputSplits(partitionInputs.inputSplits)
+          .maxInputSplitsPerPartition(maxInputSplitsPerPartition)
+          .build())
+      .datasetSplitBuildConf(
+        DatasetSplitBuildConf.newBuilder()
+          .job(partitionInputs.job)
+          .metastoreStats(metastoreStats)
+          .format(partitionInputs.format)
+          .build())
+      .partitionXattr(partitionXattr)
+      .build();
+  }
 
-        metadataAccumulator.accumulateReaderType(inputFormatClazz);
-        metadataAccumulator.accumulatePartitionHash(partition);
-        partitionXattr = metadataAccumulator.buildPartitionXattrDictionaries(partition, fromProperties(partitionProperties));
+  private static class PartitionInputsRunnable extends TimedRunnable<PartitionInputs> {
+    private final boolean storageImpersonationEnabled;
+    private final TableMetadata tableMetadata;
+    private final Partition partition;
+    private final HiveConf hiveConf;
+    private final int partitionId;
+
+    PartitionInputsRunnable(final boolean storageImpersonationEnabled, final TableMetadata tableMetadata,
+                            final Partition partition, final HiveConf hiveConf, final int partitionId) {
+      this.storageImpersonationEnabled = storageImpersonationEnabled;
+      this.tableMetadata = tableMetadata;
+      this.partition = partition;
+      this.hiveConf = hiveConf;
+      this.partitionId = partitionId;
+    }
 
-        metastoreStats = getStatsFromProps(partitionProperties);
+    @Override
+    protected PartitionInputs runInner() throws Exception {
+      try (final Closeable ccls = HivePf4jPlugin.swapClassLoader()) {
+        return getPartitionInputs(storageImpersonationEnabled, tableMetadata, partition, hiveConf, partitionId);
       }
+    }
 
-      List<PartitionValue> partitionValues = getPartitionValues(table, partition, enforceVarcharWidth);
-
-      return PartitionMetadata.newBuilder()
-        .partitionId(partitionId)
-        .partition(partition)
-        .partitionValues(partitionValues)
-        .inputSplitBatchIterator(
-          InputSplitBatchIterator.newBuilder()
-            .tableMetadata(tableMetadata)
-            .partition(partition)
-            .inputSplits(inputSplits)
-            .maxInputSplitsPerPartition(maxInputSplitsPerPartition)
-            .build())
-        .datasetSplitBuildConf(
-          DatasetSplitBuildConf.newBuilder()
-            .job(job)
-            .metastoreStats(metastoreStats)
-            .format(format)
-            .build())
-        .partitionXattr(partitionXattr)
-        .build();
+    @Override
+    protected IOException convertToIOException(Exception e) {
+      return new IOException("Failure while trying to get input splits for table " + tableMetadata.getTable().getTableName()
+        + ", partition " + getPartitionValueLogString(partition), e);
     }
   }
 
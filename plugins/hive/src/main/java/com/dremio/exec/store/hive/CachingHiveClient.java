@@ -0,0 +1,279 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.hive;
+
+import static org.apache.hadoop.hive.metastore.api.hive_metastoreConstants.DDL_TIME;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.apache.hadoop.hive.metastore.Warehouse;
+import org.apache.hadoop.hive.metastore.api.Partition;
+import org.apache.hadoop.hive.metastore.api.Table;
+
+import com.dremio.hive.thrift.TException;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * {@link HiveClient} caching the tables and the partitions read from the metastore.
+ *
+ * Entries are shared by the clients of the plugins reading the same metastore as the same user, and are used for at
+ * most the time to live returned by the given supplier, a time to live of 0 disabling the cache. Partitions are also
+ * only used for the version of their table they were read with, the version of a table being its creation and last
+ * DDL times.
+ *
+ * Metadata refreshes check whether a table changed, then read the table and all of its partitions again, so that the
+ * metastore is read once per refresh.
+ */
+public class CachingHiveClient implements HiveClient {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(CachingHiveClient.class);
+
+  private static final long MAX_CACHED_TABLES = 10_000;
+  private static final long MAX_CACHED_PARTITIONS = 1_000_000;
+  // upper bound of the time to live of the entries
+  private static final long EXPIRE_AFTER_WRITE_HOURS = 24;
+
+  private static final Cache<TableKey, Entry<Table>> TABLES = CacheBuilder.newBuilder()
+    .maximumSize(MAX_CACHED_TABLES)
+    .expireAfterWrite(EXPIRE_AFTER_WRITE_HOURS, TimeUnit.HOURS)
+    .softValues()
+    .build();
+
+  private static final Cache<PartitionKey, Entry<Partition>> PARTITIONS = CacheBuilder.newBuilder()
+    .maximumSize(MAX_CACHED_PARTITIONS)
+    .expireAfterWrite(EXPIRE_AFTER_WRITE_HOURS, TimeUnit.HOURS)
+    .softValues()
+    .build();
+
+  private final HiveClient delegate;
+  private final String metastoreId;
+  private final LongSupplier ttlMillis;
+  private final Ticker ticker;
+
+  /**
+   * @param metastoreId identifier of the metastore read by the client, and of the user the client reads it as
+   * @param ttlMillis time to live of the cached tables and partitions, in milliseconds
+   */
+  public CachingHiveClient(HiveClient delegate, String metastoreId, LongSupplier ttlMillis) {
+    this(delegate, metastoreId, ttlMillis, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  CachingHiveClient(HiveClient delegate, String metastoreId, LongSupplier ttlMillis, Ticker ticker) {
+    this.delegate = delegate;
+    this.metastoreId = metastoreId;
+    this.ttlMillis = ttlMillis;
+    this.ticker = ticker;
+  }
+
+  @Override
+  public List<String> getDatabases(boolean ignoreAuthzErrors) throws TException {
+    return delegate.getDatabases(ignoreAuthzErrors);
+  }
+
+  @Override
+  public boolean databaseExists(String dbName) {
+    return delegate.databaseExists(dbName);
+  }
+
+  @Override
+  public List<String> getTableNames(String dbName, boolean ignoreAuthzErrors) throws TException {
+    return delegate.getTableNames(dbName, ignoreAuthzErrors);
+  }
+
+  @Override
+  public boolean tableExists(String dbName, String tableName) throws TException {
+    return delegate.tableExists(dbName, tableName);
+  }
+
+  @Override
+  public Table getTable(String dbName, String tableName, boolean ignoreAuthzErrors) throws TException {
+    final long ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis.getAsLong());
+    if (ttlNanos <= 0) {
+      return delegate.getTable(dbName, tableName, ignoreAuthzErrors);
+    }
+
+    final TableKey key = new TableKey(metastoreId, dbName, tableName);
+    final Entry<Table> cached = TABLES.getIfPresent(key);
+    if (cached != null && cached.isValid(ticker.read(), ttlNanos, null)) {
+      return new Table(cached.value);
+    }
+
+    final long readTime = ticker.read();
+    final Table table = delegate.getTable(dbName, tableName, ignoreAuthzErrors);
+    if (table != null) {
+      TABLES.put(key, new Entry<>(new Table(table), readTime, getVersion(table)));
+    } else {
+      TABLES.invalidate(key);
+    }
+    return table;
+  }
+
+  /**
+   * Partitions are returned in the order of the names, and only read from the metastore if not cached for the current
+   * version of the table.
+   */
+  @Override
+  public List<Partition> getPartitionsByName(String dbName, String tableName, List<String> partitionNames) throws TException {
+    final long ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis.getAsLong());
+    if (ttlNanos <= 0) {
+      return delegate.getPartitionsByName(dbName, tableName, partitionNames);
+    }
+
+    final Table table = getTable(dbName, tableName, true);
+    if (table == null) {
+      return delegate.getPartitionsByName(dbName, tableName, partitionNames);
+    }
+    final String version = getVersion(table);
+
+    final long now = ticker.read();
+    final Map<String, Partition> partitionsByName = new HashMap<>();
+    final List<String> missingNames = new ArrayList<>();
+    for (String partitionName : partitionNames) {
+      final Entry<Partition> cached = PARTITIONS.getIfPresent(new PartitionKey(metastoreId, dbName, tableName, partitionName));
+      if (cached != null && cached.isValid(now, ttlNanos, version)) {
+        partitionsByName.put(partitionName, new Partition(cached.value));
+      } else {
+        missingNames.add(partitionName);
+      }
+    }
+
+    if (!missingNames.isEmpty()) {
+      final long readTime = ticker.read();
+      for (Partition partition : delegate.getPartitionsByName(dbName, tableName, missingNames)) {
+        final String partitionName = Warehouse.makePartName(table.getPartitionKeys(), partition.getValues());
+        PARTITIONS.put(new PartitionKey(metastoreId, dbName, tableName, partitionName),
+          new Entry<>(new Partition(partition), readTime, version));
+        partitionsByName.put(partitionName, partition);
+      }
+    }
+
+    logger.debug("Database '{}', table '{}', {} of {} partitions read from the metastore.",
+      dbName, tableName, missingNames.size(), partitionNames.size());
+
+    // partitions dropped since the names were listed are skipped
+    final List<Partition> partitions = new ArrayList<>(partitionNames.size());
+    for (String partitionName : partitionNames) {
+      final Partition partition = partitionsByName.get(partitionName);
+      if (partition != null) {
+        partitions.add(partition);
+      }
+    }
+    return partitions;
+  }
+
+  @Override
+  public List<String> getPartitionNames(String dbName, String tableName) throws TException {
+    return delegate.getPartitionNames(dbName, tableName);
+  }
+
+  @Override
+  public String getDelegationToken(String proxyUser) throws TException {
+    return delegate.getDelegationToken(proxyUser);
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+  }
+
+  @VisibleForTesting
+  static void invalidateAll() {
+    TABLES.invalidateAll();
+    PARTITIONS.invalidateAll();
+  }
+
+  private static String getVersion(Table table) {
+    final String ddlTime = table.getParameters() != null ? table.getParameters().get(DDL_TIME) : null;
+    return table.getCreateTime() + ":" + ddlTime;
+  }
+
+  /**
+   * Cached copy of a metastore object.
+   */
+  private static final class Entry<T> {
+    private final T value;
+    private final long readTimeNanos;
+    private final String tableVersion;
+
+    private Entry(T value, long readTimeNanos, String tableVersion) {
+      this.value = value;
+      this.readTimeNanos = readTimeNanos;
+      this.tableVersion = tableVersion;
+    }
+
+    private boolean isValid(long nowNanos, long ttlNanos, String expectedTableVersion) {
+      return nowNanos - readTimeNanos < ttlNanos
+        && (expectedTableVersion == null || expectedTableVersion.equals(tableVersion));
+    }
+  }
+
+  private static class TableKey {
+    private final String metastoreId;
+    private final String dbName;
+    private final String tableName;
+
+    private TableKey(String metastoreId, String dbName, String tableName) {
+      this.metastoreId = metastoreId;
+      this.dbName = dbName;
+      this.tableName = tableName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final TableKey key = (TableKey) o;
+      return metastoreId.equals(key.metastoreId) && dbName.equals(key.dbName) && tableName.equals(key.tableName);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(metastoreId, dbName, tableName);
+    }
+  }
+
+  private static final class PartitionKey extends TableKey {
+    private final String partitionName;
+
+    private PartitionKey(String metastoreId, String dbName, String tableName, String partitionName) {
+      super(metastoreId, dbName, tableName);
+      this.partitionName = partitionName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return super.equals(o) && partitionName.equals(((PartitionKey) o).partitionName);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * super.hashCode() + partitionName.hashCode();
+    }
+  }
+}
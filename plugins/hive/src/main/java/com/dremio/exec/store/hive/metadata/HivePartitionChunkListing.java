@@ -15,10 +15,13 @@
  */
 package com.dremio.exec.store.hive.metadata;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Queue;
 
 import org.apache.hadoop.hive.conf.HiveConf;
 import org.apache.hadoop.hive.metastore.api.Partition;
@@ -49,10 +52,15 @@ import com.google.common.collect.AbstractIterator;
  * a batch of associated {@link org.apache.hadoop.mapred.InputSplit} objects.
  * - {@link InputSplitBatchIterator} is used to manage a list of
  * {@link org.apache.hadoop.mapred.InputSplit} objects as batches.
+ * - The {@link org.apache.hadoop.mapred.InputSplit} objects of the next partitions are listed
+ * concurrently, a batch of partitions at a time.
  */
 public class HivePartitionChunkListing implements PartitionChunkListing {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(HivePartitionChunkListing.class);
 
+  // number of partitions whose input splits are listed concurrently
+  private static final int PARTITION_METADATA_BATCH_SIZE = 64;
+
   private final boolean storageImpersonationEnabled;
   private final boolean enforceVarcharWidth;
   private final PartitionIterator partitions;
@@ -65,6 +73,8 @@ public class HivePartitionChunkListing implements PartitionChunkListing {
 
   protected int currentPartitionIndex = -1;
   private PartitionMetadata currentPartitionMetadata;
+  // partitions read ahead of the current partition
+  private final Queue<PartitionMetadata> pendingPartitionMetadata = new ArrayDeque<>();
 
   private HivePartitionChunkListing(final boolean storageImpersonationEnabled, final boolean enforceVarcharWidth, final TableMetadata tableMetadata,
                                     final HiveConf hiveConf, final StatsEstimationParameters statsParams, PartitionIterator partitions,
@@ -81,26 +91,21 @@ public class HivePartitionChunkListing implements PartitionChunkListing {
 
     // Prime the iterator
 
-    Partition partition = null;
-    currentPartitionIndex++;
-
     if (null == partitions) {
+      currentPartitionIndex++;
       if (logger.isDebugEnabled()) {
         logger.debug("Table '{}', 1 partition exists.",
           tableMetadata.getTable().getTableName());
       }
-      // Do nothing.
 
+      // Read Hive table metadata.
+      currentPartitionMetadata = HiveMetadataUtils.getPartitionMetadata(
+        storageImpersonationEnabled, enforceVarcharWidth, tableMetadata, metadataAccumulator, (Partition) null,
+        hiveConf, currentPartitionIndex, maxInputSplitsPerPartition);
     } else if (partitions.hasNext()) {
-      partition = partitions.next();
-
-      if (logger.isDebugEnabled()) {
-        logger.debug("Table '{}', advance to the next partition, '{}', partition chunk index: {}",
-          tableMetadata.getTable().getTableName(),
-          HiveMetadataUtils.getPartitionValueLogString(partition),
-          currentPartitionIndex);
-      }
+      currentPartitionMetadata = nextPartitionMetadata();
     } else {
+      currentPartitionIndex++;
       // the table is partitioned, but no partitions exist.
       currentPartitionMetadata = PartitionMetadata.newBuilder().partition(null)
         .partitionId(currentPartitionIndex)
@@ -114,13 +119,36 @@ public class HivePartitionChunkListing implements PartitionChunkListing {
             .maxInputSplitsPerPartition(maxInputSplitsPerPartition)
             .build())
         .build();
-      return;
     }
+  }
 
-    // Read Hive partition metadata.
-    currentPartitionMetadata = HiveMetadataUtils.getPartitionMetadata(
-      storageImpersonationEnabled, enforceVarcharWidth, tableMetadata, metadataAccumulator, partition,
-      hiveConf, currentPartitionIndex, maxInputSplitsPerPartition);
+  /**
+   * Advances to the next partition. Partitions are read {@link #PARTITION_METADATA_BATCH_SIZE} at a time, their input
+   * splits being listed concurrently.
+   */
+  private PartitionMetadata nextPartitionMetadata() {
+    if (pendingPartitionMetadata.isEmpty()) {
+      final List<Partition> partitionBatch = new ArrayList<>(PARTITION_METADATA_BATCH_SIZE);
+      while (partitions.hasNext() && partitionBatch.size() < PARTITION_METADATA_BATCH_SIZE) {
+        partitionBatch.add(partitions.next());
+      }
+
+      // Read Hive partition metadata.
+      pendingPartitionMetadata.addAll(HiveMetadataUtils.getPartitionMetadata(
+        storageImpersonationEnabled, enforceVarcharWidth, tableMetadata, metadataAccumulator, partitionBatch,
+        hiveConf, currentPartitionIndex + 1, maxInputSplitsPerPartition));
+    }
+
+    final PartitionMetadata partitionMetadata = pendingPartitionMetadata.poll();
+    currentPartitionIndex++;
+
+    if (logger.isDebugEnabled()) {
+      logger.debug("Table '{}', advance to the next partition, '{}', partition chunk index: {}",
+        tableMetadata.getTable().getTableName(),
+        HiveMetadataUtils.getPartitionValueLogString(partitionMetadata.getPartition()),
+        currentPartitionIndex);
+    }
+    return partitionMetadata;
   }
 
   private class HivePartitionChunkIterator extends AbstractIterator<PartitionChunk> {
@@ -130,18 +158,8 @@ public class HivePartitionChunkListing implements PartitionChunkListing {
         do {
           // Check if current hive partition does not have remaining splits.
           if (!currentPartitionMetadata.getInputSplitBatchIterator().hasNext()) {
-            final Partition partition;
-
-            if (null != partitions && partitions.hasNext()) {
-              partition = partitions.next();
-              currentPartitionIndex++;
-
-              if (logger.isDebugEnabled()) {
-                logger.debug("Table '{}', advance to the next partition, '{}', partition chunk index {}",
-                  tableMetadata.getTable().getTableName(),
-                  HiveMetadataUtils.getPartitionValueLogString(partition),
-                  currentPartitionIndex);
-              }
+            if (null != partitions && (!pendingPartitionMetadata.isEmpty() || partitions.hasNext())) {
+              currentPartitionMetadata = nextPartitionMetadata();
             } else {
               if (logger.isDebugEnabled()) {
                 logger.debug("Table '{}', no more partitions exist.",
@@ -149,11 +167,6 @@ public class HivePartitionChunkListing implements PartitionChunkListing {
               }
               return endOfData();
             }
-
-            // Read Hive partition metadata.
-            currentPartitionMetadata = HiveMetadataUtils.getPartitionMetadata(
-              storageImpersonationEnabled, enforceVarcharWidth, tableMetadata, metadataAccumulator, partition,
-              hiveConf, currentPartitionIndex, maxInputSplitsPerPartition);
           }
           // Current partition may have no splits. Advance to the next partition.
         } while (!currentPartitionMetadata.getInputSplitBatchIterator().hasNext());
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.hive;
+
+import static org.apache.hadoop.hive.metastore.api.hive_metastoreConstants.DDL_TIME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.hadoop.hive.metastore.api.FieldSchema;
+import org.apache.hadoop.hive.metastore.api.Partition;
+import org.apache.hadoop.hive.metastore.api.Table;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.hive.thrift.TException;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for {@link CachingHiveClient}
+ */
+public class TestCachingHiveClient {
+  private static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+  private final HiveClient delegate = mock(HiveClient.class);
+  private long nanos = 0;
+  private final Ticker ticker = new Ticker() {
+    @Override
+    public long read() {
+      return nanos;
+    }
+  };
+  private final CachingHiveClient client = new CachingHiveClient(delegate, "metastore", () -> TTL_MILLIS, ticker);
+
+  @Before
+  public void setup() throws Exception {
+    CachingHiveClient.invalidateAll();
+    when(delegate.getTable("db", "t", true)).thenReturn(newTable("1"));
+    when(delegate.getPartitionsByName(eq("db"), eq("t"), anyList())).thenAnswer(invocation -> {
+      @SuppressWarnings("unchecked")
+      final List<String> names = (List<String>) invocation.getArguments()[2];
+      return names.stream()
+        .map(name -> newPartition(name.substring("year=".length())))
+        .collect(Collectors.toList());
+    });
+  }
+
+  @After
+  public void cleanup() {
+    CachingHiveClient.invalidateAll();
+  }
+
+  private static Table newTable(String ddlTime) {
+    final Table table = new Table();
+    table.setDbName("db");
+    table.setTableName("t");
+    table.setCreateTime(1);
+    table.setParameters(new HashMap<>());
+    table.getParameters().put(DDL_TIME, ddlTime);
+    table.setPartitionKeys(ImmutableList.of(new FieldSchema("year", "int", null)));
+    return table;
+  }
+
+  private static Partition newPartition(String year) {
+    final Partition partition = new Partition();
+    partition.setValues(ImmutableList.of(year));
+    return partition;
+  }
+
+  private static List<String> values(List<Partition> partitions) {
+    return partitions.stream().map(partition -> partition.getValues().get(0)).collect(Collectors.toList());
+  }
+
+  @Test
+  public void testPartitionsReadOnce() throws Exception {
+    assertEquals(ImmutableList.of("2019", "2020"),
+      values(client.getPartitionsByName("db", "t", ImmutableList.of("year=2019", "year=2020"))));
+    assertEquals(ImmutableList.of("2020", "2021"),
+      values(client.getPartitionsByName("db", "t", ImmutableList.of("year=2020", "year=2021"))));
+
+    verify(delegate, times(1)).getTable(eq("db"), eq("t"), anyBoolean());
+    verify(delegate).getPartitionsByName("db", "t", ImmutableList.of("year=2019", "year=2020"));
+    verify(delegate).getPartitionsByName("db", "t", ImmutableList.of("year=2021"));
+  }
+
+  @Test
+  public void testExpiredEntries() throws Exception {
+    client.getPartitionsByName("db", "t", ImmutableList.of("year=2019"));
+    nanos += TimeUnit.MILLISECONDS.toNanos(TTL_MILLIS);
+    client.getPartitionsByName("db", "t", ImmutableList.of("year=2019"));
+
+    verify(delegate, times(2)).getTable(eq("db"), eq("t"), anyBoolean());
+    verify(delegate, times(2)).getPartitionsByName("db", "t", ImmutableList.of("year=2019"));
+  }
+
+  @Test
+  public void testNewTableVersion() throws Exception {
+    client.getTable("db", "t", true);
+    nanos += TimeUnit.MILLISECONDS.toNanos(TTL_MILLIS) / 2;
+    client.getPartitionsByName("db", "t", ImmutableList.of("year=2019"));
+
+    // the table was altered, partitions read with the previous version are not used even if not expired
+    when(delegate.getTable("db", "t", true)).thenReturn(newTable("2"));
+    nanos += TimeUnit.MILLISECONDS.toNanos(TTL_MILLIS) / 2 + 1;
+    client.getPartitionsByName("db", "t", ImmutableList.of("year=2019"));
+
+    verify(delegate, times(2)).getTable(eq("db"), eq("t"), anyBoolean());
+    verify(delegate, times(2)).getPartitionsByName("db", "t", ImmutableList.of("year=2019"));
+  }
+
+  @Test
+  public void testDisabled() throws Exception {
+    final CachingHiveClient disabledClient = new CachingHiveClient(delegate, "metastore", () -> 0L, ticker);
+    disabledClient.getTable("db", "t", true);
+    disabledClient.getTable("db", "t", true);
+
+    verify(delegate, times(2)).getTable("db", "t", true);
+  }
+
+  @Test
+  public void testNotSharedAcrossUsers() throws Exception {
+    // the same metastore read as another process user, who may not have access to the cached tables
+    final HiveClient otherDelegate = mock(HiveClient.class);
+    when(otherDelegate.getTable("db", "t", false)).thenThrow(new TException("no access"));
+    final CachingHiveClient otherClient = new CachingHiveClient(otherDelegate, "metastore|other", () -> TTL_MILLIS, ticker);
+
+    when(delegate.getTable("db", "t", false)).thenReturn(newTable("1"));
+    client.getTable("db", "t", false);
+    try {
+      otherClient.getTable("db", "t", false);
+      fail();
+    } catch (TException e) {
+      verify(otherDelegate).getTable("db", "t", false);
+    }
+  }
+}
@@ -56,6 +56,14 @@ public interface Hive3PluginOptions {
   RangeLongValidator HIVE_MAX_INPUTSPLITS_PER_PARTITION_VALIDATOR =
     new RangeLongValidator(HIVE_MAX_INPUTSPLITS_PER_PARTITION_KEY, 1, Integer.MAX_VALUE, 500);
 
+  /**
+   * Time to live of the tables and partitions cached from the metastore, shared by the sources reading the same
+   * metastore. 0 disables the cache.
+   */
+  String HIVE_METASTORE_CACHE_TTL_SECONDS_KEY = "store.hive3.metastore_cache_ttl_seconds";
+  RangeLongValidator HIVE_METASTORE_CACHE_TTL_SECONDS_VALIDATOR =
+    new RangeLongValidator(HIVE_METASTORE_CACHE_TTL_SECONDS_KEY, 0, 24 * 60 * 60, 60);
+
   /**
    * Options for tuning the number of bytes to reserve and limit in Hive Scans.
    */
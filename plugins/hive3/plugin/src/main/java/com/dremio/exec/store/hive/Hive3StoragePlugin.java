@@ -861,7 +861,9 @@ public class Hive3StoragePlugin extends BaseHiveStoragePlugin implements Storage
             hiveConf.getVar(ConfVars.METASTORE_KERBEROS_PRINCIPAL));
         }
 
-        processUserMetastoreClient = createConnectedClient();
+        // tables and partitions are cached for the metadata refreshes, read with the process user
+        processUserMetastoreClient = new CachingHiveClient(createConnectedClient(), getMetastoreId(hiveConf),
+          hiveSettings::getMetastoreCacheTtlMillis);
       } catch (MetaException e) {
         throw Throwables.propagate(e);
       }
@@ -904,6 +906,15 @@ public class Hive3StoragePlugin extends BaseHiveStoragePlugin implements Storage
     }
   }
 
+  /**
+   * @return identifier of the metastore and of the process user reading it, shared by the sources reading the same
+   * metastore as the same user: the tables and partitions cached are the ones the user has access to
+   */
+  private static String getMetastoreId(HiveConf hiveConf) {
+    return hiveConf.getVar(ConfVars.METASTOREURIS) + '|' + hiveConf.getVar(ConfVars.METASTORECONNECTURLKEY)
+      + '|' + HiveImpersonationUtil.getProcessUserName();
+  }
+
   /**
    * Set up the current user in {@link UserGroupInformation} using the kerberos principal and keytab file path if
    * present in config. If not present, this method call is a no-op. When communicating with the kerberos enabled
@@ -141,6 +141,9 @@ public interface ExecConstants {
   BooleanValidator ENABLE_VECTORIZED_HASHJOIN_SPECIFIC = new BooleanValidator("exec.operator.join.vectorize.specific", false);
   BooleanValidator ENABLE_VECTORIZED_COPIER = new BooleanValidator("exec.operator.copier.vectorize", true);
   BooleanValidator ENABLE_VECTORIZED_PARTITIONER = new BooleanValidator("exec.operator.partitioner.vectorize", true);
+  // spread the rows of hot keys across receivers, when the exchange allows it
+  BooleanValidator ENABLE_PARTITIONER_HOT_KEY_SPREADING = new BooleanValidator("exec.operator.partitioner.spread_hot_keys", true);
+  PositiveLongValidator PARTITIONER_HOT_KEY_SAMPLE_STRIDE = new PositiveLongValidator("exec.operator.partitioner.hot_key_sample_stride", 1024, 16);
   BooleanValidator DEBUG_HASHJOIN_INSERTION = new BooleanValidator("exec.operator.join.debug-insertion", false);
 
   String OUTPUT_FORMAT_OPTION = "store.format";
@@ -179,6 +182,10 @@ public interface ExecConstants {
   String EXCEL_MAX_FILE_SIZE = "store.excel.max_file_size";
   LongValidator EXCEL_MAX_FILE_SIZE_VALIDATOR = new LongValidator(EXCEL_MAX_FILE_SIZE, 10*1024*1024);
 
+  // Copy XLSX workbooks to a local spill directory before reading them, so that their parts are inflated while
+  // streaming rather than held on heap
+  BooleanValidator EXCEL_XLSX_LOCAL_COPY = new BooleanValidator("store.excel.xlsx.local_copy", true);
+
   String PARQUET_WRITER_ENABLE_DICTIONARY_ENCODING_BINARY_TYPE = "store.parquet.enable_dictionary_encoding_binary_type";
   BooleanValidator PARQUET_WRITER_ENABLE_DICTIONARY_ENCODING_BINARY_TYPE_VALIDATOR = new BooleanValidator(
     PARQUET_WRITER_ENABLE_DICTIONARY_ENCODING_BINARY_TYPE, false);
@@ -187,6 +194,18 @@ public interface ExecConstants {
 
   LongValidator PARQUET_MIN_RECORDS_FOR_FLUSH_VALIDATOR = new LongValidator("store.parquet.min_records_for_flush", 25000);
 
+  // write flat batches a column at a time, straight from the vector buffers
+  String PARQUET_WRITER_COLUMNAR = "store.parquet.writer.columnar";
+  BooleanValidator PARQUET_WRITER_COLUMNAR_VALIDATOR = new BooleanValidator(PARQUET_WRITER_COLUMNAR, true);
+
+  // comma separated names of top level columns to write split block bloom filters for, e.g. point lookup keys
+  String PARQUET_WRITER_BLOOM_FILTER_COLUMNS = "store.parquet.writer.bloom_filter_columns";
+  StringValidator PARQUET_WRITER_BLOOM_FILTER_COLUMNS_VALIDATOR = new StringValidator(PARQUET_WRITER_BLOOM_FILTER_COLUMNS, "");
+
+  // skip row groups whose bloom filters rule out the equality conditions and runtime value lists of the scan
+  String PARQUET_READER_BLOOM_FILTER_PRUNING = "store.parquet.reader.bloom_filter_pruning";
+  BooleanValidator PARQUET_READER_BLOOM_FILTER_PRUNING_VALIDATOR = new BooleanValidator(PARQUET_READER_BLOOM_FILTER_PRUNING, true);
+
   String PARQUET_NEW_RECORD_READER = "store.parquet.use_new_reader";
   BooleanValidator PARQUET_RECORD_READER_IMPLEMENTATION_VALIDATOR = new BooleanValidator(PARQUET_NEW_RECORD_READER, false);
 
@@ -208,6 +227,8 @@ public interface ExecConstants {
 
   DoubleValidator TEXT_ESTIMATED_ROW_SIZE = new RangeDoubleValidator(
       "store.text.estimated_row_size_bytes", 1, Long.MAX_VALUE, 10.0);
+  // scan text input a word at a time and copy field values at once, instead of a byte at a time
+  BooleanValidator TEXT_READER_BULK_COPY = new BooleanValidator("store.text.reader.bulk_copy", true);
 
   /**
    * The column label (for directory levels) in results when querying files in a directory
@@ -388,6 +409,13 @@ public interface ExecConstants {
   BooleanValidator PARQUET_MULTI_STREAM_SIZE_LIMIT_ENABLE = new BooleanValidator("store.parquet.multi_stream_limit.enable", true);
   LongValidator PARQUET_FULL_FILE_READ_THRESHOLD = new RangeLongValidator("store.parquet.full_file_read.threshold", 0, Integer.MAX_VALUE, 0);
   DoubleValidator PARQUET_FULL_FILE_READ_COLUMN_RATIO = new RangeDoubleValidator("store.parquet.full_file_read.column_ratio", 0.0, 1.0, 0.25);
+  // fetch the column chunks of a row group with merged and split parallel requests on file systems with async reads
+  BooleanValidator PARQUET_VECTORED_READ_ENABLE = new BooleanValidator("store.parquet.vectored_read.enable", true);
+  LongValidator PARQUET_VECTORED_READ_MERGE_GAP = new RangeLongValidator("store.parquet.vectored_read.merge_gap", 0, Integer.MAX_VALUE, 1024*1024);
+  LongValidator PARQUET_VECTORED_READ_SPLIT_SIZE = new RangeLongValidator("store.parquet.vectored_read.split_size", 64*1024, Integer.MAX_VALUE, 8*1024*1024);
+  LongValidator PARQUET_VECTORED_READ_MAX_IN_FLIGHT = new PositiveLongValidator("store.parquet.vectored_read.max_in_flight_bytes", Long.MAX_VALUE, 64*1024*1024);
+  // the projected column chunks of larger row groups are read with streams, since they are held in memory until read
+  LongValidator PARQUET_VECTORED_READ_MAX_PREFETCH = new PositiveLongValidator("store.parquet.vectored_read.max_prefetch_bytes", Long.MAX_VALUE, 128*1024*1024);
   BooleanValidator PARQUET_CACHED_ENTITY_SET_FILE_SIZE = new BooleanValidator("store.parquet.set_file_length",true);
   BooleanValidator PARQUET_COLUMN_ORDERING = new BooleanValidator("store.parquet.column_ordering", false);
 
@@ -424,6 +452,10 @@ public interface ExecConstants {
 
   PositiveLongValidator EXTERNAL_SORT_BATCHSIZE_MULTIPLIER = new PositiveLongValidator("exec.operator.sort.external.batchsize_multiplier", Character.MAX_VALUE, 2);
 
+  // when enabled, spillable operators ask the query's memory broker for more memory before spilling
+  BooleanValidator ENABLE_MEMORY_BROKER = new BooleanValidator("exec.operator.memory_broker.enabled", false);
+  PositiveLongValidator MEMORY_BROKER_GRANT_SIZE_BYTES = new PositiveLongValidator("exec.operator.memory_broker.grant_size_bytes", Long.MAX_VALUE, 16 * 1024 * 1024);
+
   LongValidator VOTING_SCHEDULE = new PositiveLongValidator("vote.schedule.millis", Long.MAX_VALUE, 0);
   PositiveLongValidator LAST_SEARCH_REINDEX  = new PositiveLongValidator("dac.search.last_reindex",  Long.MAX_VALUE, 0);
   PositiveLongValidator SEARCH_MANAGER_REFRESH_MILLIS  = new PositiveLongValidator("dac.search.refresh",  Long.MAX_VALUE, TimeUnit.MINUTES.toMillis(1));
@@ -458,6 +490,13 @@ public interface ExecConstants {
   AdminBooleanValidator EXECUTOR_ENABLE_HEAP_MONITORING = new AdminBooleanValidator("exec.heap.monitoring.enable", true);
   RangeLongValidator EXECUTOR_HEAP_MONITORING_CLAWBACK_THRESH_PERCENTAGE = new RangeLongValidator("exec.heap.monitoring.thresh.percentage", 50, 100, 85);
 
+  // direct memory monitoring in executors: spill, then hold back new queries, then cancel the greediest query
+  AdminBooleanValidator EXECUTOR_ENABLE_DIRECT_MEMORY_MONITORING = new AdminBooleanValidator("exec.direct_memory.monitoring.enable", false);
+  RangeLongValidator EXECUTOR_DIRECT_MEMORY_SPILL_THRESH_PERCENTAGE = new RangeLongValidator("exec.direct_memory.monitoring.spill.percentage", 50, 100, 80);
+  RangeLongValidator EXECUTOR_DIRECT_MEMORY_PAUSE_THRESH_PERCENTAGE = new RangeLongValidator("exec.direct_memory.monitoring.pause.percentage", 50, 100, 90);
+  RangeLongValidator EXECUTOR_DIRECT_MEMORY_CANCEL_THRESH_PERCENTAGE = new RangeLongValidator("exec.direct_memory.monitoring.cancel.percentage", 50, 100, 97);
+  RangeLongValidator EXECUTOR_DIRECT_MEMORY_MAX_PAUSE_MILLIS = new RangeLongValidator("exec.direct_memory.monitoring.max_pause_millis", 0, 300_000, 10_000);
+
   AdminBooleanValidator COORDINATOR_ENABLE_HEAP_MONITORING = new AdminBooleanValidator("coordinator.heap.monitoring.enable", true);
   RangeLongValidator COORDINATOR_HEAP_MONITORING_CLAWBACK_THRESH_PERCENTAGE = new RangeLongValidator("coordinator.heap.monitoring.thresh.percentage", 50, 100, 85);
 
@@ -466,6 +505,12 @@ public interface ExecConstants {
 
   BooleanValidator ENABLE_ICEBERG = new BooleanValidator("dremio.iceberg.enabled", false);
   BooleanValidator ENABLE_ICEBERG_MIN_MAX = new BooleanValidator("dremio.iceberg.min_max.enabled", true);
+  // cache the data files listed by manifests on executors, and read that many manifests ahead in the manifest scan
+  BooleanValidator ICEBERG_MANIFEST_CACHE_ENABLED = new BooleanValidator("dremio.iceberg.manifest_cache.enabled", true);
+  RangeLongValidator ICEBERG_MANIFEST_SCAN_PARALLELISM = new RangeLongValidator("dremio.iceberg.manifest_scan.parallelism", 1, 64, 8);
+  // commit the inserts into the same table completed within that many milliseconds of each other in one transaction
+  BooleanValidator ICEBERG_BATCH_INSERT_COMMITS = new BooleanValidator("dremio.iceberg.insert.batch_commits.enabled", false);
+  RangeLongValidator ICEBERG_BATCH_INSERT_COMMIT_WINDOW_MS = new RangeLongValidator("dremio.iceberg.insert.batch_commits.window_ms", 0, 10_000, 200);
 
   // warning threshold for running time of a task
   PositiveLongValidator SLICING_WARN_MAX_RUNTIME_MS = new PositiveLongValidator("dremio.sliced.warn_max_runtime", Long.MAX_VALUE, 120000);
@@ -517,6 +562,8 @@ public interface ExecConstants {
 
   // Use this as a factor to scale the rowcount estimation of number of rows in a data file
   DoubleValidator DELTALAKE_ROWCOUNT_ESTIMATION_FACTOR = new RangeDoubleValidator("store.delta.rowcount_estimation_factor", 0.8d, 2.0d, 1.25d);
+  // reuse the metadata parsed from delta log files by earlier refreshes
+  BooleanValidator DELTALAKE_SNAPSHOT_CACHE_ENABLED = new BooleanValidator("store.delta.snapshot_cache.enabled", true);
   StringValidator DISABLED_GANDIVA_FUNCTIONS = new StringValidator("exec.disabled.gandiva-functions", "");
   BooleanValidator GANDIVA_TARGET_HOST_CPU = new BooleanValidator("exec.gandiva.target_host_cpu", true);
   BooleanValidator GANDIVA_OPTIMIZE = new BooleanValidator("exec.gandiva.optimize_ir", true);
@@ -28,6 +28,7 @@ import java.util.stream.Collectors;
 
 import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.util.LargeMemoryUtil;
 import org.apache.arrow.vector.ValueVector;
 import org.apache.arrow.vector.types.SerializedFieldHelper;
 import org.apache.arrow.vector.types.pojo.Field;
@@ -50,6 +51,8 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.Lists;
 
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.Unpooled;
 import io.netty.util.internal.PlatformDependent;
 
 /**
@@ -284,6 +287,55 @@ public class VectorAccessibleSerializable extends AbstractStreamSerializable {
     }
   }
 
+  /**
+   * Parses a RecordBatchDef and the vectors serialized at the start of the given buffer, like
+   * {@link #readFromStream(InputStream)}, but without copying the data: the vectors are loaded from slices of the
+   * buffer, and keep it alive until they are released. Only works for batches serialized without compression.
+   * @param input the buffer to read from
+   * @throws IOException
+   */
+  public void readFromBuffer(ArrowBuf input) throws IOException {
+    Preconditions.checkState(!useCodec, "Compressed batches can't be read in place");
+    try (RollbackCloseable rollback = new RollbackCloseable()) {
+      final VectorContainer container = rollback.add(new VectorContainer());
+      final ByteBufInputStream batchDefStream = new ByteBufInputStream(
+        Unpooled.wrappedBuffer(input.nioBuffer(0, LargeMemoryUtil.checkedCastToInt(input.capacity()))));
+      final UserBitShared.RecordBatchDef batchDef = UserBitShared.RecordBatchDef.parseDelimitedFrom(batchDefStream);
+      long offset = batchDefStream.readBytes();
+      recordCount = batchDef.getRecordCount();
+      if (batchDef.hasCarriesTwoByteSelectionVector() && batchDef.getCarriesTwoByteSelectionVector()) {
+
+        if (sv2 == null) {
+          sv2 = rollback.add(new SelectionVector2(allocator));
+        }
+        final int sv2Length = recordCount * SelectionVector2.RECORD_SIZE;
+        sv2.allocateNew(sv2Length);
+        sv2.getBuffer().setBytes(0, input, offset, sv2Length);
+        offset += sv2Length;
+        svMode = BatchSchema.SelectionVectorMode.TWO_BYTE;
+      }
+      final List<ValueVector> vectorList = Lists.newArrayList();
+      final List<SerializedField> fieldList = batchDef.getFieldList();
+      for (SerializedField metaData : fieldList) {
+        final int rawDataLength = metaData.getBufferLength();
+        final Field field = SerializedFieldHelper.create(metaData);
+        final ValueVector vector = rollback.add(TypeHelper.getNewVector(field, allocator));
+        // loading takes its own references on the slice, which is released along with the vector
+        TypeHelper.load(vector, metaData, input.slice(offset, rawDataLength));
+        offset += rawDataLength;
+        vectorList.add(vector);
+      }
+      container.addCollection(vectorList);
+      container.buildSchema(svMode);
+      container.setRecordCount(recordCount);
+      va = container;
+
+      rollback.commit();
+    } catch (Exception e) {
+      throw new IOException("Failed to deserialize in-memory vector batch", e);
+    }
+  }
+
   /**
    * Serializes the VectorAccessible va and writes it to an output stream
    * @param output the OutputStream to write to
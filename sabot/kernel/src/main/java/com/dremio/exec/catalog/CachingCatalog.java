@@ -28,6 +28,9 @@ import com.google.common.collect.ImmutableList;
 /**
  * {@link Catalog} implementation that caches table requests.
  * One case not handled yet is {@link Catalog#getFunctions(NamespaceKey)}.
+ *
+ * Tables are cached for the lifetime of the catalog, the definitions they are built from being shared across
+ * queries by {@link TableDefinitionCache}.
  */
 public class CachingCatalog extends DelegatingCatalog {
 
@@ -74,12 +77,14 @@ public class CachingCatalog extends DelegatingCatalog {
   @Override
   public void updateView(final NamespaceKey key, View view, NamespaceAttribute... attributes) throws IOException {
     tablesByNamespaceKey.remove(key);
+    TableDefinitionCache.invalidate(key);
     super.updateView(key, view, attributes);
   }
 
   @Override
   public void dropView(final NamespaceKey key) throws IOException {
     tablesByNamespaceKey.remove(key);
+    TableDefinitionCache.invalidate(key);
     super.dropView(key);
   }
 
@@ -38,7 +38,6 @@ import com.dremio.exec.catalog.ManagedStoragePlugin.MetadataAccessType;
 import com.dremio.exec.catalog.conf.ConnectionConf;
 import com.dremio.exec.dotfile.View;
 import com.dremio.exec.planner.logical.ViewTable;
-import com.dremio.exec.planner.sql.CalciteArrowHelper;
 import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.store.DatasetRetrievalOptions;
 import com.dremio.exec.store.NamespaceTable;
@@ -416,15 +415,17 @@ class DatasetManager {
   private ViewTable createTableFromVirtualDataset(DatasetConfig datasetConfig, MetadataRequestOptions options) {
     try {
       // 1.4.0 and earlier didn't correctly save virtual dataset schema information.
-      BatchSchema schema = DatasetHelper.getSchemaBytes(datasetConfig) != null ? CalciteArrowHelper.fromDataset(datasetConfig) : null;
+      BatchSchema schema = DatasetHelper.getSchemaBytes(datasetConfig) != null ? TableDefinitionCache.getSchema(datasetConfig) : null;
 
-      View view = Views.fieldTypesToView(
+      final boolean withSchema = options.getSchemaConfig().getOptions() != null
+        && options.getSchemaConfig().getOptions().getOption(FULL_NESTED_SCHEMA_SUPPORT);
+      View view = TableDefinitionCache.getView(datasetConfig, withSchema, () -> Views.fieldTypesToView(
         Iterables.getLast(datasetConfig.getFullPathList()),
         datasetConfig.getVirtualDataset().getSql(),
         ViewFieldsHelper.getCalciteViewFields(datasetConfig),
         datasetConfig.getVirtualDataset().getContextList(),
-        options.getSchemaConfig().getOptions() != null && options.getSchemaConfig().getOptions().getOption(FULL_NESTED_SCHEMA_SUPPORT) ? schema : null
-      );
+        withSchema ? schema : null
+      ));
 
       return new ViewTable(new NamespaceKey(datasetConfig.getFullPathList()), view, datasetConfig, schema);
     } catch (Exception e) {
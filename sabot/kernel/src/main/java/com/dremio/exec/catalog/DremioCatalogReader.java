@@ -18,6 +18,7 @@ package com.dremio.exec.catalog;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.calcite.adapter.java.JavaTypeFactory;
 import org.apache.calcite.plan.RelOptPlanner;
@@ -34,6 +35,7 @@ import org.apache.calcite.schema.TableFunction;
 import org.apache.calcite.schema.TableMacro;
 import org.apache.calcite.sql.SqlFunctionCategory;
 import org.apache.calcite.sql.SqlIdentifier;
+import org.apache.calcite.sql.SqlNode;
 import org.apache.calcite.sql.SqlOperator;
 import org.apache.calcite.sql.SqlOperatorBinding;
 import org.apache.calcite.sql.SqlOperatorTable;
@@ -60,6 +62,7 @@ import org.apache.calcite.util.Util;
 import com.dremio.service.catalog.Table;
 import com.dremio.service.namespace.NamespaceKey;
 import com.google.common.base.Predicate;
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
@@ -102,6 +105,22 @@ public class DremioCatalogReader implements SqlValidatorCatalogReader, Prepare.C
     catalog.validateSelection();
   }
 
+  /**
+   * Resolves concurrently the tables referenced by the statement, and by the views it references, so that the
+   * validation reads them from the catalog of the query.
+   *
+   * @param parser parser of the SQL of the views
+   */
+  public void prefetchTables(SqlNode node, java.util.function.Function<String, SqlNode> parser) {
+    final Stopwatch stopwatch = Stopwatch.createStarted();
+    final int tableCount = new TableMetadataPrefetcher(parser).prefetch(this, node);
+    final MetadataStatsCollector statsCollector = catalog instanceof Catalog
+      ? ((Catalog) catalog).getMetadataStatsCollector() : null;
+    if (tableCount > 0 && statsCollector != null) {
+      statsCollector.addPlanPhase(String.format("Table metadata prefetch: %d tables", tableCount), stopwatch.elapsed(TimeUnit.MILLISECONDS));
+    }
+  }
+
   @Override
   public RelDataType getNamedType(SqlIdentifier paramSqlIdentifier) {
     return null;
@@ -16,16 +16,21 @@
 package com.dremio.exec.catalog;
 
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.dremio.exec.proto.UserBitShared.PlanPhaseProfile;
-import com.google.common.collect.Lists;
 
 public class MetadataStatsCollector {
-  private final List<PlanPhaseProfile> planPhaseProfiles = Lists.newArrayList();
+  // datasets may be resolved concurrently, see TableMetadataPrefetcher
+  private final List<PlanPhaseProfile> planPhaseProfiles = new CopyOnWriteArrayList<>();
 
   void addDatasetStat(String datasetPath, String type, long millisTaken) {
+    addPlanPhase(String.format("%s: %s", datasetPath, type), millisTaken);
+  }
+
+  void addPlanPhase(String phaseName, long millisTaken) {
     planPhaseProfiles.add(PlanPhaseProfile.newBuilder()
-      .setPhaseName(String.format("%s: %s", datasetPath, type))
+      .setPhaseName(phaseName)
       .setDurationMillis(millisTaken)
       .build());
   }
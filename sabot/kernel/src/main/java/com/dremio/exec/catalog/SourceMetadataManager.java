@@ -143,7 +143,10 @@ class SourceMetadataManager implements AutoCloseable {
 
   DatasetSaver getSaver() {
     return new DatasetSaver(bridge.getNamespaceService(),
-        key -> localUpdateTime.put(key, System.currentTimeMillis()),
+        key -> {
+          localUpdateTime.put(key, System.currentTimeMillis());
+          TableDefinitionCache.invalidate(key);
+        },
         optionManager);
   }
 
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.catalog;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import com.dremio.exec.dotfile.View;
+import com.dremio.exec.planner.sql.CalciteArrowHelper;
+import com.dremio.exec.record.BatchSchema;
+import com.dremio.service.namespace.NamespaceKey;
+import com.dremio.service.namespace.dataset.proto.DatasetConfig;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Coordinator wide cache of the definitions built from the dataset configs read by the queries: the schemas of the
+ * datasets and the views.
+ *
+ * Configs are still read from the namespace by each query, so that access checks are unchanged, but the definitions
+ * built from them are shared. Entries are keyed by the path of the datasets and hold the id and the tag of the config
+ * they were built from, a hit being only used for the same version of the config. Entries of a dataset are also
+ * invalidated when its metadata is updated on this coordinator.
+ *
+ * The dataset configs themselves and the expansion of the views are not cached. A config is the only source of the
+ * tag a cached entry is validated against, the namespace having no cheaper way to read the version of a dataset, so
+ * the lookup of the config by each query is what keeps hits consistent with the other coordinators. The expansion of
+ * a view is a relational tree bound to the planner of the query, and validated with the privileges of the query user,
+ * so it can't be shared either: only the view built from the config is.
+ */
+final class TableDefinitionCache {
+  // maximum number of top level fields held by the cached definitions
+  private static final long MAX_CACHED_FIELDS = 1_000_000;
+
+  private static final Cache<NamespaceKey, Versioned<BatchSchema>> SCHEMAS = newCache();
+  private static final Cache<NamespaceKey, Versioned<View>> VIEWS = newCache();
+
+  private TableDefinitionCache() {
+  }
+
+  private static <T> Cache<NamespaceKey, Versioned<T>> newCache() {
+    return CacheBuilder.newBuilder()
+      .maximumWeight(MAX_CACHED_FIELDS)
+      .<NamespaceKey, Versioned<T>>weigher((key, value) -> value.weight)
+      .softValues()
+      .build();
+  }
+
+  /**
+   * @return the schema of the dataset
+   */
+  static BatchSchema getSchema(DatasetConfig config) {
+    return get(SCHEMAS, config, false, () -> CalciteArrowHelper.fromDataset(config), BatchSchema::getFieldCount);
+  }
+
+  /**
+   * @param withSchema whether the view is built with the schema of the dataset
+   * @return the view of the virtual dataset, built by the loader if not cached
+   */
+  static View getView(DatasetConfig config, boolean withSchema, Supplier<View> loader) {
+    return get(VIEWS, config, withSchema, loader, view -> view.getFields().size());
+  }
+
+  static void invalidate(NamespaceKey key) {
+    SCHEMAS.invalidate(key);
+    VIEWS.invalidate(key);
+  }
+
+  @VisibleForTesting
+  static void invalidateAll() {
+    SCHEMAS.invalidateAll();
+    VIEWS.invalidateAll();
+  }
+
+  private static <T> T get(Cache<NamespaceKey, Versioned<T>> cache, DatasetConfig config, boolean variant,
+                           Supplier<T> loader, ToIntFunction<T> weigher) {
+    if (config.getId() == null || config.getTag() == null || config.getFullPathList() == null) {
+      return loader.get();
+    }
+
+    final NamespaceKey key = new NamespaceKey(config.getFullPathList());
+    final Versioned<T> cached = cache.getIfPresent(key);
+    if (cached != null && cached.isVersionOf(config, variant)) {
+      return cached.value;
+    }
+
+    final T value = loader.get();
+    if (value != null) {
+      cache.put(key, new Versioned<>(config.getId().getId(), config.getTag(), variant, value,
+        1 + weigher.applyAsInt(value)));
+    }
+    return value;
+  }
+
+  /**
+   * Definition built from a version of a dataset config.
+   */
+  private static final class Versioned<T> {
+    private final String id;
+    private final String tag;
+    private final boolean variant;
+    private final T value;
+    private final int weight;
+
+    private Versioned(String id, String tag, boolean variant, T value, int weight) {
+      this.id = id;
+      this.tag = tag;
+      this.variant = variant;
+      this.value = value;
+      this.weight = weight;
+    }
+
+    private boolean isVersionOf(DatasetConfig config, boolean variant) {
+      return this.variant == variant
+        && Objects.equals(id, config.getId().getId())
+        && Objects.equals(tag, config.getTag());
+    }
+  }
+}
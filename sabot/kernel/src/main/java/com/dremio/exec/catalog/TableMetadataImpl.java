@@ -19,7 +19,6 @@ import java.util.Iterator;
 import java.util.List;
 
 import com.dremio.datastore.SearchTypes.SearchQuery;
-import com.dremio.exec.planner.sql.CalciteArrowHelper;
 import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.store.SplitsKey;
 import com.dremio.exec.store.SplitsPointer;
@@ -139,7 +138,7 @@ public class TableMetadataImpl implements TableMetadata {
   @Override
   public BatchSchema getSchema() {
     if(schema == null){
-      schema = CalciteArrowHelper.fromDataset(config);
+      schema = TableDefinitionCache.getSchema(config);
     }
 
     return schema;
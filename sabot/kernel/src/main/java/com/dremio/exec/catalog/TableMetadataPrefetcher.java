@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.catalog;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.apache.calcite.sql.SqlCall;
+import org.apache.calcite.sql.SqlIdentifier;
+import org.apache.calcite.sql.SqlJoin;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.SqlSelect;
+import org.apache.calcite.sql.SqlWith;
+import org.apache.calcite.sql.SqlWithItem;
+import org.apache.calcite.sql.util.SqlBasicVisitor;
+
+import com.dremio.common.concurrent.CloseableThreadPool;
+import com.dremio.common.exceptions.UserException;
+import com.dremio.exec.dotfile.View;
+import com.dremio.exec.planner.logical.ViewTable;
+import com.dremio.exec.store.TimedRunnable;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Resolves the tables referenced by a query concurrently, before the validator resolves them one at a time.
+ *
+ * The tables referenced by the views are resolved too, level by level of nesting, with the catalog the views are
+ * expanded with. Tables are resolved through the {@link CachingCatalog} of the query, shared by the catalogs of the
+ * view expansions, so that the validator and the view expansions then read the cached tables. Failures are ignored,
+ * the validator resolving the table again and reporting the error. No table is resolved below a level where a table
+ * could not be resolved: the table resolved with the catalog of a view owner would be cached for the references of
+ * the query user, who may not have access to it.
+ */
+final class TableMetadataPrefetcher {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(TableMetadataPrefetcher.class);
+
+  private static final int PARALLELISM = 16;
+  // threads resolving the tables, shared by all the queries
+  private static final CloseableThreadPool EXECUTOR = new CloseableThreadPool("table-metadata-prefetch-");
+
+  private final Function<String, SqlNode> parser;
+
+  TableMetadataPrefetcher(Function<String, SqlNode> parser) {
+    this.parser = parser;
+  }
+
+  /**
+   * @return the number of tables resolved
+   */
+  int prefetch(DremioCatalogReader reader, SqlNode node) {
+    final Set<String> visited = new HashSet<>();
+    List<PrefetchTask> tasks = new ArrayList<>();
+    for (List<String> names : collectTableNames(node)) {
+      addIfNotVisited(new PrefetchTask(reader, "", names), tasks, visited);
+    }
+
+    int resolved = 0;
+    while (!tasks.isEmpty()) {
+      final List<List<PrefetchTask>> results;
+      try {
+        // the timeout is the default timeout of the tasks
+        results = TimedRunnable.run("Prefetching metadata of tables", logger,
+          ImmutableList.<TimedRunnable<List<PrefetchTask>>>copyOf(tasks), EXECUTOR, PARALLELISM, 0);
+      } catch (IOException | UserException e) {
+        logger.debug("Failure while prefetching metadata of tables", e);
+        return resolved;
+      }
+      resolved += tasks.size();
+      if (tasks.stream().anyMatch(task -> task.failed)) {
+        return resolved;
+      }
+
+      // tables referenced by the views resolved at this level
+      final List<PrefetchTask> nextTasks = new ArrayList<>();
+      for (List<PrefetchTask> viewTasks : results) {
+        for (PrefetchTask task : viewTasks) {
+          addIfNotVisited(task, nextTasks, visited);
+        }
+      }
+      tasks = nextTasks;
+    }
+    return resolved;
+  }
+
+  private static void addIfNotVisited(PrefetchTask task, List<PrefetchTask> tasks, Set<String> visited) {
+    if (visited.add(task.scope + '|' + String.join(".", task.names))) {
+      tasks.add(task);
+    }
+  }
+
+  /**
+   * @return the names of the tables referenced in the FROM clauses of the statement, except the WITH items
+   */
+  @VisibleForTesting
+  static Set<List<String>> collectTableNames(SqlNode node) {
+    final TableNameCollector collector = new TableNameCollector();
+    node.accept(collector);
+
+    final Set<List<String>> tableNames = new LinkedHashSet<>();
+    for (List<String> names : collector.tableNames) {
+      if (names.size() != 1 || !collector.withItemNames.contains(names.get(0).toLowerCase(Locale.ROOT))) {
+        tableNames.add(names);
+      }
+    }
+    return tableNames;
+  }
+
+  /**
+   * Resolves a table, and returns the tasks resolving the tables referenced by the table if a view.
+   */
+  private final class PrefetchTask extends TimedRunnable<List<PrefetchTask>> {
+    private final DremioCatalogReader reader;
+    // user and schema path of the reader, empty for the reader of the query
+    private final String scope;
+    private final List<String> names;
+    // the table was not found, or could not be resolved
+    private volatile boolean failed;
+
+    private PrefetchTask(DremioCatalogReader reader, String scope, List<String> names) {
+      this.reader = reader;
+      this.scope = scope;
+      this.names = names;
+    }
+
+    @Override
+    protected List<PrefetchTask> runInner() {
+      try {
+        final DremioPrepareTable table = reader.getTable(names);
+        if (table == null) {
+          failed = true;
+          return ImmutableList.of();
+        }
+        if (!(table.getTable() instanceof ViewTable)) {
+          return ImmutableList.of();
+        }
+
+        // same catalog as the view expansion
+        final ViewTable viewTable = (ViewTable) table.getTable();
+        final View view = viewTable.getView();
+        final String viewOwner = viewTable.getViewOwner();
+        final DremioCatalogReader viewReader = viewOwner != null
+          ? reader.withSchemaPathAndUser(viewOwner, view.getWorkspaceSchemaPath())
+          : reader.withSchemaPath(view.getWorkspaceSchemaPath());
+        final String viewScope = viewOwner + '|' + view.getWorkspaceSchemaPath();
+
+        final List<PrefetchTask> tasks = new ArrayList<>();
+        for (List<String> viewTableNames : collectTableNames(parser.apply(view.getSql()))) {
+          tasks.add(new PrefetchTask(viewReader, viewScope, viewTableNames));
+        }
+        return tasks;
+      } catch (RuntimeException e) {
+        logger.debug("Failure while prefetching metadata of table {}", names, e);
+        failed = true;
+        return ImmutableList.of();
+      }
+    }
+
+    @Override
+    protected IOException convertToIOException(Exception e) {
+      return new IOException(e);
+    }
+  }
+
+  /**
+   * Collects the identifiers of the FROM clauses, and the names of the WITH items.
+   */
+  private static final class TableNameCollector extends SqlBasicVisitor<Void> {
+    private final List<List<String>> tableNames = new ArrayList<>();
+    private final Set<String> withItemNames = new HashSet<>();
+
+    @Override
+    public Void visit(SqlCall call) {
+      if (call instanceof SqlSelect) {
+        addFrom(((SqlSelect) call).getFrom());
+      } else if (call instanceof SqlWith) {
+        for (SqlNode item : ((SqlWith) call).withList) {
+          withItemNames.add(((SqlWithItem) item).name.getSimple().toLowerCase(Locale.ROOT));
+        }
+      }
+      // sub-queries, including the ones of the FROM clauses
+      return super.visit(call);
+    }
+
+    private void addFrom(SqlNode from) {
+      if (from == null) {
+        return;
+      }
+
+      if (from instanceof SqlIdentifier) {
+        if (!((SqlIdentifier) from).isStar()) {
+          tableNames.add(ImmutableList.copyOf(((SqlIdentifier) from).names));
+        }
+      } else if (from instanceof SqlJoin) {
+        addFrom(((SqlJoin) from).getLeft());
+        addFrom(((SqlJoin) from).getRight());
+      } else if (from.getKind() == SqlKind.AS) {
+        addFrom(((SqlCall) from).operand(0));
+      }
+    }
+  }
+}
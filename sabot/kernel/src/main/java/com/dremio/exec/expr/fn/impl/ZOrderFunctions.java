@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.expr.fn.impl;
+
+import javax.inject.Inject;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.vector.holders.BigIntHolder;
+import org.apache.arrow.vector.holders.VarBinaryHolder;
+
+import com.dremio.exec.expr.SimpleFunction;
+import com.dremio.exec.expr.annotations.FunctionTemplate;
+import com.dremio.exec.expr.annotations.FunctionTemplate.FunctionScope;
+import com.dremio.exec.expr.annotations.FunctionTemplate.NullHandling;
+import com.dremio.exec.expr.annotations.Output;
+import com.dremio.exec.expr.annotations.Param;
+
+/**
+ * Functions computing the Z-order value of several columns: zorder_value interleaves the bits of two to four bigint
+ * keys into a varbinary value. The rows written by CTAS and reflections are clustered by the zorder_value of the ranks
+ * of their sort keys, see WriterUpdater.
+ */
+public class ZOrderFunctions {
+
+  @FunctionTemplate(name = "zorder_value", scope = FunctionScope.SIMPLE, nulls = NullHandling.NULL_IF_NULL)
+  public static class TwoKeysValue implements SimpleFunction {
+
+    @Param
+    BigIntHolder key1;
+    @Param
+    BigIntHolder key2;
+    @Output
+    VarBinaryHolder out;
+    @Inject
+    ArrowBuf buffer;
+
+    @Override
+    public void setup() {
+      buffer = buffer.reallocIfNeeded(16);
+    }
+
+    @Override
+    public void eval() {
+      out.buffer = buffer;
+      out.start = 0;
+      out.end = com.dremio.exec.expr.fn.impl.ZOrderHelper.interleave(buffer, new long[] {key1.value, key2.value});
+    }
+  }
+
+  @FunctionTemplate(name = "zorder_value", scope = FunctionScope.SIMPLE, nulls = NullHandling.NULL_IF_NULL)
+  public static class ThreeKeysValue implements SimpleFunction {
+
+    @Param
+    BigIntHolder key1;
+    @Param
+    BigIntHolder key2;
+    @Param
+    BigIntHolder key3;
+    @Output
+    VarBinaryHolder out;
+    @Inject
+    ArrowBuf buffer;
+
+    @Override
+    public void setup() {
+      buffer = buffer.reallocIfNeeded(24);
+    }
+
+    @Override
+    public void eval() {
+      out.buffer = buffer;
+      out.start = 0;
+      out.end = com.dremio.exec.expr.fn.impl.ZOrderHelper.interleave(buffer, new long[] {key1.value, key2.value, key3.value});
+    }
+  }
+
+  @FunctionTemplate(name = "zorder_value", scope = FunctionScope.SIMPLE, nulls = NullHandling.NULL_IF_NULL)
+  public static class FourKeysValue implements SimpleFunction {
+
+    @Param
+    BigIntHolder key1;
+    @Param
+    BigIntHolder key2;
+    @Param
+    BigIntHolder key3;
+    @Param
+    BigIntHolder key4;
+    @Output
+    VarBinaryHolder out;
+    @Inject
+    ArrowBuf buffer;
+
+    @Override
+    public void setup() {
+      buffer = buffer.reallocIfNeeded(32);
+    }
+
+    @Override
+    public void eval() {
+      out.buffer = buffer;
+      out.start = 0;
+      out.end = com.dremio.exec.expr.fn.impl.ZOrderHelper.interleave(buffer, new long[] {key1.value, key2.value, key3.value, key4.value});
+    }
+  }
+}
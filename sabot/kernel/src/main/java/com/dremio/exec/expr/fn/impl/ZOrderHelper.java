@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.expr.fn.impl;
+
+import org.apache.arrow.memory.ArrowBuf;
+
+/**
+ * Helpers of the functions computing Z-order values, see {@link ZOrderFunctions}.
+ *
+ * The bits of the keys, compared as signed longs, are interleaved from the most significant one, so that sorting by
+ * the bytes of the result clusters rows close in all the keys.
+ */
+public final class ZOrderHelper {
+
+  private ZOrderHelper() {
+  }
+
+  /**
+   * Write the interleaved bits of the keys into the buffer.
+   *
+   * @return the number of bytes written
+   */
+  public static int interleave(ArrowBuf buffer, long[] keys) {
+    int current = 0;
+    int bitCount = 0;
+    int index = 0;
+    for (int bit = 63; bit >= 0; bit--) {
+      for (long key : keys) {
+        // flip the sign bit to compare the keys as unsigned bytes
+        current = (current << 1) | (int) (((key ^ Long.MIN_VALUE) >>> bit) & 1);
+        if (++bitCount == 8) {
+          buffer.setByte(index++, current);
+          current = 0;
+          bitCount = 0;
+        }
+      }
+    }
+    return index;
+  }
+}
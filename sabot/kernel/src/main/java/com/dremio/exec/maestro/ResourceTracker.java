@@ -24,6 +24,7 @@ import com.dremio.exec.planner.observer.AttemptObserver;
 import com.dremio.exec.proto.UserBitShared.AttemptEvent;
 import com.dremio.exec.testing.ControlsInjector;
 import com.dremio.exec.testing.ControlsInjectorFactory;
+import com.dremio.exec.util.MemoryAllocationUtilities;
 import com.dremio.exec.util.Utilities;
 import com.dremio.resource.ResourceAllocator;
 import com.dremio.resource.ResourceSchedulingDecisionInfo;
@@ -81,6 +82,9 @@ public class ResourceTracker implements AutoCloseable {
     final double planCost = physicalPlan.getCost();
     ResourceSchedulingProperties resourceSchedulingProperties = new ResourceSchedulingProperties();
     resourceSchedulingProperties.setQueryCost(planCost);
+    resourceSchedulingProperties.setQueryMemoryEstimate(
+      MemoryAllocationUtilities.estimateQueryMemory(physicalPlan, context.getOptions(),
+        context.getFunctionRegistry()));
     resourceSchedulingProperties.setRoutingQueue(context.getSession().getRoutingQueue());
     resourceSchedulingProperties.setRoutingTag(context.getSession().getRoutingTag());
     resourceSchedulingProperties.setQueryType(Utilities.getHumanReadableWorkloadType(context.getWorkloadType()));
@@ -39,6 +39,8 @@ public class HashPartitionSender extends AbstractSender implements OpWithMinorSp
 
   private List<MinorFragmentIndexEndpoint> destinations;
   private final LogicalExpression expr;
+  // whether the receivers still produce correct results if rows of a same key are sent to different receivers
+  private final boolean spreadHotKeys;
 
   public HashPartitionSender(
     OpProps props,
@@ -47,10 +49,23 @@ public class HashPartitionSender extends AbstractSender implements OpWithMinorSp
     int receiverMajorFragmentId,
     List<MinorFragmentIndexEndpoint> destinations,
     LogicalExpression expr
+  ) {
+    this(props, schema, child, receiverMajorFragmentId, destinations, expr, false);
+  }
+
+  public HashPartitionSender(
+    OpProps props,
+    BatchSchema schema,
+    PhysicalOperator child,
+    int receiverMajorFragmentId,
+    List<MinorFragmentIndexEndpoint> destinations,
+    LogicalExpression expr,
+    boolean spreadHotKeys
   ) {
     super(props, schema, child, receiverMajorFragmentId);
     this.destinations = destinations;
     this.expr = expr;
+    this.spreadHotKeys = spreadHotKeys;
   }
 
   @JsonCreator
@@ -59,20 +74,28 @@ public class HashPartitionSender extends AbstractSender implements OpWithMinorSp
       @JsonProperty("schema") BatchSchema schema,
       @JsonProperty("child") PhysicalOperator child,
       @JsonProperty("receiverMajorFragmentId") int receiverMajorFragmentId,
-      @JsonProperty("expr") LogicalExpression expr
+      @JsonProperty("expr") LogicalExpression expr,
+      @JsonProperty("spreadHotKeys") boolean spreadHotKeys
       ) {
-    this(props, schema, child, receiverMajorFragmentId, null, expr);
+    this(props, schema, child, receiverMajorFragmentId, null, expr, spreadHotKeys);
   }
 
   @Override
   protected PhysicalOperator getNewWithChild(PhysicalOperator child) {
-    return new HashPartitionSender(props, schema, child, receiverMajorFragmentId, destinations, expr);
+    return new HashPartitionSender(props, schema, child, receiverMajorFragmentId, destinations, expr, spreadHotKeys);
   }
 
   public LogicalExpression getExpr() {
     return expr;
   }
 
+  /**
+   * @return true if rows of hot keys can be sent to any receiver
+   */
+  public boolean isSpreadHotKeys() {
+    return spreadHotKeys;
+  }
+
   @Override
   public <T, X, E extends Throwable> T accept(PhysicalVisitor<T, X, E> physicalVisitor, X value) throws E {
     return physicalVisitor.visitHashPartitionSender(this, value);
@@ -41,6 +41,7 @@ public class HashToRandomExchange extends AbstractExchange {
 
   private final BucketOptions options;
   private final LogicalExpression expr;
+  private final boolean spreadHotKeys;
 
   public HashToRandomExchange(
       OpProps props,
@@ -50,15 +51,28 @@ public class HashToRandomExchange extends AbstractExchange {
       BatchSchema schema,
       PhysicalOperator child,
       LogicalExpression expr) {
+    this(props, senderProps, receiverProps, options, schema, child, expr, false);
+  }
+
+  public HashToRandomExchange(
+      OpProps props,
+      OpProps senderProps,
+      OpProps receiverProps,
+      BucketOptions options,
+      BatchSchema schema,
+      PhysicalOperator child,
+      LogicalExpression expr,
+      boolean spreadHotKeys) {
     super(props, senderProps, receiverProps, schema, child);
     this.options = options;
     this.expr = expr;
+    this.spreadHotKeys = spreadHotKeys;
   }
 
   @Override
   public Sender getSender(int minorFragmentId, PhysicalOperator child, EndpointsIndex.Builder indexBuilder) {
     final List<MinorFragmentIndexEndpoint> dest = PhysicalOperatorUtil.getIndexOrderedEndpoints(receiverLocations, indexBuilder);
-    return new HashPartitionSender(options.getResult(senderProps, dest.size()), schema, child, receiverMajorFragmentId, dest, expr);
+    return new HashPartitionSender(options.getResult(senderProps, dest.size()), schema, child, receiverMajorFragmentId, dest, expr, spreadHotKeys);
   }
 
   @Override
@@ -68,11 +82,16 @@ public class HashToRandomExchange extends AbstractExchange {
 
   @Override
   protected PhysicalOperator getNewWithChild(PhysicalOperator child) {
-    return new HashToRandomExchange(props, senderProps, receiverProps, options, schema, child, expr);
+    return new HashToRandomExchange(props, senderProps, receiverProps, options, schema, child, expr, spreadHotKeys);
   }
 
   @JsonProperty("expr")
   public LogicalExpression getExpression(){
     return expr;
   }
+
+  @JsonProperty("spreadHotKeys")
+  public boolean isSpreadHotKeys() {
+    return spreadHotKeys;
+  }
 }
@@ -0,0 +1,456 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner.logical.partition;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexLiteral;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.calcite.util.DateString;
+import org.apache.calcite.util.TimestampString;
+
+import com.dremio.common.types.TypeProtos.MinorType;
+import com.dremio.exec.store.SplitsKey;
+import com.dremio.service.namespace.PartitionChunkMetadata;
+import com.dremio.service.namespace.dataset.proto.PartitionProtobuf.PartitionValue;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Columnar index of the partition values of the splits of a dataset, used to evaluate simple partition filters
+ * without populating vectors and running the interpreter.
+ *
+ * Each partition column is stored as the sorted dictionary of its distinct values and the code of the value of each
+ * split, so that comparisons with a literal are evaluated by scanning the codes. Conjunctions and disjunctions of
+ * comparisons, and null checks, are evaluated with bitsets of the matching splits.
+ *
+ * Indexes are shared across queries, keyed by the splits of a dataset version.
+ */
+final class PartitionValueIndex {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(PartitionValueIndex.class);
+
+  // maximum number of split values, for all the columns, held by the cached indexes
+  private static final long MAX_CACHED_VALUES = 10_000_000;
+
+  private static final Cache<Key, PartitionValueIndex> CACHE = CacheBuilder.newBuilder()
+    .maximumWeight(MAX_CACHED_VALUES)
+    .<Key, PartitionValueIndex>weigher((key, index) -> index.getWeight())
+    .softValues()
+    .build();
+
+  private static final int NULL_CODE = -1;
+
+  private final int splitCount;
+  private final Map<String, Column> columns;
+
+  private PartitionValueIndex(int splitCount, Map<String, Column> columns) {
+    this.splitCount = splitCount;
+    this.columns = columns;
+  }
+
+  /**
+   * @return whether columns of the type can be indexed
+   */
+  static boolean isSupported(MinorType type) {
+    switch (type) {
+      case INT:
+      case BIGINT:
+      case DATE:
+      case TIMESTAMP:
+      case BIT:
+      case VARCHAR:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * @return the cached index of the splits, or null if not cached
+   */
+  static PartitionValueIndex getIfPresent(SplitsKey splitsKey, Map<String, MinorType> columnTypes) {
+    return CACHE.getIfPresent(new Key(splitsKey, columnTypes));
+  }
+
+  static void put(SplitsKey splitsKey, Map<String, MinorType> columnTypes, PartitionValueIndex index) {
+    CACHE.put(new Key(splitsKey, columnTypes), index);
+  }
+
+  @VisibleForTesting
+  static void invalidateAll() {
+    CACHE.invalidateAll();
+  }
+
+  /**
+   * Index the given columns of the splits.
+   */
+  static PartitionValueIndex build(List<PartitionChunkMetadata> splits, Map<String, MinorType> columnTypes) {
+    final Map<String, ColumnBuilder> builders = new HashMap<>();
+    columnTypes.forEach((name, type) -> builders.put(name, new ColumnBuilder(type, splits.size())));
+
+    int splitIndex = 0;
+    for (PartitionChunkMetadata split : splits) {
+      for (PartitionValue partitionValue : split.getPartitionValues()) {
+        final ColumnBuilder builder = builders.get(partitionValue.getColumn());
+        if (builder != null) {
+          builder.add(splitIndex, partitionValue);
+        }
+      }
+      splitIndex++;
+    }
+
+    final ImmutableMap.Builder<String, Column> columns = ImmutableMap.builder();
+    builders.forEach((name, builder) -> columns.put(name, builder.build()));
+    return new PartitionValueIndex(splits.size(), columns.build());
+  }
+
+  int getSplitCount() {
+    return splitCount;
+  }
+
+  private int getWeight() {
+    return splitCount * Math.max(1, columns.size());
+  }
+
+  /**
+   * Evaluate the condition over the splits.
+   *
+   * @param condition condition over the fields of the scan
+   * @param fieldNames names of the fields of the scan
+   * @return the indexes of the splits for which the condition is true, or null if the condition is not supported
+   */
+  BitSet evaluate(RexNode condition, List<String> fieldNames) {
+    switch (condition.getKind()) {
+      case LITERAL: {
+        final Object value = ((RexLiteral) condition).getValue();
+        if (!(value instanceof Boolean)) {
+          return null;
+        }
+        final BitSet result = new BitSet(splitCount);
+        if ((Boolean) value) {
+          result.set(0, splitCount);
+        }
+        return result;
+      }
+      case AND:
+      case OR: {
+        BitSet result = null;
+        for (RexNode operand : ((RexCall) condition).getOperands()) {
+          final BitSet operandResult = evaluate(operand, fieldNames);
+          if (operandResult == null) {
+            return null;
+          }
+          if (result == null) {
+            result = operandResult;
+          } else if (condition.getKind() == SqlKind.AND) {
+            result.and(operandResult);
+          } else {
+            result.or(operandResult);
+          }
+        }
+        return result;
+      }
+      case IS_NULL:
+      case IS_NOT_NULL: {
+        final Column column = getColumn(((RexCall) condition).getOperands().get(0), fieldNames);
+        if (column == null) {
+          return null;
+        }
+        return condition.getKind() == SqlKind.IS_NULL
+          ? column.select(NULL_CODE, NULL_CODE + 1)
+          : column.select(0, column.dictionary.length);
+      }
+      case EQUALS:
+      case NOT_EQUALS:
+      case LESS_THAN:
+      case LESS_THAN_OR_EQUAL:
+      case GREATER_THAN:
+      case GREATER_THAN_OR_EQUAL: {
+        final List<RexNode> operands = ((RexCall) condition).getOperands();
+        SqlKind kind = condition.getKind();
+        RexNode columnOperand = operands.get(0);
+        RexNode literalOperand = operands.get(1);
+        if (columnOperand instanceof RexLiteral) {
+          columnOperand = operands.get(1);
+          literalOperand = operands.get(0);
+          kind = reverse(kind);
+        }
+        final Column column = getColumn(columnOperand, fieldNames);
+        if (column == null || !(literalOperand instanceof RexLiteral)) {
+          return null;
+        }
+        final RexLiteral literal = (RexLiteral) literalOperand;
+        if (literal.isNull()) {
+          // comparisons with null are never true
+          return new BitSet(splitCount);
+        }
+        final Comparable<?> value = column.toValue(literal);
+        return value == null ? null : column.compare(kind, value);
+      }
+      default:
+        return null;
+    }
+  }
+
+  private static SqlKind reverse(SqlKind kind) {
+    switch (kind) {
+      case LESS_THAN:
+        return SqlKind.GREATER_THAN;
+      case LESS_THAN_OR_EQUAL:
+        return SqlKind.GREATER_THAN_OR_EQUAL;
+      case GREATER_THAN:
+        return SqlKind.LESS_THAN;
+      case GREATER_THAN_OR_EQUAL:
+        return SqlKind.LESS_THAN_OR_EQUAL;
+      default:
+        return kind;
+    }
+  }
+
+  private Column getColumn(RexNode node, List<String> fieldNames) {
+    if (!(node instanceof RexInputRef)) {
+      return null;
+    }
+    return columns.get(fieldNames.get(((RexInputRef) node).getIndex()));
+  }
+
+  /**
+   * Values of a partition column, as codes in the sorted dictionary of the distinct values.
+   */
+  private static final class Column {
+    private final MinorType type;
+    private final Object[] dictionary;
+    private final int[] codes;
+
+    private Column(MinorType type, Object[] dictionary, int[] codes) {
+      this.type = type;
+      this.dictionary = dictionary;
+      this.codes = codes;
+    }
+
+    /**
+     * @return the value of the literal comparable with the values of the column, or null if not supported
+     */
+    private Comparable<?> toValue(RexLiteral literal) {
+      final SqlTypeName literalType = literal.getTypeName();
+      try {
+        switch (type) {
+          case INT:
+          case BIGINT:
+            return SqlTypeName.EXACT_TYPES.contains(literalType)
+              ? literal.getValueAs(BigDecimal.class).longValueExact() : null;
+          case DATE:
+            return literalType == SqlTypeName.DATE ? literal.getValueAs(DateString.class).getMillisSinceEpoch() : null;
+          case TIMESTAMP:
+            return literalType == SqlTypeName.TIMESTAMP
+              ? literal.getValueAs(TimestampString.class).getMillisSinceEpoch() : null;
+          case BIT:
+            return literalType == SqlTypeName.BOOLEAN ? literal.getValueAs(Boolean.class) : null;
+          case VARCHAR:
+            return SqlTypeName.CHAR_TYPES.contains(literalType) ? literal.getValueAs(String.class) : null;
+          default:
+            return null;
+        }
+      } catch (RuntimeException e) {
+        // not representable as a value of the column, for instance a decimal with a fractional part
+        logger.debug("Unable to compare literal {} with values of type {}", literal, type, e);
+        return null;
+      }
+    }
+
+    private BitSet compare(SqlKind kind, Comparable<?> value) {
+      final Comparator<Object> comparator = comparator(type);
+      // [lower, upper) is the range of the codes of the values equal to the given one
+      final int lower = lowerBound(comparator, value, false);
+      final int upper = lowerBound(comparator, value, true);
+      switch (kind) {
+        case EQUALS:
+          return select(lower, upper);
+        case NOT_EQUALS: {
+          final BitSet result = select(0, lower);
+          result.or(select(upper, dictionary.length));
+          return result;
+        }
+        case LESS_THAN:
+          return select(0, lower);
+        case LESS_THAN_OR_EQUAL:
+          return select(0, upper);
+        case GREATER_THAN:
+          return select(upper, dictionary.length);
+        case GREATER_THAN_OR_EQUAL:
+          return select(lower, dictionary.length);
+        default:
+          throw new IllegalArgumentException(kind.toString());
+      }
+    }
+
+    /**
+     * @return the index of the first value of the dictionary greater than or equal to (or strictly greater than)
+     * the given value
+     */
+    private int lowerBound(Comparator<Object> comparator, Object value, boolean strict) {
+      int low = 0;
+      int high = dictionary.length;
+      while (low < high) {
+        final int mid = (low + high) >>> 1;
+        final int cmp = comparator.compare(dictionary[mid], value);
+        if (cmp < 0 || (strict && cmp == 0)) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+
+    /**
+     * @return the splits whose value code is in [from, to)
+     */
+    private BitSet select(int from, int to) {
+      final BitSet result = new BitSet(codes.length);
+      if (from >= to) {
+        return result;
+      }
+      for (int i = 0; i < codes.length; i++) {
+        final int code = codes[i];
+        if (code >= from && code < to) {
+          result.set(i);
+        }
+      }
+      return result;
+    }
+  }
+
+  private static final class ColumnBuilder {
+    private final MinorType type;
+    private final Object[] values;
+
+    private ColumnBuilder(MinorType type, int splitCount) {
+      this.type = type;
+      this.values = new Object[splitCount];
+    }
+
+    // same values as the ones written in the vectors evaluated by the interpreter
+    private void add(int splitIndex, PartitionValue partitionValue) {
+      switch (type) {
+        case INT:
+          values[splitIndex] = partitionValue.hasIntValue() ? (long) partitionValue.getIntValue() : null;
+          break;
+        case BIGINT:
+        case DATE:
+        case TIMESTAMP:
+          values[splitIndex] = partitionValue.hasLongValue() ? partitionValue.getLongValue() : null;
+          break;
+        case BIT:
+          values[splitIndex] = partitionValue.hasBitValue() ? partitionValue.getBitValue() : null;
+          break;
+        case VARCHAR:
+          values[splitIndex] = partitionValue.hasStringValue() ? partitionValue.getStringValue() : null;
+          break;
+        default:
+          throw new UnsupportedOperationException("Unsupported type: " + type);
+      }
+    }
+
+    private Column build() {
+      final Comparator<Object> comparator = comparator(type);
+      final TreeMap<Object, Integer> distinct = new TreeMap<>(comparator);
+      for (Object value : values) {
+        if (value != null) {
+          distinct.put(value, 0);
+        }
+      }
+      final Object[] dictionary = distinct.keySet().toArray();
+      for (int i = 0; i < dictionary.length; i++) {
+        distinct.put(dictionary[i], i);
+      }
+
+      final int[] codes = new int[values.length];
+      Arrays.fill(codes, NULL_CODE);
+      for (int i = 0; i < values.length; i++) {
+        if (values[i] != null) {
+          codes[i] = distinct.get(values[i]);
+        }
+      }
+      return new Column(type, dictionary, codes);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Comparator<Object> comparator(MinorType type) {
+    if (type == MinorType.VARCHAR) {
+      // order of the utf-8 bytes compared by the interpreter, which is the order of the code points
+      return (o1, o2) -> compareCodePoints((String) o1, (String) o2);
+    }
+    return (o1, o2) -> ((Comparable<Object>) o1).compareTo(o2);
+  }
+
+  private static int compareCodePoints(String s1, String s2) {
+    int i1 = 0;
+    int i2 = 0;
+    while (i1 < s1.length() && i2 < s2.length()) {
+      final int c1 = s1.codePointAt(i1);
+      final int c2 = s2.codePointAt(i2);
+      if (c1 != c2) {
+        return Integer.compare(c1, c2);
+      }
+      i1 += Character.charCount(c1);
+      i2 += Character.charCount(c2);
+    }
+    return Integer.compare(s1.length() - i1, s2.length() - i2);
+  }
+
+  private static final class Key {
+    private final SplitsKey splitsKey;
+    private final Map<String, MinorType> columnTypes;
+
+    private Key(SplitsKey splitsKey, Map<String, MinorType> columnTypes) {
+      this.splitsKey = splitsKey;
+      this.columnTypes = columnTypes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Key key = (Key) o;
+      return splitsKey.equals(key.splitsKey) && columnTypes.equals(key.columnTypes);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(splitsKey, columnTypes);
+    }
+  }
+}
@@ -73,9 +73,11 @@ import com.dremio.common.expression.LogicalExpression;
 import com.dremio.common.expression.SchemaPath;
 import com.dremio.common.types.TypeProtos.DataMode;
 import com.dremio.common.types.TypeProtos.MajorType;
+import com.dremio.common.types.TypeProtos.MinorType;
 import com.dremio.common.types.Types;
 import com.dremio.datastore.SearchQueryUtils;
 import com.dremio.datastore.SearchTypes.SearchQuery;
+import com.dremio.exec.catalog.MaterializedSplitsPointer;
 import com.dremio.exec.catalog.StoragePluginId;
 import com.dremio.exec.catalog.conf.SourceType;
 import com.dremio.exec.expr.ExpressionTreeMaterializer;
@@ -407,6 +409,19 @@ public abstract class PruneScanRuleBase<T extends ScanRelBase & PruneableScan> e
       return cacheResult.finalSplits.size() < cacheResult.totalRecords;
     }
 
+    if (settings.isPartitionValueIndexEnabled()) {
+      miscTimer.start();
+      final EvaluationPruningResult indexResult = doIndexPruning(fieldNameMap, partitionColumnBitSet, tableMetadata, pruneCondition, scanRel);
+      if (indexResult != null) {
+        logger.debug("Elapsed time in partition value index evaluation: {} ms, total records: {}, qualified records: {}",
+          miscTimer.elapsed(TimeUnit.MILLISECONDS), indexResult.totalRecords, indexResult.finalSplits.size());
+        evalutationPruningCache.put(cacheKey, indexResult);
+        finalSplits.value = indexResult.finalSplits;
+        return indexResult.finalSplits.size() < indexResult.totalRecords;
+      }
+      miscTimer.reset();
+    }
+
     int batchIndex = 0;
     int recordCount = 0;
     int qualifiedCount = 0;
@@ -511,6 +526,63 @@ public abstract class PruneScanRuleBase<T extends ScanRelBase & PruneableScan> e
     return qualifiedCount < recordCount;
   }
 
+  /**
+   * Evaluate the condition over the shared index of the partition values of the splits.
+   *
+   * @return the result of the evaluation, or null if the condition is not supported by the index
+   */
+  private EvaluationPruningResult doIndexPruning(
+      final Map<Integer, String> fieldNameMap,
+      final BitSet partitionColumnBitSet,
+      final TableMetadata tableMetadata,
+      RexNode pruneCondition,
+      T scanRel) {
+    final Map<String, MinorType> columnTypes = new HashMap<>();
+    for (int partitionColumnIndex : BitSets.toIter(partitionColumnBitSet)) {
+      final String column = fieldNameMap.get(partitionColumnIndex);
+      final MinorType type = scanRel.getBatchSchema().getFieldId(SchemaPath.getSimplePath(column)).getFinalType().toMinorType();
+      if (PartitionValueIndex.isSupported(type)) {
+        columnTypes.put(column, type);
+      }
+    }
+
+    // check the condition against an empty index first, not to read the splits for nothing
+    final List<String> fieldNames = scanRel.getRowType().getFieldNames();
+    if (columnTypes.isEmpty()
+      || PartitionValueIndex.build(ImmutableList.of(), columnTypes).evaluate(pruneCondition, fieldNames) == null) {
+      return null;
+    }
+
+    // materialized pointers hold their splits, which should not be kept by the shared indexes
+    final SplitsKey splitsKey = tableMetadata.getSplitsKey();
+    final boolean shared = !(splitsKey instanceof MaterializedSplitsPointer);
+    PartitionValueIndex index = shared ? PartitionValueIndex.getIfPresent(splitsKey, columnTypes) : null;
+    List<PartitionChunkMetadata> splits = null;
+    if (index == null) {
+      splits = ImmutableList.copyOf(tableMetadata.getSplits());
+      index = PartitionValueIndex.build(splits, columnTypes);
+      if (shared) {
+        PartitionValueIndex.put(splitsKey, columnTypes, index);
+      }
+    }
+
+    final BitSet selected = index.evaluate(pruneCondition, fieldNames);
+    final ImmutableList.Builder<PartitionChunkMetadata> selectedSplits = ImmutableList.builder();
+    int splitIndex = 0;
+    final Iterator<PartitionChunkMetadata> splitIter = splits != null ? splits.iterator() : tableMetadata.getSplits();
+    while (splitIter.hasNext()) {
+      final PartitionChunkMetadata split = splitIter.next();
+      if (selected.get(splitIndex++)) {
+        selectedSplits.add(split);
+      }
+    }
+    if (splitIndex != index.getSplitCount()) {
+      logger.warn("Partition value index of {} splits used for {} splits, ignoring it", index.getSplitCount(), splitIndex);
+      return null;
+    }
+    return new EvaluationPruningResult(selectedSplits.build(), splitIndex);
+  }
+
   public void doOnMatch(RelOptRuleCall call, Filter filterRel, Project projectRel, T scanRel) {
     doOnMatch(call, filterRel, projectRel, scanRel, false);
   }
@@ -44,7 +44,7 @@ import com.google.common.collect.Lists;
 public abstract class AggPrelBase extends AggregateRelBase implements Prel {
 
 
-  protected static enum OperatorPhase {PHASE_1of1, PHASE_1of2, PHASE_2of2};
+  public static enum OperatorPhase {PHASE_1of1, PHASE_1of2, PHASE_2of2};
 
   protected OperatorPhase operPhase = OperatorPhase.PHASE_1of1 ; // default phase
   protected List<NamedExpression> keys;
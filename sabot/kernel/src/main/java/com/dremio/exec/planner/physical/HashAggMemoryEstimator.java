@@ -15,6 +15,7 @@
  */
 package com.dremio.exec.planner.physical;
 
+import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -45,6 +46,7 @@ import com.dremio.sabot.op.common.ht2.LBlockHashTable;
 import com.dremio.sabot.op.common.ht2.PivotBuilder;
 import com.dremio.sabot.op.common.ht2.PivotBuilder.PivotInfo;
 import com.dremio.sabot.op.common.ht2.VariableBlockVector;
+import com.google.common.math.LongMath;
 
 /**
  * Memory estimate for the pre-allocation (upper bound) required for Vectorized HashAgg (with
@@ -116,6 +118,16 @@ public class HashAggMemoryEstimator {
     return memAuxStructures;
   }
 
+  /**
+   * Memory required on top of the pre-allocation to hold the given number of groups, the pre-allocation holding one
+   * batch of groups per partition.
+   */
+  public long getMemForGroups(long groups) {
+    final long batches = LongMath.divide(groups, hashTableBatchSize, RoundingMode.CEILING);
+    final long memPerBatch = (memHashTable + memAccumulators) / numPartitions;
+    return LongMath.saturatedMultiply(Math.max(0, batches - numPartitions), memPerBatch);
+  }
+
   // Used by the plannner to estimate memory required.
   public static HashAggMemoryEstimator create(
     final List<NamedExpression> groupByExpressions,
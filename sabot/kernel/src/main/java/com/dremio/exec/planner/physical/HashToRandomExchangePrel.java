@@ -49,13 +49,24 @@ public class HashToRandomExchangePrel extends ExchangePrel {
 
   private final List<DistributionField> fields;
   private final String hashFunctionName;
+  private final boolean spreadHotKeys;
 
   public HashToRandomExchangePrel(RelOptCluster cluster, RelTraitSet traitSet, RelNode input, List<DistributionField> fields,
                                   String hashFunctionName) {
+    this(cluster, traitSet, input, fields, hashFunctionName, false);
+  }
+
+  /**
+   * @param spreadHotKeys true if the consumer of the exchange doesn't need all the rows of a key to be colocated, in
+   *                      which case the senders may spread the rows of hot keys across receivers
+   */
+  public HashToRandomExchangePrel(RelOptCluster cluster, RelTraitSet traitSet, RelNode input, List<DistributionField> fields,
+                                  String hashFunctionName, boolean spreadHotKeys) {
     super(cluster, traitSet, input);
     this.fields = fields;
     assert input.getConvention() == Prel.PHYSICAL;
     this.hashFunctionName = hashFunctionName;
+    this.spreadHotKeys = spreadHotKeys;
   }
 
   public HashToRandomExchangePrel(RelOptCluster cluster, RelTraitSet traitSet, RelNode input, List<DistributionField> fields) {
@@ -96,7 +107,7 @@ public class HashToRandomExchangePrel extends ExchangePrel {
 
   @Override
   public RelNode copy(RelTraitSet traitSet, List<RelNode> inputs) {
-    return new HashToRandomExchangePrel(getCluster(), traitSet, sole(inputs), fields, hashFunctionName);
+    return new HashToRandomExchangePrel(getCluster(), traitSet, sole(inputs), fields, hashFunctionName, spreadHotKeys);
   }
 
   public PhysicalOperator getPhysicalOperator(PhysicalPlanCreator creator) throws IOException {
@@ -116,7 +127,8 @@ public class HashToRandomExchangePrel extends ExchangePrel {
         HashSenderCalculator.captureBucketOptions(creator.getOptionManager(), SENDER_RESERVE, props.getSchema()),
         props.getSchema(),
         childPOP,
-        HashPrelUtil.getHashExpression(this.fields, getInput().getRowType()));
+        HashPrelUtil.getHashExpression(this.fields, getInput().getRowType()),
+        spreadHotKeys);
   }
 
   public List<DistributionField> getFields() {
@@ -129,6 +141,7 @@ public class HashToRandomExchangePrel extends ExchangePrel {
       for (Ord<DistributionField> ord : Ord.zip(fields)) {
         pw.item("dist" + ord.i, ord.e);
       }
+    pw.itemIf("spreadHotKeys", true, spreadHotKeys);
     return pw;
   }
 
@@ -140,4 +153,8 @@ public class HashToRandomExchangePrel extends ExchangePrel {
   public String getHashFunctionName() {
     return this.hashFunctionName;
   }
+
+  public boolean isSpreadHotKeys() {
+    return spreadHotKeys;
+  }
 }
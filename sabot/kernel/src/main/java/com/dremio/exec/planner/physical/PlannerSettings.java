@@ -119,6 +119,14 @@ public class PlannerSettings implements Context{
     (ENABLE_DECIMAL_DATA_TYPE_KEY, true);
   public static final BooleanValidator HEP_OPT = new BooleanValidator("planner.enable_hep_opt", true);
   public static final BooleanValidator ENABLE_PARTITION_PRUNING = new BooleanValidator("planner.enable_partition_pruning", true);
+  // resolve concurrently the tables referenced by a query and its views before validating it
+  public static final BooleanValidator PREFETCH_TABLE_METADATA = new BooleanValidator("planner.prefetch_table_metadata", true);
+  // evaluate simple partition filters over an index of the partition values shared by the queries, instead of the interpreter
+  public static final BooleanValidator ENABLE_PARTITION_VALUE_INDEX = new BooleanValidator("planner.partition_pruning.value_index", true);
+  // answer MIN/MAX/COUNT, optionally grouped by partition columns, from split metadata instead of scanning
+  public static final BooleanValidator ENABLE_METADATA_AGGREGATES = new BooleanValidator("planner.enable_metadata_aggregates", true);
+  // cluster the rows written with several sort columns along a Z-order curve of the columns, instead of sorting them by the first column
+  public static final BooleanValidator WRITER_ZORDER_SORT = new BooleanValidator("planner.writer.zorder_sort", false);
   public static final String UNIONALL_DISTRIBUTE_KEY = "planner.enable_unionall_distribute";
   public static final BooleanValidator UNIONALL_DISTRIBUTE = new BooleanValidator(UNIONALL_DISTRIBUTE_KEY, true);
   public static final LongValidator PLANNING_MAX_MILLIS = new LongValidator("planner.timeout_per_phase_ms", 60_000);
@@ -579,6 +587,22 @@ public class PlannerSettings implements Context{
     return options.getOption(ENABLE_PARTITION_PRUNING);
   }
 
+  public boolean isTableMetadataPrefetchEnabled() {
+    return options.getOption(PREFETCH_TABLE_METADATA);
+  }
+
+  public boolean isPartitionValueIndexEnabled() {
+    return options.getOption(ENABLE_PARTITION_VALUE_INDEX);
+  }
+
+  public boolean isMetadataAggregatesEnabled() {
+    return options.getOption(ENABLE_METADATA_AGGREGATES);
+  }
+
+  public boolean isWriterZOrderSortEnabled() {
+    return options.getOption(WRITER_ZORDER_SORT);
+  }
+
   public boolean isTrivialSingularOptimized() {
     return options.getOption(ENABLE_TRIVIAL_SINGULAR);
   }
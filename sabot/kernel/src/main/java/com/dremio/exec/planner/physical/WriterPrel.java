@@ -43,6 +43,7 @@ public class WriterPrel extends WriterRelBase implements Prel {
   public static final String PARTITION_COMPARATOR_FIELD = "P_A_R_T_I_T_I_O_N_C_O_M_P_A_R_A_T_O_R";
   public static final String BUCKET_NUMBER_FIELD = "P_A_R_T_I_T_I_O_N_N_U_M_B_E_R";
   public static final String PARTITION_COMPARATOR_FUNC = "newPartitionValue";
+  public static final String ZORDER_VALUE_FIELD = "Z_O_R_D_E_R_V_A_L_U_E";
 
   private final RelDataType expectedInboundRowType;
 
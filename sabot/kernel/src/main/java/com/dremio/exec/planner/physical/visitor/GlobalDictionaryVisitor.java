@@ -25,14 +25,18 @@ import java.util.Set;
 import org.apache.calcite.plan.RelOptCluster;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.core.AggregateCall;
+import org.apache.calcite.rel.core.JoinInfo;
 import org.apache.calcite.rel.type.RelDataType;
 import org.apache.calcite.rel.type.RelDataTypeField;
 import org.apache.calcite.rel.type.RelDataTypeFieldImpl;
+import org.apache.calcite.rex.RexCall;
 import org.apache.calcite.rex.RexInputRef;
 import org.apache.calcite.rex.RexNode;
 import org.apache.calcite.rex.RexShuttle;
+import org.apache.calcite.rex.RexVisitorImpl;
 import org.apache.calcite.sql.SqlKind;
 import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.calcite.util.mapping.IntPair;
 
 import com.dremio.datastore.LegacyProtobufSerializer;
 import com.dremio.exec.catalog.StoragePluginId;
@@ -40,6 +44,7 @@ import com.dremio.exec.planner.physical.AggPrelBase;
 import com.dremio.exec.planner.physical.DistributionTrait.DistributionField;
 import com.dremio.exec.planner.physical.ExchangePrel;
 import com.dremio.exec.planner.physical.FilterPrel;
+import com.dremio.exec.planner.physical.HashPrelUtil;
 import com.dremio.exec.planner.physical.HashToMergeExchangePrel;
 import com.dremio.exec.planner.physical.HashToRandomExchangePrel;
 import com.dremio.exec.planner.physical.JoinPrel;
@@ -47,6 +52,8 @@ import com.dremio.exec.planner.physical.LeafPrel;
 import com.dremio.exec.planner.physical.LimitPrel;
 import com.dremio.exec.planner.physical.Prel;
 import com.dremio.exec.planner.physical.ProjectPrel;
+import com.dremio.exec.planner.physical.UnorderedDeMuxExchangePrel;
+import com.dremio.exec.planner.physical.UnorderedMuxExchangePrel;
 import com.dremio.exec.planner.sql.CalciteArrowHelper;
 import com.dremio.exec.planner.sql.TypeInferenceUtils;
 import com.dremio.exec.store.TableMetadata;
@@ -68,8 +75,16 @@ import com.google.protobuf.InvalidProtocolBufferException;
 
 /**
  * Replace column type with integer ids
+ *
+ * Fields stay encoded as high as possible in the plan:
+ * - aggregations group on ids, and hash exchanges below them distribute on ids when nothing above the aggregation
+ *   relies on its distribution. The value passed down the tree is true when no ancestor relies on the distribution of
+ *   the output, since the distribution trait still names the decoded fields: a join above an aggregation for instance
+ *   expects it to line up with its other input, hashed on values.
+ * - equi-joins compare ids when both keys are encoded with the same dictionary.
+ * - filters check nullness, and compare fields encoded with the same dictionary, on ids.
  */
-public class GlobalDictionaryVisitor extends BasePrelVisitor<PrelWithDictionaryInfo, Void, RuntimeException> {
+public class GlobalDictionaryVisitor extends BasePrelVisitor<PrelWithDictionaryInfo, Boolean, RuntimeException> {
 
   private final RelDataType dictionaryDataType;
 
@@ -79,12 +94,12 @@ public class GlobalDictionaryVisitor extends BasePrelVisitor<PrelWithDictionaryI
   }
 
   public static Prel useGlobalDictionaries(Prel prel) {
-    final PrelWithDictionaryInfo p =  prel.accept(new GlobalDictionaryVisitor(prel.getCluster()), null);
+    final PrelWithDictionaryInfo p =  prel.accept(new GlobalDictionaryVisitor(prel.getCluster()), false);
     return p.getPrel();
   }
 
   @Override
-  public PrelWithDictionaryInfo visitLeaf(LeafPrel prel, Void value) throws RuntimeException {
+  public PrelWithDictionaryInfo visitLeaf(LeafPrel prel, Boolean value) throws RuntimeException {
     if (!(prel instanceof ParquetScanPrel)) {
       return new PrelWithDictionaryInfo(prel);
     }
@@ -93,15 +108,25 @@ public class GlobalDictionaryVisitor extends BasePrelVisitor<PrelWithDictionaryI
 
   // Decode HashTo*, pass through others
   @Override
-  public PrelWithDictionaryInfo visitExchange(ExchangePrel exchangePrel, Void value) throws RuntimeException {
+  public PrelWithDictionaryInfo visitExchange(ExchangePrel exchangePrel, Boolean value) throws RuntimeException {
     assert exchangePrel.getInputs().size() == 1;
-    PrelWithDictionaryInfo newInput = ((Prel)exchangePrel.getInput()).accept(this, value);
+    // ids of a dictionary are the same in every fragment, so rows with the same key still meet in the same receiver
+    final boolean distributeOnIds = value && exchangePrel instanceof HashToRandomExchangePrel;
+    PrelWithDictionaryInfo newInput;
+    if (distributeOnIds) {
+      newInput = visitHashExchangeInput((Prel) exchangePrel.getInput());
+    } else {
+      // the exchange redistributes its input, unless it only narrows down the receivers of the hash exchange below
+      final boolean inputDistributionUnused = value || !(exchangePrel instanceof UnorderedDeMuxExchangePrel);
+      newInput = ((Prel) exchangePrel.getInput()).accept(this, inputDistributionUnused);
+    }
 
     if (exchangePrel.getInput() == newInput.getPrel()) {
       return new PrelWithDictionaryInfo(exchangePrel); // none of fields are encoded
     }
 
-    if (exchangePrel instanceof HashToMergeExchangePrel || exchangePrel instanceof HashToRandomExchangePrel) {
+    if (!distributeOnIds
+      && (exchangePrel instanceof HashToMergeExchangePrel || exchangePrel instanceof HashToRandomExchangePrel)) {
       final List<DistributionField> distributionFields;
       if (exchangePrel instanceof HashToMergeExchangePrel) {
         distributionFields = ((HashToMergeExchangePrel) exchangePrel).getDistFields();
@@ -122,13 +147,60 @@ public class GlobalDictionaryVisitor extends BasePrelVisitor<PrelWithDictionaryI
       newInput.getFields());
   }
 
+  /**
+   * Visit the input of a hash exchange distributing on ids. The hash is computed by a project below the exchange, or
+   * below the mux exchange collecting the rows of a node first: keep the distribution fields encoded in that project.
+   */
+  private PrelWithDictionaryInfo visitHashExchangeInput(Prel input) {
+    if (input instanceof UnorderedMuxExchangePrel) {
+      final PrelWithDictionaryInfo newInput = visitHashExchangeInput((Prel) input.getInput(0));
+      if (input.getInput(0) == newInput.getPrel()) {
+        return new PrelWithDictionaryInfo(input);
+      }
+      return new PrelWithDictionaryInfo(
+        (Prel) input.copy(input.getTraitSet(), Collections.<RelNode>singletonList(newInput.getPrel())),
+        newInput.getFields());
+    }
+
+    if (!(input instanceof ProjectPrel)
+      || !HashPrelUtil.HASH_EXPR_NAME.equals(Iterables.getLast(input.getRowType().getFieldNames()))) {
+      return input.accept(this, true);
+    }
+
+    final ProjectPrel projectPrel = (ProjectPrel) input;
+    final PrelWithDictionaryInfo newInput = ((Prel) projectPrel.getInput()).accept(this, true);
+    if (projectPrel.getInput() == newInput.getPrel()) {
+      return new PrelWithDictionaryInfo(projectPrel);
+    }
+
+    // the input fields are passed through, followed by the hash of the distribution fields, now computed on ids
+    final List<RelDataTypeField> inputFields = newInput.getPrel().getRowType().getFieldList();
+    final List<RexNode> newExprs = Lists.newArrayList();
+    for (RexNode expr : projectPrel.getProjects()) {
+      newExprs.add(retypeInputRefs(expr, inputFields));
+    }
+    final GlobalDictionaryFieldInfo[] reorderedFields = new GlobalDictionaryFieldInfo[projectPrel.getRowType().getFieldCount()];
+    final List<RelDataTypeField> newFields = Lists.newArrayList();
+    for (RelDataTypeField field : projectPrel.getRowType().getFieldList()) {
+      if (field.getIndex() < inputFields.size()) {
+        newFields.add(new RelDataTypeFieldImpl(field.getName(), field.getIndex(), inputFields.get(field.getIndex()).getType()));
+        reorderedFields[field.getIndex()] = newInput.getGlobalDictionaryFieldInfo(field.getIndex());
+      } else {
+        newFields.add(field);
+      }
+    }
+    final RelDataType rowDataType = PrelWithDictionaryInfo.toRowDataType(newFields, projectPrel.getCluster().getTypeFactory());
+    return new PrelWithDictionaryInfo(
+      projectPrel.copy(projectPrel.getTraitSet(), newInput.getPrel(), newExprs, rowDataType), reorderedFields);
+  }
+
   @Override
-  public PrelWithDictionaryInfo visitJoin(JoinPrel joinPrel, Void value) throws RuntimeException {
+  public PrelWithDictionaryInfo visitJoin(JoinPrel joinPrel, Boolean value) throws RuntimeException {
     assert joinPrel.getInputs().size() == 2;
     // visit left
-    PrelWithDictionaryInfo leftInput = ((Prel)joinPrel.getLeft()).accept(this, value);
+    PrelWithDictionaryInfo leftInput = ((Prel)joinPrel.getLeft()).accept(this, false);
     // visit right
-    PrelWithDictionaryInfo rightInput = ((Prel)joinPrel.getRight()).accept(this, value);
+    PrelWithDictionaryInfo rightInput = ((Prel)joinPrel.getRight()).accept(this, false);
     if ((joinPrel.getLeft() == leftInput.getPrel()) && (joinPrel.getRight() == rightInput.getPrel())) {
       return new PrelWithDictionaryInfo(joinPrel);
     }
@@ -148,13 +220,28 @@ public class GlobalDictionaryVisitor extends BasePrelVisitor<PrelWithDictionaryI
       reorderedFields[i] = null;
     }
 
-    joinPrel.getCondition().accept(visitor);
+    boolean encodedKeys = false;
+    final JoinInfo joinInfo = joinPrel.analyzeCondition();
+    if (joinInfo.isEqui()) {
+      for (IntPair keys : joinInfo.pairs()) {
+        if (sameDictionary(leftInput.getGlobalDictionaryFieldInfo(keys.source),
+          rightInput.getGlobalDictionaryFieldInfo(keys.target))) {
+          // ids of the same dictionary are equal if and only if the values are
+          encodedKeys = true;
+        } else {
+          leftFieldsUsed.add(keys.source);
+          rightFieldsUsed.add(keys.target);
+        }
+      }
+    } else {
+      joinPrel.getCondition().accept(visitor);
 
-    for (int fieldIndex : fieldsUsed) {
-      if (fieldIndex < leftFieldCount) {
-        leftFieldsUsed.add(fieldIndex - systemFieldCount);
-      } else {
-        rightFieldsUsed.add(fieldIndex - (systemFieldCount + leftFieldCount));
+      for (int fieldIndex : fieldsUsed) {
+        if (fieldIndex < leftFieldCount) {
+          leftFieldsUsed.add(fieldIndex - systemFieldCount);
+        } else {
+          rightFieldsUsed.add(fieldIndex - (systemFieldCount + leftFieldCount));
+        }
       }
     }
 
@@ -168,12 +255,20 @@ public class GlobalDictionaryVisitor extends BasePrelVisitor<PrelWithDictionaryI
     for (int i = 0; i < rightFieldCount; ++i) {
       reorderedFields[leftFieldCount + i] = rightInput.getGlobalDictionaryFieldInfo(i);
     }
+    if (encodedKeys) {
+      // the condition now compares integer ids
+      final List<RelDataTypeField> inputFields = Lists.newArrayList(leftInput.getPrel().getRowType().getFieldList());
+      inputFields.addAll(rightInput.getPrel().getRowType().getFieldList());
+      final RexNode condition = retypeInputRefs(joinPrel.getCondition(), inputFields);
+      return new PrelWithDictionaryInfo((Prel)joinPrel.copy(joinPrel.getTraitSet(), condition,
+        leftInput.getPrel(), rightInput.getPrel(), joinPrel.getJoinType(), joinPrel.isSemiJoinDone()), reorderedFields);
+    }
     return new PrelWithDictionaryInfo((Prel)joinPrel.copy(joinPrel.getTraitSet(),
       Lists.<RelNode>newArrayList(leftInput.getPrel(), rightInput.getPrel())), reorderedFields);
   }
 
   @Override
-  public PrelWithDictionaryInfo visitProject(ProjectPrel projectPrel, Void value) throws RuntimeException {
+  public PrelWithDictionaryInfo visitProject(ProjectPrel projectPrel, Boolean value) throws RuntimeException {
     assert projectPrel.getInputs().size() == 1;
 
     PrelWithDictionaryInfo newInput = ((Prel)projectPrel.getInput()).accept(this, value);
@@ -238,7 +333,7 @@ public class GlobalDictionaryVisitor extends BasePrelVisitor<PrelWithDictionaryI
   }
 
   @Override
-  public PrelWithDictionaryInfo visitPrel(Prel prel, Void value) throws RuntimeException {
+  public PrelWithDictionaryInfo visitPrel(Prel prel, Boolean value) throws RuntimeException {
     if (prel instanceof AggPrelBase) {
       return visitAggregation((AggPrelBase) prel, value);
     }
@@ -255,7 +350,7 @@ public class GlobalDictionaryVisitor extends BasePrelVisitor<PrelWithDictionaryI
 
     boolean changed = false;
     for (Prel input : prel) {
-      final PrelWithDictionaryInfo newInput = input.accept(this, value);
+      final PrelWithDictionaryInfo newInput = input.accept(this, false);
       if (input != newInput.getPrel()) {
         changed = true;
       }
@@ -277,8 +372,9 @@ public class GlobalDictionaryVisitor extends BasePrelVisitor<PrelWithDictionaryI
     return SqlKind.COUNT != sqlKind;
   }
 
-  private PrelWithDictionaryInfo visitAggregation(AggPrelBase aggPrel, Void value) throws RuntimeException {
+  private PrelWithDictionaryInfo visitAggregation(AggPrelBase aggPrel, Boolean value) throws RuntimeException {
     assert aggPrel.getInputs().size() == 1;
+    // rows only need to be grouped by key, but the output of the aggregation is distributed like its input
     PrelWithDictionaryInfo newInput = ((Prel)aggPrel.getInput()).accept(this, value);
 
     if (aggPrel.getInput() == newInput.getPrel()) {
@@ -317,7 +413,7 @@ public class GlobalDictionaryVisitor extends BasePrelVisitor<PrelWithDictionaryI
       reorderedFields);
   }
 
-  private PrelWithDictionaryInfo visitFilter(FilterPrel filterPrel, Void value) {
+  private PrelWithDictionaryInfo visitFilter(FilterPrel filterPrel, Boolean value) {
     assert filterPrel.getInputs().size() == 1;
 
     PrelWithDictionaryInfo newInput = ((Prel)filterPrel.getInput()).accept(this, value);
@@ -326,26 +422,45 @@ public class GlobalDictionaryVisitor extends BasePrelVisitor<PrelWithDictionaryI
       return new PrelWithDictionaryInfo(filterPrel); // none of fields are encoded
     }
 
-    final Set<Integer> fieldsUsed = Sets.newHashSet();
-    final InputReferenceRexVisitor visitor = new InputReferenceRexVisitor(fieldsUsed);
+    final FilterFieldsVisitor visitor = new FilterFieldsVisitor(newInput);
     filterPrel.getCondition().accept(visitor);
 
-    // decode used inputs by this filter
-    newInput = newInput.decodeFields(fieldsUsed);
+    // decode inputs whose values are used by this filter
+    newInput = newInput.decodeFields(visitor.getFieldsToDecode());
 
-    return new PrelWithDictionaryInfo((Prel)filterPrel.copy(filterPrel.getTraitSet(), newInput.getPrel(), filterPrel.getCondition()),
+    final RexNode condition = retypeInputRefs(filterPrel.getCondition(), newInput.getPrel().getRowType().getFieldList());
+    return new PrelWithDictionaryInfo((Prel)filterPrel.copy(filterPrel.getTraitSet(), newInput.getPrel(), condition),
       newInput.getFields());
   }
 
   // Pass through do not decode.
-  private PrelWithDictionaryInfo visitLimit(LimitPrel limitPrel, Void value) {
-    final PrelWithDictionaryInfo newInput = ((Prel)limitPrel.getInput()).accept(this, value);
+  private PrelWithDictionaryInfo visitLimit(LimitPrel limitPrel, Boolean value) {
+    final PrelWithDictionaryInfo newInput = ((Prel)limitPrel.getInput()).accept(this, false);
     if (limitPrel.getInput() == newInput.getPrel()) {
       return new PrelWithDictionaryInfo(limitPrel);
     }
     return new PrelWithDictionaryInfo((Prel)limitPrel.copy(limitPrel.getTraitSet(), Collections.<RelNode>singletonList(newInput.getPrel())), newInput.getFields());
   }
 
+  private static boolean sameDictionary(GlobalDictionaryFieldInfo field1, GlobalDictionaryFieldInfo field2) {
+    return field1 != null && field2 != null
+      && field1.getDictionaryVersion() == field2.getDictionaryVersion()
+      && field1.getDictionaryPath().equals(field2.getDictionaryPath());
+  }
+
+  /**
+   * Update the types of the input references of an expression after some inputs were decoded, or kept encoded.
+   */
+  private static RexNode retypeInputRefs(RexNode expr, final List<RelDataTypeField> inputFields) {
+    return expr.accept(new RexShuttle() {
+      @Override
+      public RexNode visitInputRef(RexInputRef inputRef) {
+        final RelDataType type = inputFields.get(inputRef.getIndex()).getType();
+        return type.equals(inputRef.getType()) ? inputRef : new RexInputRef(inputRef.getIndex(), type);
+      }
+    });
+  }
+
   private RelDataTypeField dictionaryEncodedField(RelDataTypeField field) {
     return new RelDataTypeFieldImpl(field.getName(), field.getIndex(), dictionaryDataType);
   }
@@ -354,7 +469,7 @@ public class GlobalDictionaryVisitor extends BasePrelVisitor<PrelWithDictionaryI
     return table.getDatasetConfig().getPhysicalDataset().getFormatSettings().getType() == FileType.ICEBERG;
   }
 
-  private PrelWithDictionaryInfo visitParquetScanPrel(ParquetScanPrel parquetScanPrel, Void value) throws RuntimeException {
+  private PrelWithDictionaryInfo visitParquetScanPrel(ParquetScanPrel parquetScanPrel, Boolean value) throws RuntimeException {
     final ReadDefinition readDefinition = parquetScanPrel.getTableMetadata().getReadDefinition();
 
     if (readDefinition == null || readDefinition.getExtendedProperty() == null) {
@@ -452,6 +567,69 @@ public class GlobalDictionaryVisitor extends BasePrelVisitor<PrelWithDictionaryI
     return new PrelWithDictionaryInfo(newParquetScanPrel, fieldInfos);
   }
 
+  /**
+   * Finds the fields a filter needs the values of. Null checks can be done on ids, and so can comparisons of two fields
+   * encoded with the same dictionary as long as both stay encoded.
+   */
+  private static class FilterFieldsVisitor extends RexVisitorImpl<Void> {
+    private final PrelWithDictionaryInfo input;
+    private final Set<Integer> fieldsToDecode = Sets.newHashSet();
+    private final List<IntPair> comparedFields = Lists.newArrayList();
+
+    FilterFieldsVisitor(PrelWithDictionaryInfo input) {
+      super(true);
+      this.input = input;
+    }
+
+    @Override
+    public Void visitInputRef(RexInputRef inputRef) {
+      fieldsToDecode.add(inputRef.getIndex());
+      return null;
+    }
+
+    @Override
+    public Void visitCall(RexCall call) {
+      switch (call.getKind()) {
+        case IS_NULL:
+        case IS_NOT_NULL:
+          if (call.getOperands().get(0) instanceof RexInputRef) {
+            return null;
+          }
+          break;
+        case EQUALS:
+        case NOT_EQUALS:
+          if (call.getOperands().get(0) instanceof RexInputRef && call.getOperands().get(1) instanceof RexInputRef) {
+            final int field1 = ((RexInputRef) call.getOperands().get(0)).getIndex();
+            final int field2 = ((RexInputRef) call.getOperands().get(1)).getIndex();
+            if (sameDictionary(input.getGlobalDictionaryFieldInfo(field1), input.getGlobalDictionaryFieldInfo(field2))) {
+              comparedFields.add(IntPair.of(field1, field2));
+              return null;
+            }
+          }
+          break;
+        default:
+          break;
+      }
+      return super.visitCall(call);
+    }
+
+    Set<Integer> getFieldsToDecode() {
+      // fields compared with each other must be both decoded, or both kept encoded
+      boolean changed = true;
+      while (changed) {
+        changed = false;
+        for (IntPair fields : comparedFields) {
+          if (fieldsToDecode.contains(fields.source) != fieldsToDecode.contains(fields.target)) {
+            fieldsToDecode.add(fields.source);
+            fieldsToDecode.add(fields.target);
+            changed = true;
+          }
+        }
+      }
+      return fieldsToDecode;
+    }
+  }
+
   private static class InputReferenceRexVisitor extends RexShuttle {
     private final Set<Integer> fieldsUsed;
 
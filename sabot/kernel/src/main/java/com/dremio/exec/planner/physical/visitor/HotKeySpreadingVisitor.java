@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner.physical.visitor;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.JoinRelType;
+
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.planner.physical.AggPrelBase;
+import com.dremio.exec.planner.physical.AggPrelBase.OperatorPhase;
+import com.dremio.exec.planner.physical.BroadcastExchangePrel;
+import com.dremio.exec.planner.physical.ExchangePrel;
+import com.dremio.exec.planner.physical.FilterPrel;
+import com.dremio.exec.planner.physical.HashPrelUtil;
+import com.dremio.exec.planner.physical.HashToRandomExchangePrel;
+import com.dremio.exec.planner.physical.JoinPrel;
+import com.dremio.exec.planner.physical.Prel;
+import com.dremio.exec.planner.physical.ProjectPrel;
+import com.dremio.exec.planner.physical.SelectionVectorRemoverPrel;
+import com.dremio.options.OptionManager;
+import com.google.common.collect.Lists;
+
+/**
+ * Lets the senders of the hash exchanges whose consumers don't need all the rows of a key in the same fragment spread
+ * the rows of hot keys across receivers.
+ *
+ * The flag passed down the plan tells whether the operators above a node depend on the distribution of its rows:
+ * <ul>
+ * <li>an exchange redistributes its input, so nothing above depends on the distribution of the rows below it,</li>
+ * <li>the first phase of a two phase aggregation computes groups that are merged by the second phase, after a hash
+ * exchange on all the keys, so it doesn't depend on the distribution of its input either,</li>
+ * <li>the probe side of a join whose build side is broadcast can be distributed in any way, but the join keeps its
+ * distribution, so the probe side depends on it only when the operators above the join do,</li>
+ * <li>projects and filters keep the distribution of their input for the operators above them,</li>
+ * <li>any other operator, such as a final aggregation, a partitioned join, a window or a writer, is assumed to need
+ * the keys of its input colocated.</li>
+ * </ul>
+ * Split distribution exchanges, which send splits to the fragments with affinity to them, are never marked.
+ */
+public class HotKeySpreadingVisitor extends BasePrelVisitor<Prel, Boolean, RuntimeException> {
+
+  public static Prel spreadHotKeys(Prel prel, OptionManager options) {
+    if (!options.getOption(ExecConstants.ENABLE_PARTITIONER_HOT_KEY_SPREADING)) {
+      return prel;
+    }
+    return prel.accept(new HotKeySpreadingVisitor(), false);
+  }
+
+  @Override
+  public Prel visitExchange(ExchangePrel prel, Boolean splitKeysAllowed) throws RuntimeException {
+    final Prel child = ((Prel) prel.getInput()).accept(this, true);
+
+    if (splitKeysAllowed && prel instanceof HashToRandomExchangePrel) {
+      final HashToRandomExchangePrel exchange = (HashToRandomExchangePrel) prel;
+      if (!HashPrelUtil.DREMIO_SPLIT_DISTRIBUTE_HASH_FUNCTION_NAME.equals(exchange.getHashFunctionName())) {
+        return new HashToRandomExchangePrel(exchange.getCluster(), exchange.getTraitSet(), child, exchange.getFields(),
+          exchange.getHashFunctionName(), true);
+      }
+    }
+
+    return (Prel) prel.copy(prel.getTraitSet(), Collections.singletonList((RelNode) child));
+  }
+
+  @Override
+  public Prel visitJoin(JoinPrel prel, Boolean splitKeysAllowed) throws RuntimeException {
+    final boolean broadcastBuild = prel.getRight() instanceof BroadcastExchangePrel
+      && (prel.getJoinType() == JoinRelType.INNER || prel.getJoinType() == JoinRelType.LEFT);
+
+    final Prel left = ((Prel) prel.getLeft()).accept(this, broadcastBuild && splitKeysAllowed);
+    final Prel right = ((Prel) prel.getRight()).accept(this, false);
+    return (Prel) prel.copy(prel.getTraitSet(), Lists.<RelNode>newArrayList(left, right));
+  }
+
+  @Override
+  public Prel visitProject(ProjectPrel prel, Boolean splitKeysAllowed) throws RuntimeException {
+    return visitChildren(prel, splitKeysAllowed);
+  }
+
+  @Override
+  public Prel visitPrel(Prel prel, Boolean splitKeysAllowed) throws RuntimeException {
+    if (prel instanceof FilterPrel || prel instanceof SelectionVectorRemoverPrel) {
+      return visitChildren(prel, splitKeysAllowed);
+    }
+    final boolean partialAggregation = prel instanceof AggPrelBase
+      && ((AggPrelBase) prel).getOperatorPhase() == OperatorPhase.PHASE_1of2;
+    return visitChildren(prel, partialAggregation);
+  }
+
+  private Prel visitChildren(Prel prel, boolean splitKeysAllowed) {
+    final List<RelNode> children = Lists.newArrayList();
+    for (Prel child : prel) {
+      children.add(child.accept(this, splitKeysAllowed));
+    }
+    return (Prel) prel.copy(prel.getTraitSet(), children);
+  }
+}
@@ -91,8 +91,7 @@ public class InsertLocalExchangeVisitor extends BasePrelVisitor<Prel, Void, Runt
       newPrel = new UnorderedMuxExchangePrel(child.getCluster(), child.getTraitSet(), child);
     }
 
-    newPrel = new HashToRandomExchangePrel(prel.getCluster(),
-        prel.getTraitSet(), newPrel, ((HashToRandomExchangePrel) prel).getFields());
+    newPrel = (Prel) prel.copy(prel.getTraitSet(), Collections.singletonList((RelNode) newPrel));
 
     if (isDeMuxEnabled) {
       HashToRandomExchangePrel hashExchangePrel = (HashToRandomExchangePrel) newPrel;
@@ -48,6 +48,7 @@ import com.dremio.exec.planner.physical.explain.PrelSequencer;
 import com.dremio.exec.planner.physical.filter.RuntimeFilterEntry;
 import com.dremio.exec.planner.physical.filter.RuntimeFilterInfo;
 import com.dremio.exec.store.TableMetadata;
+import com.dremio.exec.store.parquet.ParquetScanPrel;
 import com.dremio.service.namespace.dataset.proto.ReadDefinition;
 import com.google.common.collect.ImmutableList;
 
@@ -270,7 +271,12 @@ public class RuntimeFilterVisitor extends BasePrelVisitor<Prel, Void, RuntimeExc
     @Override
     public List<ColumnOriginScan> visitLeaf(LeafPrel prel, Integer idx) {
       if (prel instanceof ScanPrelBase) {
-        return ImmutableList.of(ColumnOriginScan.of((ScanPrelBase) prel, prel.getRowType().getFieldNames().get(idx)));
+        final String fieldName = prel.getRowType().getFieldNames().get(idx);
+        if (prel instanceof ParquetScanPrel && ((ParquetScanPrel) prel).isGlobalDictionaryEncoded(fieldName)) {
+          // the join compares dictionary ids, which the scan cannot filter values with
+          return ImmutableList.of();
+        }
+        return ImmutableList.of(ColumnOriginScan.of((ScanPrelBase) prel, fieldName));
       }
       return ImmutableList.of();
     }
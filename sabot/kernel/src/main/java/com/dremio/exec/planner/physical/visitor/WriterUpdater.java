@@ -26,12 +26,23 @@ import org.apache.calcite.rel.RelCollation;
 import org.apache.calcite.rel.RelCollations;
 import org.apache.calcite.rel.RelFieldCollation;
 import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.Window;
 import org.apache.calcite.rel.type.RelDataType;
 import org.apache.calcite.rel.type.RelDataTypeField;
+import org.apache.calcite.rel.type.RelDataTypeFieldImpl;
+import org.apache.calcite.rel.type.RelRecordType;
 import org.apache.calcite.rex.RexBuilder;
 import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexLiteral;
 import org.apache.calcite.rex.RexNode;
 import org.apache.calcite.rex.RexUtil;
+import org.apache.calcite.rex.RexWindowBound;
+import org.apache.calcite.sql.SqlWindow;
+import org.apache.calcite.sql.fun.SqlStdOperatorTable;
+import org.apache.calcite.sql.parser.SqlParserPos;
+import org.apache.calcite.sql.type.ReturnTypes;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.calcite.util.ImmutableBitSet;
 
 import com.dremio.common.exceptions.UserException;
 import com.dremio.exec.physical.base.WriterOptions;
@@ -41,9 +52,11 @@ import com.dremio.exec.planner.physical.DistributionTrait.DistributionType;
 import com.dremio.exec.planner.physical.DistributionTraitDef;
 import com.dremio.exec.planner.physical.HashPrelUtil;
 import com.dremio.exec.planner.physical.Prel;
+import com.dremio.exec.planner.physical.PrelUtil;
 import com.dremio.exec.planner.physical.ProjectAllowDupPrel;
 import com.dremio.exec.planner.physical.ProjectPrel;
 import com.dremio.exec.planner.physical.SortPrel;
+import com.dremio.exec.planner.physical.WindowPrel;
 import com.dremio.exec.planner.physical.WriterPrel;
 import com.dremio.exec.planner.sql.SqlOperatorImpl;
 import com.google.common.base.Function;
@@ -65,6 +78,11 @@ public class WriterUpdater extends BasePrelVisitor<Prel, Void, RuntimeException>
 
   private static final WriterUpdater INSTANCE = new WriterUpdater();
 
+  // see ZOrderFunctions
+  private static final String ZORDER_VALUE_FUNC = "zorder_value";
+  private static final int MAX_ZORDER_KEYS = 4;
+  private static final String ZORDER_RANK_FIELD = "Z_O_R_D_E_R_R_A_N_K_";
+
   private WriterUpdater(){}
 
   public static Prel update(Prel prel) {
@@ -121,6 +139,7 @@ public class WriterUpdater extends BasePrelVisitor<Prel, Void, RuntimeException>
       List<Integer> sortKeys = new ArrayList<>();
       // last column is the hash modulo expression.
       sortKeys.add(project.getRowType().getFieldCount() - 1);
+      List<Integer> clusterKeys = new ArrayList<>();
 
       // if partitions, add those to sort.
       final Set<Integer> sortedKeys = Sets.newHashSet();
@@ -138,13 +157,11 @@ public class WriterUpdater extends BasePrelVisitor<Prel, Void, RuntimeException>
             logger.warn("Rejecting sort key {} since it is already included in partition clause.", key);
             continue;
           }
-          sortKeys.add(key);
+          clusterKeys.add(key);
         }
       }
 
-      final RelCollation collation = getCollation(prel.getTraitSet(), sortKeys);
-
-      final Prel sort = SortPrel.create(project.getCluster(), project.getTraitSet().plus(collation), project, collation);
+      final Prel sort = addSort(project, prel.getTraitSet(), sortKeys, clusterKeys);
 
       List<Integer> fieldIndices = new ArrayList<>();
       // add bucket field.
@@ -168,6 +185,7 @@ public class WriterUpdater extends BasePrelVisitor<Prel, Void, RuntimeException>
       sortedKeys.addAll(partitionKeys);
 
       // then sort by sort keys, if available.
+      List<Integer> clusterKeys = new ArrayList<>();
       if (options.hasSort()) {
         List<Integer> sortRequestKeys = getFieldIndices(options.getSortColumns(), input.getRowType());
         for(Integer key : sortRequestKeys){
@@ -175,12 +193,11 @@ public class WriterUpdater extends BasePrelVisitor<Prel, Void, RuntimeException>
             logger.warn("Rejecting sort key {} since it is already included in partition clause.", key);
             continue;
           }
-          sortKeys.add(key);
+          clusterKeys.add(key);
         }
       }
 
-      final RelCollation collation = getCollation(prel.getTraitSet(), sortKeys);
-      final Prel sort = SortPrel.create(input.getCluster(), input.getTraitSet().plus(collation), input, collation);
+      final Prel sort = addSort(input, prel.getTraitSet(), sortKeys, clusterKeys);
 
       // we need to sort by the partitions.
       final Prel changeDetectionPrel = addChangeDetectionProject(sort, getFieldIndices(options.getPartitionColumns(), input.getRowType()));
@@ -190,8 +207,7 @@ public class WriterUpdater extends BasePrelVisitor<Prel, Void, RuntimeException>
     } else if(options.hasSort()){
       // no partitions or distributions.
       // insert a sort on sort fields.
-      final RelCollation collation = getCollation(prel.getTraitSet(), getFieldIndices(options.getSortColumns(), input.getRowType()));
-      final Prel sort = SortPrel.create(input.getCluster(), input.getTraitSet().plus(collation), input, collation);
+      final Prel sort = addSort(input, prel.getTraitSet(), ImmutableList.of(), getFieldIndices(options.getSortColumns(), input.getRowType()));
       final WriterPrel writer = new WriterPrel(prel.getCluster(), prel.getTraitSet(), sort, prel.getCreateTableEntry(), prel.getExpectedInboundRowType());
       return writer;
 
@@ -200,6 +216,92 @@ public class WriterUpdater extends BasePrelVisitor<Prel, Void, RuntimeException>
     }
   }
 
+  /**
+   * Sort the input by the leading keys, then by the sort keys of the table. With several sort keys and Z-order
+   * sorting enabled, the rows are sorted by the Z-order value of the first sort keys instead, so that the files and
+   * row groups written cover small ranges of each of the keys rather than of the first one only.
+   *
+   * The Z-order value interleaves the ranks of the keys within the leading keys rather than the keys themselves, so
+   * that each key contributes the same number of significant bits whatever its type and range: a key with few
+   * distinct values doesn't leave the others to order the rows alone, and a key with a wide range doesn't order the
+   * rows alone. Ranking a key takes a sort and a window operator.
+   */
+  private static Prel addSort(Prel input, RelTraitSet traitSet, List<Integer> leadingKeys, List<Integer> clusterKeys) {
+    if (!PrelUtil.getPlannerSettings(input.getCluster()).isWriterZOrderSortEnabled() || clusterKeys.size() < 2) {
+      final List<Integer> sortKeys = new ArrayList<>(leadingKeys);
+      sortKeys.addAll(clusterKeys);
+      final RelCollation collation = getCollation(traitSet, sortKeys);
+      return SortPrel.create(input.getCluster(), input.getTraitSet().plus(collation), input, collation);
+    }
+
+    final RelOptCluster cluster = input.getCluster();
+    final RexBuilder rexBuilder = cluster.getRexBuilder();
+    final RelDataType rowType = input.getRowType();
+    final int zOrderKeyCount = Math.min(MAX_ZORDER_KEYS, clusterKeys.size());
+
+    // rank the rows by each of the Z-order keys, the ranks are appended to the fields of the input
+    Prel ranked = input;
+    for (int i = 0; i < zOrderKeyCount; i++) {
+      ranked = addRank(ranked, traitSet, leadingKeys, clusterKeys.get(i), ZORDER_RANK_FIELD + i);
+    }
+
+    final List<RexNode> exprs = new ArrayList<>();
+    final List<String> fieldNames = new ArrayList<>();
+    for (RelDataTypeField field : rowType.getFieldList()) {
+      exprs.add(RexInputRef.of(field.getIndex(), ranked.getRowType()));
+      fieldNames.add(field.getName());
+    }
+    final List<RexNode> ranks = new ArrayList<>();
+    for (int i = 0; i < zOrderKeyCount; i++) {
+      ranks.add(RexInputRef.of(rowType.getFieldCount() + i, ranked.getRowType()));
+    }
+    final SqlOperatorImpl valueOp = new SqlOperatorImpl(ZORDER_VALUE_FUNC, 2, MAX_ZORDER_KEYS, true,
+      ReturnTypes.explicit(SqlTypeName.VARBINARY));
+    exprs.add(rexBuilder.makeCall(valueOp, ranks));
+    fieldNames.add(WriterPrel.ZORDER_VALUE_FIELD);
+    final Prel project = ProjectPrel.create(cluster, input.getTraitSet(), ranked, exprs,
+      RexUtil.createStructType(cluster.getTypeFactory(), exprs, fieldNames));
+
+    // sort keys past the ones of the Z-order value still order the rows of equal values
+    final List<Integer> sortKeys = new ArrayList<>(leadingKeys);
+    sortKeys.add(rowType.getFieldCount());
+    sortKeys.addAll(clusterKeys.subList(zOrderKeyCount, clusterKeys.size()));
+    final RelCollation collation = getCollation(traitSet, sortKeys);
+    final Prel sort = SortPrel.create(cluster, project.getTraitSet().plus(collation), project, collation);
+
+    // remove the Z-order value
+    final List<RexNode> fields = new ArrayList<>();
+    for (RelDataTypeField field : rowType.getFieldList()) {
+      fields.add(RexInputRef.of(field.getIndex(), sort.getRowType()));
+    }
+    return ProjectPrel.create(cluster, input.getTraitSet(), sort, fields, rowType);
+  }
+
+  /**
+   * Sort the input by the leading keys and the key, and append the rank of the key among the rows of equal leading
+   * keys. Nulls are ranked like the other values.
+   */
+  private static Prel addRank(Prel input, RelTraitSet traitSet, List<Integer> leadingKeys, int key, String rankField) {
+    final RelOptCluster cluster = input.getCluster();
+    final List<Integer> sortKeys = new ArrayList<>(leadingKeys);
+    sortKeys.add(key);
+    final RelCollation collation = getCollation(traitSet, sortKeys);
+    final Prel sort = SortPrel.create(cluster, input.getTraitSet().plus(collation), input, collation);
+
+    final RelDataType rankType = cluster.getTypeFactory().createSqlType(SqlTypeName.BIGINT);
+    final Window.RexWinAggCall rank = new Window.RexWinAggCall(SqlStdOperatorTable.RANK, rankType,
+      ImmutableList.<RexNode>of(), 0, false);
+    final Window.Group window = new Window.Group(ImmutableBitSet.of(leadingKeys), false,
+      RexWindowBound.create(SqlWindow.createUnboundedPreceding(SqlParserPos.ZERO), null),
+      RexWindowBound.create(SqlWindow.createCurrentRow(SqlParserPos.ZERO), null),
+      RelCollations.of(new RelFieldCollation(key)), ImmutableList.of(rank));
+
+    final List<RelDataTypeField> fields = new ArrayList<>(input.getRowType().getFieldList());
+    fields.add(new RelDataTypeFieldImpl(rankField, fields.size(), rankType));
+    return WindowPrel.create(cluster, sort.getTraitSet(), sort, ImmutableList.<RexLiteral>of(),
+      new RelRecordType(fields), window);
+  }
+
   private static RelCollation getCollation(RelTraitSet set, List<Integer> keys) {
     return set.canonize(RelCollations.of(FluentIterable.from(keys)
         .transform(new Function<Integer, RelFieldCollation>() {
@@ -224,6 +224,10 @@ public class SqlConverter {
   }
 
   public SqlNode validate(final SqlNode parsedNode) {
+    // the tables of the views are prefetched with the ones of the query
+    if (!isInnerQuery && settings.isTableMetadataPrefetchEnabled()) {
+      catalogReader.prefetchTables(parsedNode, this::parse);
+    }
     SqlNode node = validator.validate(parsedNode);
     catalogReader.validateSelection();
     return node;
@@ -107,6 +107,7 @@ import com.dremio.exec.planner.physical.visitor.ComplexToJsonPrelVisitor;
 import com.dremio.exec.planner.physical.visitor.ExcessiveExchangeIdentifier;
 import com.dremio.exec.planner.physical.visitor.FinalColumnReorderer;
 import com.dremio.exec.planner.physical.visitor.GlobalDictionaryVisitor;
+import com.dremio.exec.planner.physical.visitor.HotKeySpreadingVisitor;
 import com.dremio.exec.planner.physical.visitor.InsertHashProjectVisitor;
 import com.dremio.exec.planner.physical.visitor.InsertLocalExchangeVisitor;
 import com.dremio.exec.planner.physical.visitor.JoinPrelRenameVisitor;
@@ -807,12 +808,17 @@ public class PrelTransformer {
       phyRelNode = ComplexToJsonPrelVisitor.addComplexToJsonPrel(phyRelNode);
     }
 
-    /* 5.5)
+    /* 5.1)
      * Insert additional required operations to achieve correct writer behavior
      */
     phyRelNode = WriterUpdater.update(phyRelNode);
 
-    /* 5.5)
+    /* 5.2)
+     * Let the senders of hash exchanges whose consumers don't need keys colocated spread the rows of hot keys
+     */
+    phyRelNode = HotKeySpreadingVisitor.spreadHotKeys(phyRelNode, queryOptions);
+
+    /* 5.3)
      * Insert Project before/after HashToMergeExchangePrel and HashToRandomExchangePrel nodes
      */
     phyRelNode = InsertHashProjectVisitor.insertHashProjects(phyRelNode, queryOptions);
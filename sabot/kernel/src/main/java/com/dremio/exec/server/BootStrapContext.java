@@ -19,6 +19,7 @@ import java.util.concurrent.ExecutorService;
 
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.OutOfMemoryException;
+import org.apache.arrow.memory.RecyclingAllocationManagerFactory;
 import org.apache.arrow.memory.RootAllocatorFactory;
 
 import com.dremio.common.AutoCloseables;
@@ -80,6 +81,11 @@ public class BootStrapContext implements AutoCloseable {
 
     if (allocator instanceof DremioRootAllocator) {
       Metrics.newGauge("dremio.memory.remaining_heap_allocations", ((DremioRootAllocator) allocator)::getAvailableBuffers);
+      final RecyclingAllocationManagerFactory recyclingPool = ((DremioRootAllocator) allocator).getRecyclingPool();
+      if (recyclingPool != null) {
+        Metrics.newGauge("dremio.memory.recycling_pool_bytes", recyclingPool::getPooledBytes);
+        Metrics.newGauge("dremio.memory.recycling_hit_percent", () -> Math.round(recyclingPool.getHitRatio() * 100));
+      }
     }
 
     Metrics.newGauge("dremio.memory.jvm_direct_current", MemoryIterator.getDirectBean()::getMemoryUsed);
@@ -16,10 +16,14 @@
 package com.dremio.exec.store;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -173,6 +177,69 @@ public abstract class TimedRunnable<V> implements Runnable {
       }
     }
 
+    return getValues(activity, logger, runnables, parallelism, watch, timedRunnableStart);
+  }
+
+  /**
+   * Execute the list of runnables on the given executor, running at most the given number of them at a time, instead
+   * of on a thread pool created for the call. If the timeout exceeds, running tasks are interrupted, pending tasks are
+   * dropped and a {@link UserException} is thrown.
+   * @param activity Name of activity for reporting in logger.
+   * @param logger The logger to use to report results.
+   * @param runnables List of runnables that should be executed and timed.  If this list has one item, task will be
+   *                  completed in-thread. Runnable must handle {@link InterruptedException}s.
+   * @param executor The executor running the tasks, shared with other callers.
+   * @param parallelism  The maximum number of tasks of this call running at the same time.
+   * @param timeout Timeout overrides
+   * @param <V>
+   * @return The list of outcome objects.
+   * @throws IOException All exceptions are coerced to IOException since this was build for storage system tasks initially.
+   */
+  public static <V> List<V> run(final String activity, final Logger logger, final List<TimedRunnable<V>> runnables,
+                                ExecutorService executor, int parallelism, long timeout) throws IOException {
+    Stopwatch watch = Stopwatch.createStarted();
+    long timedRunnableStart=System.nanoTime();
+    if(runnables.size() == 1){
+      parallelism = 1;
+      runnables.get(0).run();
+    }else{
+      parallelism = Math.min(parallelism,  runnables.size());
+      timeout = Math.max(timeout, getDefaultTimeout(runnables.size(), parallelism));
+      final ExtendedLatch latch = new ExtendedLatch(runnables.size());
+      final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+      for(TimedRunnable<V> runnable : runnables){
+        pending.add(new LatchedRunnable(latch, runnable));
+      }
+      // each worker runs pending tasks until there is none left
+      final List<Future<?>> workers = new ArrayList<>(parallelism);
+      for (int i = 0; i < parallelism; i++) {
+        workers.add(executor.submit(() -> {
+          Runnable next;
+          while ((next = pending.poll()) != null) {
+            next.run();
+          }
+        }));
+      }
+      if (!latch.awaitUninterruptibly(timeout)) {
+        pending.clear();
+        for (Future<?> worker : workers) {
+          worker.cancel(true);
+        }
+
+        final String errMsg = String.format("Waited for %dms, but tasks for '%s' are not complete. " +
+            "Total runnable size %d, parallelism %d.", timeout, activity, runnables.size(), parallelism);
+        logger.error(errMsg);
+        throw UserException.resourceTimeoutError()
+            .message(errMsg)
+            .build(logger);
+      }
+    }
+
+    return getValues(activity, logger, runnables, parallelism, watch, timedRunnableStart);
+  }
+
+  private static <V> List<V> getValues(String activity, Logger logger, List<TimedRunnable<V>> runnables,
+                                       int parallelism, Stopwatch watch, long timedRunnableStart) throws IOException {
     List<V> values = Lists.newArrayList();
     long sum = 0;
     long max = 0;
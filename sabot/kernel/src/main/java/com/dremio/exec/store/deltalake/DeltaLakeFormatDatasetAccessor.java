@@ -186,7 +186,8 @@ public class DeltaLakeFormatDatasetAccessor implements FileDatasetHandle {
   }
 
   @Override
-  public boolean metadataValid(BytesOutput readSignature, DatasetHandle datasetHandle, DatasetMetadata metadata, FileSystem fileSystem) {
+  public boolean metadataValid(BytesOutput readSignature, DatasetHandle datasetHandle, DatasetMetadata metadata, FileSystem fileSystem,
+                               int listingParallelism) {
     try {
       final DeltaLakeProtobuf.DeltaLakeReadSignature deltaLakeReadSignature = LegacyProtobufSerializer.parseFrom(DeltaLakeProtobuf.DeltaLakeReadSignature.PARSER, MetadataProtoUtils.toProtobuf(readSignature));
       initializeDeltaTableWrapper();
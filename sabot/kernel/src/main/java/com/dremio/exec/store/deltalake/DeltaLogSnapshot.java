@@ -20,8 +20,6 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 
-import org.apache.arrow.util.VisibleForTesting;
-
 import com.dremio.connector.metadata.DatasetSplit;
 import com.dremio.exec.planner.cost.DremioCost;
 import com.dremio.io.file.FileAttributes;
@@ -167,13 +165,14 @@ public final class DeltaLogSnapshot implements Comparable<DeltaLogSnapshot> {
         this.versionId = Math.max(this.versionId, that.versionId);
     }
 
-    @VisibleForTesting
     public DeltaLogSnapshot clone() {
         DeltaLogSnapshot clone = new DeltaLogSnapshot(this.operationType, this.netFilesAdded, this.netBytesAdded,
           this.netOutputRows, this.totalFileEntries, this.timestamp, this.isCheckpoint);
         clone.setSchema(this.schema, this.partitionColumns);
         clone.setVersionId(this.versionId);
         clone.setMissingRequiredValues(this.isMissingRequiredValues());
+        clone.setFileAttrs(this.fileAttrs);
+        clone.setSplits(this.splits);
         return clone;
     }
     @Override
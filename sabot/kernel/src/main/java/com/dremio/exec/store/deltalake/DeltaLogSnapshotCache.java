@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.deltalake;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import com.dremio.io.file.FileAttributes;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Cache of the {@link DeltaLogSnapshot} parsed from each commit json and checkpoint parquet of the delta logs.
+ *
+ * Log files of a version are never rewritten, so that once a table is read, a metadata refresh only parses the commits
+ * added since, the checkpoint and the commits read by the previous refresh being served from the cache. Entries are keyed
+ * by the path, size and modification time of the log files, so that a rewritten file is read again.
+ */
+final class DeltaLogSnapshotCache {
+  private static final long MAX_SNAPSHOTS = 10_000;
+  private static final long EXPIRE_AFTER_ACCESS_HOURS = 24;
+
+  private static final Cache<Key, DeltaLogSnapshot> CACHE = CacheBuilder.newBuilder()
+    .maximumSize(MAX_SNAPSHOTS)
+    .expireAfterAccess(EXPIRE_AFTER_ACCESS_HOURS, TimeUnit.HOURS)
+    .build();
+
+  private DeltaLogSnapshotCache() {
+  }
+
+  /**
+   * @return a copy of the snapshot parsed from the log file, or null if not cached
+   */
+  static DeltaLogSnapshot get(FileAttributes fileAttrs) {
+    final DeltaLogSnapshot snapshot = CACHE.getIfPresent(new Key(fileAttrs));
+    return snapshot != null ? snapshot.clone() : null;
+  }
+
+  static void put(FileAttributes fileAttrs, DeltaLogSnapshot snapshot) {
+    CACHE.put(new Key(fileAttrs), snapshot.clone());
+  }
+
+  @VisibleForTesting
+  static void invalidateAll() {
+    CACHE.invalidateAll();
+  }
+
+  private static final class Key {
+    private final String path;
+    private final long size;
+    private final long modificationTime;
+
+    private Key(FileAttributes fileAttrs) {
+      this.path = fileAttrs.getPath().toString();
+      this.size = fileAttrs.size();
+      this.modificationTime = fileAttrs.lastModifiedTime().toMillis();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Key key = (Key) o;
+      return size == key.size && modificationTime == key.modificationTime && path.equals(key.path);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, size, modificationTime);
+    }
+  }
+}
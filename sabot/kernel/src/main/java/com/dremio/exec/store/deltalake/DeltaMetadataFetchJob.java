@@ -27,6 +27,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.dremio.common.util.Retryer;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.server.SabotContext;
 import com.dremio.io.file.FileAttributes;
 import com.dremio.io.file.FileSystem;
@@ -106,10 +107,23 @@ public class DeltaMetadataFetchJob implements Supplier {
   }
 
   public DeltaLogSnapshot readAndSetVersion(FileAttributes fileAttrs, FileType type) throws IOException {
+    final boolean useCache = context == null
+      || context.getOptionManager().getOption(ExecConstants.DELTALAKE_SNAPSHOT_CACHE_ENABLED);
+    if (useCache) {
+      final DeltaLogSnapshot cachedSnapshot = DeltaLogSnapshotCache.get(fileAttrs);
+      if (cachedSnapshot != null) {
+        logger.debug("Using cached metadata of {}. Job Parameters {}", fileAttrs.getPath(), this.toString());
+        return cachedSnapshot;
+      }
+    }
+
     DeltaLogReader reader = DeltaLogReader.getInstance(type);
     DeltaLogSnapshot snapshot =  reader.parseMetadata(rootFolder, context, fs, fileAttrs);
     snapshot.setVersionId(version);
     snapshot.setFileAttrs(fileAttrs);
+    if (useCache) {
+      DeltaLogSnapshotCache.put(fileAttrs, snapshot);
+    }
     return snapshot;
   }
 
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.dfs;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.parquet.Preconditions;
+
+import com.dremio.exec.store.TimedRunnable;
+import com.dremio.exec.store.dfs.FileDatasetHandle.UpdateStatus;
+import com.dremio.exec.store.file.proto.FileProtobuf;
+import com.dremio.io.file.FileAttributes;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+
+/**
+ * Checks whether a batch of the directories of a file update key changed, stopping as soon as a directory of any batch
+ * is found changed.
+ */
+class CachedEntitiesStatusTask extends TimedRunnable<UpdateStatus> {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(CachedEntitiesStatusTask.class);
+
+  private final FileSystem fileSystem;
+  private final List<FileProtobuf.FileSystemCachedEntity> cachedEntities;
+  private final AtomicBoolean changed;
+
+  CachedEntitiesStatusTask(FileSystem fileSystem, List<FileProtobuf.FileSystemCachedEntity> cachedEntities,
+                           AtomicBoolean changed) {
+    this.fileSystem = fileSystem;
+    this.cachedEntities = cachedEntities;
+    this.changed = changed;
+  }
+
+  @Override
+  protected UpdateStatus runInner() throws Exception {
+    for (FileProtobuf.FileSystemCachedEntity cachedEntity : cachedEntities) {
+      if (changed.get()) {
+        break;
+      }
+      if (checkStatus(fileSystem, cachedEntity, false) != UpdateStatus.UNCHANGED) {
+        changed.set(true);
+        return UpdateStatus.CHANGED;
+      }
+    }
+    return UpdateStatus.UNCHANGED;
+  }
+
+  @Override
+  protected IOException convertToIOException(Exception e) {
+    return new IOException(e);
+  }
+
+  /**
+   * Check whether a directory of a file update key changed.
+   *
+   * @param isRoot whether the directory is the root of the dataset, which is deleted if the directory is missing
+   */
+  static UpdateStatus checkStatus(FileSystem fileSystem, FileProtobuf.FileSystemCachedEntity cachedEntity, boolean isRoot) {
+    final Path cachedEntityPath = Path.of(cachedEntity.getPath());
+    try {
+
+      try {
+        final FileAttributes updatedFileAttributes = fileSystem.getFileAttributes(cachedEntityPath);
+        final long updatedModificationTime = updatedFileAttributes.lastModifiedTime().toMillis();
+        Preconditions.checkArgument(updatedFileAttributes.isDirectory(), "fs based dataset update key must be composed of directories");
+        if (cachedEntity.getLastModificationTime() < updatedModificationTime) {
+          // the file/folder has been changed since our last check.
+          return UpdateStatus.CHANGED;
+        }
+      } catch (FileNotFoundException e) {
+        // if first entity (root) is missing then table is deleted
+        if (isRoot) {
+          return UpdateStatus.DELETED;
+        }
+        // missing directory force update for this dataset
+        return UpdateStatus.CHANGED;
+      }
+
+      if (cachedEntity.getLastModificationTime() == 0) {
+        // this system doesn't support modification times, no need to further probe (S3)
+        return UpdateStatus.CHANGED;
+      }
+    } catch (IOException ioe) {
+      logger.error("Failed to get status for {}", cachedEntityPath, ioe);
+      return UpdateStatus.CHANGED;
+    }
+    return UpdateStatus.UNCHANGED;
+  }
+}
@@ -17,45 +17,54 @@
 package com.dremio.exec.store.dfs;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.calcite.plan.RelOptRuleCall;
 import org.apache.calcite.plan.RelOptRuleOperand;
+import org.apache.calcite.rel.core.Aggregate;
 import org.apache.calcite.rel.core.AggregateCall;
+import org.apache.calcite.rel.logical.LogicalValues;
 import org.apache.calcite.rel.type.RelDataType;
 import org.apache.calcite.rel.type.RelDataTypeFactory;
 import org.apache.calcite.rel.type.RelDataTypeField;
-import org.apache.calcite.rel.type.RelDataTypeFieldImpl;
-import org.apache.calcite.rel.type.RelRecordType;
+import org.apache.calcite.rex.RexBuilder;
 import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexLiteral;
 import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.SqlKind;
 import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.calcite.util.NlsString;
 
-import com.dremio.common.JSONOptions;
 import com.dremio.datastore.LegacyProtobufSerializer;
 import com.dremio.exec.catalog.conf.SourceType;
 import com.dremio.exec.physical.base.GroupScan;
 import com.dremio.exec.planner.logical.AggregateRel;
 import com.dremio.exec.planner.logical.ProjectRel;
 import com.dremio.exec.planner.logical.RelOptHelper;
+import com.dremio.exec.planner.logical.ValuesRel;
 import com.dremio.exec.planner.physical.DistributionTrait;
 import com.dremio.exec.planner.physical.Prel;
+import com.dremio.exec.planner.physical.PrelUtil;
 import com.dremio.exec.planner.physical.ProjectPrel;
 import com.dremio.exec.planner.physical.Prule;
 import com.dremio.exec.planner.physical.ValuesPrel;
-import com.dremio.exec.vector.complex.fn.ExtendedJsonOutput;
-import com.dremio.exec.vector.complex.fn.JsonOutput;
 import com.dremio.sabot.exec.store.parquet.proto.ParquetProtobuf.ColumnValueCount;
 import com.dremio.sabot.exec.store.parquet.proto.ParquetProtobuf.ParquetDatasetSplitXAttr;
 import com.dremio.service.namespace.DatasetHelper;
 import com.dremio.service.namespace.PartitionChunkMetadata;
 import com.dremio.service.namespace.dataset.proto.PartitionProtobuf.DatasetSplit;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.util.TokenBuffer;
-import com.google.common.base.Throwables;
+import com.dremio.service.namespace.dataset.proto.PartitionProtobuf.PartitionValue;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.UnsignedBytes;
 import com.google.protobuf.InvalidProtocolBufferException;
 
 /**
@@ -78,12 +87,16 @@ import com.google.protobuf.InvalidProtocolBufferException;
  * Currently, only parquet group scan has the exact row count and column value count,
  * obtained from parquet row group info. This will save the cost to
  * scan the whole parquet files.
+ *
+ * More generally, any mix of COUNT(*), COUNT(column), MIN(partition column) and MAX(partition column), optionally
+ * grouped by partition columns, is answered from the partition chunks: their row counts, the column value counts of
+ * their splits, and their partition values. Partition values are exact: directory values, or values of columns that
+ * are single valued in each row group according to parquet statistics. The query is scanned as usual if any value
+ * is missing from the metadata, or has a type that cannot be compared exactly.
  */
 
 public class ConvertCountToDirectScan extends Prule {
 
-  private static final ObjectMapper MAPPER = new ObjectMapper();
-
   private final SourceType type;
   private final int scanIndex;
 
@@ -120,46 +133,46 @@ public class ConvertCountToDirectScan extends Prule {
             DatasetHelper.hasParquetDataFiles(scan.getTableMetadata().getFormatSettings());
   }
 
-  private static long getAccurateRowCount(Iterator<PartitionChunkMetadata> splits){
+  private static long getAccurateColumnCount(String name, PartitionChunkMetadata partitionChunk){
     long def = 0;
-    while(splits.hasNext()){
-      PartitionChunkMetadata split = splits.next();
-      def += split.getRowCount();
-    }
-    return def;
-  }
-
-  private static long getAccurateColumnCount(String name, Iterator<PartitionChunkMetadata> partitionChunks){
-    long def = 0;
-    int splitCount = 0;
-    int columnObservation = 0;
-    while(partitionChunks.hasNext()){
-      PartitionChunkMetadata partitionChunk = partitionChunks.next();
-      for (DatasetSplit split : partitionChunk.getDatasetSplits()) {
-        splitCount++;
-        ParquetDatasetSplitXAttr xattr;
-        try {
-          xattr = LegacyProtobufSerializer.parseFrom(ParquetDatasetSplitXAttr.PARSER, split.getSplitExtendedProperty());
-        } catch (InvalidProtocolBufferException e) {
-          throw new RuntimeException("Could not deserialize Parquet split info", e);
-        }
-        for (ColumnValueCount c : xattr.getColumnValueCountsList()) {
-          if (c.getColumn().equalsIgnoreCase(name)) {
-            def += c.getCount();
-            columnObservation++;
-            break;
-          }
+    for (DatasetSplit split : partitionChunk.getDatasetSplits()) {
+      ParquetDatasetSplitXAttr xattr;
+      try {
+        xattr = LegacyProtobufSerializer.parseFrom(ParquetDatasetSplitXAttr.PARSER, split.getSplitExtendedProperty());
+      } catch (InvalidProtocolBufferException e) {
+        throw new RuntimeException("Could not deserialize Parquet split info", e);
+      }
+      boolean observed = false;
+      for (ColumnValueCount c : xattr.getColumnValueCountsList()) {
+        if (c.getColumn().equalsIgnoreCase(name)) {
+          def += c.getCount();
+          observed = true;
+          break;
         }
       }
-    }
-
-    if(splitCount != columnObservation){
-      // missing metadata observations, make sure to avoid wrong result.
-      return GroupScan.NO_COLUMN_STATS;
+      if (!observed) {
+        // missing metadata observations, make sure to avoid wrong result.
+        return GroupScan.NO_COLUMN_STATS;
+      }
     }
     return def;
   }
 
+  /**
+   * Kinds of aggregate calls answered from metadata
+   */
+  private enum AggKind {
+    ROW_COUNT,
+    COLUMN_COUNT,
+    MIN,
+    MAX
+  }
+
+  /**
+   * Marks partition values of types that are not compared or grouped on.
+   */
+  private static final Object UNSUPPORTED_VALUE = new Object();
+
   @Override
   public void onMatch(RelOptRuleCall call) {
     final AggregateRel agg = (AggregateRel) call.rel(0);
@@ -167,84 +180,256 @@ public class ConvertCountToDirectScan extends Prule {
     final ProjectRel proj = call.rels.length == 3 ? (ProjectRel) call.rel(1) : null;
 
     // Only apply the rule when :
-    //    1) No GroupBY key,
-    //    2) only one agg function (Check if it's count(*) below).
+    //    1) No grouping sets, and no GROUP BY key unless metadata aggregates are enabled,
+    //    2) only one agg function unless metadata aggregates are enabled,
     //    3) No distinct agg call.
-    if (!(agg.getGroupCount() == 0
-        && agg.getAggCallList().size() == 1
-        && !agg.containsDistinctCall())) {
+    final boolean singleCount = agg.getGroupCount() == 0 && agg.getAggCallList().size() == 1
+      && agg.getAggCallList().get(0).getAggregation().getKind() == SqlKind.COUNT;
+    if (agg.containsDistinctCall() || agg.getGroupType() != Aggregate.Group.SIMPLE
+      || !(singleCount || PrelUtil.getPlannerSettings(call.getPlanner()).isMetadataAggregatesEnabled())) {
       return;
     }
 
-    AggregateCall aggCall = agg.getAggCallList().get(0);
-
-    if (aggCall.getAggregation().getName().equals("COUNT") ) {
-
-      long cnt = 0;
-      //  count(*)  == >  empty arg  ==>  rowCount
-      //  count(Not-null-input) ==> rowCount
-      if (aggCall.getArgList().isEmpty() ||
-          (aggCall.getArgList().size() == 1 &&
-           ! agg.getInput().getRowType().getFieldList().get(aggCall.getArgList().get(0).intValue()).getType().isNullable())) {
-        cnt = getAccurateRowCount(scan.getTableMetadata().getSplits());
-      } else if (aggCall.getArgList().size() == 1) {
-      // count(columnName) ==> Agg ( Scan )) ==> columnValueCount
-        int index = aggCall.getArgList().get(0);
-
-        if (proj != null) {
-          // project in the middle of Agg and Scan : Only when input of AggCall is a RexInputRef in Project, we find the index of Scan's field.
-          // For instance,
-          // Agg - count($0)
-          //  \
-          //  Proj - Exp={$1}
-          //    \
-          //   Scan (col1, col2).
-          // return count of "col2" in Scan's metadata, if found.
-
-          if (proj.getProjects().get(index) instanceof RexInputRef) {
-            index = ((RexInputRef) proj.getProjects().get(index)).getIndex();
-          } else {
-            return;  // do not apply for all other cases.
-          }
+    final List<String> groupColumns = Lists.newArrayList();
+    for (int key : agg.getGroupSet()) {
+      final String column = getScanColumn(key, scan, proj);
+      if (column == null) {
+        return;
+      }
+      groupColumns.add(column);
+    }
+
+    final List<AggKind> kinds = Lists.newArrayList();
+    final List<String> columns = Lists.newArrayList();
+    for (AggregateCall aggCall : agg.getAggCallList()) {
+      if (aggCall.filterArg >= 0 || aggCall.getArgList().size() > 1) {
+        return;
+      }
+      final SqlKind kind = aggCall.getAggregation().getKind();
+      if (kind == SqlKind.COUNT) {
+        //  count(*)  == >  empty arg  ==>  rowCount
+        //  count(Not-null-input) ==> rowCount
+        if (aggCall.getArgList().isEmpty() ||
+            ! agg.getInput().getRowType().getFieldList().get(aggCall.getArgList().get(0)).getType().isNullable()) {
+          kinds.add(AggKind.ROW_COUNT);
+          columns.add(null);
+          continue;
         }
+        kinds.add(AggKind.COLUMN_COUNT);
+      } else if ((kind == SqlKind.MIN || kind == SqlKind.MAX) && aggCall.getArgList().size() == 1) {
+        kinds.add(kind == SqlKind.MIN ? AggKind.MIN : AggKind.MAX);
+      } else {
+        return; // do nothing.
+      }
 
-        String columnName = scan.getRowType().getFieldNames().get(index).toLowerCase();
+      // count(columnName), min(columnName) or max(columnName) ==> Agg ( Scan )) ==> metadata of column
+      final String column = getScanColumn(aggCall.getArgList().get(0), scan, proj);
+      if (column == null) {
+        return;
+      }
+      columns.add(column);
+    }
 
-        cnt = getAccurateColumnCount(columnName, scan.getTableMetadata().getSplits());
-        if (cnt == GroupScan.NO_COLUMN_STATS) {
-          // if column stats are not available don't apply this rule
+    final Map<List<Object>, Object[]> groups = computeGroups(scan.getTableMetadata().getSplits(), groupColumns, kinds, columns);
+    if (groups == null) {
+      // if the metadata cannot answer the query don't apply this rule
+      return;
+    }
+
+    final RelDataTypeFactory typeFactory = agg.getCluster().getTypeFactory();
+    final RexBuilder rexBuilder = agg.getCluster().getRexBuilder();
+    final List<RelDataTypeField> aggFields = agg.getRowType().getFieldList();
+
+    // values are read back as json, which only has big ints: cast them back in the project
+    final List<RelDataType> valuesTypes = Lists.newArrayList();
+    for (RelDataTypeField field : aggFields) {
+      valuesTypes.add(field.getType().getSqlTypeName() == SqlTypeName.INTEGER
+        ? typeFactory.createTypeWithNullability(typeFactory.createSqlType(SqlTypeName.BIGINT), field.getType().isNullable())
+        : field.getType());
+    }
+    final RelDataType valuesRowType = typeFactory.createStructType(valuesTypes, agg.getRowType().getFieldNames());
+
+    final ImmutableList.Builder<ImmutableList<RexLiteral>> tuples = ImmutableList.builder();
+    for (Map.Entry<List<Object>, Object[]> group : groups.entrySet()) {
+      final ImmutableList.Builder<RexLiteral> tuple = ImmutableList.builder();
+      for (int i = 0; i < aggFields.size(); i++) {
+        final Object value = i < groupColumns.size() ? group.getKey().get(i) : group.getValue()[i - groupColumns.size()];
+        final RexLiteral literal = toLiteral(rexBuilder, value, valuesTypes.get(i));
+        if (literal == null) {
           return;
         }
-      } else {
-        return; // do nothing.
+        tuple.add(literal);
       }
+      tuples.add(tuple.build());
+    }
 
-      RelDataType scanRowType = getCountRowType(agg.getCluster().getTypeFactory());
-      final ValuesPrel values = new ValuesPrel(agg.getCluster(), scan.getTraitSet().plus(Prel.PHYSICAL).plus(DistributionTrait.SINGLETON), scanRowType, new JSONOptions(getResultsNode(cnt)), 1);
-      List<RexNode> exprs = Lists.newArrayList();
-      exprs.add(RexInputRef.of(0, scanRowType));
+    final ValuesRel valuesRel = ValuesRel.from(LogicalValues.create(agg.getCluster(), valuesRowType, tuples.build()));
+    final ValuesPrel values;
+    try {
+      values = new ValuesPrel(agg.getCluster(), scan.getTraitSet().plus(Prel.PHYSICAL).plus(DistributionTrait.SINGLETON),
+        valuesRowType, valuesRel.getTuplesAsJsonOptions(), groups.size());
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
 
-      final ProjectPrel newProj = ProjectPrel.create(agg.getCluster(), agg.getTraitSet().plus(Prel.PHYSICAL)
-          .plus(DistributionTrait.SINGLETON), values, exprs, agg.getRowType());
-      call.transformTo(newProj);
+    final List<RexNode> exprs = Lists.newArrayList();
+    for (int i = 0; i < aggFields.size(); i++) {
+      final RexNode ref = RexInputRef.of(i, valuesRowType);
+      exprs.add(aggFields.get(i).getType().equals(valuesTypes.get(i))
+        ? ref : rexBuilder.makeCast(aggFields.get(i).getType(), ref));
     }
 
+    final ProjectPrel newProj = ProjectPrel.create(agg.getCluster(), agg.getTraitSet().plus(Prel.PHYSICAL)
+        .plus(DistributionTrait.SINGLETON), values, exprs, agg.getRowType());
+    call.transformTo(newProj);
   }
 
-  private JsonNode getResultsNode(long count) {
-    try{
-      TokenBuffer out = new TokenBuffer(MAPPER.getFactory().getCodec(), false);
-      JsonOutput json = new ExtendedJsonOutput(out);
-      json.writeStartArray();
-      json.writeStartObject();
-      json.writeFieldName("count");
-      json.writeBigInt(count);
-      json.writeEndObject();
-      json.writeEndArray();
-      json.flush();
-      return out.asParser().readValueAsTree();
-    }catch(IOException ex){
-      throw Throwables.propagate(ex);
+  /**
+   * @return the name of the scan column an aggregate input field reads, or null if it is an expression
+   */
+  private static String getScanColumn(int index, FilesystemScanDrel scan, ProjectRel proj) {
+    if (proj != null) {
+      // project in the middle of Agg and Scan : Only when input of AggCall is a RexInputRef in Project, we find the index of Scan's field.
+      // For instance,
+      // Agg - count($0)
+      //  \
+      //  Proj - Exp={$1}
+      //    \
+      //   Scan (col1, col2).
+      // return count of "col2" in Scan's metadata, if found.
+      if (!(proj.getProjects().get(index) instanceof RexInputRef)) {
+        return null;  // do not apply for all other cases.
+      }
+      index = ((RexInputRef) proj.getProjects().get(index)).getIndex();
+    }
+    return scan.getRowType().getFieldNames().get(index).toLowerCase();
+  }
+
+  /**
+   * Compute the aggregates of each group from the partition chunks.
+   *
+   * @return the aggregate values by group key, or null if the metadata is missing some values
+   */
+  private static Map<List<Object>, Object[]> computeGroups(Iterator<PartitionChunkMetadata> partitionChunks,
+                                                           List<String> groupColumns, List<AggKind> kinds,
+                                                           List<String> columns) {
+    final Map<List<Object>, Object[]> groups = new LinkedHashMap<>();
+    if (groupColumns.isEmpty()) {
+      // aggregates without group by return a row even if there are no rows
+      groups.put(Collections.emptyList(), newAccumulators(kinds));
+    }
+
+    while (partitionChunks.hasNext()) {
+      final PartitionChunkMetadata partitionChunk = partitionChunks.next();
+      if (partitionChunk.getRowCount() == 0) {
+        continue;
+      }
+      final Map<String, Object> partitionValues = Maps.newHashMap();
+      for (PartitionValue partitionValue : partitionChunk.getPartitionValues()) {
+        partitionValues.put(partitionValue.getColumn().toLowerCase(), getValue(partitionValue));
+      }
+
+      final Object[] key = new Object[groupColumns.size()];
+      for (int i = 0; i < key.length; i++) {
+        key[i] = partitionValues.getOrDefault(groupColumns.get(i), UNSUPPORTED_VALUE);
+        if (key[i] == UNSUPPORTED_VALUE) {
+          return null;
+        }
+      }
+      final Object[] accumulators = groups.computeIfAbsent(Arrays.asList(key), k -> newAccumulators(kinds));
+
+      for (int i = 0; i < kinds.size(); i++) {
+        final Object value = columns.get(i) == null ? null : partitionValues.getOrDefault(columns.get(i), UNSUPPORTED_VALUE);
+        switch (kinds.get(i)) {
+          case ROW_COUNT:
+            accumulators[i] = (Long) accumulators[i] + partitionChunk.getRowCount();
+            break;
+          case COLUMN_COUNT: {
+            final long count;
+            if (!partitionValues.containsKey(columns.get(i))) {
+              count = getAccurateColumnCount(columns.get(i), partitionChunk);
+              if (count == GroupScan.NO_COLUMN_STATS) {
+                return null;
+              }
+            } else {
+              count = value == null ? 0 : partitionChunk.getRowCount();
+            }
+            accumulators[i] = (Long) accumulators[i] + count;
+            break;
+          }
+          case MIN:
+          case MAX:
+            if (value == UNSUPPORTED_VALUE
+              || (value != null && accumulators[i] != null && value.getClass() != accumulators[i].getClass())) {
+              return null;
+            }
+            if (value != null && (accumulators[i] == null
+              || (compare(value, accumulators[i]) < 0) == (kinds.get(i) == AggKind.MIN))) {
+              accumulators[i] = value;
+            }
+            break;
+          default:
+            throw new IllegalStateException("Unexpected aggregate " + kinds.get(i));
+        }
+      }
+    }
+    return groups;
+  }
+
+  private static Object[] newAccumulators(List<AggKind> kinds) {
+    final Object[] accumulators = new Object[kinds.size()];
+    for (int i = 0; i < accumulators.length; i++) {
+      accumulators[i] = kinds.get(i) == AggKind.ROW_COUNT || kinds.get(i) == AggKind.COLUMN_COUNT ? 0L : null;
+    }
+    return accumulators;
+  }
+
+  /**
+   * @return the partition value as a Long, String or Boolean, null, or UNSUPPORTED_VALUE
+   */
+  private static Object getValue(PartitionValue partitionValue) {
+    if (partitionValue.hasIntValue()) {
+      return (long) partitionValue.getIntValue();
+    } else if (partitionValue.hasLongValue()) {
+      return partitionValue.getLongValue();
+    } else if (partitionValue.hasStringValue()) {
+      return partitionValue.getStringValue();
+    } else if (partitionValue.hasBitValue()) {
+      return partitionValue.getBitValue();
+    } else if (partitionValue.hasFloatValue() || partitionValue.hasDoubleValue() || partitionValue.hasBinaryValue()) {
+      // floating point and binary values do not order or group the way the engine does
+      return UNSUPPORTED_VALUE;
+    }
+    return null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static int compare(Object value1, Object value2) {
+    if (value1 instanceof String && value2 instanceof String) {
+      // varchar values are ordered by their utf-8 bytes
+      return UnsignedBytes.lexicographicalComparator().compare(((String) value1).getBytes(StandardCharsets.UTF_8),
+        ((String) value2).getBytes(StandardCharsets.UTF_8));
+    }
+    return ((Comparable<Object>) value1).compareTo(value2);
+  }
+
+  /**
+   * @return a literal of the given type for the value, or null if the value does not have the type
+   */
+  private static RexLiteral toLiteral(RexBuilder rexBuilder, Object value, RelDataType type) {
+    if (value == null) {
+      return type.isNullable() ? (RexLiteral) rexBuilder.makeNullLiteral(type) : null;
+    }
+    switch (type.getSqlTypeName()) {
+      case BIGINT:
+        return value instanceof Long ? rexBuilder.makeExactLiteral(BigDecimal.valueOf((Long) value), type) : null;
+      case VARCHAR:
+        return value instanceof String
+          ? rexBuilder.makeCharLiteral(new NlsString((String) value, StandardCharsets.UTF_8.name(), null)) : null;
+      case BOOLEAN:
+        return value instanceof Boolean ? rexBuilder.makeLiteral((Boolean) value) : null;
+      default:
+        return null;
     }
   }
 
@@ -258,12 +443,4 @@ public class ConvertCountToDirectScan extends Prule {
       this.count = cnt;
     }
   }
-
-  private RelDataType getCountRowType(RelDataTypeFactory typeFactory) {
-    List<RelDataTypeField> fields = Lists.newArrayList();
-    fields.add(new RelDataTypeFieldImpl("count", 0, typeFactory.createSqlType(SqlTypeName.BIGINT)));
-    return new RelRecordType(fields);
-  }
-
-
 }
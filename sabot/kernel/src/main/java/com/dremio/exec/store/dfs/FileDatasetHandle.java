@@ -15,11 +15,11 @@
  */
 package com.dremio.exec.store.dfs;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-import org.apache.parquet.Preconditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,19 +34,23 @@ import com.dremio.connector.metadata.PartitionChunkListing;
 import com.dremio.datastore.LegacyProtobufSerializer;
 import com.dremio.exec.catalog.DatasetTypeHandle;
 import com.dremio.exec.server.SabotContext;
+import com.dremio.exec.store.TimedRunnable;
 import com.dremio.exec.store.file.proto.FileProtobuf;
-import com.dremio.io.file.FileAttributes;
 import com.dremio.io.file.FileSystem;
-import com.dremio.io.file.Path;
 import com.dremio.options.Options;
 import com.dremio.options.TypeValidators;
 import com.dremio.service.namespace.MetadataProtoUtils;
+import com.google.common.collect.Lists;
 import com.google.protobuf.InvalidProtocolBufferException;
 
 @Options
 public interface FileDatasetHandle extends DatasetTypeHandle {
   TypeValidators.LongValidator DFS_MAX_FILES = new TypeValidators.RangeLongValidator("dremio.store.dfs.max_files", 1L, Integer.MAX_VALUE, 20000000L);
+  // number of directories listed, or checked for changes, at the same time for a dataset
+  TypeValidators.LongValidator DFS_LISTING_PARALLELISM = new TypeValidators.RangeLongValidator("dremio.store.dfs.listing_parallelism", 1L, 1024L, 16L);
   Logger logger = LoggerFactory.getLogger(FileDatasetHandle.class);
+  // minimum number of directories checked for changes by a task
+  int STATUS_CHECK_MIN_BATCH_SIZE = 64;
 
   DatasetMetadata getDatasetMetadata(GetMetadataOption... options) throws ConnectorException;
 
@@ -75,7 +79,12 @@ public interface FileDatasetHandle extends DatasetTypeHandle {
     return Math.toIntExact(context.getOptionManager().getOption(FileDatasetHandle.DFS_MAX_FILES));
   }
 
-  default boolean metadataValid(BytesOutput readSignature, DatasetHandle datasetHandle, DatasetMetadata metadata, FileSystem fileSystem) throws DatasetNotFoundException {
+  static int getListingParallelism(SabotContext context) {
+    return Math.toIntExact(context.getOptionManager().getOption(FileDatasetHandle.DFS_LISTING_PARALLELISM));
+  }
+
+  default boolean metadataValid(BytesOutput readSignature, DatasetHandle datasetHandle, DatasetMetadata metadata, FileSystem fileSystem,
+                                int listingParallelism) throws DatasetNotFoundException {
     final FileProtobuf.FileUpdateKey fileUpdateKey;
     try {
       fileUpdateKey = LegacyProtobufSerializer.parseFrom(FileProtobuf.FileUpdateKey.PARSER, MetadataProtoUtils.toProtobuf(readSignature));
@@ -91,7 +100,7 @@ public interface FileDatasetHandle extends DatasetTypeHandle {
       // single file dataset
       return false;
     }
-    final UpdateStatus status = checkMultifileStatus(fileUpdateKey, fileSystem);
+    final UpdateStatus status = checkMultifileStatus(fileUpdateKey, fileSystem, listingParallelism);
 
     switch(status) {
       case DELETED:
@@ -109,44 +118,35 @@ public interface FileDatasetHandle extends DatasetTypeHandle {
    * Given a file update key, determine whether the source system has changed since we last read the status.
    *
    * @param fileUpdateKey
+   * @param parallelism the number of directories checked at the same time
    * @return The type of status change.
    */
-  static UpdateStatus checkMultifileStatus(FileProtobuf.FileUpdateKey fileUpdateKey, FileSystem fileSystem) {
+  static UpdateStatus checkMultifileStatus(FileProtobuf.FileUpdateKey fileUpdateKey, FileSystem fileSystem, int parallelism) {
     final List<FileProtobuf.FileSystemCachedEntity> cachedEntities = fileUpdateKey.getCachedEntitiesList();
-    for (int i = 0; i < cachedEntities.size(); ++i) {
-      final FileProtobuf.FileSystemCachedEntity cachedEntity = cachedEntities.get(i);
-      final Path cachedEntityPath = Path.of(cachedEntity.getPath());
-      try {
-
-        try {
-          final FileAttributes updatedFileAttributes = fileSystem.getFileAttributes(cachedEntityPath);
-          final long updatedModificationTime = updatedFileAttributes.lastModifiedTime().toMillis();
-          Preconditions.checkArgument(updatedFileAttributes.isDirectory(), "fs based dataset update key must be composed of directories");
-          if (cachedEntity.getLastModificationTime() < updatedModificationTime) {
-            // the file/folder has been changed since our last check.
-            return UpdateStatus.CHANGED;
-          }
-        } catch (FileNotFoundException e) {
-          // if first entity (root) is missing then table is deleted
-          if (i == 0) {
-            return UpdateStatus.DELETED;
-          }
-          // missing directory force update for this dataset
-          return UpdateStatus.CHANGED;
-        }
-
-        if (cachedEntity.getLastModificationTime() == 0) {
-          // this system doesn't support modification times, no need to further probe (S3)
-          return UpdateStatus.CHANGED;
-        }
-      } catch (IOException ioe) {
-        // continue with other cached entities
-        logger.error("Failed to get status for {}", cachedEntityPath, ioe);
-        return UpdateStatus.CHANGED;
-      }
+    // the root is checked first, as the dataset is deleted if it is missing
+    final UpdateStatus rootStatus = CachedEntitiesStatusTask.checkStatus(fileSystem, cachedEntities.get(0), true);
+    if (rootStatus != UpdateStatus.UNCHANGED || cachedEntities.size() == 1) {
+      return rootStatus;
     }
 
-    return UpdateStatus.UNCHANGED;
+    // sub directories are checked concurrently, all the batches stopping at the first change found
+    final List<FileProtobuf.FileSystemCachedEntity> subDirectories = cachedEntities.subList(1, cachedEntities.size());
+    final int batchSize = Math.max(STATUS_CHECK_MIN_BATCH_SIZE,
+      (subDirectories.size() + parallelism - 1) / parallelism);
+    final AtomicBoolean changed = new AtomicBoolean(false);
+    final List<TimedRunnable<UpdateStatus>> tasks = new ArrayList<>();
+    for (List<FileProtobuf.FileSystemCachedEntity> batch : Lists.partition(subDirectories, batchSize)) {
+      tasks.add(new CachedEntitiesStatusTask(fileSystem, batch, changed));
+    }
+
+    try {
+      TimedRunnable.run("Checking status of " + cachedEntities.get(0).getPath(), logger, tasks,
+        FileSelection.LISTING_EXECUTOR, parallelism, FileSelection.LISTING_TIMEOUT_MILLIS);
+    } catch (IOException e) {
+      logger.error("Failed to get status of the directories of {}", cachedEntities.get(0).getPath(), e);
+      return UpdateStatus.CHANGED;
+    }
+    return changed.get() ? UpdateStatus.CHANGED : UpdateStatus.UNCHANGED;
   }
 
 
@@ -21,17 +21,25 @@ import static com.dremio.io.file.PathFilters.NO_HIDDEN_FILES;
 import java.io.IOException;
 import java.nio.file.DirectoryIteratorException;
 import java.nio.file.DirectoryStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.apache.commons.io.FilenameUtils;
 
+import com.dremio.common.concurrent.CloseableThreadPool;
 import com.dremio.common.utils.PathUtils;
+import com.dremio.exec.store.TimedRunnable;
 import com.dremio.exec.util.Utilities;
 import com.dremio.io.file.FileAttributes;
 import com.dremio.io.file.FileSystem;
-import com.dremio.io.file.FileSystemUtils;
 import com.dremio.io.file.Path;
 import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
@@ -50,10 +58,18 @@ public class FileSelection {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(FileSelection.class);
   public static final String PATH_SEPARATOR = System.getProperty("file.separator");
   private static final String WILD_CARD = "*";
+  // listing parallelism of the selections created without one, see FileDatasetHandle.DFS_LISTING_PARALLELISM
+  private static final int DEFAULT_LISTING_PARALLELISM =
+    Math.toIntExact(FileDatasetHandle.DFS_LISTING_PARALLELISM.getDefault().getNumVal());
+  // threads listing directories, and checking them for changes, shared by all the datasets
+  static final CloseableThreadPool LISTING_EXECUTOR = new CloseableThreadPool("dfs-listing-");
+  // listing a single directory of an object store can take long, do not use the default timeout of the tasks
+  static final long LISTING_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
 
   private ImmutableList<FileAttributes> fileAttributesList;
   private final String selectionRoot;
   private final Path originalRootPath;
+  private final int listingParallelism;
 
   private enum StatusType {
     NO_DIRS,             // no directories in this selection
@@ -70,12 +86,15 @@ public class FileSelection {
    * @param fileAttributesList
    * @param selectionRoot
    * @param originalRootPath
+   * @param listingParallelism number of directories listed at the same time when expanding the selection
    */
-  private FileSelection(StatusType status, final ImmutableList<FileAttributes> fileAttributesList, final String selectionRoot, final Path originalRootPath) {
+  private FileSelection(StatusType status, final ImmutableList<FileAttributes> fileAttributesList, final String selectionRoot,
+                        final Path originalRootPath, int listingParallelism) {
     this.fileAttributesList = Preconditions.checkNotNull(fileAttributesList);
     this.selectionRoot = Preconditions.checkNotNull(selectionRoot);
     this.dirStatus = status;
     this.originalRootPath = originalRootPath;
+    this.listingParallelism = listingParallelism;
   }
 
   public boolean isEmpty() {
@@ -91,6 +110,7 @@ public class FileSelection {
     this.selectionRoot = selection.selectionRoot;
     this.originalRootPath = selection.originalRootPath;
     this.dirStatus = selection.dirStatus;
+    this.listingParallelism = selection.listingParallelism;
   }
 
   public String getSelectionRoot() {
@@ -156,12 +176,13 @@ public class FileSelection {
   public boolean isNoDirs() { return dirStatus == StatusType.NO_DIRS;}
 
   public static FileSelection create(FileAttributes fileAttributes) throws IOException {
-    return new FileSelection(StatusType.EXPANDED, ImmutableList.of(fileAttributes), fileAttributes.getPath().toString(), fileAttributes.getPath());
+    return new FileSelection(StatusType.EXPANDED, ImmutableList.of(fileAttributes), fileAttributes.getPath().toString(),
+      fileAttributes.getPath(), DEFAULT_LISTING_PARALLELISM);
   }
 
   public void expand(FileSystem fs) throws IOException {
     if(dirStatus == StatusType.NOT_EXPANDED) {
-      this.fileAttributesList = generateListOfFileAttributes(fs, originalRootPath);
+      this.fileAttributesList = generateListOfFileAttributes(fs, originalRootPath, listingParallelism);
       this.dirStatus = StatusType.EXPANDED;
     }
   }
@@ -177,11 +198,19 @@ public class FileSelection {
   }
 
   public static FileSelection create(final FileSystem fs, final List<String> fullPath) throws IOException {
-    return create(fs, getPathBasedOnFullPath(fullPath));
+    return create(fs, fullPath, DEFAULT_LISTING_PARALLELISM);
+  }
+
+  public static FileSelection create(final FileSystem fs, final List<String> fullPath, int listingParallelism) throws IOException {
+    return create(fs, getPathBasedOnFullPath(fullPath), listingParallelism);
   }
 
   public static FileSelection createNotExpanded(final FileSystem fs, final List<String> fullPath) throws IOException {
-    return createNotExpanded(fs, getPathBasedOnFullPath(fullPath));
+    return createNotExpanded(fs, fullPath, DEFAULT_LISTING_PARALLELISM);
+  }
+
+  public static FileSelection createNotExpanded(final FileSystem fs, final List<String> fullPath, int listingParallelism) throws IOException {
+    return createNotExpanded(fs, getPathBasedOnFullPath(fullPath), listingParallelism);
   }
 
   // Check if path is actually a full schema path
@@ -191,13 +220,22 @@ public class FileSelection {
   }
 
   public static FileSelection createWithFullSchemaNotExpanded(final FileSystem fs, final String parent, final String fullSchemaPath) throws IOException {
+    return createWithFullSchemaNotExpanded(fs, parent, fullSchemaPath, DEFAULT_LISTING_PARALLELISM);
+  }
+
+  public static FileSelection createWithFullSchemaNotExpanded(final FileSystem fs, final String parent, final String fullSchemaPath,
+                                                              int listingParallelism) throws IOException {
     final Path combined = Path.mergePaths(Path.of(parent), PathUtils.toFSPath(fullSchemaPath));
-    return createNotExpanded(fs, combined);
+    return createNotExpanded(fs, combined, listingParallelism);
   }
 
   public static FileSelection create(final FileSystem fs, Path combined) throws IOException {
+    return create(fs, combined, DEFAULT_LISTING_PARALLELISM);
+  }
+
+  public static FileSelection create(final FileSystem fs, Path combined, int listingParallelism) throws IOException {
     Stopwatch timer = Stopwatch.createStarted();
-    final ImmutableList<FileAttributes> fileAttributes = generateListOfFileAttributes(fs, combined);
+    final ImmutableList<FileAttributes> fileAttributes = generateListOfFileAttributes(fs, combined, listingParallelism);
     if (fileAttributes.isEmpty()) {
       return null;
     }
@@ -207,6 +245,10 @@ public class FileSelection {
   }
 
   public static FileSelection createNotExpanded(final FileSystem fs, Path root) throws IOException {
+    return createNotExpanded(fs, root, DEFAULT_LISTING_PARALLELISM);
+  }
+
+  public static FileSelection createNotExpanded(final FileSystem fs, Path root, int listingParallelism) throws IOException {
     if (root == null || root.toString().isEmpty()) {
       throw new IllegalArgumentException("Selection root is null or empty" + root);
     }
@@ -215,7 +257,7 @@ public class FileSelection {
       return null;
     }
     final String selectionRoot = Path.withoutSchemeAndAuthority(rootPath).toString();
-    return new FileSelection(StatusType.NOT_EXPANDED, ImmutableList.of(), selectionRoot, root);
+    return new FileSelection(StatusType.NOT_EXPANDED, ImmutableList.of(), selectionRoot, root, listingParallelism);
   }
 
   public static FileSelection createFromExpanded(final ImmutableList<FileAttributes> fileAttributes, final String root) {
@@ -240,7 +282,7 @@ public class FileSelection {
     final Path originalRootPath = Path.of(root);
     final Path rootPath = handleWildCard(root);
     String selectionRoot = Path.withoutSchemeAndAuthority(rootPath).toString();
-    return new FileSelection(status, fileAttributes, selectionRoot, originalRootPath);
+    return new FileSelection(status, fileAttributes, selectionRoot, originalRootPath, DEFAULT_LISTING_PARALLELISM);
   }
 
   private static Path handleWildCard(final String root) {
@@ -286,20 +328,91 @@ public class FileSelection {
     return extensions;
   }
 
-  private static ImmutableList<FileAttributes> generateListOfFileAttributes(FileSystem fs, Path combined) throws IOException {
+  private static ImmutableList<FileAttributes> generateListOfFileAttributes(FileSystem fs, Path combined,
+                                                                            int listingParallelism) throws IOException {
     // NFS filesystems has delay before files written by executor shows up in the coordinator.
     // For NFS, fs.exists() will force a refresh if the directory is not found
     // No action is taken if it returns false as the code path already handles the Exception case
     fs.exists(combined);
 
-    ImmutableList<FileAttributes> fileAttributes;
-    try(DirectoryStream<FileAttributes> stream = FileSystemUtils.globRecursive(fs, combined, NO_HIDDEN_FILES)) {
-      fileAttributes = ImmutableList.copyOf(stream);
+    final List<FileAttributes> globbed;
+    try(DirectoryStream<FileAttributes> stream = fs.glob(combined, NO_HIDDEN_FILES)) {
+      globbed = ImmutableList.copyOf(Iterables.filter(stream, a -> NO_HIDDEN_FILES.test(a.getPath())));
     } catch (DirectoryIteratorException e) {
       throw e.getCause();
     }
 
+    // list the directories level by level, the directories of a level being listed concurrently
+    final Map<Path, List<FileAttributes>> children = new HashMap<>();
+    List<FileAttributes> directories = directoriesOf(globbed);
+    while (!directories.isEmpty()) {
+      final List<TimedRunnable<List<FileAttributes>>> tasks = new ArrayList<>(directories.size());
+      for (FileAttributes directory : directories) {
+        tasks.add(new DirectoryListingTask(fs, directory.getPath()));
+      }
+      final List<List<FileAttributes>> listings = TimedRunnable.run("Listing directories of " + combined, logger, tasks,
+        LISTING_EXECUTOR, listingParallelism, LISTING_TIMEOUT_MILLIS);
+
+      final List<FileAttributes> nextDirectories = new ArrayList<>();
+      for (int i = 0; i < directories.size(); i++) {
+        children.put(directories.get(i).getPath(), listings.get(i));
+        nextDirectories.addAll(directoriesOf(listings.get(i)));
+      }
+      directories = nextDirectories;
+    }
+
+    // same order as a recursive listing: each directory is followed by its content
+    final ImmutableList.Builder<FileAttributes> builder = ImmutableList.builder();
+    final Deque<Iterator<FileAttributes>> stack = new ArrayDeque<>();
+    stack.push(globbed.iterator());
+    while (!stack.isEmpty()) {
+      final Iterator<FileAttributes> iterator = stack.peek();
+      if (!iterator.hasNext()) {
+        stack.pop();
+        continue;
+      }
+      final FileAttributes attributes = iterator.next();
+      builder.add(attributes);
+      if (attributes.isDirectory()) {
+        stack.push(children.get(attributes.getPath()).iterator());
+      }
+    }
+    final ImmutableList<FileAttributes> fileAttributes = builder.build();
+
     logger.trace("Returned files are: {}", fileAttributes);
     return fileAttributes;
   }
+
+  private static List<FileAttributes> directoriesOf(List<FileAttributes> fileAttributes) {
+    return fileAttributes.stream()
+      .filter(FileAttributes::isDirectory)
+      .collect(Collectors.toList());
+  }
+
+  /**
+   * Lists the non hidden entries of a directory.
+   */
+  private static final class DirectoryListingTask extends TimedRunnable<List<FileAttributes>> {
+    private final FileSystem fs;
+    private final Path directory;
+
+    private DirectoryListingTask(FileSystem fs, Path directory) {
+      this.fs = fs;
+      this.directory = directory;
+    }
+
+    @Override
+    protected List<FileAttributes> runInner() throws Exception {
+      try (DirectoryStream<FileAttributes> stream = fs.list(directory, NO_HIDDEN_FILES)) {
+        return ImmutableList.copyOf(Iterables.filter(stream, a -> NO_HIDDEN_FILES.test(a.getPath())));
+      } catch (DirectoryIteratorException e) {
+        throw e.getCause();
+      }
+    }
+
+    @Override
+    protected IOException convertToIOException(Exception e) {
+      return new IOException(String.format("Failed to list directory %s", directory), e);
+    }
+  }
 }
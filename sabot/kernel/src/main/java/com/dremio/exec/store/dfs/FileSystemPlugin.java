@@ -517,11 +517,13 @@ public class FileSystemPlugin<C extends FileSystemConf<C, ?>> implements Storage
     try {
       List<String> parentSchemaPath = new ArrayList<>(fullPath.subList(0, fullPath.size() - 1));
       FileSystem fs = createFS(user);
-      FileSelection fileSelection = FileSelection.createNotExpanded(fs, fullPath);
+      final int listingParallelism = FileDatasetHandle.getListingParallelism(context);
+      FileSelection fileSelection = FileSelection.createNotExpanded(fs, fullPath, listingParallelism);
       String tableName = datasetPath.getName();
 
       if (fileSelection == null) {
-        fileSelection = FileSelection.createWithFullSchemaNotExpanded(fs, PathUtils.toFSPathString(parentSchemaPath), tableName);
+        fileSelection = FileSelection.createWithFullSchemaNotExpanded(fs, PathUtils.toFSPathString(parentSchemaPath), tableName,
+          listingParallelism);
         if (fileSelection == null) {
           return null; // no table found
         } else {
@@ -860,7 +862,8 @@ public class FileSystemPlugin<C extends FileSystemConf<C, ?>> implements Storage
   public MetadataValidity validateMetadata(BytesOutput signature, DatasetHandle datasetHandle, DatasetMetadata metadata,
       ValidateMetadataOption... options) throws DatasetNotFoundException {
       //Delegate the staleness check for metadata to the DataAccessors
-      boolean metadataStale = ((FileDatasetHandle)datasetHandle).metadataValid(signature, datasetHandle, metadata, systemUserFS);
+      boolean metadataStale = ((FileDatasetHandle)datasetHandle).metadataValid(signature, datasetHandle, metadata, systemUserFS,
+        FileDatasetHandle.getListingParallelism(context));
       return metadataStale ? MetadataValidity.VALID : MetadataValidity.INVALID;
   }
 
@@ -993,7 +996,7 @@ public class FileSystemPlugin<C extends FileSystemConf<C, ?>> implements Storage
     List<String> fullPath = resolveTableNameToValidPath(tableSchemaPath);
     FileSelection fileSelection;
     try {
-      fileSelection = FileSelection.create(fs, fullPath);
+      fileSelection = FileSelection.create(fs, fullPath, FileDatasetHandle.getListingParallelism(context));
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
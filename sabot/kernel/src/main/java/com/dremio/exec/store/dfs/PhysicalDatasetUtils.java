@@ -128,8 +128,10 @@ public class PhysicalDatasetUtils {
         textFormatConfig.trimHeader = textFileConfig.getTrimHeader();
         return textFormatConfig;
       case JSON:
+        final JsonFileConfig jsonFileConfig = (JsonFileConfig) com.dremio.service.namespace.file.FileFormat.getForFile(fileConfig);
         final JSONFormatPlugin.JSONFormatConfig jsonFormatConfig = new JSONFormatPlugin.JSONFormatConfig();
         jsonFormatConfig.extensions = extensions;
+        jsonFormatConfig.newlineDelimited = jsonFileConfig.getNewlineDelimited();
         return jsonFormatConfig;
       case PARQUET:
         final ParquetFileConfig parquetFileConfig = (ParquetFileConfig)com.dremio.service.namespace.file.FileFormat.getForFile(fileConfig);
@@ -209,7 +211,8 @@ public class PhysicalDatasetUtils {
       return toParquetFileConfig(parquetFormatPlugin.getConfig());
     }
     if (formatPlugin instanceof JSONFormatPlugin) {
-      return new JsonFileConfig();
+      return new JsonFileConfig()
+        .setNewlineDelimited(((JSONFormatPlugin.JSONFormatConfig) formatPlugin.getConfig()).isNewlineDelimited());
     }
     if (formatPlugin instanceof ArrowFormatPlugin) {
       return new ArrowFileConfig();
@@ -23,11 +23,16 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.MappedArrowBufs;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.commons.io.IOUtils;
 
@@ -64,20 +69,34 @@ import com.google.common.primitives.Longs;
  */
 public class ArrowFileReader implements AutoCloseable {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ArrowFileReader.class);
+  private static final String LOCAL_SCHEME = "file";
 
   private final FileSystem dfs;
   private final ArrowFileMetadata metadata;
   private final BufferAllocator allocator;
   private final Path path;
+  private final boolean memoryMap;
 
   private FSInputStream inputStream;
+  private FileChannel channel;
 
   public ArrowFileReader(final FileSystem dfs, Path basePath, final ArrowFileMetadata metadata,
                    final BufferAllocator allocator) {
+    this(dfs, basePath, metadata, allocator, false);
+  }
+
+  /**
+   * @param memoryMap whether to memory map the batches of local files instead of copying them into new buffers.
+   *                  Mapped batches are read lazily by the OS, so reading a page of a large file only touches the
+   *                  pages of the file backing the batches returned.
+   */
+  public ArrowFileReader(final FileSystem dfs, Path basePath, final ArrowFileMetadata metadata,
+                   final BufferAllocator allocator, boolean memoryMap) {
     this.dfs = dfs;
     this.metadata = metadata;
     this.allocator = allocator;
     this.path = basePath.resolve(metadata.getPath());
+    this.memoryMap = memoryMap && LOCAL_SCHEME.equals(dfs.getScheme());
   }
 
   private void openFile() throws IOException {
@@ -161,9 +180,18 @@ public class ArrowFileReader implements AutoCloseable {
 
       final long currentBatchCount = batchSummary.getRecordCount();
 
-      // Seek to the place where the batch starts and read
-      inputStream.setPosition(batchSummary.getOffset());
-      vectorAccessibleSerializable.readFromStream(inputStream);
+      if (memoryMap) {
+        // the batch ends where the next one starts, or where the footer starts for the last batch
+        final long batchEnd = batchIndex + 1 < numBatches ? footer.getBatchList().get(batchIndex + 1).getOffset()
+          : getFooterOffset();
+        try (ArrowBuf mapped = mapRegion(batchSummary.getOffset(), batchEnd - batchSummary.getOffset())) {
+          vectorAccessibleSerializable.readFromBuffer(mapped);
+        }
+      } else {
+        // Seek to the place where the batch starts and read
+        inputStream.setPosition(batchSummary.getOffset());
+        vectorAccessibleSerializable.readFromStream(inputStream);
+      }
       final VectorContainer vectorContainer = vectorAccessibleSerializable.get();
 
       // Find the start and end indices within the batch.
@@ -192,11 +220,32 @@ public class ArrowFileReader implements AutoCloseable {
     return batches;
   }
 
+  private ArrowBuf mapRegion(long offset, long length) throws IOException {
+    if (channel == null) {
+      channel = FileChannel.open(Paths.get(path.toURI().getPath()), StandardOpenOption.READ);
+    }
+    // the mapping outlives the channel, until the vectors loaded from it are released
+    return MappedArrowBufs.map(allocator, channel, offset, length);
+  }
+
+  private long getFooterOffset() throws IOException {
+    final long size = dfs.getFileAttributes(path).size();
+    inputStream.setPosition(size - (MAGIC_STRING_LENGTH + FOOTER_OFFSET_SIZE));
+    return readLong(inputStream);
+  }
+
   @Override
   public void close() throws IOException {
-    if (inputStream != null) {
-      inputStream.close();
-      inputStream = null;
+    try {
+      if (inputStream != null) {
+        inputStream.close();
+        inputStream = null;
+      }
+    } finally {
+      if (channel != null) {
+        channel.close();
+        channel = null;
+      }
     }
   }
 
@@ -206,11 +255,7 @@ public class ArrowFileReader implements AutoCloseable {
    * @throws IOException
    */
   private RecordBatchHolder getEmptyBatch() throws IOException {
-    final FileAttributes fileAttributes = dfs.getFileAttributes(path);
-    final long size = fileAttributes.size();
-    inputStream.setPosition(size - (MAGIC_STRING_LENGTH + FOOTER_OFFSET_SIZE));
-
-    final long footerOffset = readLong(inputStream);
+    final long footerOffset = getFooterOffset();
 
     // Read the footer
     inputStream.setPosition(footerOffset);
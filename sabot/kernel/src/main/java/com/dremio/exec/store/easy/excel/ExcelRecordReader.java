@@ -17,18 +17,27 @@ package com.dremio.exec.store.easy.excel;
 
 import static java.util.stream.Collectors.toCollection;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.vector.complex.impl.VectorContainerWriter;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 
 import com.dremio.common.AutoCloseables;
 import com.dremio.common.exceptions.ExecutionSetupException;
 import com.dremio.common.exceptions.UserException;
 import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.utils.protos.QueryIdHelper;
 import com.dremio.exec.ExecConstants;
+import com.dremio.exec.proto.ExecProtos.FragmentHandle;
 import com.dremio.exec.store.AbstractRecordReader;
 import com.dremio.exec.store.RecordReader;
 import com.dremio.exec.store.easy.excel.ExcelParser.State;
@@ -38,6 +47,8 @@ import com.dremio.io.file.FileSystem;
 import com.dremio.io.file.Path;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.op.scan.OutputMutator;
+import com.dremio.service.spill.SpillDirectory;
+import com.dremio.service.spill.SpillService;
 
 /**
  * {@link RecordReader} implementation for reading a single sheet in an Excel file.
@@ -45,6 +56,9 @@ import com.dremio.sabot.op.scan.OutputMutator;
 public class ExcelRecordReader extends AbstractRecordReader implements XlsInputStream.BufferManager {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ExcelRecordReader.class);
 
+  // several readers of an operator can be open at once, each gets its own spill sub-directory
+  private static final AtomicLong SPILL_ID_GENERATOR = new AtomicLong();
+
   private final ExcelFormatPluginConfig pluginConfig;
   private final OperatorContext executionContext;
   private final FileSystem dfs;
@@ -55,6 +69,8 @@ public class ExcelRecordReader extends AbstractRecordReader implements XlsInputS
   private InputStream inputStream;
   private long runningRecordCount;
   private ExcelParser parser;
+  private String spillId;
+  private java.nio.file.Path localCopy;
 
   public ExcelRecordReader(final OperatorContext executionContext, final FileSystem dfs, final Path path,
                            final ExcelFormatPluginConfig pluginConfig, final List<SchemaPath> columns) {
@@ -87,7 +103,14 @@ public class ExcelRecordReader extends AbstractRecordReader implements XlsInputS
         final XlsInputStream xlsStream = new XlsInputStream(this, inputStream);
         parser = new XlsRecordProcessor(xlsStream, pluginConfig, writer, managedBuf, columnsToProject, isSkipQuery(), maxCellSize);
       } else {
-        parser = new StAXBasedParser(inputStream, pluginConfig, writer, managedBuf, columnsToProject, isSkipQuery(), maxCellSize);
+        final OPCPackage pkg = openPackage();
+        try {
+          parser = new StAXBasedParser(pkg, pluginConfig, writer, managedBuf, executionContext.getAllocator(),
+            columnsToProject, isSkipQuery(), maxCellSize);
+        } catch (Throwable e) {
+          pkg.revert();
+          throw e;
+        }
       }
     } catch (final SheetNotFoundException e) {
       // This check will move to schema validation in planning after DX-2271
@@ -102,6 +125,56 @@ public class ExcelRecordReader extends AbstractRecordReader implements XlsInputS
     }
   }
 
+  /**
+   * Open the XLSX package. Opening it from a stream inflates all its parts on heap, while opening it from a file
+   * only reads the zip directory, the parts being inflated as they are streamed, hence the workbook is first copied
+   * to a local spill directory unless disabled or the spill directories are not local.
+   */
+  private OPCPackage openPackage() throws Exception {
+    if (!context.getOptions().getOption(ExecConstants.EXCEL_XLSX_LOCAL_COPY)) {
+      return OPCPackage.open(inputStream);
+    }
+
+    final java.nio.file.Path spillDirectory = getLocalSpillDirectory();
+    if (spillDirectory == null) {
+      return OPCPackage.open(inputStream);
+    }
+    localCopy = Files.createTempFile(spillDirectory, "excel-", ".xlsx");
+    Files.copy(inputStream, localCopy, StandardCopyOption.REPLACE_EXISTING);
+    inputStream.close();
+    inputStream = null;
+    return OPCPackage.open(localCopy.toFile(), PackageAccess.READ);
+  }
+
+  /**
+   * @return a spill sub-directory of the reader on local disk, or null if there is none
+   */
+  private java.nio.file.Path getLocalSpillDirectory() {
+    final SpillService spillService = executionContext.getSpillService();
+    if (spillService == null) {
+      return null;
+    }
+
+    final FragmentHandle handle = executionContext.getFragmentHandle();
+    final String id = String.format("excel-%s.%s.%s.%s.%s", QueryIdHelper.getQueryId(handle.getQueryId()),
+      handle.getMajorFragmentId(), handle.getMinorFragmentId(), executionContext.getStats().getOperatorId(),
+      SPILL_ID_GENERATOR.incrementAndGet());
+    try {
+      spillService.makeSpillSubdirs(id);
+      spillId = id;
+      final SpillDirectory spillDirectory = spillService.getSpillSubdir(id);
+      final String scheme = spillDirectory.getFileSystem().getUri().getScheme();
+      if (!"file".equals(scheme) && !"dremio-local".equals(scheme)) {
+        logger.debug("Spill directory {} is not local, reading {} from a stream", spillDirectory, path);
+        return null;
+      }
+      return Paths.get(spillDirectory.getSpillDirPath().toUri().getPath());
+    } catch (UserException e) {
+      logger.debug("No spill directory available, reading {} from a stream", path, e);
+      return null;
+    }
+  }
+
   @Override
   public ArrowBuf allocate(int size) {
     return executionContext.getManagedBuffer(size);
@@ -138,6 +211,17 @@ public class ExcelRecordReader extends AbstractRecordReader implements XlsInputS
 
   @Override
   public void close() throws Exception {
-    AutoCloseables.close(parser, inputStream);
+    AutoCloseables.close(parser, inputStream, this::deleteLocalCopy);
+  }
+
+  private void deleteLocalCopy() throws IOException {
+    if (localCopy != null) {
+      Files.deleteIfExists(localCopy);
+      localCopy = null;
+    }
+    if (spillId != null) {
+      executionContext.getSpillService().deleteSpillSubdirs(spillId);
+      spillId = null;
+    }
   }
 }
@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.easy.excel;
+
+import static javax.xml.stream.XMLStreamConstants.CDATA;
+import static javax.xml.stream.XMLStreamConstants.CHARACTERS;
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.SPACE;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Shared strings table of a XLSX workbook, stored off heap as UTF-8 bytes in buffers of the operator allocator.
+ *
+ * Unlike POI's SharedStringsTable, which keeps an XMLBeans object per string on heap, the strings are read with a
+ * streaming parser and held in a data buffer and an offsets buffer, so that workbooks with many shared strings are
+ * accounted for by the allocator and do not put pressure on the heap.
+ */
+public class OffHeapSharedStringsTable implements AutoCloseable {
+  private static final String SHARED_STRING_ITEM = "si";
+  private static final String TEXT = "t";
+  private static final String PHONETIC_RUN = "rPh";
+  private static final String SHARED_STRINGS = "sst";
+  private static final String UNIQUE_COUNT = "uniqueCount";
+
+  private static final Pattern UTF_PATTERN = Pattern.compile("_x([0-9A-Fa-f]{4})_");
+
+  private static final int INITIAL_DATA_CAPACITY = 64 * 1024;
+  private static final int INITIAL_COUNT = 1024;
+  private static final int OFFSET_WIDTH = 4;
+
+  private final BufferAllocator allocator;
+  private ArrowBuf data;
+  private ArrowBuf offsets;
+  private int count;
+
+  private OffHeapSharedStringsTable(BufferAllocator allocator) {
+    this.allocator = allocator;
+  }
+
+  /**
+   * Read the shared strings part of a workbook.
+   *
+   * @param sharedStrings stream of the shared strings part, closed by the caller
+   * @param allocator allocator of the buffers holding the strings
+   */
+  public static OffHeapSharedStringsTable read(InputStream sharedStrings, BufferAllocator allocator) throws XMLStreamException {
+    final OffHeapSharedStringsTable table = new OffHeapSharedStringsTable(allocator);
+    try {
+      table.parse(sharedStrings);
+      return table;
+    } catch (XMLStreamException | RuntimeException e) {
+      table.close();
+      throw e;
+    }
+  }
+
+  private void parse(InputStream sharedStrings) throws XMLStreamException {
+    final XMLStreamReader reader = ExcelUtil.XML_INPUT_FACTORY.createXMLStreamReader(sharedStrings);
+    try {
+      final StringBuilder text = new StringBuilder();
+      boolean inText = false;
+      int phoneticDepth = 0;
+      while (reader.hasNext()) {
+        switch (reader.next()) {
+          case START_ELEMENT: {
+            final String name = reader.getLocalName();
+            if (TEXT.equals(name)) {
+              // phonetic runs are reading hints, not part of the value
+              inText = phoneticDepth == 0;
+            } else if (SHARED_STRING_ITEM.equals(name)) {
+              text.setLength(0);
+            } else if (PHONETIC_RUN.equals(name)) {
+              phoneticDepth++;
+            } else if (SHARED_STRINGS.equals(name) && data == null) {
+              allocate(reader.getAttributeValue(/*namespaceURI=*/null, UNIQUE_COUNT));
+            }
+            break;
+          }
+
+          case CHARACTERS:
+          case CDATA:
+          case SPACE: {
+            if (inText) {
+              text.append(reader.getText());
+            }
+            break;
+          }
+
+          case END_ELEMENT: {
+            final String name = reader.getLocalName();
+            if (TEXT.equals(name)) {
+              inText = false;
+            } else if (PHONETIC_RUN.equals(name)) {
+              phoneticDepth--;
+            } else if (SHARED_STRING_ITEM.equals(name)) {
+              add(decode(text));
+            }
+            break;
+          }
+        }
+      }
+    } finally {
+      reader.close();
+    }
+  }
+
+  private void allocate(String uniqueCount) {
+    int initialCount = INITIAL_COUNT;
+    if (uniqueCount != null) {
+      try {
+        initialCount = Math.max(1, Math.min(Integer.parseInt(uniqueCount), 1024 * 1024));
+      } catch (NumberFormatException e) {
+        // keep the default
+      }
+    }
+    data = allocator.buffer(INITIAL_DATA_CAPACITY);
+    offsets = allocator.buffer((long) (initialCount + 1) * OFFSET_WIDTH);
+    offsets.setInt(0, 0);
+  }
+
+  private void add(String value) {
+    if (data == null) {
+      allocate(null);
+    }
+    final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    final int start = offsets.getInt((long) count * OFFSET_WIDTH);
+    final int end = Math.addExact(start, bytes.length);
+    data = ensureCapacity(data, end);
+    offsets = ensureCapacity(offsets, (long) (count + 2) * OFFSET_WIDTH);
+    data.setBytes(start, bytes);
+    count++;
+    offsets.setInt((long) count * OFFSET_WIDTH, end);
+  }
+
+  private ArrowBuf ensureCapacity(ArrowBuf buffer, long capacity) {
+    if (buffer.capacity() >= capacity) {
+      return buffer;
+    }
+    long newCapacity = buffer.capacity();
+    while (newCapacity < capacity) {
+      newCapacity *= 2;
+    }
+    final ArrowBuf newBuffer = allocator.buffer(newCapacity);
+    try {
+      newBuffer.setBytes(0, buffer, 0, buffer.capacity());
+    } catch (RuntimeException e) {
+      newBuffer.close();
+      throw e;
+    }
+    buffer.close();
+    return newBuffer;
+  }
+
+  /**
+   * Decode the characters escaped as _xHHHH_, as POI does for rich text strings.
+   */
+  private static String decode(CharSequence value) {
+    final String str = value.toString();
+    if (str.indexOf("_x") < 0) {
+      return str;
+    }
+    final Matcher matcher = UTF_PATTERN.matcher(str);
+    final StringBuilder decoded = new StringBuilder(str.length());
+    int position = 0;
+    while (matcher.find()) {
+      decoded.append(str, position, matcher.start());
+      decoded.append((char) Integer.parseInt(matcher.group(1), 16));
+      position = matcher.end();
+    }
+    decoded.append(str, position, str.length());
+    return decoded.toString();
+  }
+
+  public int size() {
+    return count;
+  }
+
+  /**
+   * @return the length in bytes of the UTF-8 encoded string at the given index
+   */
+  public int getLength(int index) {
+    checkIndex(index);
+    return offsets.getInt((long) (index + 1) * OFFSET_WIDTH) - offsets.getInt((long) index * OFFSET_WIDTH);
+  }
+
+  /**
+   * Copy the UTF-8 encoded string at the given index at the start of the destination buffer, which must be large
+   * enough, see {@link #getLength(int)}.
+   */
+  public void copy(int index, ArrowBuf dst) {
+    checkIndex(index);
+    final int start = offsets.getInt((long) index * OFFSET_WIDTH);
+    final int length = offsets.getInt((long) (index + 1) * OFFSET_WIDTH) - start;
+    dst.setBytes(0, data, start, length);
+  }
+
+  public byte[] getBytes(int index) {
+    checkIndex(index);
+    final int start = offsets.getInt((long) index * OFFSET_WIDTH);
+    final byte[] bytes = new byte[offsets.getInt((long) (index + 1) * OFFSET_WIDTH) - start];
+    data.getBytes(start, bytes);
+    return bytes;
+  }
+
+  public String getString(int index) {
+    return new String(getBytes(index), StandardCharsets.UTF_8);
+  }
+
+  private void checkIndex(int index) {
+    Preconditions.checkElementIndex(index, count, "shared string index");
+  }
+
+  @Override
+  public void close() {
+    if (data != null) {
+      data.close();
+      data = null;
+    }
+    if (offsets != null) {
+      offsets.close();
+      offsets = null;
+    }
+    count = 0;
+  }
+}
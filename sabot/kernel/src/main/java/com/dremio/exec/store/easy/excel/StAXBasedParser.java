@@ -32,14 +32,15 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
 import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.vector.complex.impl.VectorContainerWriter;
 import org.apache.arrow.vector.complex.writer.BaseWriter.StructWriter;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.ss.usermodel.DateUtil;
 import org.apache.poi.ss.util.CellReference;
 import org.apache.poi.util.LocaleUtil;
 import org.apache.poi.xssf.eventusermodel.XSSFReader;
-import org.apache.poi.xssf.model.SharedStringsTable;
 import org.apache.poi.xssf.model.StylesTable;
 import org.apache.poi.xssf.usermodel.XSSFRichTextString;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTXf;
@@ -78,8 +79,10 @@ public class StAXBasedParser implements ExcelParser {
         }
       });
 
-  private final SharedStringsTable sst;
+  private final OffHeapSharedStringsTable sst;
   private final StylesTable styles;
+  private final XSSFReader xssfReader;
+  private final String sheetId;
   private final InputStream sheetInputStream;
   private final StructWriter writer;
 
@@ -121,29 +124,30 @@ public class StAXBasedParser implements ExcelParser {
 
   /**
    * Create instance
-   * @param inputStream sheet input stream
+   * @param pkg workbook package, opened read only. Reverted when the parser is closed.
    * @param pluginConfig config options
    * @param writer {@link VectorContainerWriter} for writing values into vectors.
    * @param managedBuf Workspace buffer.
+   * @param allocator Allocator of the shared strings table.
    * @param skipQuery if a query should skip columns
    * @param maxCellSize maximum allowable size of variable length cells
    */
-  public StAXBasedParser(final InputStream inputStream, final ExcelFormatPluginConfig pluginConfig,
+  public StAXBasedParser(final OPCPackage pkg, final ExcelFormatPluginConfig pluginConfig,
                          final VectorContainerWriter writer, final ArrowBuf managedBuf,
-                         final HashSet<String> columnsToProject, final boolean skipQuery,
-                         final int maxCellSize) throws Exception {
-    this.pkgInputStream = OPCPackage.open(inputStream);
+                         final BufferAllocator allocator, final HashSet<String> columnsToProject,
+                         final boolean skipQuery, final int maxCellSize) throws Exception {
+    this.pkgInputStream = pkg;
     this.writer = writer.rootAsStruct();
     this.managedBuf = managedBuf;
     this.columnsToProject = columnsToProject;
     this.skipQuery = skipQuery;
     this.maxCellSize = maxCellSize;
 
-    final XSSFReader xssfReader = new XSSFReader(pkgInputStream);
+    xssfReader = new XSSFReader(pkgInputStream);
 
     // Find the sheet id of the given sheet name in workbook
     try (final InputStream wbInputStream = xssfReader.getWorkbookData()) {
-      final String sheetId = ExcelUtil.getSheetId(wbInputStream, pluginConfig.sheet);
+      sheetId = ExcelUtil.getSheetId(wbInputStream, pluginConfig.sheet);
       if (sheetId == null) {
         throw new SheetNotFoundException();
       }
@@ -152,9 +156,10 @@ public class StAXBasedParser implements ExcelParser {
       sheetInputStream = xssfReader.getSheet(sheetId);
     }
 
-
     // WARNING: XSSFReader can actually return null instances of sst and styles
-    sst = xssfReader.getSharedStringsTable();
+    try (final InputStream sstInputStream = xssfReader.getSharedStringsData()) {
+      sst = sstInputStream != null ? OffHeapSharedStringsTable.read(sstInputStream, allocator) : null;
+    }
     styles = checkNotNull(xssfReader.getStylesTable(), "Expected a valid styles table instance");
 
     init(pluginConfig.extractHeader, pluginConfig.hasMergedCells);
@@ -171,11 +176,14 @@ public class StAXBasedParser implements ExcelParser {
    */
   private void init(final boolean extractHeader, final boolean hasMergedCells) throws XMLStreamException, IOException {
     if (hasMergedCells) {
-      sheetInputStream.mark(-1);
-      xmlStreamReader = ExcelUtil.XML_INPUT_FACTORY.createXMLStreamReader(sheetInputStream);
-      parseMergedCellInfo();
-      sheetInputStream.reset();
-      xmlStreamReader.close();
+      // merge cells follow the sheet data, read them through a separate stream rather than buffering the sheet
+      try (final InputStream mergeCellsInputStream = xssfReader.getSheet(sheetId)) {
+        xmlStreamReader = ExcelUtil.XML_INPUT_FACTORY.createXMLStreamReader(mergeCellsInputStream);
+        parseMergedCellInfo();
+        xmlStreamReader.close();
+      } catch (InvalidFormatException e) {
+        throw new IOException(e);
+      }
     }
 
 
@@ -427,7 +435,11 @@ public class StAXBasedParser implements ExcelParser {
    */
   private void handleValue(String value) {
     if (value.length() != 0) {
-      value = resolveValue(value, lookupNextValueInSST);
+      // shared strings are copied from the table without decoding them to java strings
+      final int sstIndex = lookupNextValueInSST ? (int) Double.parseDouble(value) : -1;
+      if (!lookupNextValueInSST) {
+        value = resolveValue(value, false);
+      }
 
       assert currentColumnIndex != -1 : "Invalid currentColumnIndex";
 
@@ -473,15 +485,25 @@ public class StAXBasedParser implements ExcelParser {
 
         case VARCHAR:
           indexToLastTypeCache.put(currentColumnIndex, valueTypeFromAttribute);
-          final byte[] b = value.getBytes(Charsets.UTF_8);
-          FieldSizeLimitExceptionHelper.checkSizeLimit(b.length, maxCellSize, currentColumnIndex, logger);
-
-          managedBuf = managedBuf.reallocIfNeeded(b.length);
-          managedBuf.setBytes(0, b);
+          final int length;
+          if (sstIndex >= 0) {
+            length = getSharedStrings().getLength(sstIndex);
+            FieldSizeLimitExceptionHelper.checkSizeLimit(length, maxCellSize, currentColumnIndex, logger);
+            managedBuf = managedBuf.reallocIfNeeded(length);
+            sst.copy(sstIndex, managedBuf);
+          } else {
+            final byte[] b = value.getBytes(Charsets.UTF_8);
+            length = b.length;
+            FieldSizeLimitExceptionHelper.checkSizeLimit(length, maxCellSize, currentColumnIndex, logger);
+            managedBuf = managedBuf.reallocIfNeeded(length);
+            managedBuf.setBytes(0, b);
+          }
           if (projectedAndNotSkipQuery) {
-            writer.varChar(finalColumnName).writeVarChar(0, b.length, managedBuf);
+            writer.varChar(finalColumnName).writeVarChar(0, length, managedBuf);
           }
           if (mergeCellRegion != null) {
+            final byte[] b = new byte[length];
+            managedBuf.getBytes(0, b);
             mergeCellRegion.setValue(MinorType.VARCHAR, b);
           }
           break;
@@ -548,12 +570,16 @@ public class StAXBasedParser implements ExcelParser {
   private String resolveValue(String value, boolean lookupNextValueInSST) {
     if(lookupNextValueInSST) {
       int idx = (int)Double.parseDouble(value);
-      return new XSSFRichTextString(sst.getEntryAt(idx)).toString();
+      return getSharedStrings().getString(idx);
     }
 
     return new XSSFRichTextString(value).toString();
   }
 
+  private OffHeapSharedStringsTable getSharedStrings() {
+    return checkNotNull(sst, "Expected a valid shared strings table instance");
+  }
+
   /**
    * Populate the values for merged cells in current row. Also delete the merged regions that are not valid from
    * current row onwards.
@@ -574,6 +600,7 @@ public class StAXBasedParser implements ExcelParser {
 
         if (mcr.rowEnd < runningRecordCount) {
           iter.remove();
+          mergeCells.remove(CellReference.convertNumToColString(mcr.colStart) + mcr.rowStart);
         }
       }
     }
@@ -581,6 +608,6 @@ public class StAXBasedParser implements ExcelParser {
 
   @Override
   public void close() throws Exception {
-    AutoCloseables.close(pkgInputStream, sheetInputStream);
+    AutoCloseables.close(sheetInputStream, sst, pkgInputStream::revert);
   }
 }
@@ -48,11 +48,17 @@ public class JSONFormatPlugin extends EasyFormatPlugin<JSONFormatConfig> {
   }
 
   public JSONFormatPlugin(String name, SabotContext context, JSONFormatConfig formatPluginConfig, FileSystemPlugin<?> fsPlugin) {
-    super(name, context, formatPluginConfig, true, false, false, IS_COMPRESSIBLE, formatPluginConfig.getExtensions(), DEFAULT_NAME, fsPlugin);
+    // only files with one document per line can be split on block boundaries
+    super(name, context, formatPluginConfig, true, false, formatPluginConfig.isNewlineDelimited(), IS_COMPRESSIBLE,
+      formatPluginConfig.getExtensions(), DEFAULT_NAME, fsPlugin);
   }
 
   @Override
   public RecordReader getRecordReader(OperatorContext context, FileSystem dfs, EasyDatasetSplitXAttr splitAttributes, List<SchemaPath> columns) throws ExecutionSetupException {
+    if (((JSONFormatConfig) getConfig()).isNewlineDelimited()) {
+      return new JSONRecordReader(context, splitAttributes.getPath(), splitAttributes.getStart(),
+        splitAttributes.getLength(), getFsPlugin().getCompressionCodecFactory(), dfs, columns);
+    }
     return new JSONRecordReader(context, splitAttributes.getPath(), getFsPlugin().getCompressionCodecFactory(), dfs, columns);
   }
 
@@ -75,6 +81,11 @@ public class JSONFormatPlugin extends EasyFormatPlugin<JSONFormatConfig> {
 
     public boolean prettyPrint = true;
 
+    /**
+     * Whether files hold one JSON document per line, in which case they can be read in parallel by blocks.
+     */
+    public boolean newlineDelimited = false;
+
     @JsonInclude(JsonInclude.Include.NON_DEFAULT)
     public List<String> getExtensions() {
       if (extensions == null) {
@@ -92,9 +103,17 @@ public class JSONFormatPlugin extends EasyFormatPlugin<JSONFormatConfig> {
       this.prettyPrint = prettyPrint;
     }
 
+    public boolean isNewlineDelimited() {
+      return newlineDelimited;
+    }
+
+    public void setNewlineDelimited(boolean newlineDelimited) {
+      this.newlineDelimited = newlineDelimited;
+    }
+
     @Override
     public int hashCode() {
-      return Objects.hash(extensions, outputExtension, prettyPrint);
+      return Objects.hash(extensions, outputExtension, prettyPrint, newlineDelimited);
     }
 
     @Override
@@ -112,7 +131,8 @@ public class JSONFormatPlugin extends EasyFormatPlugin<JSONFormatConfig> {
 
       return Objects.equals(extensions, other.extensions) &&
           Objects.equals(outputExtension, other.outputExtension) &&
-          Objects.equals(prettyPrint, other.prettyPrint);
+          Objects.equals(prettyPrint, other.prettyPrint) &&
+          Objects.equals(newlineDelimited, other.newlineDelimited);
     }
   }
 
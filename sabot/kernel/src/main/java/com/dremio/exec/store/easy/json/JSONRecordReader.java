@@ -31,7 +31,9 @@ import com.dremio.exec.store.AbstractRecordReader;
 import com.dremio.exec.store.easy.json.JsonProcessor.ReadState;
 import com.dremio.exec.store.easy.json.reader.CountingJsonReader;
 import com.dremio.exec.vector.complex.fn.JsonReader;
+import com.dremio.io.CompressedFSInputStream;
 import com.dremio.io.CompressionCodecFactory;
+import com.dremio.io.FSInputStream;
 import com.dremio.io.file.FileSystem;
 import com.dremio.io.file.FileSystemUtils;
 import com.dremio.io.file.Path;
@@ -53,6 +55,9 @@ public class JSONRecordReader extends AbstractRecordReader {
   // Data we're consuming
   private final Path fsPath;
   private final JsonNode embeddedContent;
+  // byte range of the file to read, only set for newline delimited files read by split
+  private final long splitStart;
+  private final long splitEnd;
 
   private final CompressionCodecFactory codecFactory;
   private final FileSystem fileSystem;
@@ -79,7 +84,30 @@ public class JSONRecordReader extends AbstractRecordReader {
       final CompressionCodecFactory codecFactory,
       final FileSystem fileSystem,
       final List<SchemaPath> columns) throws OutOfMemoryException {
-    this(context, inputPath, null, codecFactory, fileSystem, columns);
+    this(context, inputPath, null, -1, -1, codecFactory, fileSystem, columns);
+  }
+
+  /**
+   * Create a JSON Record Reader that reads the documents of a newline delimited JSON file that start within the
+   * given range of the file.
+   * @param context
+   * @param inputPath
+   * @param start start of the range
+   * @param length length of the range
+   * @param codecFactory
+   * @param fileSystem
+   * @param columns  pathnames of columns/subfields to read
+   * @throws OutOfMemoryException
+   */
+  public JSONRecordReader(
+      final OperatorContext context,
+      final String inputPath,
+      final long start,
+      final long length,
+      final CompressionCodecFactory codecFactory,
+      final FileSystem fileSystem,
+      final List<SchemaPath> columns) throws OutOfMemoryException {
+    this(context, inputPath, null, start, start + length, codecFactory, fileSystem, columns);
   }
 
   /**
@@ -94,12 +122,14 @@ public class JSONRecordReader extends AbstractRecordReader {
   public JSONRecordReader(final OperatorContext context, final JsonNode embeddedContent,
       final CompressionCodecFactory codecFactory, final FileSystem fileSystem, final List<SchemaPath> columns)
       throws OutOfMemoryException {
-    this(context, null, embeddedContent, codecFactory, fileSystem, columns);
+    this(context, null, embeddedContent, -1, -1, codecFactory, fileSystem, columns);
   }
 
   private JSONRecordReader(final OperatorContext operatorContext,
                            final String inputPath,
                            final JsonNode embeddedContent,
+                           final long splitStart,
+                           final long splitEnd,
                            final CompressionCodecFactory codecFactory,
                            final FileSystem fileSystem,
                            final List<SchemaPath> columns) {
@@ -119,6 +149,8 @@ public class JSONRecordReader extends AbstractRecordReader {
       this.fsPath = null;
     }
 
+    this.splitStart = splitStart;
+    this.splitEnd = splitEnd;
     this.codecFactory = codecFactory;
     this.fileSystem = fileSystem;
     this.context = operatorContext;
@@ -138,6 +170,7 @@ public class JSONRecordReader extends AbstractRecordReader {
   public String toString() {
     return super.toString()
         + "[hadoopPath = " + fsPath
+        + ", split = [" + splitStart + ", " + splitEnd + ")"
         + ", recordCount = " + recordCount
         + ", runningRecordCount = " + runningRecordCount + ", ...]";
   }
@@ -146,7 +179,7 @@ public class JSONRecordReader extends AbstractRecordReader {
   public void setup(final OutputMutator output) throws ExecutionSetupException {
     try{
       if (fsPath != null) {
-        this.stream = FileSystemUtils.openPossiblyCompressedStream(codecFactory, fileSystem, fsPath);
+        this.stream = openStream();
       }
 
       this.writer = new VectorContainerWriter(output);
@@ -169,6 +202,19 @@ public class JSONRecordReader extends AbstractRecordReader {
     }
   }
 
+  private InputStream openStream() throws IOException {
+    final FSInputStream input = FileSystemUtils.openPossiblyCompressedStream(codecFactory, fileSystem, fsPath);
+    if (splitEnd < 0) {
+      return input;
+    }
+    if (input instanceof CompressedFSInputStream) {
+      // compressed files are never split, the split length is the compressed size so read the whole stream
+      Preconditions.checkArgument(splitStart == 0, "Cannot use split on compressed stream.");
+      return input;
+    }
+    return new LineSplitInputStream(input, splitStart, splitEnd);
+  }
+
   private void setupParser() throws IOException {
     if(fsPath != null){
       jsonReader.setSource(stream);
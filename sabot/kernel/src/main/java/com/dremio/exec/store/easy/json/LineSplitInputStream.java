@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.easy.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.dremio.io.FSInputStream;
+import com.google.common.base.Preconditions;
+
+/**
+ * Input stream over the lines of a newline delimited file that belong to a split.<br>
+ * A split owns the lines that start in [start, end): a split not starting at the beginning of the file skips the
+ * partial line it starts in (that line belongs to the previous split), and every split reads past its end to complete
+ * its last line. So consecutive splits read every line of the file exactly once.
+ */
+class LineSplitInputStream extends InputStream {
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final byte NEW_LINE = '\n';
+
+  private final FSInputStream input;
+  private final long end;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+
+  // position in the file of buffer[0]
+  private long bufferStartPos;
+  private int bufferPtr;
+  private int bufferLength;
+  private boolean done;
+
+  /**
+   * @param input stream over the whole (uncompressed) file
+   * @param start start of the split
+   * @param end end of the split, exclusive
+   */
+  LineSplitInputStream(FSInputStream input, long start, long end) throws IOException {
+    Preconditions.checkArgument(start >= 0 && start <= end, "invalid split [%s, %s)", start, end);
+    this.input = input;
+    this.end = end;
+
+    if (start > 0) {
+      // start reading from the previous byte: if it is a new line, the split starts with a full line
+      input.setPosition(start - 1);
+      bufferStartPos = start - 1;
+      skipPartialLine();
+    }
+    if (bufferStartPos + bufferPtr >= end) {
+      done = true;
+    }
+  }
+
+  private void skipPartialLine() throws IOException {
+    while (fill()) {
+      for (; bufferPtr < bufferLength; bufferPtr++) {
+        if (buffer[bufferPtr] == NEW_LINE) {
+          bufferPtr++;
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Make sure there are bytes available in the buffer.
+   *
+   * @return false if the end of the file was reached
+   */
+  private boolean fill() throws IOException {
+    if (bufferPtr < bufferLength) {
+      return true;
+    }
+    bufferStartPos += bufferLength;
+    bufferPtr = 0;
+    bufferLength = 0;
+    final int read = input.read(buffer, 0, buffer.length);
+    if (read <= 0) {
+      return false;
+    }
+    bufferLength = read;
+    return true;
+  }
+
+  @Override
+  public int read() throws IOException {
+    final byte[] b = new byte[1];
+    return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (done || !fill()) {
+      done = true;
+      return -1;
+    }
+
+    int n = Math.min(len, bufferLength - bufferPtr);
+    // the split ends with the first new line at or after end - 1, look for it once past that point
+    final long from = Math.max(bufferPtr, end - 1 - bufferStartPos);
+    if (from < bufferPtr + n) {
+      for (int i = (int) from; i < bufferPtr + n; i++) {
+        if (buffer[i] == NEW_LINE) {
+          n = i - bufferPtr + 1;
+          done = true;
+          break;
+        }
+      }
+    }
+    System.arraycopy(buffer, bufferPtr, b, off, n);
+    bufferPtr += n;
+    return n;
+  }
+
+  @Override
+  public void close() throws IOException {
+    input.close();
+  }
+}
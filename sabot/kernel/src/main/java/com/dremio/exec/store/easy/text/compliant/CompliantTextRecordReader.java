@@ -100,6 +100,7 @@ public class CompliantTextRecordReader extends AbstractRecordReader {
   public void setup(OutputMutator outputMutator) throws ExecutionSetupException {
     // setup Output, Input, and Reader
     try {
+      settings.setBulkCopy(this.context.getOptions().getOption(ExecConstants.TEXT_READER_BULK_COPY));
       final TextOutput output;
 
       if (isSkipQuery()) {
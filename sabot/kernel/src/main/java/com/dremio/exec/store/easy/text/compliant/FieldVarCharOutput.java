@@ -30,6 +30,8 @@ import com.dremio.common.expression.SchemaPath;
 import com.dremio.exec.exception.SchemaChangeException;
 import com.dremio.sabot.op.scan.OutputMutator;
 
+import io.netty.util.internal.PlatformDependent;
+
 /**
  * Class is responsible for generating record batches for text file inputs. We generate
  * a record batch with a set of varchar vectors. A varchar vector contains all the field
@@ -150,6 +152,20 @@ class FieldVarCharOutput extends TextOutput {
     fieldBytes[currentDataPointer++] = data;
   }
 
+  @Override
+  public void appendBytes(long address, int length) {
+    if (!collect) {
+      return;
+    }
+
+    if (currentDataPointer + length > MAX_FIELD_LENGTH) {
+      throw FieldSizeLimitExceptionHelper.createFieldSizeLimitException(currentDataPointer + length, MAX_FIELD_LENGTH, currentFieldIndex, logger);
+    }
+
+    PlatformDependent.copyMemory(address, fieldBytes, currentDataPointer, length);
+    currentDataPointer += length;
+  }
+
   @Override
   public boolean endField() {
     fieldOpen = false;
@@ -37,6 +37,8 @@ import com.dremio.exec.exception.SchemaChangeException;
 import com.dremio.sabot.op.scan.OutputMutator;
 import com.google.common.base.Preconditions;
 
+import io.netty.util.internal.PlatformDependent;
+
 /**
  * Class is responsible for generating record batches for text file inputs. We generate
  * a record batch with a single vector of type repeated varchar vector. Each record is a single
@@ -195,6 +197,22 @@ class RepeatedVarCharOutput extends TextOutput {
     charLengthOffset++;
   }
 
+  @Override
+  public void appendBytes(long address, int length) {
+    if (!collect) {
+      return;
+    }
+
+    int copied = 0;
+    while (copied < length) {
+      expandTmpBufIfNecessary();
+      final int n = (int) Math.min(length - copied, tmpBuf.capacity() - charLengthOffset);
+      PlatformDependent.copyMemory(address + copied, tmpBuf.memoryAddress() + charLengthOffset, n);
+      charLengthOffset += n;
+      copied += n;
+    }
+  }
+
   @Override
   public long getRecordCount() {
     return recordCount;
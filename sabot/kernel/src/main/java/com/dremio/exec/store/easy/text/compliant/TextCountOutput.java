@@ -59,6 +59,11 @@ public class TextCountOutput extends TextOutput  {
     // no-op
   }
 
+  @Override
+  public void appendBytes(long address, int length) {
+    // no-op
+  }
+
   @Override
   public void finishRecord() {
     if (fieldOpen) {
@@ -34,6 +34,7 @@ package com.dremio.exec.store.easy.text.compliant;
 import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.BoundsChecking;
@@ -55,6 +56,11 @@ final class TextInput {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(TextInput.class);
 
 //  private static final int READ_CHARS_LIMIT = 1024*64;
+  // word at a time scanning relies on the first byte of a word being the least significant one
+  private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+  private static final long ONES = 0x0101010101010101L;
+  private static final long HIGHS = 0x8080808080808080L;
+
   private final byte[] lineSeparator;
   private final byte normalizedLineSeparator;
   private final TextParsingSettings settings;
@@ -350,6 +356,64 @@ final class TextInput {
     return byteChar;
   }
 
+  /**
+   * Copy to the output the bytes following the current position up to the first of the given stop bytes, and consume
+   * them. The buffer is scanned a word (8 bytes) at a time rather than a byte at a time.<br>
+   * Only the bytes already in the buffer are copied, and the last byte of the buffer is always left to
+   * {@link #nextChar()} so that refilling the buffer and line separators are handled as usual.
+   * @param output  output the bytes are appended to
+   * @param stop1  first stop byte
+   * @param stop2  second stop byte
+   * @param stop3  third stop byte
+   */
+  final void copyUntil(TextOutput output, byte stop1, byte stop2, byte stop3) {
+    final int start = bufferPtr - 1;
+    final int max = length - 1;
+    if (start >= max) {
+      return;
+    }
+    if (BoundsChecking.BOUNDS_CHECKING_ENABLED) {
+      buffer.checkBytes(start, max);
+    }
+
+    int i = start;
+    if (LITTLE_ENDIAN) {
+      final long pattern1 = ONES * (stop1 & 0xFF);
+      final long pattern2 = ONES * (stop2 & 0xFF);
+      final long pattern3 = ONES * (stop3 & 0xFF);
+      for (; i + 8 <= max; i += 8) {
+        final long word = PlatformDependent.getLong(bStart + i);
+        final long found = zeroBytes(word ^ pattern1) | zeroBytes(word ^ pattern2) | zeroBytes(word ^ pattern3);
+        if (found != 0) {
+          // the lowest flagged byte is always an actual match
+          consume(output, start, i + (Long.numberOfTrailingZeros(found) >>> 3));
+          return;
+        }
+      }
+    }
+    for (; i < max; i++) {
+      final byte b = PlatformDependent.getByte(bStart + i);
+      if (b == stop1 || b == stop2 || b == stop3) {
+        break;
+      }
+    }
+    consume(output, start, i);
+  }
+
+  /**
+   * Flags the high bit of the zero bytes of a word. Bytes above a zero byte may be flagged too.
+   */
+  private static long zeroBytes(long word) {
+    return (word - ONES) & ~word & HIGHS;
+  }
+
+  private void consume(TextOutput output, int start, int end) {
+    if (end > start) {
+      output.appendBytes(bStart + start, end - start);
+      bufferPtr += end - start;
+    }
+  }
+
   /**
    * Number of lines read since the start of this split.
    * @return
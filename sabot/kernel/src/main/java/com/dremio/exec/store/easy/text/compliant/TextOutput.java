@@ -15,6 +15,8 @@
  */
 package com.dremio.exec.store.easy.text.compliant;
 
+import io.netty.util.internal.PlatformDependent;
+
 /* Base class for producing output record batches while dealing with
  * Text files.
  */
@@ -61,6 +63,17 @@ abstract class TextOutput {
    */
   public abstract void append(byte data);
 
+  /**
+   * This function appends a run of bytes to the output character data buffer
+   * @param address  memory address of the first byte
+   * @param length  number of bytes
+   */
+  public void appendBytes(long address, int length) {
+    for (int i = 0; i < length; i++) {
+      append(PlatformDependent.getByte(address + i));
+    }
+  }
+
   /**
    * Completes the processing of a given record. Also completes the processing of the
    * last field being read.
@@ -44,6 +44,7 @@ public class TextParsingSettings {
   private boolean headerExtractionEnabled = false;
   private boolean useRepeatedVarChar = true;
   private int numberOfRecordsToRead = -1;
+  private boolean bulkCopy = false;
 
   public void set(TextFormatConfig config){
     this.quote = bSafe(config.getQuote(), "quote");
@@ -291,6 +292,19 @@ public class TextParsingSettings {
     this.ignoreTrailingWhitespaces = ignoreTrailingWhitespaces;
   }
 
+  /**
+   * Indicates whether runs of bytes without any delimiter, new line or quote are scanned a word at a time and copied
+   * to the output at once, rather than parsed a byte at a time. Defaults to {@code false}.
+   * @return a flag indicating whether the parser copies runs of plain bytes at once
+   */
+  public boolean isBulkCopy() {
+    return bulkCopy;
+  }
+
+  public void setBulkCopy(boolean bulkCopy) {
+    this.bulkCopy = bulkCopy;
+  }
+
   public boolean isTrimHeader() {
     return trimHeader;
   }
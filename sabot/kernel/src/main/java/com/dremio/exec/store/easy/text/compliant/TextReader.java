@@ -56,6 +56,8 @@ final class TextReader implements AutoCloseable {
   private final boolean ignoreTrailingWhitespace;
   private final boolean ignoreLeadingWhitespace;
   private final boolean parseUnescapedQuotes;
+  // whether runs of plain bytes are scanned and copied at once instead of a byte at a time
+  private final boolean bulkCopy;
 
   /**
    * Input line delimiter differs with normalized line delimiter in two cases:
@@ -73,6 +75,8 @@ final class TextReader implements AutoCloseable {
   private final byte quote;
   private final byte quoteEscape;
   private final byte newLine;
+  // first byte of the input line delimiter
+  private final byte lineDelimiterStart;
 
   /**
    * The CsvParser supports all settings provided by {@link CsvParserSettings}, and requires this configuration to be
@@ -97,6 +101,8 @@ final class TextReader implements AutoCloseable {
     this.quoteEscape = settings.getQuoteEscape();
     this.newLine = settings.getNormalizedNewLine();
     this.comment = settings.getComment();
+    this.bulkCopy = settings.isBulkCopy();
+    this.lineDelimiterStart = settings.getNewLineDelimiter()[0];
 
     this.input = input;
     this.output = output;
@@ -210,6 +216,10 @@ final class TextReader implements AutoCloseable {
     byte ch = this.ch;
     while (ch != delimiter && ch != newLine) {
       output.append(ch);
+      if (bulkCopy) {
+        // copy the rest of the value available in the input buffer at once
+        input.copyUntil(output, delimiter, lineDelimiterStart, newLine);
+      }
       ch = input.nextChar();
     }
     this.ch = ch;
@@ -261,6 +271,10 @@ final class TextReader implements AutoCloseable {
         }
         output.append(ch);
         prev = ch;
+        if (bulkCopy && ch != quoteEscape) {
+          // nothing but a quote or an escape can end the quoted value, copy up to the next one at once
+          input.copyUntil(output, quote, quoteEscape, quote);
+        }
       } else if (prev == quoteEscape) {
         output.append(quote);
         prev = NULL_BYTE;
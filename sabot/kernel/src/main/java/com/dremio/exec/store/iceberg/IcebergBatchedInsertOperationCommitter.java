@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.iceberg;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.iceberg.DataFile;
+
+import com.dremio.io.file.Path;
+
+/**
+ * Class used to commit insert into table operation, in the same transaction as the other inserts into the table
+ * completed within a short window
+ */
+public class IcebergBatchedInsertOperationCommitter implements IcebergOpCommitter {
+  private final Path tableFolder;
+  private final Configuration configuration;
+  private final long commitWindowMillis;
+  private final List<DataFile> dataFiles = new ArrayList<>();
+  private int committedOperationCount;
+
+  IcebergBatchedInsertOperationCommitter(Path tableFolder, Configuration configuration, long commitWindowMillis) {
+    this.tableFolder = tableFolder;
+    this.configuration = configuration;
+    this.commitWindowMillis = commitWindowMillis;
+  }
+
+  @Override
+  public void commit() {
+    committedOperationCount = IcebergCommitCoordinator.commit(tableFolder, configuration, dataFiles, commitWindowMillis);
+  }
+
+  @Override
+  public void consumeData(List<DataFile> icebergDatafiles) {
+    dataFiles.addAll(icebergDatafiles);
+  }
+
+  @Override
+  public int getCommittedOperationCount() {
+    return committedOperationCount;
+  }
+}
@@ -32,6 +32,7 @@ import org.apache.iceberg.BaseTable;
 import org.apache.iceberg.DataFile;
 import org.apache.iceberg.PartitionSpec;
 import org.apache.iceberg.Schema;
+import org.apache.iceberg.Snapshot;
 import org.apache.iceberg.Table;
 import org.apache.iceberg.TableMetadata;
 import org.apache.iceberg.Transaction;
@@ -160,6 +161,30 @@ public class IcebergCatalog {
     finishInsert();
   }
 
+  /**
+   * Commits the insert, rewriting in the same transaction the manifests smaller than the given size into manifests of
+   * the target size of the table, if there are at least the given number of such manifests.
+   */
+  void endInsertTable(long smallManifestBytes, int minSmallManifests) {
+    appendFiles.commit();
+
+    final Snapshot snapshot = transaction.table().currentSnapshot();
+    if (snapshot != null) {
+      final long smallManifests = snapshot.dataManifests().stream()
+        .filter(manifest -> manifest.length() < smallManifestBytes)
+        .count();
+      if (smallManifests >= minSmallManifests) {
+        transaction.rewriteManifests()
+          .rewriteIf(manifest -> manifest.length() < smallManifestBytes)
+          .clusterBy(dataFile -> Boolean.TRUE)
+          .commit();
+      }
+    }
+
+    transaction.commitTransaction();
+    transaction = null;
+  }
+
   void truncateTable() {
     Preconditions.checkState(transaction == null, "Unexpected state");
     IcebergTableOperations tableOperations = new IcebergTableOperations(fsPath, configuration);
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.iceberg;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.iceberg.DataFile;
+
+import com.dremio.io.file.Path;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * Commits the data files of the inserts into the same table completed within a short window in one Iceberg
+ * transaction, instead of one transaction, snapshot and manifest per insert.
+ *
+ * The first insert committing into a table waits for the window, then commits the data files of all the inserts
+ * submitted meanwhile on their behalf; the other inserts wait for that commit. The inserts of a batch succeed or fail
+ * together. Small manifests left by previous commits are merged in the same transaction.
+ *
+ * Waits respond to cancellation: a cancelled insert withdraws its data files from the batch if the leader hasn't
+ * started committing it yet, a cancelled leader committing the data files of the other inserts without waiting for
+ * the end of the window.
+ */
+final class IcebergCommitCoordinator {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(IcebergCommitCoordinator.class);
+
+  // manifests smaller than that are merged, when the table has at least MIN_SMALL_MANIFESTS of them
+  @VisibleForTesting
+  static final long SMALL_MANIFEST_BYTES = 1024 * 1024;
+  @VisibleForTesting
+  static final int MIN_SMALL_MANIFESTS = 16;
+
+  // open batch of each table, by table location
+  private static final Map<String, Batch> BATCHES = new HashMap<>();
+
+  private IcebergCommitCoordinator() {
+  }
+
+  /**
+   * Commits the data files with the data files of the other inserts into the table submitted within the window.
+   *
+   * @return the number of inserts committed in the same transaction
+   */
+  static int commit(Path tableFolder, Configuration configuration, List<DataFile> dataFiles, long windowMillis) {
+    final String tableLocation = tableFolder.toString();
+    final Batch batch;
+    final boolean leader;
+    synchronized (BATCHES) {
+      Batch current = BATCHES.get(tableLocation);
+      leader = current == null;
+      if (leader) {
+        current = new Batch();
+        BATCHES.put(tableLocation, current);
+      }
+      current.inserts.add(dataFiles);
+      batch = current;
+    }
+
+    if (!leader) {
+      return awaitCommit(tableLocation, batch, dataFiles);
+    }
+
+    InterruptedException interruption = null;
+    try {
+      if (windowMillis > 0) {
+        Thread.sleep(windowMillis);
+      }
+    } catch (InterruptedException e) {
+      // commit the other inserts of the batch now, they are not cancelled
+      logger.debug("Insert into table {} cancelled, committing the rest of its batch before the end of the window.",
+        tableLocation);
+      interruption = e;
+    }
+    final List<DataFile> batchDataFiles = new ArrayList<>();
+    final int inserts;
+    synchronized (BATCHES) {
+      BATCHES.remove(tableLocation);
+      if (interruption != null) {
+        batch.inserts.removeIf(insert -> insert == dataFiles);
+      }
+      batch.inserts.forEach(batchDataFiles::addAll);
+      inserts = batch.inserts.size();
+    }
+
+    try {
+      if (inserts > 0) {
+        final IcebergCatalog icebergCatalog = new IcebergCatalog(tableLocation, configuration);
+        icebergCatalog.beginInsertTable();
+        icebergCatalog.consumeData(batchDataFiles);
+        icebergCatalog.endInsertTable(SMALL_MANIFEST_BYTES, MIN_SMALL_MANIFESTS);
+      }
+    } catch (Throwable t) {
+      batch.result.completeExceptionally(t);
+      throw t;
+    } finally {
+      if (interruption != null) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    logger.debug("Committed {} inserts, {} data files into table {}.", inserts, batchDataFiles.size(), tableLocation);
+    batch.result.complete(inserts);
+    if (interruption != null) {
+      throw new RuntimeException(String.format("Insert into table %s cancelled before being committed.",
+        tableLocation), interruption);
+    }
+    return inserts;
+  }
+
+  /**
+   * Waits for the leader of the batch to commit the data files of an insert.
+   */
+  private static int awaitCommit(String tableLocation, Batch batch, List<DataFile> dataFiles) {
+    try {
+      try {
+        return batch.result.get();
+      } catch (InterruptedException e) {
+        synchronized (BATCHES) {
+          if (BATCHES.get(tableLocation) == batch) {
+            // the leader hasn't taken the data files of the batch yet
+            batch.inserts.removeIf(insert -> insert == dataFiles);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(String.format("Insert into table %s cancelled before being committed.",
+              tableLocation), e);
+          }
+        }
+        // the data files are being committed, and are committed even if this insert is cancelled meanwhile
+        logger.debug("Insert into table {} cancelled while its batch is committed.", tableLocation);
+        try {
+          return Uninterruptibles.getUninterruptibly(batch.result);
+        } finally {
+          Thread.currentThread().interrupt();
+        }
+      }
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  /**
+   * Inserts into a table committed in the same transaction.
+   */
+  private static final class Batch {
+    // data files of each insert
+    private final List<List<DataFile>> inserts = new ArrayList<>();
+    private final CompletableFuture<Integer> result = new CompletableFuture<>();
+  }
+}
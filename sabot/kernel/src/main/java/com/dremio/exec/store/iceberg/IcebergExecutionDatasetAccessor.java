@@ -139,6 +139,7 @@ public class IcebergExecutionDatasetAccessor implements FileDatasetHandle {
         schemaNameIDMap.forEach((k, v) -> icebergDatasetBuilder.addColumnIds(
           IcebergProtobuf.IcebergSchemaField.newBuilder().setSchemaPath(k).setId(v).build()
         ));
+        IcebergUtils.setSnapshotId(table, icebergDatasetBuilder);
         return icebergDatasetBuilder.build()::writeTo;
       }
     };
@@ -25,4 +25,11 @@ import org.apache.iceberg.DataFile;
 public interface IcebergOpCommitter {
   void commit();
   void consumeData(List<DataFile> icebergDatafiles);
+
+  /**
+   * @return the number of operations committed in the same transaction by the last commit
+   */
+  default int getCommittedOperationCount() {
+    return 1;
+  }
 }
@@ -120,6 +120,16 @@ public class IcebergOperation {
     return icebergOperation.beginInsertTable();
   }
 
+  /**
+   * Returns a committer of the insert committing its data files with the data files of the other inserts into the
+   * table completed within the window.
+   */
+  public static IcebergOpCommitter getBatchedInsertTableCommitter(Path tableFolder, Configuration configuration,
+                                                                  long commitWindowMillis) {
+    Preconditions.checkState(tableFolder != null, "Invalid path found");
+    return new IcebergBatchedInsertOperationCommitter(tableFolder, configuration, commitWindowMillis);
+  }
+
   private void truncateTable() {
     icebergCatalog.truncateTable();
   }
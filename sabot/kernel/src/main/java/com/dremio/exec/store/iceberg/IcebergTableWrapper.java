@@ -191,6 +191,7 @@ public class IcebergTableWrapper {
     schemaNameIDMap.forEach((k, v) -> icebergDatasetBuilder.addColumnIds(
       IcebergSchemaField.newBuilder().setSchemaPath(k).setId(v).build()
     ));
+    IcebergUtils.setSnapshotId(table, icebergDatasetBuilder);
     datasetXAttr = icebergDatasetBuilder.build();
   }
 
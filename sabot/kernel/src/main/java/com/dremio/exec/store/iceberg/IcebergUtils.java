@@ -39,8 +39,11 @@ import org.apache.arrow.vector.VarCharVector;
 import org.apache.arrow.vector.types.pojo.ArrowType;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.util.Text;
+import org.apache.iceberg.DataOperations;
 import org.apache.iceberg.DremioIndexByName;
 import org.apache.iceberg.Schema;
+import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.Table;
 import org.apache.iceberg.types.TypeUtil;
 import org.apache.iceberg.types.Types;
 import org.joda.time.DateTimeConstants;
@@ -48,6 +51,7 @@ import org.joda.time.DateTimeConstants;
 import com.dremio.common.exceptions.UserException;
 import com.dremio.common.expression.CompleteType;
 import com.dremio.common.map.CaseInsensitiveMap;
+import com.dremio.sabot.exec.store.iceberg.proto.IcebergProtobuf.IcebergDatasetXAttr;
 
 /**
  * Class contains miscellaneous utility functions for Iceberg table operations
@@ -64,6 +68,42 @@ public class IcebergUtils {
     return CaseInsensitiveMap.newImmutableMap(schemaNameIDMap);
   }
 
+  /**
+   * Record the current snapshot of the table, so that incremental reflection refreshes can check that the table was
+   * only appended to since the snapshot they last read, see {@link #onlyAppendedSince(Table, long, long)}.
+   *
+   * @param table iceberg table
+   * @param builder dataset xattr of the table
+   */
+  public static void setSnapshotId(Table table, IcebergDatasetXAttr.Builder builder) {
+    final Snapshot snapshot = table.currentSnapshot();
+    if (snapshot != null) {
+      builder.setSnapshotId(snapshot.snapshotId());
+    }
+  }
+
+  /**
+   * Walk the ancestors of a snapshot of the table up to a previous snapshot.
+   *
+   * @param table iceberg table
+   * @param previousSnapshotId snapshot read before
+   * @param snapshotId snapshot read now
+   * @return true if the previous snapshot is reached through append snapshots only, that is the data of the previous
+   * snapshot is a subset of the data of the snapshot; false if a snapshot of another operation, or an expired or the
+   * first snapshot of the table, is reached first
+   */
+  public static boolean onlyAppendedSince(Table table, long previousSnapshotId, long snapshotId) {
+    Snapshot snapshot = table.snapshot(snapshotId);
+    while (snapshot != null && snapshot.snapshotId() != previousSnapshotId) {
+      if (!DataOperations.APPEND.equals(snapshot.operation()) || snapshot.parentId() == null) {
+        return false;
+      }
+      // expired ancestors are not found
+      snapshot = table.snapshot(snapshot.parentId());
+    }
+    return snapshot != null;
+  }
+
   public static Object getValueFromByteBuffer(ByteBuffer byteBuffer, Field field) {
     if (byteBuffer == null) {
       return null;
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.iceberg;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.ManifestFile;
+import org.apache.iceberg.ManifestFiles;
+import org.apache.iceberg.ManifestReader;
+import org.apache.iceberg.io.FileIO;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Executor wide cache of the data files listed by Iceberg manifests.
+ *
+ * Manifests are immutable once written, so entries are keyed by the path and the length of the manifest and never
+ * invalidated, the cache being bounded by the number of data files it holds.
+ */
+final class ManifestEntryCache {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ManifestEntryCache.class);
+
+  private static final long MAX_CACHED_DATA_FILES = 200_000;
+
+  private static final Cache<Key, List<DataFile>> CACHE = CacheBuilder.newBuilder()
+    .maximumWeight(MAX_CACHED_DATA_FILES)
+    .<Key, List<DataFile>>weigher((key, dataFiles) -> dataFiles.size() + 1)
+    .softValues()
+    .build();
+
+  private ManifestEntryCache() {
+  }
+
+  /**
+   * @return the live data files of the manifest, from the cache if enabled
+   */
+  static List<DataFile> getDataFiles(ManifestFile manifestFile, FileIO io, boolean useCache) throws IOException {
+    if (!useCache) {
+      return read(manifestFile, io);
+    }
+
+    try {
+      return CACHE.get(new Key(manifestFile.path(), manifestFile.length()), () -> read(manifestFile, io));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  private static List<DataFile> read(ManifestFile manifestFile, FileIO io) throws IOException {
+    logger.debug("Reading manifest {}", manifestFile.path());
+    final List<DataFile> dataFiles = new ArrayList<>();
+    try (ManifestReader<DataFile> reader = ManifestFiles.read(manifestFile, io)) {
+      for (DataFile dataFile : reader) {
+        // the reader reuses its records
+        dataFiles.add(dataFile.copy());
+      }
+    }
+    return Collections.unmodifiableList(dataFiles);
+  }
+
+  private static final class Key {
+    private final String path;
+    private final long length;
+
+    private Key(String path, long length) {
+      this.path = path;
+      this.length = length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Key key = (Key) o;
+      return length == key.length && path.equals(key.path);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, length);
+    }
+  }
+}
@@ -20,16 +20,23 @@ import static com.dremio.exec.store.iceberg.IcebergUtils.writeToVector;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutput;
 import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -39,14 +46,11 @@ import org.apache.arrow.vector.VarBinaryVector;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.iceberg.DataFile;
 import org.apache.iceberg.ManifestFile;
-import org.apache.iceberg.ManifestFiles;
-import org.apache.iceberg.ManifestReader;
 import org.apache.iceberg.PartitionSpec;
 import org.apache.iceberg.StructLike;
 import org.apache.iceberg.hadoop.HadoopFileIO;
-import org.apache.iceberg.io.CloseableIterator;
+import org.apache.iceberg.io.FileIO;
 
-import com.dremio.common.AutoCloseables;
 import com.dremio.common.exceptions.ExecutionSetupException;
 import com.dremio.common.exceptions.UserException;
 import com.dremio.common.expression.CompleteType;
@@ -74,9 +78,15 @@ import com.google.protobuf.ByteString;
 public class ManifestScanTableFunction extends AbstractTableFunction {
   private VarBinaryVector inputSplits;
   private VarBinaryVector outputSplits;
-  private ManifestReader<DataFile> manifestReader;
-  private CloseableIterator<DataFile> dataFileCloseableIterator;
+  private Iterator<DataFile> dataFileIterator;
   private final FileSystemPlugin<?> plugin;
+  private final FileIO io;
+  private final boolean useManifestCache;
+  private final int readParallelism;
+  private final ExecutorService executor;
+  // manifests of the incoming batch read ahead of the current row
+  private final Map<Integer, Future<List<DataFile>>> manifestReads = new HashMap<>();
+  private int nextRowToRead;
   private final long targetSplitSize;
   private long currentOffset;
   private DataFile currentDataFile;
@@ -99,6 +109,10 @@ public class ManifestScanTableFunction extends AbstractTableFunction {
       throw UserException.ioExceptionError(e).buildSilently();
     }
     targetSplitSize = context.getOptions().getOption(ExecConstants.PARQUET_BLOCK_SIZE).getNumVal();
+    io = new HadoopFileIO(plugin.getFsConfCopy());
+    useManifestCache = context.getOptions().getOption(ExecConstants.ICEBERG_MANIFEST_CACHE_ENABLED);
+    readParallelism = (int) context.getOptions().getOption(ExecConstants.ICEBERG_MANIFEST_SCAN_PARALLELISM);
+    executor = readParallelism > 1 ? getExecutor(context) : null;
     partitionCols = functionConfig.getFunctionContext().getPartitionColumns();
     outputSchema = functionConfig.getFunctionContext().getFullSchema();
     tableSchema = functionConfig.getFunctionContext().getTableSchema();
@@ -133,6 +147,14 @@ public class ManifestScanTableFunction extends AbstractTableFunction {
     return outgoing;
   }
 
+  private static ExecutorService getExecutor(OperatorContext context) {
+    try {
+      return context.getExecutor();
+    } catch (UnsupportedOperationException e) {
+      return null;
+    }
+  }
+
   private void resetCurrentDataFile() {
     currentOffset = 0;
     currentDataFile = null;
@@ -141,9 +163,9 @@ public class ManifestScanTableFunction extends AbstractTableFunction {
   @Override
   public int processRow(int startOutIndex, int maxOutputCount) throws Exception {
     int currentOutputCount = 0;
-    while ((currentDataFile != null || dataFileCloseableIterator.hasNext()) && currentOutputCount < maxOutputCount) {
+    while ((currentDataFile != null || dataFileIterator.hasNext()) && currentOutputCount < maxOutputCount) {
       if (currentDataFile == null) {
-        currentDataFile = dataFileCloseableIterator.next();
+        currentDataFile = dataFileIterator.next();
         if(currentDataFile != null) {
           context.getStats().addLongStat(TableFunctionOperator.Metric.NUM_DATA_FILE, 1);
         }
@@ -185,20 +207,58 @@ public class ManifestScanTableFunction extends AbstractTableFunction {
   @Override
   public void startRow(int row) throws Exception {
     resetCurrentDataFile();
+    if (executor == null) {
+      dataFileIterator = ManifestEntryCache.getDataFiles(getManifestFile(row), io, useManifestCache).iterator();
+      return;
+    }
+
+    if (row == 0) {
+      // first row of a new incoming batch
+      cancelManifestReads();
+      nextRowToRead = 0;
+    }
+    final int recordCount = incoming.getRecordCount();
+    while (nextRowToRead < recordCount && nextRowToRead < row + readParallelism) {
+      final ManifestFile manifestFile = getManifestFile(nextRowToRead);
+      manifestReads.put(nextRowToRead, CompletableFuture.supplyAsync(() -> {
+        try {
+          return ManifestEntryCache.getDataFiles(manifestFile, io, useManifestCache);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }, executor));
+      nextRowToRead++;
+    }
+
+    final Future<List<DataFile>> read = manifestReads.remove(row);
+    try {
+      dataFileIterator = (read != null ? read.get() : ManifestEntryCache.getDataFiles(getManifestFile(row), io, useManifestCache))
+        .iterator();
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause() instanceof UncheckedIOException ? e.getCause().getCause() : e.getCause();
+      if (cause instanceof Exception) {
+        throw (Exception) cause;
+      }
+      throw e;
+    }
+  }
+
+  private ManifestFile getManifestFile(int row) throws IOException, ClassNotFoundException {
     try (ByteArrayInputStream bis = new ByteArrayInputStream(inputSplits.get(row));
          ObjectInput in = new ObjectInputStream(bis)) {
-      ManifestFile manifestFile = (ManifestFile) in.readObject();
-      manifestReader = ManifestFiles.read(manifestFile, new HadoopFileIO(plugin.getFsConfCopy()));
-      dataFileCloseableIterator = manifestReader.iterator();
+      return (ManifestFile) in.readObject();
     }
   }
 
+  private void cancelManifestReads() {
+    manifestReads.values().forEach(read -> read.cancel(false));
+    manifestReads.clear();
+  }
+
   @Override
   public void closeRow() throws Exception {
     resetCurrentDataFile();
-    AutoCloseables.close(dataFileCloseableIterator, manifestReader);
-    dataFileCloseableIterator = null;
-    manifestReader = null;
+    dataFileIterator = null;
   }
 
   private void writePartitionValue(PartitionProtobuf.PartitionValue.Builder partitionValueBuilder, Object value, Field field) {
@@ -326,8 +386,7 @@ public class ManifestScanTableFunction extends AbstractTableFunction {
   @Override
   public void close() throws Exception {
     super.close();
-    AutoCloseables.close(dataFileCloseableIterator, manifestReader);
-    dataFileCloseableIterator = null;
-    manifestReader = null;
+    cancelManifestReads();
+    dataFileIterator = null;
   }
 }
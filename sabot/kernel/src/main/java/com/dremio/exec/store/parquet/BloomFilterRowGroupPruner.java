@@ -0,0 +1,300 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.parquet.column.values.bloomfilter.BlockSplitBloomFilter;
+import org.apache.parquet.column.values.bloomfilter.BloomFilter;
+import org.apache.parquet.format.BloomFilterHeader;
+import org.apache.parquet.format.Util;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.PrimitiveType;
+
+import com.dremio.common.expression.BooleanOperator;
+import com.dremio.common.expression.FunctionCall;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.expression.ValueExpressions.IntExpression;
+import com.dremio.common.expression.ValueExpressions.LongExpression;
+import com.dremio.common.expression.ValueExpressions.QuotedString;
+import com.dremio.exec.store.CompositeColumnFilter;
+import com.dremio.exec.store.RuntimeFilter;
+import com.dremio.exec.util.ValueListFilter;
+
+/**
+ * Checks the split block bloom filters of a row group against the equality conditions pushed into a scan, and the
+ * value lists of its runtime filters, to skip row groups that cannot contain a matching row without reading any page.
+ *
+ * Only int, bigint and varchar values are checked, when the physical type of the column matches the type of the
+ * values: bloom filters hash the plain encoding of the physical type, so coerced columns cannot be checked.
+ */
+class BloomFilterRowGroupPruner {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(BloomFilterRowGroupPruner.class);
+
+  private final InputStreamProvider inputStreamProvider;
+  private final String path;
+  private final BlockMetaData block;
+  private final ParquetColumnResolver columnResolver;
+  private final Map<String, Optional<BloomFilter>> bloomFilters = new HashMap<>();
+  private BulkInputStream input;
+
+  BloomFilterRowGroupPruner(InputStreamProvider inputStreamProvider, String path, BlockMetaData block,
+                            ParquetColumnResolver columnResolver) {
+    this.inputStreamProvider = inputStreamProvider;
+    this.path = path;
+    this.block = block;
+    this.columnResolver = columnResolver;
+  }
+
+  /**
+   * @return true if no row of the row group can satisfy all the filter conditions and runtime filters
+   */
+  boolean canSkip(List<ParquetFilterCondition> filterConditions, List<RuntimeFilter> runtimeFilters) {
+    if (!hasBloomFilters()) {
+      return false;
+    }
+    try {
+      if (filterConditions != null) {
+        for (ParquetFilterCondition condition : filterConditions) {
+          final List<LogicalExpression> values = new ArrayList<>();
+          if (condition.getPath().isSimplePath() && getEqualityValues(condition.getExpr(), condition.getPath(), values)
+            && noneMightContain(condition.getPath().getRootSegment().getPath(), values)) {
+            return true;
+          }
+        }
+      }
+      for (RuntimeFilter runtimeFilter : runtimeFilters) {
+        for (CompositeColumnFilter columnFilter : runtimeFilter.getNonPartitionColumnFilters()) {
+          if (columnFilter.getFilterType() == CompositeColumnFilter.RuntimeFilterType.VALUE_LIST
+            && columnFilter.getColumnsList().size() == 1
+            && noneMightContain(columnFilter.getColumnsList().get(0), columnFilter.getValueList())) {
+            return true;
+          }
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      // the row group is read as usual
+      logger.debug("Unable to check bloom filters of row group in {}", path, e);
+    }
+    return false;
+  }
+
+  private boolean hasBloomFilters() {
+    for (ColumnChunkMetaData column : block.getColumns()) {
+      if (column.getBloomFilterOffset() >= 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Collect the literals of a column = literal condition, or of an IN list (OR of such conditions).
+   *
+   * @return false if the expression is not made of such conditions only
+   */
+  private static boolean getEqualityValues(LogicalExpression expr, SchemaPath column, List<LogicalExpression> values) {
+    if (expr instanceof BooleanOperator && ((BooleanOperator) expr).isOr()) {
+      for (LogicalExpression arg : ((BooleanOperator) expr).args) {
+        if (!getEqualityValues(arg, column, values)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    if (!(expr instanceof FunctionCall) || !((FunctionCall) expr).getName().equals("equal")
+      || ((FunctionCall) expr).args.size() != 2) {
+      return false;
+    }
+    final LogicalExpression left = ((FunctionCall) expr).args.get(0);
+    final LogicalExpression right = ((FunctionCall) expr).args.get(1);
+    if (column.equals(left)) {
+      values.add(right);
+      return true;
+    } else if (column.equals(right)) {
+      values.add(left);
+      return true;
+    }
+    return false;
+  }
+
+  private boolean noneMightContain(String column, List<LogicalExpression> values) throws IOException {
+    final ColumnChunkMetaData columnChunk = getColumnChunk(column);
+    if (columnChunk == null || values.isEmpty()) {
+      return false;
+    }
+    final PrimitiveType type = columnChunk.getPrimitiveType();
+    final List<Object> physicalValues = new ArrayList<>(values.size());
+    for (LogicalExpression value : values) {
+      final Object physicalValue = toPhysicalValue(type, value);
+      if (physicalValue == null) {
+        return false;
+      }
+      physicalValues.add(physicalValue);
+    }
+    return noneMightContain(columnChunk, physicalValues);
+  }
+
+  /**
+   * @return the value as hashed by the bloom filter of a column of the given type, or null if it cannot be checked
+   */
+  private static Object toPhysicalValue(PrimitiveType type, LogicalExpression value) {
+    switch (type.getPrimitiveTypeName()) {
+      case INT32:
+        if (type.getLogicalTypeAnnotation() != null
+          && !(type.getLogicalTypeAnnotation() instanceof LogicalTypeAnnotation.IntLogicalTypeAnnotation)) {
+          return null;
+        }
+        if (value instanceof IntExpression) {
+          return ((IntExpression) value).getInt();
+        }
+        return null;
+      case INT64:
+        if (type.getLogicalTypeAnnotation() != null
+          && !(type.getLogicalTypeAnnotation() instanceof LogicalTypeAnnotation.IntLogicalTypeAnnotation)) {
+          return null;
+        }
+        if (value instanceof LongExpression) {
+          return ((LongExpression) value).getLong();
+        } else if (value instanceof IntExpression) {
+          return (long) ((IntExpression) value).getInt();
+        }
+        return null;
+      case BINARY:
+        if (value instanceof QuotedString) {
+          return Binary.fromString(((QuotedString) value).getString());
+        }
+        return null;
+      default:
+        return null;
+    }
+  }
+
+  private boolean noneMightContain(String column, ValueListFilter valueList) throws IOException {
+    if (valueList.isContainsNull() || valueList.isBoolField() || valueList.getValueCount() == 0) {
+      return false;
+    }
+    final ColumnChunkMetaData columnChunk = getColumnChunk(column);
+    if (columnChunk == null) {
+      return false;
+    }
+
+    final PrimitiveType type = columnChunk.getPrimitiveType();
+    final ArrowBuf values = valueList.valOnlyBuf();
+    final int blockSize = valueList.getBlockSize();
+    final List<Object> physicalValues = new ArrayList<>(valueList.getValueCount());
+    for (int i = 0; i < valueList.getValueCount(); i++) {
+      final long offset = (long) i * blockSize;
+      final Object physicalValue;
+      switch (valueList.getFieldType()) {
+        case INT:
+          physicalValue = toPhysicalValue(type, new IntExpression(values.getInt(offset)));
+          break;
+        case BIGINT:
+          physicalValue = toPhysicalValue(type, new LongExpression(values.getLong(offset)));
+          break;
+        case VARCHAR: {
+          // first byte of the block is the length, the value is aligned to the end of the block. Values longer than
+          // the block are truncated to its last blockSize - 1 bytes, with a length of blockSize: they cannot be hashed.
+          final int length = values.getByte(offset) & 0xff;
+          if (length >= blockSize - 1) {
+            return false;
+          }
+          final byte[] bytes = new byte[length];
+          values.getBytes(offset + blockSize - bytes.length, bytes);
+          physicalValue = type.getPrimitiveTypeName() == PrimitiveType.PrimitiveTypeName.BINARY
+            ? Binary.fromConstantByteArray(bytes) : null;
+          break;
+        }
+        default:
+          return false;
+      }
+      if (physicalValue == null) {
+        return false;
+      }
+      physicalValues.add(physicalValue);
+    }
+    return noneMightContain(columnChunk, physicalValues);
+  }
+
+  private boolean noneMightContain(ColumnChunkMetaData columnChunk, List<Object> physicalValues) throws IOException {
+    final Optional<BloomFilter> bloomFilter = getBloomFilter(columnChunk);
+    if (!bloomFilter.isPresent()) {
+      return false;
+    }
+    for (Object value : physicalValues) {
+      if (bloomFilter.get().findHash(bloomFilter.get().hash(value))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private ColumnChunkMetaData getColumnChunk(String column) {
+    final String parquetColumn = columnResolver.getParquetColumnName(column);
+    if (parquetColumn == null) {
+      return null;
+    }
+    for (ColumnChunkMetaData columnChunk : block.getColumns()) {
+      if (columnChunk.getPath().size() == 1 && columnChunk.getPath().toDotString().equalsIgnoreCase(parquetColumn)) {
+        return columnChunk;
+      }
+    }
+    return null;
+  }
+
+  private Optional<BloomFilter> getBloomFilter(ColumnChunkMetaData columnChunk) throws IOException {
+    final String column = columnChunk.getPath().toDotString();
+    Optional<BloomFilter> bloomFilter = bloomFilters.get(column);
+    if (bloomFilter == null) {
+      bloomFilter = readBloomFilter(columnChunk);
+      bloomFilters.put(column, bloomFilter);
+    }
+    return bloomFilter;
+  }
+
+  private Optional<BloomFilter> readBloomFilter(ColumnChunkMetaData columnChunk) throws IOException {
+    final long offset = columnChunk.getBloomFilterOffset();
+    if (offset < 0) {
+      return Optional.empty();
+    }
+    // the stream of the whole file is owned, and closed, by the provider
+    if (input == null) {
+      input = inputStreamProvider.getStream(null);
+    }
+    input.seek(offset);
+    final BloomFilterHeader header = Util.readBloomFilterHeader(input.asSeekableInputStream());
+    final int numBytes = header.getNumBytes();
+    if (numBytes <= 0 || numBytes > BlockSplitBloomFilter.UPPER_BOUND_BYTES
+      || !header.getAlgorithm().isSetBLOCK() || !header.getHash().isSetXXHASH()
+      || !header.getCompression().isSetUNCOMPRESSED()) {
+      return Optional.empty();
+    }
+    final byte[] bitset = new byte[numBytes];
+    input.readFully(bitset, 0, numBytes);
+    return Optional.of(new BlockSplitBloomFilter(bitset));
+  }
+}
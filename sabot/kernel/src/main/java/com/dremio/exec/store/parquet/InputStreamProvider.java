@@ -36,6 +36,13 @@ public interface InputStreamProvider extends AutoCloseable {
    */
   BulkInputStream getStream(ColumnChunkMetaData column) throws IOException;
 
+  /**
+   * Hints that the given column chunks of a row group are about to be read, so that the provider can fetch them
+   * together. The streams obtained for the chunks of a previous hint must no longer be used.
+   */
+  default void prefetch(List<ColumnChunkMetaData> columns) throws IOException {
+  }
+
   /**
    * Returns the path corresponding to this stream
    * @return
@@ -0,0 +1,265 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import java.util.List;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.DateMilliVector;
+import org.apache.arrow.vector.DecimalHelper;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeMilliVector;
+import org.apache.arrow.vector.TimeStampMilliVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnWriteStore;
+import org.apache.parquet.column.ColumnWriter;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.joda.time.DateTimeConstants;
+
+import com.dremio.exec.planner.acceleration.IncrementalUpdateUtils;
+import com.dremio.exec.planner.physical.WriterPrel;
+import com.dremio.exec.record.VectorAccessible;
+import com.dremio.exec.record.VectorWrapper;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Writes flat batches to a parquet {@link ColumnWriteStore} one column at a time.<br>
+ * The row based path goes through a {@link org.apache.arrow.vector.complex.reader.FieldReader}, a value holder and
+ * the parquet record consumer for every single value. For batches made only of top level primitive columns, this
+ * reads the values straight from the data and validity buffers of each vector and hands them to the column writer of
+ * the column, and only then ends the records. The resulting pages are the same as with the row based path.
+ */
+class ParquetColumnarBatchWriter {
+
+  // definition levels of a top level optional column
+  private static final int NULL = 0;
+  private static final int DEFINED = 1;
+
+  private final List<ColumnCopier> copiers;
+
+  private ParquetColumnarBatchWriter(List<ColumnCopier> copiers) {
+    this.copiers = copiers;
+  }
+
+  /**
+   * Create a columnar writer for the batch.
+   *
+   * @param incoming batch being written
+   * @param schema parquet schema of the file
+   * @return the writer, or null if some column of the batch needs the row based path
+   */
+  static ParquetColumnarBatchWriter create(VectorAccessible incoming, MessageType schema) {
+    final ImmutableList.Builder<ColumnCopier> copiers = ImmutableList.builder();
+    for (VectorWrapper<?> w : incoming) {
+      final String name = w.getField().getName();
+      if (name.equalsIgnoreCase(WriterPrel.PARTITION_COMPARATOR_FIELD)) {
+        continue;
+      }
+      if (IncrementalUpdateUtils.UPDATE_COLUMN.equals(name)) {
+        // the update column is tracked by the row based path
+        return null;
+      }
+      final String[] path = new String[] { name };
+      if (!schema.containsPath(path)) {
+        return null;
+      }
+      final ColumnCopier copier = newCopier(w.getValueVector(), schema.getColumnDescription(path));
+      if (copier == null) {
+        return null;
+      }
+      copiers.add(copier);
+    }
+    return new ParquetColumnarBatchWriter(copiers.build());
+  }
+
+  private static ColumnCopier newCopier(ValueVector vector, ColumnDescriptor descriptor) {
+    if (vector instanceof IntVector || vector instanceof TimeMilliVector) {
+      return new IntCopier(vector, descriptor);
+    } else if (vector instanceof BigIntVector || vector instanceof TimeStampMilliVector) {
+      return new LongCopier(vector, descriptor);
+    } else if (vector instanceof DateMilliVector) {
+      return new DateCopier(vector, descriptor);
+    } else if (vector instanceof Float4Vector) {
+      return new FloatCopier(vector, descriptor);
+    } else if (vector instanceof Float8Vector) {
+      return new DoubleCopier(vector, descriptor);
+    } else if (vector instanceof BitVector) {
+      return new BooleanCopier(vector, descriptor);
+    } else if (vector instanceof VarCharVector || vector instanceof VarBinaryVector) {
+      return new BinaryCopier(vector, descriptor);
+    } else if (vector instanceof DecimalVector) {
+      return new DecimalCopier(vector, descriptor);
+    }
+    return null;
+  }
+
+  /**
+   * Write rows [offset, offset + length) of the batch, and end the corresponding records in the store.
+   */
+  void write(ColumnWriteStore store, int offset, int length) {
+    for (ColumnCopier copier : copiers) {
+      copier.copy(store.getColumnWriter(copier.descriptor), offset, offset + length);
+    }
+    for (int i = 0; i < length; i++) {
+      store.endRecord();
+    }
+  }
+
+  private abstract static class ColumnCopier {
+    private final ColumnDescriptor descriptor;
+    protected final ValueVector vector;
+    // buffers of the current batch
+    protected ArrowBuf validity;
+    protected ArrowBuf data;
+
+    ColumnCopier(ValueVector vector, ColumnDescriptor descriptor) {
+      this.descriptor = descriptor;
+      this.vector = vector;
+    }
+
+    void loadBuffers() {
+      validity = vector.getValidityBuffer();
+      data = vector.getDataBuffer();
+    }
+
+    final void copy(ColumnWriter writer, int start, int end) {
+      loadBuffers();
+      for (int i = start; i < end; i++) {
+        if (BitVectorHelper.get(validity, i) == 0) {
+          writer.writeNull(0, NULL);
+        } else {
+          copyValue(writer, i);
+        }
+      }
+    }
+
+    abstract void copyValue(ColumnWriter writer, int index);
+  }
+
+  private static final class IntCopier extends ColumnCopier {
+    IntCopier(ValueVector vector, ColumnDescriptor descriptor) {
+      super(vector, descriptor);
+    }
+
+    @Override
+    void copyValue(ColumnWriter writer, int index) {
+      writer.write(data.getInt(index * 4L), 0, DEFINED);
+    }
+  }
+
+  private static final class LongCopier extends ColumnCopier {
+    LongCopier(ValueVector vector, ColumnDescriptor descriptor) {
+      super(vector, descriptor);
+    }
+
+    @Override
+    void copyValue(ColumnWriter writer, int index) {
+      writer.write(data.getLong(index * 8L), 0, DEFINED);
+    }
+  }
+
+  private static final class DateCopier extends ColumnCopier {
+    DateCopier(ValueVector vector, ColumnDescriptor descriptor) {
+      super(vector, descriptor);
+    }
+
+    @Override
+    void copyValue(ColumnWriter writer, int index) {
+      writer.write((int) (data.getLong(index * 8L) / DateTimeConstants.MILLIS_PER_DAY), 0, DEFINED);
+    }
+  }
+
+  private static final class FloatCopier extends ColumnCopier {
+    FloatCopier(ValueVector vector, ColumnDescriptor descriptor) {
+      super(vector, descriptor);
+    }
+
+    @Override
+    void copyValue(ColumnWriter writer, int index) {
+      writer.write(data.getFloat(index * 4L), 0, DEFINED);
+    }
+  }
+
+  private static final class DoubleCopier extends ColumnCopier {
+    DoubleCopier(ValueVector vector, ColumnDescriptor descriptor) {
+      super(vector, descriptor);
+    }
+
+    @Override
+    void copyValue(ColumnWriter writer, int index) {
+      writer.write(data.getDouble(index * 8L), 0, DEFINED);
+    }
+  }
+
+  private static final class BooleanCopier extends ColumnCopier {
+    BooleanCopier(ValueVector vector, ColumnDescriptor descriptor) {
+      super(vector, descriptor);
+    }
+
+    @Override
+    void copyValue(ColumnWriter writer, int index) {
+      writer.write(BitVectorHelper.get(data, index) == 1, 0, DEFINED);
+    }
+  }
+
+  private static final class BinaryCopier extends ColumnCopier {
+    private ArrowBuf offsets;
+
+    BinaryCopier(ValueVector vector, ColumnDescriptor descriptor) {
+      super(vector, descriptor);
+    }
+
+    @Override
+    void loadBuffers() {
+      super.loadBuffers();
+      offsets = vector.getOffsetBuffer();
+    }
+
+    @Override
+    void copyValue(ColumnWriter writer, int index) {
+      final int start = offsets.getInt((long) index * BaseVariableWidthVector.OFFSET_WIDTH);
+      final int end = offsets.getInt((long) (index + 1) * BaseVariableWidthVector.OFFSET_WIDTH);
+      writer.write(Binary.fromReusedByteBuffer(data.nioBuffer(start, end - start)), 0, DEFINED);
+    }
+  }
+
+  private static final class DecimalCopier extends ColumnCopier {
+    private final byte[] bytes = new byte[DecimalVector.TYPE_WIDTH];
+
+    DecimalCopier(ValueVector vector, ColumnDescriptor descriptor) {
+      super(vector, descriptor);
+    }
+
+    @Override
+    void copyValue(ColumnWriter writer, int index) {
+      // decimals are little endian in arrow, but big endian in parquet
+      data.getBytes((long) index * DecimalVector.TYPE_WIDTH, bytes, 0, DecimalVector.TYPE_WIDTH);
+      DecimalHelper.swapBytes(bytes);
+      writer.write(Binary.fromReusedByteArray(bytes), 0, DEFINED);
+    }
+  }
+}
@@ -30,6 +30,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.annotation.Nullable;
 
@@ -110,8 +111,10 @@ import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.exec.store.iceberg.proto.IcebergProtobuf;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.protobuf.InvalidProtocolBufferException;
 
 import io.protostuff.ByteString;
@@ -173,6 +176,9 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
   private RecordConsumer consumer;
   private BatchSchema batchSchema;
   private UpdateTrackingConverter trackingConverter;
+  private final boolean columnarWriteEnabled;
+  private final Set<String> bloomFilterColumns;
+  private ParquetColumnarBatchWriter columnarBatchWriter;
 
   private final String location;
   private final String prefix;
@@ -259,6 +265,9 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
     minRecordsForFlush = context.getOptions().getOption(ExecConstants.PARQUET_MIN_RECORDS_FOR_FLUSH_VALIDATOR);
     parquetFileWriteTimeThresholdMilliSecs = (int)context.getOptions().getOption(ExecConstants.PARQUET_WRITE_TIME_THRESHOLD_MILLI_SECS_VALIDATOR);
     parquetFileWriteIoRateThresholdMbps = context.getOptions().getOption(ExecConstants.PARQUET_WRITE_IO_RATE_THRESHOLD_MBPS_VALIDATOR);
+    columnarWriteEnabled = context.getOptions().getOption(ExecConstants.PARQUET_WRITER_COLUMNAR_VALIDATOR);
+    bloomFilterColumns = Sets.newHashSet(Splitter.on(',').trimResults().omitEmptyStrings()
+      .split(context.getOptions().getOption(ExecConstants.PARQUET_WRITER_BLOOM_FILTER_COLUMNS_VALIDATOR).toLowerCase()));
   }
 
   @Override
@@ -276,6 +285,9 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
       }
     }
     newSchema();
+    if (columnarWriteEnabled) {
+      columnarBatchWriter = ParquetColumnarBatchWriter.create(incoming, schema);
+    }
   }
 
   private void initIcebergColumnIDList(ByteString extendedProperty) {
@@ -349,7 +361,7 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
     schema = getParquetMessageType(batchSchema, "root");
 
     int dictionarySize = (int)context.getOptions().getOption(ExecConstants.PARQUET_DICT_PAGE_SIZE_VALIDATOR);
-    final ParquetProperties parquetProperties = ParquetProperties.builder()
+    final ParquetProperties.Builder parquetPropertiesBuilder = ParquetProperties.builder()
       .withDictionaryPageSize(dictionarySize)
       .withWriterVersion(writerVersion)
       .withValuesWriterFactory(new DefaultV1ValuesWriterFactory())
@@ -358,11 +370,17 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
       .withPageSize(pageSize)
       .withAddPageHeadersToMetadata(true)
       .withEnableDictionarForBinaryType(enableDictionaryForBinary)
-      .withPageRowCountLimit(Integer.MAX_VALUE) // Bug 16118
-      .build();
+      .withPageRowCountLimit(Integer.MAX_VALUE); // Bug 16118
+    for (Type field : schema.getFields()) {
+      if (field.isPrimitive() && bloomFilterColumns.contains(field.getName().toLowerCase())) {
+        parquetPropertiesBuilder.withBloomFilterEnabled(field.getName(), true);
+      }
+    }
+    final ParquetProperties parquetProperties = parquetPropertiesBuilder.build();
     pageStore = ColumnChunkPageWriteStoreExposer.newColumnChunkPageWriteStore(
         toDeprecatedBytesCompressor(codecFactory.getCompressor(codec)), schema, parquetProperties);
-    store = new ColumnWriteStoreV1(pageStore, parquetProperties);
+    store = new ColumnWriteStoreV1(schema, pageStore,
+      ColumnChunkPageWriteStoreExposer.asBloomFilterWriteStore(pageStore), parquetProperties);
     MessageColumnIO columnIO = new ColumnIOFactory(false).getColumnIO(this.schema);
     consumer = columnIO.getRecordWriter(store);
     setUp(schema, consumer);
@@ -986,6 +1004,29 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
   }
 
 
+  @Override
+  public int writeBatch(int offset, int length) throws IOException {
+    if (columnarBatchWriter == null) {
+      return super.writeBatch(offset, length);
+    }
+
+    final int end = offset + length;
+    while (offset < end) {
+      // we wait until there is at least one record before creating the parquet file
+      if (parquetFileWriter == null) {
+        initRecordWriter();
+      }
+      // write up to the next block size check, which may start a new file
+      final long untilCheck = max(recordCountForNextMemCheck, minRecordsForFlush) - recordCount;
+      final int numRecords = (int) min(end - offset, max(1, untilCheck));
+      columnarBatchWriter.write(store, offset, numRecords);
+      recordCount += numRecords;
+      offset += numRecords;
+      checkBlockSizeReached();
+    }
+    return length;
+  }
+
   @Override
   public void startRecord() throws IOException {
     consumer.startMessage();
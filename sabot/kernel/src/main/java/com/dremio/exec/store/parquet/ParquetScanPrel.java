@@ -113,6 +113,21 @@ public class ParquetScanPrel extends ScanPrelBase implements PruneableScan {
     return filter;
   }
 
+  /**
+   * @return true if the scan outputs dictionary ids rather than values for the given field
+   */
+  public boolean isGlobalDictionaryEncoded(String fieldName) {
+    if (globalDictionaryEncodedColumns == null) {
+      return false;
+    }
+    for (GlobalDictionaryFieldInfo field : globalDictionaryEncodedColumns) {
+      if (field.getFieldName().equals(fieldName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Override
   public PhysicalOperator getPhysicalOperator(PhysicalPlanCreator creator) throws IOException {
     final BatchSchema schema = cachedRelDataType == null ? getTableMetadata().getSchema().maskAndReorder(getProjectedColumns()):  CalciteArrowHelper.fromCalciteRowType(cachedRelDataType);
@@ -44,11 +44,17 @@ public class SingleStreamProvider implements InputStreamProvider {
   private final boolean readFullFile;
   private BulkInputStream stream;
   private OperatorContext context;
+  private final VectoredColumnChunkReader vectoredReader;
 
   private MutableParquetMetadata footer;
   private boolean readColumnOffsetIndices;
 
   public SingleStreamProvider(FileSystem fs, Path path, long fileLength, long maxFooterLen, boolean readFullFile, MutableParquetMetadata footer, OperatorContext context, boolean readColumnOffsetIndices) {
+    this(fs, path, fileLength, maxFooterLen, readFullFile, footer, context, readColumnOffsetIndices, 0, null);
+  }
+
+  public SingleStreamProvider(FileSystem fs, Path path, long fileLength, long maxFooterLen, boolean readFullFile, MutableParquetMetadata footer, OperatorContext context, boolean readColumnOffsetIndices,
+                              long mTime, List<String> dataset) {
     this.fs = fs;
     this.path = path;
     this.fileLength = fileLength;
@@ -62,6 +68,8 @@ public class SingleStreamProvider implements InputStreamProvider {
       this.allocator = null;
     }
     this.readColumnOffsetIndices = readColumnOffsetIndices;
+    // the whole file is already in memory when read fully
+    this.vectoredReader = readFullFile ? null : VectoredColumnChunkReader.create(fs, path, mTime, dataset, context);
   }
 
   @Override
@@ -71,6 +79,12 @@ public class SingleStreamProvider implements InputStreamProvider {
 
   @Override
   public BulkInputStream getStream(ColumnChunkMetaData column) throws IOException {
+    if (vectoredReader != null) {
+      final BulkInputStream prefetched = vectoredReader.getStream(column);
+      if (prefetched != null) {
+        return prefetched;
+      }
+    }
     if(stream == null) {
       stream = initStream();
     }
@@ -154,6 +168,13 @@ public class SingleStreamProvider implements InputStreamProvider {
     return footer;
   }
 
+  @Override
+  public void prefetch(List<ColumnChunkMetaData> columns) throws IOException {
+    if (vectoredReader != null) {
+      vectoredReader.prefetch(columns);
+    }
+  }
+
   @Override
   public boolean isSingleStream() {
     return true;
@@ -162,7 +183,7 @@ public class SingleStreamProvider implements InputStreamProvider {
   @Override
   public void close() throws IOException {
     try {
-      AutoCloseables.close(stream);
+      AutoCloseables.close(stream, vectoredReader);
     } catch (IOException | RuntimeException e) {
       throw e;
     } catch (Exception e) {
@@ -42,10 +42,16 @@ public class StreamPerColumnProvider implements InputStreamProvider {
   private boolean readColumnOffsetIndexes;
   private final BufferAllocator allocator;
   private final OperatorContext context;
+  private final VectoredColumnChunkReader vectoredReader;
 
   private final List<BulkInputStream> streams = new ArrayList<>();
 
   public StreamPerColumnProvider(FileSystem fs, Path path, long length, long maxFooterLen, MutableParquetMetadata footer, OperatorContext context, boolean readColumnOffsetIndexes) {
+    this(fs, path, length, maxFooterLen, footer, context, readColumnOffsetIndexes, 0, null);
+  }
+
+  public StreamPerColumnProvider(FileSystem fs, Path path, long length, long maxFooterLen, MutableParquetMetadata footer, OperatorContext context, boolean readColumnOffsetIndexes,
+                                 long mTime, List<String> dataset) {
     this.fs = fs;
     this.path = path;
     this.length = length;
@@ -58,6 +64,7 @@ public class StreamPerColumnProvider implements InputStreamProvider {
       this.allocator = null;
     }
     this.context = context;
+    this.vectoredReader = VectoredColumnChunkReader.create(fs, path, mTime, dataset, context);
   }
 
   @Override
@@ -67,12 +74,25 @@ public class StreamPerColumnProvider implements InputStreamProvider {
 
   @Override
   public BulkInputStream getStream(ColumnChunkMetaData column) throws IOException {
+    if (vectoredReader != null) {
+      final BulkInputStream prefetched = vectoredReader.getStream(column);
+      if (prefetched != null) {
+        return prefetched;
+      }
+    }
     FSInputStream is = fs.open(path);
     BulkInputStream stream = BulkInputStream.wrap(Streams.wrap(is));
     streams.add(stream);
     return stream;
   }
 
+  @Override
+  public void prefetch(List<ColumnChunkMetaData> columns) throws IOException {
+    if (vectoredReader != null) {
+      vectoredReader.prefetch(columns);
+    }
+  }
+
   @Override
   public boolean isSingleStream() {
     return false;
@@ -137,7 +157,7 @@ public class StreamPerColumnProvider implements InputStreamProvider {
   @Override
   public void close() throws IOException {
     try {
-      AutoCloseables.close(streams);
+      AutoCloseables.close(streams, AutoCloseables.iter(vectoredReader));
     } catch (IOException | RuntimeException e) {
       throw e;
     } catch (Exception e) {
@@ -746,6 +746,12 @@ public class UnifiedParquetReader implements RecordReader {
     if ((globalDictionaryFieldInfoMap != null && !globalDictionaryFieldInfoMap.isEmpty())) {
       return ExecutionPath.DEPRECATED_VECTORIZED;
     }
+    if (context.getOptions().getOption(ExecConstants.PARQUET_READER_BLOOM_FILTER_PRUNING_VALIDATOR)
+      && new BloomFilterRowGroupPruner(inputStreamProvider, readEntry.getPath(),
+        footer.getBlocks().get(readEntry.getRowGroupIndex()), columnResolver).canSkip(filterConditions, runtimeFilters)) {
+      context.getStats().addLongStat(Metric.NUM_ROW_GROUPS_PRUNED_BY_BLOOM_FILTER, 1);
+      return ExecutionPath.SKIP_ALL;
+    }
     if (!vectorize || !determineFilterConditions(nonVectorizableReaderColumns)) {
       return ExecutionPath.ROWWISE;
     }
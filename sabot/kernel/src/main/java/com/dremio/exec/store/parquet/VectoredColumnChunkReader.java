@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.arrow.memory.OutOfMemoryException;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+
+import com.dremio.exec.ExecConstants;
+import com.dremio.io.AsyncByteReader;
+import com.dremio.io.FSInputStream;
+import com.dremio.io.VectoredReader;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+import com.dremio.options.OptionManager;
+import com.dremio.sabot.exec.context.OperatorContext;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.NettyArrowBuf;
+
+/**
+ * Fetches the column chunks of a row group together through the async reader of the file system, see
+ * {@link VectoredReader}, and serves the streams of the input stream providers from the fetched chunks.
+ *
+ * The fetched chunks are held in memory until read, so row groups whose projected chunks are larger than
+ * {@link ExecConstants#PARQUET_VECTORED_READ_MAX_PREFETCH} are not fetched. Chunks that are not fetched, because of
+ * that bound or because the fragment is out of memory, are read with regular streams.
+ */
+class VectoredColumnChunkReader implements AutoCloseable {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(VectoredColumnChunkReader.class);
+
+  private final FileSystem fs;
+  private final Path path;
+  private final long mTime;
+  private final List<String> dataset;
+  private final OperatorContext context;
+  private final Map<Long, ByteBuf> chunks = new HashMap<>();
+  private final List<BulkInputStream> streams = new ArrayList<>();
+  private AsyncByteReader reader;
+
+  private VectoredColumnChunkReader(FileSystem fs, Path path, long mTime, List<String> dataset, OperatorContext context) {
+    this.fs = fs;
+    this.path = path;
+    this.mTime = mTime;
+    this.dataset = dataset;
+    this.context = context;
+  }
+
+  /**
+   * @return a reader for the file, or null if vectored reads are disabled or not supported by the file system
+   */
+  static VectoredColumnChunkReader create(FileSystem fs, Path path, long mTime, List<String> dataset, OperatorContext context) {
+    if (context == null || context.getOptions() == null
+      || !context.getOptions().getOption(ExecConstants.PARQUET_VECTORED_READ_ENABLE) || !fs.supportsAsync()) {
+      return null;
+    }
+    return new VectoredColumnChunkReader(fs, path, mTime, dataset, context);
+  }
+
+  /**
+   * Fetch the given column chunks, releasing the chunks fetched before.
+   */
+  void prefetch(List<ColumnChunkMetaData> columns) throws IOException {
+    releaseChunks();
+
+    final OptionManager options = context.getOptions();
+    final long maxPrefetchBytes = options.getOption(ExecConstants.PARQUET_VECTORED_READ_MAX_PREFETCH);
+    final List<VectoredReader.Range> ranges = new ArrayList<>(columns.size());
+    long totalSize = 0;
+    for (ColumnChunkMetaData column : columns) {
+      // projected columns missing from the row group
+      if (column == null) {
+        continue;
+      }
+      totalSize += column.getTotalSize();
+      if (totalSize > maxPrefetchBytes || column.getTotalSize() > Integer.MAX_VALUE) {
+        logger.debug("Column chunks of {} are larger than {} bytes, reading them with streams", path, maxPrefetchBytes);
+        return;
+      }
+      ranges.add(new VectoredReader.Range(column.getStartingPos(), (int) column.getTotalSize()));
+    }
+    if (ranges.isEmpty()) {
+      return;
+    }
+
+    if (reader == null) {
+      reader = fs.getAsyncByteReader(AsyncByteReader.FileKey.of(path, Long.toString(mTime),
+        AsyncByteReader.FileKey.FileType.PARQUET, dataset));
+    }
+
+    final int splitSize = (int) options.getOption(ExecConstants.PARQUET_VECTORED_READ_SPLIT_SIZE);
+    final VectoredReader.Options readOptions = new VectoredReader.Options(
+      options.getOption(ExecConstants.PARQUET_VECTORED_READ_MERGE_GAP),
+      Integer.MAX_VALUE,
+      splitSize,
+      options.getOption(ExecConstants.PARQUET_VECTORED_READ_MAX_IN_FLIGHT));
+
+    final List<ByteBuf> buffers;
+    try {
+      buffers = reader.readRanges(ranges, size -> NettyArrowBuf.unwrapBuffer(context.getAllocator().buffer(size)),
+        readOptions).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof OutOfMemoryException) {
+        logger.debug("Unable to allocate memory to fetch column chunks of {}, reading them with streams", path);
+        return;
+      }
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+
+    for (int i = 0; i < ranges.size(); i++) {
+      final ByteBuf previous = chunks.put(ranges.get(i).getOffset(), buffers.get(i));
+      if (previous != null) {
+        previous.release();
+      }
+    }
+  }
+
+  /**
+   * @return a stream over the fetched chunk of the column, valid until the next prefetch, or null if the chunk was
+   * not fetched
+   */
+  BulkInputStream getStream(ColumnChunkMetaData column) throws IOException {
+    if (column == null) {
+      return null;
+    }
+    final ByteBuf chunk = chunks.remove(column.getStartingPos());
+    if (chunk == null) {
+      return null;
+    }
+    final BulkInputStream stream = BulkInputStream.wrap(Streams.wrap(new ChunkInputStream(chunk, column.getStartingPos())));
+    streams.add(stream);
+    return stream;
+  }
+
+  private void releaseChunks() throws IOException {
+    for (ByteBuf chunk : chunks.values()) {
+      chunk.release();
+    }
+    chunks.clear();
+    for (BulkInputStream stream : streams) {
+      stream.close();
+    }
+    streams.clear();
+  }
+
+  @Override
+  public void close() throws Exception {
+    releaseChunks();
+    if (reader != null) {
+      reader.close();
+      reader = null;
+    }
+  }
+
+  /**
+   * Stream over a chunk of the file, positioned with file offsets.
+   */
+  private static final class ChunkInputStream extends FSInputStream {
+    private final ByteBuf chunk;
+    private final long chunkOffset;
+    private boolean closed;
+
+    private ChunkInputStream(ByteBuf chunk, long chunkOffset) {
+      this.chunk = chunk;
+      this.chunkOffset = chunkOffset;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (!chunk.isReadable()) {
+        return -1;
+      }
+      return chunk.readByte() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      final int available = chunk.readableBytes();
+      if (available <= 0) {
+        return -1;
+      }
+      final int toRead = Math.min(len, available);
+      chunk.readBytes(b, off, toRead);
+      return toRead;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+      final int available = chunk.readableBytes();
+      if (available <= 0) {
+        return -1;
+      }
+      final int toRead = Math.min(available, dst.remaining());
+      final ByteBuffer slice = (ByteBuffer) dst.slice().limit(toRead);
+      chunk.readBytes(slice);
+      dst.position(dst.position() + toRead);
+      return toRead;
+    }
+
+    @Override
+    public int read(long position, ByteBuffer dst) throws IOException {
+      setPosition(position);
+      return read(dst);
+    }
+
+    @Override
+    public long getPosition() throws IOException {
+      return chunkOffset + chunk.readerIndex();
+    }
+
+    @Override
+    public void setPosition(long position) throws IOException {
+      final long index = position - chunkOffset;
+      if (index < 0 || index > chunk.writerIndex()) {
+        throw new EOFException(String.format("Position %d outside of fetched column chunk [%d, %d)",
+          position, chunkOffset, chunkOffset + chunk.writerIndex()));
+      }
+      chunk.readerIndex((int) index);
+    }
+
+    @Override
+    public int available() throws IOException {
+      return chunk.readableBytes();
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (!closed) {
+        closed = true;
+        chunk.release();
+      }
+    }
+  }
+}
@@ -25,6 +25,7 @@ import java.util.List;
 import com.dremio.common.VM;
 import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
 import com.dremio.exec.server.SabotContext;
+import com.dremio.sabot.exec.DirectMemoryMonitor;
 import com.dremio.sabot.exec.context.OperatorContext;
 
 public class MemoryIterator implements Iterator<Object> {
@@ -65,6 +66,14 @@ public class MemoryIterator implements Iterator<Object> {
 
     memoryInfo.direct_current = dbContext.getAllocator().getAllocatedMemory();
     memoryInfo.direct_max = VM.getMaxDirectMemory();
+
+    final DirectMemoryMonitor directMemoryMonitor = dbContext.getWorkStatsProvider().get().getDirectMemoryMonitor();
+    if (directMemoryMonitor != null) {
+      memoryInfo.direct_pressure_state = directMemoryMonitor.getPressureState().name();
+      memoryInfo.direct_spill_requests = directMemoryMonitor.getSpillRequests();
+      memoryInfo.direct_deferred_query_starts = directMemoryMonitor.getDeferredQueryStarts();
+      memoryInfo.direct_canceled_queries = directMemoryMonitor.getCanceledQueries();
+    }
     return memoryInfo;
   }
 
@@ -94,5 +103,9 @@ public class MemoryIterator implements Iterator<Object> {
     public long direct_current;
     public long jvm_direct_current;
     public long direct_max;
+    public String direct_pressure_state;
+    public long direct_spill_requests;
+    public long direct_deferred_query_starts;
+    public long direct_canceled_queries;
   }
 }
@@ -24,24 +24,34 @@ import java.util.Map.Entry;
 import com.dremio.common.exceptions.UserException;
 import com.dremio.common.util.PrettyPrintUtils;
 import com.dremio.exec.ExecConstants;
+import com.dremio.exec.expr.fn.FunctionLookupContext;
 import com.dremio.exec.physical.PhysicalPlan;
 import com.dremio.exec.physical.base.AbstractPhysicalVisitor;
 import com.dremio.exec.physical.base.PhysicalOperator;
+import com.dremio.exec.physical.config.BroadcastExchange;
 import com.dremio.exec.physical.config.ExternalSort;
+import com.dremio.exec.physical.config.HashAggregate;
+import com.dremio.exec.physical.config.HashJoinPOP;
 import com.dremio.exec.planner.fragment.Fragment;
 import com.dremio.exec.planner.fragment.PlanningSet;
 import com.dremio.exec.planner.fragment.Wrapper;
+import com.dremio.exec.planner.physical.HashAggMemoryEstimator;
 import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
+import com.dremio.exec.record.BatchSchema;
 import com.dremio.options.OptionManager;
 import com.dremio.resource.GroupResourceInformation;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.math.LongMath;
 
 public final class MemoryAllocationUtilities {
 
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(MemoryAllocationUtilities.class);
 
+  // hash and links of a row in the hash tables of joins and aggregations
+  private static final int HASH_TABLE_ENTRY_BYTES = 16;
+
   private MemoryAllocationUtilities() {}
 
   /**
@@ -101,6 +111,97 @@ public final class MemoryAllocationUtilities {
 
   }
 
+  /**
+   * Estimate the memory a query will commit across the cluster once it is running. Each operator is expected
+   * to run at the width implied by its cost and the slice target, and to hold at least its initial reservation
+   * in every minor fragment. Hash joins, sorts and hash aggregations are charged for the data they hold, sized from
+   * their estimated rows, up to their memory limit.
+   *
+   * @param plan physical plan
+   * @param optionManager options
+   * @param functionLookupContext functions used to size the hash aggregations
+   * @return estimated cluster wide memory in bytes
+   */
+  public static long estimateQueryMemory(final PhysicalPlan plan, final OptionManager optionManager,
+                                         final FunctionLookupContext functionLookupContext) {
+    return estimateQueryMemory(plan.getSortedOperators(),
+      optionManager.getOption(ExecConstants.SLICE_TARGET_OPTION),
+      optionManager.getOption(ExecConstants.MAX_WIDTH_GLOBAL),
+      optionManager, functionLookupContext);
+  }
+
+  @VisibleForTesting
+  static long estimateQueryMemory(final List<PhysicalOperator> operators, final long sliceTarget, final long maxWidth,
+                                  final OptionManager optionManager, final FunctionLookupContext functionLookupContext) {
+    long estimate = 0;
+    for (final PhysicalOperator op : operators) {
+      final long width = Math.max(1, Math.min(maxWidth, (long) Math.ceil(op.getProps().getCost() / sliceTarget)));
+      final long reserved = LongMath.saturatedMultiply(op.getProps().getMemReserve(), width);
+      final long required = Math.min(estimateRequiredMemory(op, width, optionManager, functionLookupContext),
+        LongMath.saturatedMultiply(op.getProps().getMemLimit(), width));
+      estimate = LongMath.saturatedAdd(estimate, Math.max(reserved, required));
+    }
+    return estimate;
+  }
+
+  /**
+   * Estimate the memory an operator needs across its minor fragments to hold its data without spilling.
+   */
+  private static long estimateRequiredMemory(final PhysicalOperator op, final long width,
+                                             final OptionManager optionManager,
+                                             final FunctionLookupContext functionLookupContext) {
+    if (op instanceof HashJoinPOP) {
+      final PhysicalOperator build = ((HashJoinPOP) op).getRight();
+      final long buildMemory = estimateDataSize(build, HASH_TABLE_ENTRY_BYTES, optionManager);
+      // the build side of a broadcast join is held by every minor fragment of the join
+      return build instanceof BroadcastExchange ? LongMath.saturatedMultiply(buildMemory, width) : buildMemory;
+    }
+
+    if (op instanceof ExternalSort) {
+      return estimateDataSize(((ExternalSort) op).getChild(), 0, optionManager);
+    }
+
+    if (op instanceof HashAggregate) {
+      final HashAggregate agg = (HashAggregate) op;
+      final BatchSchema schema = agg.getProps().getSchema();
+      final BatchSchema childSchema = agg.getChild().getProps().getSchema();
+      if (!agg.isVectorize() || !agg.isUseSpill() || schema == null || childSchema == null
+        || functionLookupContext == null) {
+        return estimateDataSize(agg, HASH_TABLE_ENTRY_BYTES, optionManager);
+      }
+
+      final HashAggMemoryEstimator estimator;
+      try {
+        estimator = HashAggMemoryEstimator.create(agg.getGroupByExprs(), agg.getAggrExprs(), schema, childSchema,
+          functionLookupContext, optionManager);
+      } catch (RuntimeException e) {
+        logger.debug("Failure while estimating the memory of hash aggregation {}", agg.getProps().getOperatorId(), e);
+        return estimateDataSize(agg, HASH_TABLE_ENTRY_BYTES, optionManager);
+      }
+      // the cost of the aggregation is its number of groups
+      final long groupsPerFragment = (long) Math.ceil(agg.getProps().getCost() / width);
+      return LongMath.saturatedMultiply(estimator.getMemTotal() + estimator.getMemForGroups(groupsPerFragment), width);
+    }
+
+    return 0;
+  }
+
+  /**
+   * Estimate the size of the rows produced by an operator, from its cost and the record size of its schema.
+   */
+  private static long estimateDataSize(final PhysicalOperator op, final int bytesPerRowOverhead,
+                                       final OptionManager optionManager) {
+    final BatchSchema schema = op.getProps().getSchema();
+    if (schema == null) {
+      return 0;
+    }
+    final int recordSize = schema.estimateRecordSize(
+      (int) optionManager.getOption(ExecConstants.BATCH_LIST_SIZE_ESTIMATE),
+      (int) optionManager.getOption(ExecConstants.BATCH_VARIABLE_FIELD_SIZE_ESTIMATE));
+    // saturates at Long.MAX_VALUE
+    return (long) (Math.ceil(op.getProps().getCost()) * (recordSize + bytesPerRowOverhead));
+  }
+
   @VisibleForTesting
   static void setMemory(final OptionManager optionManager, Map<Fragment, Wrapper> fragments, long maxMemoryPerNodePerQuery) {
     final ArrayListMultimap<NodeEndpoint, PhysicalOperator> consideredOps = ArrayListMultimap.create();
@@ -20,6 +20,7 @@ import java.util.Collections;
 import java.util.Iterator;
 
 import com.dremio.resource.GroupResourceInformation;
+import com.dremio.sabot.exec.DirectMemoryMonitor;
 import com.dremio.sabot.task.TaskDescriptor;
 import com.dremio.sabot.task.TaskPool;
 
@@ -31,6 +32,13 @@ public interface WorkStats {
     return Collections.emptyList();
   }
 
+  /**
+   * @return direct memory monitor of this node, or null if the node doesn't run one
+   */
+  default DirectMemoryMonitor getDirectMemoryMonitor() {
+    return null;
+  }
+
   /**
    * @return number of running fragments / max width per node
    */
@@ -0,0 +1,339 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.exec;
+
+import static com.dremio.exec.ExecConstants.EXECUTOR_DIRECT_MEMORY_CANCEL_THRESH_PERCENTAGE;
+import static com.dremio.exec.ExecConstants.EXECUTOR_DIRECT_MEMORY_MAX_PAUSE_MILLIS;
+import static com.dremio.exec.ExecConstants.EXECUTOR_DIRECT_MEMORY_PAUSE_THRESH_PERCENTAGE;
+import static com.dremio.exec.ExecConstants.EXECUTOR_DIRECT_MEMORY_SPILL_THRESH_PERCENTAGE;
+import static com.dremio.exec.ExecConstants.EXECUTOR_ENABLE_DIRECT_MEMORY_MONITORING;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Provider;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.OutOfMemoryException;
+
+import com.dremio.common.VM;
+import com.dremio.common.utils.protos.QueryIdHelper;
+import com.dremio.options.OptionChangeListener;
+import com.dremio.options.OptionManager;
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Monitors the direct memory used by the executor and escalates in steps as usage crosses the configured
+ * thresholds:
+ * <ol>
+ *   <li>the largest spillable operators of the largest queries are asked to spill, through the memory broker
+ *   of their query,</li>
+ *   <li>new queries sent to this node are held back until usage drops (or for at most the configured pause),</li>
+ *   <li>the query using the most direct memory is failed.</li>
+ * </ol>
+ * Unlike the {@link HeapMonitorThread}, there are no notifications for direct memory, so usage is polled, by a thread
+ * that only runs while monitoring is enabled. Held back queries are started by the given executor, so that the
+ * polling thread isn't delayed by them.
+ */
+public class DirectMemoryMonitor implements AutoCloseable {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(DirectMemoryMonitor.class);
+
+  private static final long POLL_INTERVAL_MILLIS = 250;
+  // time given to a failed query to release its memory before another one is failed.
+  private static final long CANCEL_COOLDOWN_MILLIS = 1000;
+  private static final String FAIL_CONTEXT = "Query canceled by executor direct memory monitor";
+
+  /**
+   * Escalation steps of the monitor.
+   */
+  public enum PressureState {
+    NORMAL, SPILLING, PAUSED, CANCELING
+  }
+
+  private final BufferAllocator rootAllocator;
+  private final Provider<OptionManager> optionManagerProvider;
+  private final FragmentExecutors fragmentExecutors;
+  private final QueriesClerk queriesClerk;
+  private final Executor queryStartExecutor;
+
+  // query starts held back while the node is paused, guarded by this.
+  private final Queue<DeferredStart> deferredStarts = new ArrayDeque<>();
+
+  private final AtomicLong spillRequests = new AtomicLong();
+  private final AtomicLong deferredQueryStarts = new AtomicLong();
+  private final AtomicLong canceledQueries = new AtomicLong();
+  private volatile PressureState state = PressureState.NORMAL;
+  private long lastCancelMillis;
+
+  // polling thread, running only while monitoring is enabled, guarded by this.
+  private Thread poller;
+  private boolean closed;
+
+  public DirectMemoryMonitor(BufferAllocator rootAllocator,
+                             Provider<OptionManager> optionManagerProvider,
+                             FragmentExecutors fragmentExecutors,
+                             QueriesClerk queriesClerk,
+                             Executor queryStartExecutor) {
+    this.rootAllocator = rootAllocator;
+    this.optionManagerProvider = optionManagerProvider;
+    this.fragmentExecutors = fragmentExecutors;
+    this.queriesClerk = queriesClerk;
+    this.queryStartExecutor = queryStartExecutor;
+  }
+
+  /**
+   * Start polling if monitoring is enabled, and start or stop polling when it is toggled.
+   */
+  public void start() {
+    final OptionManager optionManager = optionManagerProvider.get();
+    updatePoller(optionManager.getOption(EXECUTOR_ENABLE_DIRECT_MEMORY_MONITORING));
+    optionManager.addOptionChangeListener(new DirectMemoryOptionChangeListener(optionManager));
+  }
+
+  private void updatePoller(boolean enabled) {
+    final Thread stopped;
+    synchronized (this) {
+      if (enabled && poller == null && !closed) {
+        logger.info("Starting direct memory monitor thread");
+        poller = new Thread(this::poll, "direct-memory-monitoring-thread");
+        poller.setDaemon(true);
+        poller.start();
+        return;
+      }
+      if (enabled || poller == null) {
+        return;
+      }
+      logger.info("Stopping direct memory monitor thread");
+      stopped = poller;
+      poller = null;
+    }
+    stopped.interrupt();
+  }
+
+  private void poll() {
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        Thread.sleep(POLL_INTERVAL_MILLIS);
+        checkDirectMemory();
+      } catch (final InterruptedException e) {
+        logger.debug("Direct memory monitor thread exiting");
+        break;
+      } catch (final Exception e) {
+        // the monitor thread shouldn't die due to random exceptions.
+        logger.warn("Unexpected exception in direct memory monitor", e);
+      }
+    }
+    // queries aren't held back while the monitor isn't polling
+    state = PressureState.NORMAL;
+    startDeferred();
+  }
+
+  @VisibleForTesting
+  synchronized boolean isPollerRunning() {
+    return poller != null;
+  }
+
+  /**
+   * Start a query now, or hold it back if the node is short of direct memory.
+   *
+   * @param queryStart starts the query
+   */
+  public void admit(Runnable queryStart) {
+    synchronized (this) {
+      if (state == PressureState.PAUSED || state == PressureState.CANCELING) {
+        deferredStarts.add(new DeferredStart(queryStart, System.currentTimeMillis()));
+        deferredQueryStarts.incrementAndGet();
+        return;
+      }
+    }
+    queryStart.run();
+  }
+
+  @VisibleForTesting
+  void checkDirectMemory() {
+    final OptionManager options = optionManagerProvider.get();
+    if (!options.getOption(EXECUTOR_ENABLE_DIRECT_MEMORY_MONITORING)) {
+      state = PressureState.NORMAL;
+      startDeferred();
+      return;
+    }
+
+    final long limit = Math.min(rootAllocator.getLimit(), VM.getMaxDirectMemory());
+    final long used = rootAllocator.getAllocatedMemory();
+    final long spillThreshold = limit * options.getOption(EXECUTOR_DIRECT_MEMORY_SPILL_THRESH_PERCENTAGE) / 100;
+    final long pauseThreshold = limit * options.getOption(EXECUTOR_DIRECT_MEMORY_PAUSE_THRESH_PERCENTAGE) / 100;
+    final long cancelThreshold = limit * options.getOption(EXECUTOR_DIRECT_MEMORY_CANCEL_THRESH_PERCENTAGE) / 100;
+
+    final PressureState newState;
+    if (used >= cancelThreshold) {
+      newState = PressureState.CANCELING;
+    } else if (used >= pauseThreshold) {
+      newState = PressureState.PAUSED;
+    } else if (used >= spillThreshold) {
+      newState = PressureState.SPILLING;
+    } else {
+      newState = PressureState.NORMAL;
+    }
+    if (newState != state) {
+      logger.info("Direct memory usage {} of {}, moving from {} to {}", used, limit, state, newState);
+      state = newState;
+    }
+
+    if (newState != PressureState.NORMAL) {
+      requestSpills(used - spillThreshold);
+    }
+    if (newState == PressureState.CANCELING) {
+      cancelGreediestQuery();
+    }
+    if (newState == PressureState.NORMAL || newState == PressureState.SPILLING) {
+      startDeferred();
+    } else {
+      startExpired(options.getOption(EXECUTOR_DIRECT_MEMORY_MAX_PAUSE_MILLIS));
+    }
+  }
+
+  private List<QueryTicket> getSortedActiveQueries() {
+    final List<QueryTicket> queries = new ArrayList<>();
+    for (final WorkloadTicket workloadTicket : queriesClerk.getWorkloadTickets()) {
+      queries.addAll(workloadTicket.getActiveQueryTickets());
+    }
+    // sort in descending order of memory usage.
+    queries.sort(Comparator.comparingLong((QueryTicket x) -> x.getAllocator().getAllocatedMemory()).reversed());
+    return queries;
+  }
+
+  private void requestSpills(long bytes) {
+    long pending = bytes;
+    for (QueryTicket queryTicket : getSortedActiveQueries()) {
+      if (pending <= 0) {
+        break;
+      }
+      final long expectedRelease = queryTicket.getMemoryBroker().requestSpills(pending);
+      if (expectedRelease > 0) {
+        spillRequests.incrementAndGet();
+        pending -= expectedRelease;
+      }
+    }
+  }
+
+  private void cancelGreediestQuery() {
+    final long now = System.currentTimeMillis();
+    if (now - lastCancelMillis < CANCEL_COOLDOWN_MILLIS) {
+      return;
+    }
+
+    final List<QueryTicket> queries = getSortedActiveQueries();
+    if (queries.isEmpty()) {
+      logger.info("no active queries, nothing to fail");
+      return;
+    }
+    final QueryTicket greediest = queries.get(0);
+    logger.info("Failing query " + QueryIdHelper.getQueryId(greediest.getQueryId()) + " using " +
+      greediest.getAllocator().getAllocatedMemory() + " bytes to avoid direct memory outage");
+    fragmentExecutors.failFragments(greediest.getQueryId(), queriesClerk,
+      new OutOfMemoryException("direct memory monitor detected that direct memory is almost exhausted"),
+      FAIL_CONTEXT);
+    canceledQueries.incrementAndGet();
+    lastCancelMillis = now;
+  }
+
+  private void startDeferred() {
+    startExpired(-1);
+  }
+
+  /**
+   * Hand the queries that have been held back for longer than the given time to the query start executor. Query
+   * starts report their own failures to the foreman, a start throwing anyway is only logged.
+   */
+  private void startExpired(long maxPauseMillis) {
+    final List<Runnable> toStart = new ArrayList<>();
+    final long now = System.currentTimeMillis();
+    synchronized (this) {
+      while (!deferredStarts.isEmpty() && now - deferredStarts.peek().deferredAtMillis > maxPauseMillis) {
+        toStart.add(deferredStarts.poll().queryStart);
+      }
+    }
+
+    for (Runnable queryStart : toStart) {
+      final Runnable loggingStart = () -> {
+        try {
+          queryStart.run();
+        } catch (RuntimeException e) {
+          logger.warn("Failure starting a query held back by the direct memory monitor", e);
+        }
+      };
+      try {
+        queryStartExecutor.execute(loggingStart);
+      } catch (RejectedExecutionException e) {
+        // the executor is shutting down, start the query here rather than dropping it
+        loggingStart.run();
+      }
+    }
+  }
+
+  public PressureState getPressureState() {
+    return state;
+  }
+
+  public long getSpillRequests() {
+    return spillRequests.get();
+  }
+
+  public long getDeferredQueryStarts() {
+    return deferredQueryStarts.get();
+  }
+
+  public long getCanceledQueries() {
+    return canceledQueries.get();
+  }
+
+  @Override
+  public void close() {
+    synchronized (this) {
+      closed = true;
+    }
+    updatePoller(false);
+  }
+
+  private class DirectMemoryOptionChangeListener implements OptionChangeListener {
+    private final OptionManager optionManager;
+
+    DirectMemoryOptionChangeListener(OptionManager optionManager) {
+      this.optionManager = optionManager;
+    }
+
+    @Override
+    public void onChange() {
+      updatePoller(optionManager.getOption(EXECUTOR_ENABLE_DIRECT_MEMORY_MONITORING));
+    }
+  }
+
+  private static final class DeferredStart {
+    private final Runnable queryStart;
+    private final long deferredAtMillis;
+
+    private DeferredStart(Runnable queryStart, long deferredAtMillis) {
+      this.queryStart = queryStart;
+      this.deferredAtMillis = deferredAtMillis;
+    }
+  }
+}
@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -68,6 +69,7 @@ import com.google.common.cache.CacheLoader;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.protobuf.Empty;
 
 import io.grpc.stub.StreamObserver;
@@ -87,6 +89,8 @@ public class FragmentExecutors implements AutoCloseable, Iterable<FragmentExecut
   private final long evictionDelayMillis;
   private final MaestroProxy maestroProxy;
   private final int warnMaxTime;
+  // decides when queries sent to this node are started, may hold them back while the node is short of memory
+  private volatile Executor queryAdmission = MoreExecutors.directExecutor();
 
   public FragmentExecutors(
     final MaestroProxy maestroProxy,
@@ -153,7 +157,23 @@ public class FragmentExecutors implements AutoCloseable, Iterable<FragmentExecut
                              final StreamObserver<Empty> sender, final NodeEndpoint identity) {
     final SchedulingInfo schedulingInfo = fragments.hasSchedulingInfo() ? fragments.getSchedulingInfo() : null;
     QueryStarterImpl queryStarter = new QueryStarterImpl(fragments, builder, sender, identity, schedulingInfo);
-    builder.buildAndStartQuery(queryStarter.getFirstFragment(), schedulingInfo, queryStarter);
+    final long submittedAtMillis = System.currentTimeMillis();
+    queryAdmission.execute(() -> {
+      queryStarter.admissionWaitMillis = System.currentTimeMillis() - submittedAtMillis;
+      try {
+        builder.buildAndStartQuery(queryStarter.getFirstFragment(), schedulingInfo, queryStarter);
+      } catch (Exception e) {
+        // the start may have been held back, report the failure to the foreman rather than to the admission
+        queryStarter.unableToBuildQuery(e);
+      }
+    });
+  }
+
+  /**
+   * Set the executor through which new queries are started on this node.
+   */
+  void setQueryAdmission(Executor queryAdmission) {
+    this.queryAdmission = Preconditions.checkNotNull(queryAdmission);
   }
 
   public EventProvider getEventProvider(FragmentHandle handle) {
@@ -343,6 +363,8 @@ public class FragmentExecutors implements AutoCloseable, Iterable<FragmentExecut
     final SchedulingInfo schedulingInfo;
     final CachedFragmentReader fragmentReader;
     List<PlanFragmentFull> fullFragments;
+    // time the start of the query was held back by the admission of this node
+    volatile long admissionWaitMillis;
 
     QueryStarterImpl(final InitializeFragments initializeFragments, final FragmentExecutorBuilder builder,
                      final StreamObserver<Empty> sender, final NodeEndpoint identity, final SchedulingInfo schedulingInfo) {
@@ -400,6 +422,9 @@ public class FragmentExecutors implements AutoCloseable, Iterable<FragmentExecut
         }
         for (PlanFragmentFull fragment : fullFragments) {
           FragmentExecutor fe = buildFragment(queryTicket, fragment, schedulingInfo);
+          if (admissionWaitMillis > 0) {
+            fe.addDirectMemoryAdmissionWait(admissionWaitMillis);
+          }
           fragmentHandlesForQuery.add(fe.getHandle());
           fragmentExecutors.add(fe);
         }
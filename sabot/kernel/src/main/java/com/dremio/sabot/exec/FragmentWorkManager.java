@@ -99,6 +99,7 @@ public class FragmentWorkManager implements Service, SafeExit {
   private ExtendedLatch exitLatch = null; // This is used to wait to exit when things are still running
   private com.dremio.exec.service.executor.ExecutorService executorService;
   private HeapMonitorManager heapMonitorManager = null;
+  private DirectMemoryMonitor directMemoryMonitor = null;
 
   public FragmentWorkManager(
     final BootStrapContext context,
@@ -161,6 +162,11 @@ public class FragmentWorkManager implements Service, SafeExit {
       return pool.get().getSlicingThreads();
     }
 
+    @Override
+    public DirectMemoryMonitor getDirectMemoryMonitor() {
+      return directMemoryMonitor;
+    }
+
     /**
      * @return number of running fragments / max width per node
      */
@@ -357,6 +363,12 @@ public class FragmentWorkManager implements Service, SafeExit {
                                                   heapClawBackStrategy,
                                                   ClusterCoordinator.Role.EXECUTOR);
       heapMonitorManager.start();
+
+      logger.info("Starting direct memory monitor in executor");
+      directMemoryMonitor = new DirectMemoryMonitor(context.getAllocator(), () -> bitContext.getOptionManager(),
+                                                    fragmentExecutors, clerk, closeableExecutor);
+      fragmentExecutors.setQueryAdmission(directMemoryMonitor::admit);
+      directMemoryMonitor.start();
     }
 
     final String prefix = "rpc";
@@ -379,7 +391,7 @@ public class FragmentWorkManager implements Service, SafeExit {
 
   @Override
   public void close() throws Exception {
-    AutoCloseables.close(statusThread, statsCollectorThread, heapMonitorManager,
+    AutoCloseables.close(statusThread, statsCollectorThread, heapMonitorManager, directMemoryMonitor,
       closeableExecutor, fragmentExecutors, maestroProxy, allocator);
   }
 
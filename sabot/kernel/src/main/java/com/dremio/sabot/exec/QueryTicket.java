@@ -27,6 +27,7 @@ import com.dremio.exec.proto.CoordExecRPC.NodePhaseStatus;
 import com.dremio.exec.proto.CoordExecRPC.NodeQueryStatus;
 import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
 import com.dremio.exec.proto.UserBitShared.QueryId;
+import com.dremio.sabot.exec.context.MemoryBroker;
 import com.dremio.sabot.task.AsyncTaskWrapper;
 import com.dremio.sabot.task.SchedulingGroup;
 import com.google.common.base.Preconditions;
@@ -57,6 +58,7 @@ public class QueryTicket extends TicketWithChildren {
   private final ConcurrentMap<Integer, PhaseTicket> phaseTickets = Maps.newConcurrentMap();
   private final Collection<NodePhaseStatus> completed = Queues.newConcurrentLinkedQueue();
   private final long enqueuedTime;
+  private final MemoryBroker memoryBroker;
   private volatile NodeQueryStatus finalQueryStatus;
 
   public QueryTicket(WorkloadTicket workloadTicket, QueryId queryId, BufferAllocator allocator, NodeEndpoint foreman,
@@ -67,6 +69,7 @@ public class QueryTicket extends TicketWithChildren {
     this.foreman = foreman;
     this.assignment = assignment;
     this.enqueuedTime = enqueuedTime;
+    this.memoryBroker = new MemoryBroker(allocator);
   }
 
   public QueryId getQueryId() {
@@ -85,6 +88,13 @@ public class QueryTicket extends TicketWithChildren {
     return enqueuedTime;
   }
 
+  /**
+   * @return the broker arbitrating memory between the spillable operators of this query on this node
+   */
+  public MemoryBroker getMemoryBroker() {
+    return memoryBroker;
+  }
+
   /**
    * Creates a phase ticket (along with a phase-level allocator) for a given phase (major fragment) of this query, if
    * one has not already been created. The created phase ticket is tracked by this query ticket.
@@ -0,0 +1,265 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.exec.context;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.arrow.memory.BufferAllocator;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+/**
+ * Arbitrates memory between the spillable operators of a single query running on this node.
+ *
+ * Each spillable operator registers with the broker through {@link OperatorContext#registerSpillableConsumer}.
+ * When an operator runs out of room under its own allocator limit, it first asks the broker for an incremental
+ * grant. Grants raise the limit of the operator's allocator and are paid for from the headroom of the query
+ * allocator that has not already been granted to someone else. If a grant can't be met, the broker asks the
+ * largest other consumers to spill so that a later request can succeed, and the requesting operator spills on
+ * its own as it did before.
+ *
+ * Spill requests are delivered through the fragment work queue of the consumer, which wakes up the fragment
+ * through its shared resource, so a request always runs on the thread that owns the operator.
+ */
+public class MemoryBroker {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(MemoryBroker.class);
+
+  private final BufferAllocator queryAllocator;
+  // guarded by this
+  private final Set<Registration> registrations = new LinkedHashSet<>();
+  // guarded by this
+  private long outstandingGrants;
+
+  public MemoryBroker(BufferAllocator queryAllocator) {
+    this.queryAllocator = Preconditions.checkNotNull(queryAllocator, "query allocator required");
+  }
+
+  /**
+   * Register a spillable consumer.
+   *
+   * @param name name used in logging
+   * @param allocator allocator of the consumer, whose limit is raised by grants
+   * @param grantSize number of bytes to grant on each request, 0 if the consumer is only asked to spill
+   * @param consumer callback used to ask the consumer to spill
+   * @param spillRequestExecutor executes spill requests on the fragment thread of the consumer
+   * @return registration to be closed when the consumer is done
+   */
+  public synchronized Registration register(String name, BufferAllocator allocator, long grantSize,
+                                            SpillableMemoryConsumer consumer, Executor spillRequestExecutor) {
+    final Registration registration = new Registration(this, name, allocator, grantSize, consumer, spillRequestExecutor);
+    registrations.add(registration);
+    return registration;
+  }
+
+  /**
+   * A registration that isn't attached to any broker. Grants are always denied, so the consumer keeps its
+   * default behavior of spilling when it runs out of memory under its own limit.
+   */
+  public static Registration detached(BufferAllocator allocator) {
+    return new Registration(null, allocator.getName(), allocator, 0, null, null);
+  }
+
+  private synchronized boolean tryGrant(Registration requester) {
+    final long available = queryAllocator.getHeadroom() - outstandingGrants;
+    if (requester.grantSize <= available) {
+      requester.allocator.setLimit(requester.allocator.getLimit() + requester.grantSize);
+      requester.grantedBytes += requester.grantSize;
+      outstandingGrants += requester.grantSize;
+      return true;
+    }
+
+    requestSpills(requester, requester.grantSize - available);
+    return false;
+  }
+
+  /**
+   * Ask the largest consumers of the query to spill until the memory they hold covers the given amount. Used
+   * when the node as a whole, rather than one of the consumers, is short of memory.
+   *
+   * @param bytes number of bytes the caller would like to see released
+   * @return number of bytes held by the consumers that were asked to spill
+   */
+  public synchronized long requestSpills(long bytes) {
+    return requestSpills(null, bytes);
+  }
+
+  /**
+   * Ask the largest consumers (other than the requester, if any) to spill until the memory they hold covers the
+   * shortfall.
+   */
+  private long requestSpills(Registration requester, long shortfall) {
+    final List<Registration> candidates = new ArrayList<>(registrations.size());
+    for (Registration registration : registrations) {
+      if (registration != requester && !registration.spillRequested.get()) {
+        candidates.add(registration);
+      }
+    }
+    candidates.sort(Comparator.comparingLong(Registration::getAllocatedMemory).reversed());
+
+    long expectedRelease = 0;
+    for (Registration candidate : candidates) {
+      if (expectedRelease >= shortfall) {
+        break;
+      }
+      final long allocated = candidate.getAllocatedMemory();
+      if (allocated <= 0) {
+        break;
+      }
+      logger.debug("Asking {} holding {} bytes to spill, to cover shortfall of {} bytes for {}",
+        candidate.name, allocated, shortfall, requester == null ? "node" : requester.name);
+      candidate.requestSpill();
+      expectedRelease += allocated;
+    }
+    return expectedRelease;
+  }
+
+  private synchronized void releaseGrants(Registration registration) {
+    if (registration.grantedBytes == 0) {
+      return;
+    }
+    registration.allocator.setLimit(Math.max(0, registration.allocator.getLimit() - registration.grantedBytes));
+    outstandingGrants -= registration.grantedBytes;
+    registration.grantedBytes = 0;
+  }
+
+  private synchronized void unregister(Registration registration) {
+    // the allocator is closed along with the operator, no need to restore its limit
+    outstandingGrants -= registration.grantedBytes;
+    registration.grantedBytes = 0;
+    registrations.remove(registration);
+  }
+
+  @VisibleForTesting
+  synchronized long getOutstandingGrants() {
+    return outstandingGrants;
+  }
+
+  @VisibleForTesting
+  synchronized int getNumRegistrations() {
+    return registrations.size();
+  }
+
+  /**
+   * Handle held by a spillable consumer.
+   */
+  public static final class Registration implements AutoCloseable {
+    private final MemoryBroker broker;
+    private final String name;
+    private final BufferAllocator allocator;
+    private final long grantSize;
+    private final SpillableMemoryConsumer consumer;
+    private final Executor spillRequestExecutor;
+    private final AtomicBoolean spillRequested = new AtomicBoolean(false);
+    private volatile boolean closed;
+
+    // guarded by the broker
+    private long grantedBytes;
+
+    // only accessed from the fragment thread
+    private long grantsAccepted;
+    private long grantsDenied;
+    private long spillRequestsReceived;
+
+    private Registration(MemoryBroker broker, String name, BufferAllocator allocator, long grantSize,
+                         SpillableMemoryConsumer consumer, Executor spillRequestExecutor) {
+      this.broker = broker;
+      this.name = name;
+      this.allocator = allocator;
+      this.grantSize = grantSize;
+      this.consumer = consumer;
+      this.spillRequestExecutor = spillRequestExecutor;
+    }
+
+    /**
+     * Ask the broker for more memory before spilling.
+     *
+     * @return true if the limit of the consumer's allocator was raised, false if the consumer should spill
+     */
+    public boolean tryGrow() {
+      if (broker == null || closed || grantSize <= 0) {
+        return false;
+      }
+      if (broker.tryGrant(this)) {
+        grantsAccepted++;
+        return true;
+      }
+      grantsDenied++;
+      return false;
+    }
+
+    /**
+     * Return any memory granted so far to the broker. Consumers call this once they have spilled.
+     */
+    public void releaseGrants() {
+      if (broker != null) {
+        broker.releaseGrants(this);
+      }
+    }
+
+    public long getGrantsAccepted() {
+      return grantsAccepted;
+    }
+
+    public long getGrantsDenied() {
+      return grantsDenied;
+    }
+
+    public long getSpillRequestsReceived() {
+      return spillRequestsReceived;
+    }
+
+    private long getAllocatedMemory() {
+      return allocator.getAllocatedMemory();
+    }
+
+    private void requestSpill() {
+      if (spillRequestExecutor == null || !spillRequested.compareAndSet(false, true)) {
+        return;
+      }
+      spillRequestExecutor.execute(() -> {
+        spillRequested.set(false);
+        if (closed) {
+          return;
+        }
+        spillRequestsReceived++;
+        try {
+          consumer.spillOnRequest();
+        } catch (Exception e) {
+          logger.warn("Failure while handling spill request for {}", name, e);
+          throw new IllegalStateException(e);
+        }
+      });
+    }
+
+    @Override
+    public void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      if (broker != null) {
+        broker.unregister(this);
+      }
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.exec.context;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.arrow.memory.AllocationListener;
+import org.apache.arrow.memory.AllocationOutcome;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RecyclingAllocationManagerFactory;
+
+/**
+ * Allocation listener of an operator allocator. Counts the buffers allocated by the operator, and how many of them
+ * reused recycled memory, and forwards every event to the listener the allocator would have had otherwise.
+ */
+public class OperatorAllocationListener implements AllocationListener {
+  private final AllocationListener parent;
+
+  private final AtomicLong allocations = new AtomicLong();
+  private final AtomicLong recycledAllocations = new AtomicLong();
+
+  public OperatorAllocationListener(AllocationListener parent) {
+    this.parent = parent;
+  }
+
+  @Override
+  public void onPreAllocation(long size) {
+    parent.onPreAllocation(size);
+  }
+
+  @Override
+  public void onAllocation(long size) {
+    allocations.incrementAndGet();
+    if (RecyclingAllocationManagerFactory.wasLastAllocationRecycled()) {
+      recycledAllocations.incrementAndGet();
+    }
+    parent.onAllocation(size);
+  }
+
+  @Override
+  public void onRelease(long size) {
+    parent.onRelease(size);
+  }
+
+  @Override
+  public boolean onFailedAllocation(long size, AllocationOutcome outcome) {
+    return parent.onFailedAllocation(size, outcome);
+  }
+
+  @Override
+  public void onChildAdded(BufferAllocator parentAllocator, BufferAllocator childAllocator) {
+    parent.onChildAdded(parentAllocator, childAllocator);
+  }
+
+  @Override
+  public void onChildRemoved(BufferAllocator parentAllocator, BufferAllocator childAllocator) {
+    parent.onChildRemoved(parentAllocator, childAllocator);
+  }
+
+  public long getAllocations() {
+    return allocations.get();
+  }
+
+  public long getRecycledAllocations() {
+    return recycledAllocations.get();
+  }
+
+  /**
+   * @return fraction of the buffers allocated by the operator that reused recycled memory, 0 if there was none
+   */
+  public double getRecycledRatio() {
+    final long total = allocations.get();
+    return total == 0 ? 0 : (double) recycledAllocations.get() / total;
+  }
+}
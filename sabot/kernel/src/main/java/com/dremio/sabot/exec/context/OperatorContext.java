@@ -123,6 +123,12 @@ public abstract class OperatorContext {
 
   public abstract MajorFragmentAssignment getExtMajorFragmentAssignments(int extMajorFragment);
 
+  /**
+   * Register this operator as a spillable consumer of the query's {@link MemoryBroker}. When the broker is
+   * disabled or not available in this context, the returned registration never grants memory.
+   */
+  public abstract MemoryBroker.Registration registerSpillableConsumer(SpillableMemoryConsumer consumer);
+
   public static int getChildCount(PhysicalOperator popConfig) {
     Iterator<PhysicalOperator> iter = popConfig.iterator();
     int i = 0;
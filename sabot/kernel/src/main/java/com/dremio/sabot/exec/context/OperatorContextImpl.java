@@ -15,10 +15,12 @@
  */
 package com.dremio.sabot.exec.context;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
@@ -59,6 +61,7 @@ import com.dremio.service.spill.SpillService;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 
 @VisibleForTesting
 public class OperatorContextImpl extends OperatorContext implements AutoCloseable {
@@ -86,6 +89,9 @@ public class OperatorContextImpl extends OperatorContext implements AutoCloseabl
   private final SpillService spillService;
   private final EndpointsIndex endpointsIndex;
   private final Map<Integer, MajorFragmentAssignment> majorFragmentAssignments;
+  private final MemoryBroker memoryBroker;
+  private final Executor spillRequestExecutor;
+  private final List<MemoryBroker.Registration> memoryRegistrations = new ArrayList<>();
 
   public OperatorContextImpl(
     SabotConfig config,
@@ -110,6 +116,37 @@ public class OperatorContextImpl extends OperatorContext implements AutoCloseabl
     Provider<CoordinationProtos.NodeEndpoint> nodeEndpointProvider,
     EndpointsIndex endpointsIndex,
     List<MinorFragmentEndpoint> minorFragmentEndpoints) throws OutOfMemoryException {
+    this(config, handle, popConfig, allocator, fragmentOutputAllocator, compiler, stats, executionControls,
+      fragmentExecutorBuilder, executor, functions, contextInformation, optionManager, spillService,
+      nodeDebugContextProvider, targetBatchSize, tunnelProvider, assignments, majorFragmentAssignments,
+      nodeEndpointProvider, endpointsIndex, minorFragmentEndpoints, null, null);
+  }
+
+  public OperatorContextImpl(
+    SabotConfig config,
+    FragmentHandle handle,
+    PhysicalOperator popConfig,
+    BufferAllocator allocator,
+    BufferAllocator fragmentOutputAllocator,
+    CodeCompiler compiler,
+    OperatorStats stats,
+    ExecutionControls executionControls,
+    FragmentExecutorBuilder fragmentExecutorBuilder,
+    ExecutorService executor,
+    FunctionLookupContext functions,
+    ContextInformation contextInformation,
+    final OptionManager optionManager,
+    SpillService spillService,
+    NodeDebugContextProvider nodeDebugContextProvider,
+    int targetBatchSize,
+    TunnelProvider tunnelProvider,
+    List<FragmentAssignment> assignments,
+    List<MajorFragmentAssignment> majorFragmentAssignments,
+    Provider<CoordinationProtos.NodeEndpoint> nodeEndpointProvider,
+    EndpointsIndex endpointsIndex,
+    List<MinorFragmentEndpoint> minorFragmentEndpoints,
+    MemoryBroker memoryBroker,
+    Executor spillRequestExecutor) throws OutOfMemoryException {
     this.config = config;
     this.handle = handle;
     this.allocator = allocator;
@@ -137,6 +174,8 @@ public class OperatorContextImpl extends OperatorContext implements AutoCloseabl
     this.majorFragmentAssignments = Optional.ofNullable(majorFragmentAssignments)
             .map(f -> f.stream().collect(Collectors.toMap(MajorFragmentAssignment::getMajorFragmentId, v -> v)))
             .orElse(Collections.emptyMap());
+    this.memoryBroker = memoryBroker;
+    this.spillRequestExecutor = spillRequestExecutor;
   }
 
   public OperatorContextImpl(
@@ -235,6 +274,24 @@ public class OperatorContextImpl extends OperatorContext implements AutoCloseabl
     return majorFragmentAssignments.get(extMajorFragment);
   }
 
+  @Override
+  public MemoryBroker.Registration registerSpillableConsumer(SpillableMemoryConsumer consumer) {
+    final MemoryBroker.Registration registration;
+    if (memoryBroker == null || spillRequestExecutor == null || optionManager == null) {
+      registration = MemoryBroker.detached(getAllocator());
+    } else if (optionManager.getOption(ExecConstants.ENABLE_MEMORY_BROKER)) {
+      registration = memoryBroker.register(allocator.getName(), allocator,
+        optionManager.getOption(ExecConstants.MEMORY_BROKER_GRANT_SIZE_BYTES), consumer, spillRequestExecutor);
+    } else if (optionManager.getOption(ExecConstants.EXECUTOR_ENABLE_DIRECT_MEMORY_MONITORING)) {
+      // no grants, but the direct memory monitor can still ask the consumer to spill
+      registration = memoryBroker.register(allocator.getName(), allocator, 0, consumer, spillRequestExecutor);
+    } else {
+      registration = MemoryBroker.detached(getAllocator());
+    }
+    memoryRegistrations.add(registration);
+    return registration;
+  }
+
   @Override
   public Provider<CoordinationProtos.NodeEndpoint> getNodeEndpointProvider() {
     return nodeEndpointProvider;
@@ -285,7 +342,7 @@ public class OperatorContextImpl extends OperatorContext implements AutoCloseabl
     }
 
     try{
-      AutoCloseables.close(manager, allocator);
+      AutoCloseables.close(Iterables.concat(memoryRegistrations, ImmutableList.<AutoCloseable>of(manager, allocator)));
     }finally{
       closed = true;
     }
@@ -361,6 +361,12 @@ public class OperatorStats {
 
     if (allocator != null) {
       b.setPeakLocalMemoryAllocated(allocator.getPeakMemoryAllocation());
+      if (allocator.getListener() instanceof OperatorAllocationListener) {
+        final OperatorAllocationListener listener = (OperatorAllocationListener) allocator.getListener();
+        b.setBufferAllocations(listener.getAllocations());
+        b.setRecycledBufferAllocations(listener.getRecycledAllocations());
+        b.setRecycledBufferRatio(listener.getRecycledRatio());
+      }
     }
     if (withDetails && (profileDetails != null)) {
       b.setDetails(profileDetails);
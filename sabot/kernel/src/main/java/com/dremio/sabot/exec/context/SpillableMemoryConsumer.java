@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.exec.context;
+
+/**
+ * An operator that can release memory by spilling to disk when asked to by the {@link MemoryBroker}.
+ */
+public interface SpillableMemoryConsumer {
+
+  /**
+   * Invoked when the broker needs memory held by this consumer to satisfy a grant for another consumer
+   * of the same query. Always invoked on the fragment thread that owns the consumer, so implementations
+   * may freely touch operator state. The consumer is free to ignore the request if it is not in a state
+   * where spilling is possible.
+   */
+  void spillOnRequest() throws Exception;
+}
@@ -200,6 +200,7 @@ public class FragmentExecutor {
     this.activateResource = new ActivableResource(sharedResources.getGroup(PIPELINE_RES_GRP).createResource(
       "activate-signal-" + this.name, SharedResourceType.FRAGMENT_ACTIVATE_SIGNAL));
     this.workQueue = new FragmentWorkQueue(sharedResources.getGroup(WORK_QUEUE_RES_GRP));
+    contextCreator.setFragmentWorkQueue(workQueue);
     this.buffers = new IncomingBuffers(
       deferredException, sharedResources.getGroup(PIPELINE_RES_GRP), workQueue, tunnelProvider,
       fragment, allocator, config, executionControls, spillService, reader.getPlanFragmentsIndex());
@@ -611,6 +612,13 @@ public class FragmentExecutor {
     return fragment.getHandle();
   }
 
+  /**
+   * Record the time the start of the query was held back by the direct memory monitor of this node.
+   */
+  public void addDirectMemoryAdmissionWait(long millis) {
+    stats.addBlockedOnSharedResourceDuration(SharedResourceType.DIRECT_MEMORY_ADMISSION, millis);
+  }
+
   public SchedulingGroup<AsyncTaskWrapper> getSchedulingGroup() {
     return ticket.getSchedulingGroup();
   }
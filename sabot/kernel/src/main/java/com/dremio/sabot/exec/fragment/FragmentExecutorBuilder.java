@@ -296,7 +296,8 @@ public class FragmentExecutorBuilder {
             major.getAllAssignmentList(),
             cachedReader.getPlanFragmentsIndex().getEndpointsIndex(),
             nodeEndpointProvider,
-            major.getExtFragmentAssignmentsList()
+            major.getExtFragmentAssignmentsList(),
+            ticket.getMemoryBroker()
           );
 
         final FragmentStatusReporter statusReporter = new FragmentStatusReporter(fragment.getHandle(), stats,
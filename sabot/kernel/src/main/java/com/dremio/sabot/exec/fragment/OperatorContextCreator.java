@@ -18,6 +18,7 @@ package com.dremio.sabot.exec.fragment;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 
 import javax.inject.Provider;
@@ -27,6 +28,7 @@ import org.apache.arrow.memory.BufferAllocator;
 import com.dremio.common.AutoCloseables;
 import com.dremio.common.AutoCloseables.RollbackCloseable;
 import com.dremio.common.config.SabotConfig;
+import com.dremio.common.memory.DremioRootAllocator;
 import com.dremio.common.utils.protos.QueryIdHelper;
 import com.dremio.exec.compile.CodeCompiler;
 import com.dremio.exec.expr.fn.FunctionLookupContext;
@@ -44,7 +46,9 @@ import com.dremio.exec.testing.ExecutionControls;
 import com.dremio.options.OptionManager;
 import com.dremio.sabot.exec.context.ContextInformation;
 import com.dremio.sabot.exec.context.FragmentStats;
+import com.dremio.sabot.exec.context.MemoryBroker;
 import com.dremio.sabot.exec.context.OpProfileDef;
+import com.dremio.sabot.exec.context.OperatorAllocationListener;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.context.OperatorContextImpl;
 import com.dremio.sabot.exec.context.OperatorStats;
@@ -78,6 +82,8 @@ class OperatorContextCreator implements OperatorContext.Creator, AutoCloseable {
   private Provider<CoordinationProtos.NodeEndpoint> nodeEndpointProvider;
   private final List<CoordExecRPC.MajorFragmentAssignment> extFragmentAssignments;
   private List<MinorFragmentEndpoint> minorFragmentEndpoints;
+  private final MemoryBroker memoryBroker;
+  private Executor spillRequestExecutor;
 
   public OperatorContextCreator(FragmentStats stats, BufferAllocator allocator, CodeCompiler compiler,
                                 SabotConfig config, FragmentHandle handle, ExecutionControls executionControls,
@@ -87,7 +93,8 @@ class OperatorContextCreator implements OperatorContext.Creator, AutoCloseable {
                                 NodeDebugContextProvider nodeDebugContextProvider, TunnelProvider tunnelProvider,
                                 List<FragmentAssignment> assignments, EndpointsIndex endpointsIndex,
                                 Provider<CoordinationProtos.NodeEndpoint> nodeEndpointProvider,
-                                List<CoordExecRPC.MajorFragmentAssignment> extFragmentAssignments) {
+                                List<CoordExecRPC.MajorFragmentAssignment> extFragmentAssignments,
+                                MemoryBroker memoryBroker) {
     super();
     this.stats = stats;
     this.allocator = allocator;
@@ -110,6 +117,7 @@ class OperatorContextCreator implements OperatorContext.Creator, AutoCloseable {
     this.assignments = assignments;
     this.endpointsIndex = endpointsIndex;
     this.extFragmentAssignments = extFragmentAssignments;
+    this.memoryBroker = memoryBroker;
   }
 
   public void setFragmentOutputAllocator(BufferAllocator fragmentOutputAllocator) {
@@ -117,6 +125,11 @@ class OperatorContextCreator implements OperatorContext.Creator, AutoCloseable {
     this.fragmentOutputAllocator = fragmentOutputAllocator;
   }
 
+  public void setFragmentWorkQueue(FragmentWorkQueue workQueue) {
+    Preconditions.checkState(this.spillRequestExecutor == null);
+    this.spillRequestExecutor = workQueue::put;
+  }
+
   public void setMinorFragmentEndpointsFromRootSender(PhysicalOperator root) {
     if (root instanceof Sender) {
       this.minorFragmentEndpoints = ((Sender)root).getDestinations(this.endpointsIndex);
@@ -131,8 +144,15 @@ class OperatorContextCreator implements OperatorContext.Creator, AutoCloseable {
       popConfig.getProps().getLocalOperatorId(),
       popConfig.getClass().getSimpleName());
 
-    final BufferAllocator operatorAllocator =
-      allocator.newChildAllocator(allocatorName, popConfig.getProps().getMemReserve(), popConfig.getProps().getMemLimit());
+    // only count the recycled allocations of operators when the root allocator recycles memory
+    final BufferAllocator root = allocator.getRoot();
+    final boolean recycling = root instanceof DremioRootAllocator
+      && ((DremioRootAllocator) root).getRecyclingPool() != null;
+    final BufferAllocator operatorAllocator = recycling
+      ? allocator.newChildAllocator(allocatorName, new OperatorAllocationListener(allocator.getListener()),
+        popConfig.getProps().getMemReserve(), popConfig.getProps().getMemLimit())
+      : allocator.newChildAllocator(allocatorName, popConfig.getProps().getMemReserve(),
+        popConfig.getProps().getMemLimit());
     try (RollbackCloseable closeable = AutoCloseables.rollbackable(operatorAllocator)) {
       final OpProfileDef def = new OpProfileDef(popConfig.getProps().getLocalOperatorId(), popConfig.getOperatorType(), OperatorContext.getChildCount(popConfig), popConfig.getOperatorSubType());
       final OperatorStats stats = this.stats.newOperatorStats(def, operatorAllocator);
@@ -162,7 +182,9 @@ class OperatorContextCreator implements OperatorContext.Creator, AutoCloseable {
         extFragmentAssignments,
         nodeEndpointProvider,
         endpointsIndex,
-        minorFragmentEndpoints);
+        minorFragmentEndpoints,
+        memoryBroker,
+        spillRequestExecutor);
       operatorContexts.add(context);
       closeable.commit();
       return context;
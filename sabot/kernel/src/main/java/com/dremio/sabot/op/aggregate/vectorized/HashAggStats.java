@@ -80,7 +80,13 @@ public class HashAggStats {
     OOB_DROP_UNDER_THRESHOLD, // Number of times OOB dropped spilling notification as it was under the threshold.
     OOB_DROP_NO_VICTIM, // Number of times OOB dropped spilling notification as all allocations were minimal.
     OOB_SPILL, // Spill was done due to oob.
-    OOB_DROP_ALREADY_SPILLING // Number of times operator dropped spilling notification as it was already spilling
+    OOB_DROP_ALREADY_SPILLING, // Number of times operator dropped spilling notification as it was already spilling
+
+    // memory broker related metrics
+    BROKER_GRANTS, // Number of times the memory broker raised the limit of the operator
+    BROKER_GRANTS_DENIED, // Number of times the memory broker could not raise the limit of the operator
+    BROKER_SPILLS, // Number of times the operator spilled when asked to by the memory broker
+    BROKER_SPILL_REQUESTS // Number of times the operator was asked to spill, by the memory broker or the direct memory monitor
 
     ;
 
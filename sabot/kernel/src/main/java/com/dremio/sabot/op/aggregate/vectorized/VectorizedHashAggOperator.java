@@ -54,8 +54,10 @@ import com.dremio.options.TypeValidators.DoubleValidator;
 import com.dremio.options.TypeValidators.PositiveLongValidator;
 import com.dremio.options.TypeValidators.PowerOfTwoLongValidator;
 import com.dremio.options.TypeValidators.RangeDoubleValidator;
+import com.dremio.sabot.exec.context.MemoryBroker;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.context.OperatorStats;
+import com.dremio.sabot.exec.context.SpillableMemoryConsumer;
 import com.dremio.sabot.exec.fragment.OutOfBandMessage;
 import com.dremio.sabot.exec.fragment.OutOfBandMessage.Payload;
 import com.dremio.sabot.op.aggregate.vectorized.HashAggStats.Metric;
@@ -293,7 +295,7 @@ import io.netty.util.internal.PlatformDependent;
  ************************************************************************************************/
 
 @Options
-public class VectorizedHashAggOperator implements SingleInputOperator {
+public class VectorizedHashAggOperator implements SingleInputOperator, SpillableMemoryConsumer {
   private static final ControlsInjector injector =
     ControlsInjectorFactory.getInjector(VectorizedHashAggOperator.class);
 
@@ -374,6 +376,8 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
   private int oobDropNoVictim;
   private int oobSpills;
   private int oobDropSpill;
+  private int brokerSpills;
+  private MemoryBroker.Registration memoryRegistration;
   private final BufferAllocator allocator;
   private final VectorizedHashAggDebug debug;
   private boolean closed;
@@ -494,6 +498,7 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
     if (setLimitToMinReservation) {
       allocator.setLimit(allocator.getAllocatedMemory());
     }
+    this.memoryRegistration = context.registerSpillableConsumer(this);
     this.fixedOnly = pivot.getVariableCount() == 0;
     this.internalStateMachine = InternalState.NONE;
     this.initDone = true;
@@ -1055,6 +1060,12 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
    *         false if OOM not handled completely
    */
   private boolean handleOutOfMemory(final int failedPartitionIndex) {
+    /* before spilling, see if the memory broker can raise our limit with memory unused by the rest of the query */
+    if (memoryRegistration.tryGrow()) {
+      logger.debug("Memory broker raised allocator limit to {}, retrying insert", allocator.getLimit());
+      return true;
+    }
+
     final long allocatedMemoryBeforeSpilling = allocator.getAllocatedMemory();
     VectorizedHashAggPartition victimPartition = partitionSpillHandler.chooseVictimPartition();
     if (victimPartition == null) {
@@ -1112,6 +1123,10 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
       spillPartitionWatch.stop();
     }
 
+    if (done) {
+      /* memory held by the victim partition is released, give back whatever the memory broker lent us */
+      memoryRegistration.releaseGrants();
+    }
     return done;
   }
 
@@ -1345,18 +1360,46 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
       return;
     }
 
-    VectorizedHashAggPartition victimPartition = partitionSpillHandler.chooseVictimPartition();
-    if(victimPartition == null) {
+    if (!spillVictimPartitionOutOfBand()) {
       ++oobDropNoVictim;
       logger.debug("Ignoring OOB spill trigger as no victim partitions found.");
       return;
     }
+    ++oobSpills;
+  }
+
+  /**
+   * The memory broker needs memory held by this operator for another operator
+   * of the same query. Spill a victim partition the same way we do for an OOB
+   * spill trigger, without looking at how much memory we hold relative to others.
+   */
+  @Override
+  public void spillOnRequest() {
+    if(internalStateMachine != InternalState.NONE && internalStateMachine != InternalState.PROCESS_SPILLED_PARTITION) {
+      logger.debug("Ignoring memory broker spill request as fragment is spilling, outputting data or transitioning state");
+      return;
+    }
+
+    if (spillVictimPartitionOutOfBand()) {
+      ++brokerSpills;
+    }
+  }
+
+  /**
+   * Spill a victim partition outside of the regular flow of consuming data.
+   *
+   * @return false if there was no victim partition to spill
+   */
+  private boolean spillVictimPartitionOutOfBand() {
+    VectorizedHashAggPartition victimPartition = partitionSpillHandler.chooseVictimPartition();
+    if(victimPartition == null) {
+      return false;
+    }
 
     /* remember the victim */
     this.ongoingVictimPartition = victimPartition;
     /* spill the victim */
     boolean done = spill(victimPartition, false);
-    ++oobSpills;
     if (!done) {
       /*
        * the victim partition has more than 1 batch, so the above call
@@ -1366,6 +1409,7 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
       cacheOperatorStateBeforeOOB();
       transitionStateToResumeSpilling();
     }
+    return true;
   }
 
   /**
@@ -1823,6 +1867,13 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
     stats.setLongStat(Metric.OOB_SPILL, oobSpills);
     stats.setLongStat(Metric.OOB_DROP_ALREADY_SPILLING, oobDropSpill);
 
+    if (memoryRegistration != null) {
+      stats.setLongStat(Metric.BROKER_GRANTS, memoryRegistration.getGrantsAccepted());
+      stats.setLongStat(Metric.BROKER_GRANTS_DENIED, memoryRegistration.getGrantsDenied());
+      stats.setLongStat(Metric.BROKER_SPILLS, brokerSpills);
+      stats.setLongStat(Metric.BROKER_SPILL_REQUESTS, memoryRegistration.getSpillRequestsReceived());
+    }
+
     if (iterations == 1) {
       stats.setLongStat(Metric.ALLOCATED_FOR_FIXED_KEYS, statsHolder.allocatedForFixedBlocks);
       stats.setLongStat(Metric.UNUSED_FOR_FIXED_KEYS, statsHolder.unusedForFixedBlocks);
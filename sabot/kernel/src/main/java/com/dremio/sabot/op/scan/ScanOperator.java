@@ -161,7 +161,8 @@ public class ScanOperator implements ProducerOperator {
     MIN_METADATA_IO_READ_TIME_NS,  // Minimum IO read time for metadata operations
     MAX_METADATA_IO_READ_TIME_NS,   // Maximum IO read time for metadata operations
     AVG_METADATA_IO_READ_TIME_NS,  // Average IO read time for metadata operations
-    NUM_METADATA_IO_READ
+    NUM_METADATA_IO_READ,
+    NUM_ROW_GROUPS_PRUNED_BY_BLOOM_FILTER // Number of row groups skipped because their bloom filters rule out the filter values
     ;
 
     @Override
@@ -92,7 +92,10 @@ public class PartitionSenderOperator extends BaseSender {
     PRECOPY_NS,
     FLUSH_NS,
     NUM_FLUSHES,
-    BUCKET_SIZE;
+    BUCKET_SIZE,
+    SKEW_RATIO,         // rows sent to the busiest receiver, as a percentage of the average rows per receiver
+    SKEW_HOT_KEYS,      // max number of hot partition keys detected at once
+    SKEW_ROWS_SPREAD;   // rows of hot partition keys spread across receivers
 
     @Override
     public int metricId() {
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.sender.partition.vectorized;
+
+import com.google.common.base.Preconditions;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Detects the partition hashes that are frequent enough to overload a single receiver.<br>
+ * Every {@code sampleStride}-th row of each incoming batch is fed to a space-saving counter with a fixed number of
+ * slots, which tracks an estimate of the most frequent hashes. A hash is hot once its share of the sampled rows
+ * is higher than the fair share of one receiver.<br>
+ * Hashes are tracked rather than keys: distinct keys with the same hash always go to the same receiver anyway.
+ */
+class HotKeySampler {
+  // number of hashes tracked by the space-saving counter
+  private static final int NUM_SLOTS = 32;
+  // don't decide anything before this many rows were sampled
+  private static final int MIN_SAMPLES = 1024;
+
+  private final int sampleStride;
+  private final double hotShare;
+
+  private final int[] slotHashes = new int[NUM_SLOTS];
+  private final long[] slotCounts = new long[NUM_SLOTS];
+  private int usedSlots;
+  private long numSamples;
+
+  private final int[] hotHashes = new int[NUM_SLOTS];
+  private int numHot;
+
+  /**
+   * @param numReceivers number of receivers of the sender
+   * @param sampleStride one row out of sampleStride is sampled
+   */
+  HotKeySampler(int numReceivers, int sampleStride) {
+    Preconditions.checkArgument(numReceivers > 0, "at least one receiver is required");
+    Preconditions.checkArgument(sampleStride > 0, "sample stride must be positive");
+    this.sampleStride = sampleStride;
+    this.hotShare = 1.0d / numReceivers;
+  }
+
+  /**
+   * Sample the hashes of a batch and refresh the hot hashes.
+   *
+   * @param hashAddr address of the hash values of the batch
+   * @param records number of records in the batch
+   */
+  void sample(long hashAddr, int records) {
+    final long max = hashAddr + records * 4L;
+    for (long addr = hashAddr; addr < max; addr += sampleStride * 4L) {
+      offer(PlatformDependent.getInt(addr));
+    }
+    refreshHotHashes();
+  }
+
+  void offer(int hash) {
+    numSamples++;
+    int min = 0;
+    for (int i = 0; i < usedSlots; i++) {
+      if (slotHashes[i] == hash) {
+        slotCounts[i]++;
+        return;
+      }
+      if (slotCounts[i] < slotCounts[min]) {
+        min = i;
+      }
+    }
+    if (usedSlots < NUM_SLOTS) {
+      slotHashes[usedSlots] = hash;
+      slotCounts[usedSlots] = 1;
+      usedSlots++;
+      return;
+    }
+    // evict the least frequent hash, the new one inherits its count (overestimate) as in space-saving
+    slotHashes[min] = hash;
+    slotCounts[min]++;
+  }
+
+  void refreshHotHashes() {
+    numHot = 0;
+    if (numSamples < MIN_SAMPLES || hotShare >= 1.0d) {
+      return;
+    }
+    final long threshold = (long) (numSamples * hotShare);
+    for (int i = 0; i < usedSlots; i++) {
+      if (slotCounts[i] > threshold) {
+        hotHashes[numHot++] = slotHashes[i];
+      }
+    }
+  }
+
+  boolean hasHotHashes() {
+    return numHot > 0;
+  }
+
+  boolean isHot(int hash) {
+    for (int i = 0; i < numHot; i++) {
+      if (hotHashes[i] == hash) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  int getNumHot() {
+    return numHot;
+  }
+
+  long getNumSamples() {
+    return numSamples;
+  }
+}
@@ -63,6 +63,8 @@ public class OutgoingBatch extends VectorContainer {
   private int preCopyIdx;
   /** true if receiver finished */
   private volatile boolean dropAll;
+  /** number of rows sent by this batch so far */
+  private long recordsSent;
 
   OutgoingBatch(int batchIdx, int nextBatchIdx, int maxRecords, final VectorAccessible incoming,
                 BufferAllocator allocator, AccountingExecTunnel tunnel, HashPartitionSender config,
@@ -108,6 +110,10 @@ public class OutgoingBatch extends VectorContainer {
     return (FieldVector) wrappers.get(fieldId).getValueVector();
   }
 
+  long getRecordsSent() {
+    return recordsSent;
+  }
+
   boolean isFull() {
     return preCopyIdx == maxRecords;
   }
@@ -169,6 +175,7 @@ public class OutgoingBatch extends VectorContainer {
       oppositeMinorFragmentId);
 
     updateStats(writableBatch);
+    recordsSent += preCopyIdx;
 
     stats.startWait();
     tunnel.sendRecordBatch(writableBatch);
@@ -32,6 +32,7 @@ import com.carrotsearch.hppc.IntArrayList;
 import com.dremio.common.AutoCloseables;
 import com.dremio.common.expression.SchemaPath;
 import com.dremio.common.util.Numbers;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.physical.config.HashPartitionSender;
 import com.dremio.exec.physical.config.MinorFragmentEndpoint;
 import com.dremio.exec.proto.ExecProtos;
@@ -130,6 +131,15 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
    */
   private volatile boolean nobodyListening = false;
 
+  /** detects the partition hashes sent to a single receiver often enough to skew the exchange */
+  private final HotKeySampler hotKeySampler;
+  /** true if rows of hot keys can be sent to any receiver */
+  private final boolean spreadHotKeys;
+  /** next partition a row of a hot key is sent to */
+  private int spreadCursor;
+  private long rowsSpread;
+  private int maxHotKeys;
+
   public VectorizedPartitionSenderOperator(final OperatorContext context,
                                            final TunnelProvider tunnelProvider,
                                            final HashPartitionSender config) {
@@ -148,6 +158,11 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
     modSize = PARTITION_MULTIPLE * Numbers.nextPowerOfTwo(numReceivers);
     modLookup = new OutgoingBatch[modSize];
     batches = new OutgoingBatch[2 * numReceivers];
+
+    hotKeySampler = new HotKeySampler(numReceivers,
+      (int) context.getOptions().getOption(ExecConstants.PARTITIONER_HOT_KEY_SAMPLE_STRIDE));
+    spreadHotKeys = config.isSpreadHotKeys() && numReceivers > 1 &&
+      context.getOptions().getOption(ExecConstants.ENABLE_PARTITIONER_HOT_KEY_SPREADING);
   }
 
   @Override
@@ -242,6 +257,11 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
     final int numBatches = batches.length;
     final List<MultiDestCopier> copiers = this.copiers;
 
+    preCopyWatch.start();
+    hotKeySampler.sample(partitionIndices.getDataBufferAddress(), records);
+    maxHotKeys = Math.max(maxHotKeys, hotKeySampler.getNumHot());
+    preCopyWatch.stop();
+
     while (start < records) {
       preCopyWatch.start();
       // copy at most numRecordsBeforeFlush, this way we'll need at most 2 batches per destination
@@ -272,6 +292,8 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
     stats.addLongStat(Metric.NUM_COPIES, numPasses);
     stats.setLongStat(Metric.PRECOPY_NS, preCopyWatch.elapsed(NANOSECONDS));
     stats.setLongStat(Metric.FLUSH_NS, flushWatch.elapsed(NANOSECONDS));
+    stats.setLongStat(Metric.SKEW_HOT_KEYS, maxHotKeys);
+    stats.setLongStat(Metric.SKEW_ROWS_SPREAD, rowsSpread);
     copyWatches.updateStats(stats);
   }
 
@@ -296,6 +318,26 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
     state = State.DONE;
 
     stats.setLongStat(Metric.FLUSH_NS, flushWatch.elapsed(NANOSECONDS));
+    updateSkewStats();
+  }
+
+  private void updateSkewStats() {
+    long minRecords = Long.MAX_VALUE;
+    long maxRecords = 0;
+    long totalRecords = 0;
+    for (int p = 0; p < numReceivers; p++) {
+      final long records = batches[p].getRecordsSent() + batches[p + numReceivers].getRecordsSent();
+      minRecords = Math.min(minRecords, records);
+      maxRecords = Math.max(maxRecords, records);
+      totalRecords += records;
+    }
+    stats.setLongStat(Metric.MIN_RECORDS, minRecords);
+    stats.setLongStat(Metric.MAX_RECORDS, maxRecords);
+    if (totalRecords > 0) {
+      stats.setLongStat(Metric.SKEW_RATIO, maxRecords * numReceivers * 100 / totalRecords);
+    }
+    stats.setLongStat(Metric.SKEW_HOT_KEYS, maxHotKeys);
+    stats.setLongStat(Metric.SKEW_ROWS_SPREAD, rowsSpread);
   }
 
   @Override
@@ -345,11 +387,20 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
     final int mod = modSize - 1;
     final OutgoingBatch[] modLookup = this.modLookup;
     final OutgoingBatch[] batches = this.batches;
+    final boolean spread = spreadHotKeys && hotKeySampler.hasHotHashes();
 
     //populate using the destination (batchIdx, rowIdx) for each incoming row
     final long max = srcAddr + numRowsToCopy*4;
     for (; srcAddr < max; srcAddr+=4, dstAddr+=4) {
-      final int partition = (PlatformDependent.getInt(srcAddr) & 0x7FFFFFFF) & mod; // abs(hash) % modSize
+      final int hash = PlatformDependent.getInt(srcAddr);
+      final int partition;
+      if (spread && hotKeySampler.isHot(hash)) {
+        // modLookup assigns consecutive partitions to consecutive receivers, so this round-robins over receivers
+        partition = spreadCursor++ & mod;
+        rowsSpread++;
+      } else {
+        partition = (hash & 0x7FFFFFFF) & mod; // abs(hash) % modSize
+      }
       final OutgoingBatch batch = modLookup[partition];
       final int compound = batch.preCopyRow();
       PlatformDependent.putInt(dstAddr, compound);
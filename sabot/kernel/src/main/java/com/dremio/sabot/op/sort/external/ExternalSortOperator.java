@@ -48,9 +48,11 @@ import com.dremio.options.Options;
 import com.dremio.options.TypeValidators.BooleanValidator;
 import com.dremio.options.TypeValidators.DoubleValidator;
 import com.dremio.options.TypeValidators.RangeDoubleValidator;
+import com.dremio.sabot.exec.context.MemoryBroker;
 import com.dremio.sabot.exec.context.MetricDef;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.context.OperatorStats;
+import com.dremio.sabot.exec.context.SpillableMemoryConsumer;
 import com.dremio.sabot.exec.fragment.OutOfBandMessage;
 import com.dremio.sabot.op.filter.VectorContainerWithSV;
 import com.dremio.sabot.op.spi.SingleInputOperator;
@@ -95,7 +97,7 @@ import com.sun.codemodel.JExpr;
  *
  */
 @Options
-public class ExternalSortOperator implements SingleInputOperator {
+public class ExternalSortOperator implements SingleInputOperator, SpillableMemoryConsumer {
   public static final BooleanValidator OOB_SORT_TRIGGER_ENABLED = new BooleanValidator("exec.operator.sort.oob_trigger_enabled", true);
   public static final DoubleValidator OOB_SORT_SPILL_TRIGGER_FACTOR = new RangeDoubleValidator("exec.operator.sort.oob_trigger_factor", 0.0d, 10.0d, .75d);
   public static final DoubleValidator OOB_SORT_SPILL_TRIGGER_HEADROOM_FACTOR = new RangeDoubleValidator("exec.operator.sort.oob_trigger_headroom_factor", 0.0d, 10.0d, .2d);
@@ -139,6 +141,9 @@ public class ExternalSortOperator implements SingleInputOperator {
   private int oobDropWrongState;
   private int oobDropUnderThreshold;
   private int oobSpills;
+  private int brokerSpills;
+
+  private MemoryBroker.Registration memoryRegistration;
 
   private State state = State.NEEDS_SETUP;
 
@@ -176,6 +181,11 @@ public class ExternalSortOperator implements SingleInputOperator {
 
     OOM_ALLOCATE_COUNT,
     OOM_COPY_COUNT,
+
+    BROKER_GRANTS,          // number of times the memory broker raised the limit of this operator
+    BROKER_GRANTS_DENIED,   // number of times the memory broker could not raise the limit of this operator
+    BROKER_SPILLS,          // number of times this operator spilled when asked to by the memory broker
+    BROKER_SPILL_REQUESTS,  // number of times this operator was asked to spill, by the memory broker or the direct memory monitor
     ;
 
     @Override
@@ -229,6 +239,7 @@ public class ExternalSortOperator implements SingleInputOperator {
       rollback.add(this.memoryRun);
 
       this.incoming = incoming;
+      this.memoryRegistration = context.registerSpillableConsumer(this);
       state = State.CAN_CONSUME;
 
       // estimate how much memory the outgoing batch will take in memory
@@ -270,9 +281,15 @@ public class ExternalSortOperator implements SingleInputOperator {
     //when micro-spilling is in progress, we never consume any data.
     Preconditions.checkState(sortState != SortState.SPILL_IN_PROGRESS);
 
+    boolean grown = false;
     while(true){
       boolean added = memoryRun.addBatch(incoming);
       if(!added){
+        // ask the memory broker for more room once before spilling
+        if (!grown && memoryRegistration.tryGrow()) {
+          grown = true;
+          continue;
+        }
         notifyOthersOfSpill();
         if (!this.enableMicroSpill) {
           rotateRuns();
@@ -400,6 +417,13 @@ public class ExternalSortOperator implements SingleInputOperator {
       stats.setLongStat(Metric.OOB_SPILL, oobSpills);
     }
 
+    if (memoryRegistration != null) {
+      stats.setLongStat(Metric.BROKER_GRANTS, memoryRegistration.getGrantsAccepted());
+      stats.setLongStat(Metric.BROKER_GRANTS_DENIED, memoryRegistration.getGrantsDenied());
+      stats.setLongStat(Metric.BROKER_SPILLS, brokerSpills);
+      stats.setLongStat(Metric.BROKER_SPILL_REQUESTS, memoryRegistration.getSpillRequestsReceived());
+    }
+
     if (diskRuns != null) {
       stats.setLongStat(Metric.SPILL_COUNT, diskRuns.spillCount());
       stats.setLongStat(Metric.MERGE_COUNT, diskRuns.mergeCount());
@@ -436,6 +460,7 @@ public class ExternalSortOperator implements SingleInputOperator {
       memoryRun.closeToDisk(diskRuns);
       memoryRun = new MemoryRun(config, producer, allocator, incoming.getSchema(), tracer,
         batchsizeMultiplier, enableSplaySort, targetBatchSize, context.getExecutionControls());
+      memoryRegistration.releaseGrants();
     } catch (Exception e) {
       throw UserException.dataWriteError(e)
         .message("Failure while attempting to spill sort data to disk.")
@@ -465,6 +490,7 @@ public class ExternalSortOperator implements SingleInputOperator {
   private void finishMicroSpilling() throws Exception {
     memoryRun = new MemoryRun(config, producer, allocator, incoming.getSchema(), tracer,
       batchsizeMultiplier, enableSplaySort, targetBatchSize, context.getExecutionControls());
+    memoryRegistration.releaseGrants();
 
     if (consumePendingIncomingBatch) {
       Preconditions.checkState(this.unconsumedRef != null);
@@ -599,6 +625,25 @@ public class ExternalSortOperator implements SingleInputOperator {
     }
   }
 
+  /**
+   * The memory broker needs memory held by this operator for another operator of the same query.
+   */
+  @Override
+  public void spillOnRequest() {
+    if (state != State.CAN_CONSUME || memoryRun.isEmpty()) {
+      return;
+    }
+
+    ++brokerSpills;
+    updateStats(false);
+
+    if (this.enableMicroSpill) {
+      startMicroSpilling();
+    } else {
+      rotateRuns();
+    }
+  }
+
   @Override
   public <OUT, IN, EXCEP extends Throwable> OUT accept(OperatorVisitor<OUT, IN, EXCEP> visitor, IN value) throws EXCEP {
     return visitor.visitSingleInput(this, value);
@@ -17,6 +17,7 @@ package com.dremio.sabot.op.writer;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 import org.apache.arrow.vector.ValueVector;
@@ -31,6 +32,7 @@ import com.dremio.common.expression.LogicalExpression;
 import com.dremio.common.expression.SchemaPath;
 import com.dremio.common.expression.ValueExpressions;
 import com.dremio.common.logical.data.NamedExpression;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.physical.config.Project;
 import com.dremio.exec.physical.config.WriterCommitterPOP;
 import com.dremio.exec.record.BatchSchema;
@@ -44,11 +46,13 @@ import com.dremio.exec.store.iceberg.IcebergOperation;
 import com.dremio.exec.store.iceberg.IcebergSerDe;
 import com.dremio.io.file.FileSystem;
 import com.dremio.io.file.Path;
+import com.dremio.sabot.exec.context.MetricDef;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.op.project.ProjectOperator;
 import com.dremio.sabot.op.spi.SingleInputOperator;
 import com.google.common.base.Optional;
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
 
 /**
@@ -70,6 +74,16 @@ public class WriterCommitterOperator implements SingleInputOperator {
   private boolean icebergTableCommitter = false;
   private VarBinaryVector icebergMetadataVector;
 
+  public enum Metric implements MetricDef {
+    ICEBERG_COMMIT_TIME,          // Time taken to commit the iceberg transaction, in milliseconds
+    ICEBERG_COMMITTED_OPERATIONS; // Number of operations committed in the same iceberg transaction
+
+    @Override
+    public int metricId() {
+      return ordinal();
+    }
+  }
+
   public WriterCommitterOperator(OperatorContext context, WriterCommitterPOP config){
     this.config = config;
     this.context = context;
@@ -108,6 +122,13 @@ public class WriterCommitterOperator implements SingleInputOperator {
             config.getPlugin().getFsConfCopy());
           break;
         case INSERT:
+          if (context.getOptions().getOption(ExecConstants.ICEBERG_BATCH_INSERT_COMMITS)) {
+            icebergOpCommitter = IcebergOperation.getBatchedInsertTableCommitter(
+              Path.of(icebergTableProps.getTableLocation()),
+              config.getPlugin().getFsConfCopy(),
+              context.getOptions().getOption(ExecConstants.ICEBERG_BATCH_INSERT_COMMIT_WINDOW_MS));
+            break;
+          }
           icebergOpCommitter = IcebergOperation.getInsertTableCommitter(
             icebergTableProps.getTableName(), Path.of(icebergTableProps.getTableLocation()),
             icebergTableProps.getFullSchema(),
@@ -183,9 +204,12 @@ public class WriterCommitterOperator implements SingleInputOperator {
       if (icebergOpCommitter != null) {
         // iceberg library isn't using dremio's fs wrappers. So, accounting the
         // entire call as wait time.
+        final Stopwatch stopwatch = Stopwatch.createStarted();
         try (AutoCloseable ac = OperatorStats.getWaitRecorder(context.getStats())) {
           icebergOpCommitter.commit();
         }
+        context.getStats().addLongStat(Metric.ICEBERG_COMMIT_TIME, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        context.getStats().addLongStat(Metric.ICEBERG_COMMITTED_OPERATIONS, icebergOpCommitter.getCommittedOperationCount());
       }
     }
     success = true;
@@ -28,6 +28,8 @@ public enum SharedResourceType {
   NWAY_RECV_SPOOL_BUFFER(SharedResourceCategory.UPSTREAM),
   OUTGOING_MSG_ACK(SharedResourceCategory.DOWNSTREAM),
   FRAGMENT_ACTIVATE_SIGNAL(SharedResourceCategory.OTHER),
+  // start of the query held back by the direct memory monitor
+  DIRECT_MEMORY_ADMISSION(SharedResourceCategory.OTHER),
   TEST(SharedResourceCategory.OTHER);
 
   SharedResourceType(SharedResourceCategory category) {
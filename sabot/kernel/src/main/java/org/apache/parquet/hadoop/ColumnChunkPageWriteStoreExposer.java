@@ -19,6 +19,7 @@ import java.io.IOException;
 
 import org.apache.parquet.column.ParquetProperties;
 import org.apache.parquet.column.page.PageWriteStore;
+import org.apache.parquet.column.values.bloomfilter.BloomFilterWriteStore;
 import org.apache.parquet.hadoop.CodecFactory.BytesCompressor;
 import org.apache.parquet.schema.MessageType;
 
@@ -32,6 +33,10 @@ public class ColumnChunkPageWriteStoreExposer {
     return new ColumnChunkPageWriteStore(compressor, schema, parquetProperties);
   }
 
+  public static BloomFilterWriteStore asBloomFilterWriteStore(PageWriteStore pageStore) {
+    return (ColumnChunkPageWriteStore) pageStore;
+  }
+
   public static void flushPageStore(PageWriteStore pageStore, ParquetFileWriter w) throws IOException {
     ((ColumnChunkPageWriteStore) pageStore).flushToFileWriter(w);
   }
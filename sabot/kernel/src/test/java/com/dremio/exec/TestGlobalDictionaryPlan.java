@@ -15,6 +15,8 @@
  */
 package com.dremio.exec;
 
+import static org.junit.Assert.assertEquals;
+
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.RootAllocatorFactory;
 import org.apache.hadoop.conf.Configuration;
@@ -30,10 +32,12 @@ import com.dremio.BaseTestQuery;
 import com.dremio.PlanTestBase;
 import com.dremio.common.AutoCloseables;
 import com.dremio.exec.hadoop.HadoopFileSystem;
+import com.dremio.exec.planner.physical.PlannerSettings;
 import com.dremio.exec.util.GlobalDictionaryBuilder;
 import com.dremio.io.file.FileSystem;
 import com.dremio.io.file.Path;
 import com.dremio.parquet.reader.ParquetDirectByteBufferAllocator;
+import com.google.common.base.Splitter;
 
 /**
  * Global dictionary planning test.
@@ -210,4 +214,63 @@ public class TestGlobalDictionaryPlan extends PlanTestBase {
         "DictionaryLookup(decoded fields=[[place]])", "DictionaryLookup(decoded fields=[[state]])"}, null);
     validateResults(query, "testInnerJoinWithFilter");
   }
+
+  @Test
+  public void testDistributedGroupByOnIds() throws Exception {
+    final String query = "select city, count(*) from dfs_test.globaldictionary group by city";
+    setSessionOption(ExecConstants.SLICE_TARGET_OPTION, "1");
+    try {
+      // nothing above the aggregation relies on its distribution: group, shuffle and regroup on ids, decode once
+      testPlanSubstrPatternsInOrder(query,
+        new String[] {"DictionaryLookup(decoded fields=[[city]])", "HashAgg", "HashToRandomExchange"}, null);
+      assertDictionaryLookups(query, 1);
+      validateResultsOutOfOrder(query, "testDistributedGroupByOnIds");
+    } finally {
+      resetSessionOption(ExecConstants.SLICE_TARGET_OPTION);
+    }
+  }
+
+  @Test
+  public void testDistributedGroupByThenJoin() throws Exception {
+    final String query = "select t1.city, t1.cnt, t2.employee_id from " +
+      "(select city, count(*) cnt from dfs_test.globaldictionary group by city) t1 " +
+      "inner join dfs_test.places t2 on t1.city = t2.place";
+    setSessionOption(ExecConstants.SLICE_TARGET_OPTION, "1");
+    setSessionOption(PlannerSettings.BROADCAST, "false");
+    try {
+      // the join relies on the aggregation being distributed on the values of city, like places on place
+      testPlanSubstrPatternsInOrder(query,
+        new String[] {"HashAgg", "HashToRandomExchange", "DictionaryLookup(decoded fields=[[city]])"}, null);
+      validateResultsOutOfOrder(query, "testDistributedGroupByThenJoin");
+    } finally {
+      resetSessionOption(PlannerSettings.BROADCAST);
+      resetSessionOption(ExecConstants.SLICE_TARGET_OPTION);
+    }
+  }
+
+  @Test
+  public void testSelfJoinOnIds() throws Exception {
+    final String query = "select t1.city, t2.employee_id from dfs_test.globaldictionary t1 " +
+      "inner join dfs_test.globaldictionary t2 on t1.city = t2.city";
+    // both keys are encoded with the same dictionary, the join compares ids
+    testPlanSubstrPatternsInOrder(query,
+      new String[] {"DictionaryLookup(decoded fields=[[city]])", "HashJoin"}, null);
+    assertDictionaryLookups(query, 1);
+    validateResultsOutOfOrder(query, "testSelfJoinOnIds");
+  }
+
+  @Test
+  public void testNullFilterOnIds() throws Exception {
+    final String query = "select employee_id, city from dfs_test.globaldictionary where state is not null";
+    // state is only checked for nulls, which does not need its values
+    testPlanSubstrPatternsInOrder(query,
+      new String[] {"DictionaryLookup(decoded fields=[[city]])"},
+      new String[] {"DictionaryLookup(decoded fields=[[city, state]])", "DictionaryLookup(decoded fields=[[state]])"});
+    validateResults(query, "testNullFilterOnIds");
+  }
+
+  private static void assertDictionaryLookups(String query, int expected) throws Exception {
+    final String plan = getPlanInString("EXPLAIN PLAN for " + query, OPTIQ_FORMAT);
+    assertEquals(plan, expected, Splitter.on("DictionaryLookup").splitToList(plan).size() - 1);
+  }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.dremio.exec.dotfile.View;
+import com.dremio.service.namespace.NamespaceKey;
+import com.dremio.service.namespace.dataset.proto.DatasetConfig;
+import com.dremio.service.namespace.proto.EntityId;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for {@link TableDefinitionCache}
+ */
+public class TestTableDefinitionCache {
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @After
+  public void cleanup() {
+    TableDefinitionCache.invalidateAll();
+  }
+
+  private static DatasetConfig config(String id, String tag) {
+    return new DatasetConfig()
+      .setId(new EntityId(id))
+      .setTag(tag)
+      .setFullPathList(Arrays.asList("space", "view"));
+  }
+
+  private View load(String sql) {
+    loads.incrementAndGet();
+    return new View("view", sql, ImmutableList.of(), null, ImmutableList.of(), false);
+  }
+
+  @Test
+  public void testViewsValidatedByVersion() {
+    final View view = TableDefinitionCache.getView(config("id1", "1"), false, () -> load("select 1"));
+    assertSame(view, TableDefinitionCache.getView(config("id1", "1"), false, () -> load("select 1")));
+    assertEquals(1, loads.get());
+
+    // other variant, tag and id
+    TableDefinitionCache.getView(config("id1", "1"), true, () -> load("select 1"));
+    assertEquals(2, loads.get());
+    assertEquals("select 2", TableDefinitionCache.getView(config("id1", "2"), true, () -> load("select 2")).getSql());
+    assertEquals(3, loads.get());
+    assertEquals("select 3", TableDefinitionCache.getView(config("id2", "2"), true, () -> load("select 3")).getSql());
+    assertEquals(4, loads.get());
+
+    TableDefinitionCache.invalidate(new NamespaceKey(Arrays.asList("space", "view")));
+    TableDefinitionCache.getView(config("id2", "2"), true, () -> load("select 3"));
+    assertEquals(5, loads.get());
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+
+import org.apache.calcite.avatica.util.Casing;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.parser.SqlParseException;
+import org.apache.calcite.sql.parser.SqlParser;
+import org.junit.Test;
+
+import com.dremio.common.exceptions.UserException;
+import com.dremio.exec.dotfile.View;
+import com.dremio.exec.planner.logical.ViewTable;
+import com.dremio.exec.record.BatchSchema;
+import com.dremio.service.namespace.NamespaceKey;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Tests for {@link TableMetadataPrefetcher}
+ */
+public class TestTableMetadataPrefetcher {
+
+  private static SqlNode parse(String sql) throws SqlParseException {
+    return SqlParser.create(sql, SqlParser.configBuilder()
+      .setUnquotedCasing(Casing.UNCHANGED)
+      .build())
+      .parseQuery();
+  }
+
+  private static Set<List<String>> tableNames(String sql) throws SqlParseException {
+    return TableMetadataPrefetcher.collectTableNames(parse(sql));
+  }
+
+  @Test
+  public void testJoinsAndSubQueries() throws Exception {
+    assertEquals(
+      ImmutableSet.of(
+        ImmutableList.of("s", "t1"),
+        ImmutableList.of("s", "t2"),
+        ImmutableList.of("t3"),
+        ImmutableList.of("s", "t4"),
+        ImmutableList.of("s", "t5")),
+      tableNames("select a.x from s.t1 a join s.t2 b on a.x = b.x "
+        + "left join (select x from t3) c on a.x = c.x "
+        + "where a.y in (select y from s.t4) "
+        + "union all select x from s.t5"));
+  }
+
+  @Test
+  public void testWithItems() throws Exception {
+    assertEquals(
+      ImmutableSet.of(ImmutableList.of("s", "t1"), ImmutableList.of("s", "w")),
+      tableNames("with w as (select x from s.t1) select w.x from w join s.w on w.x = s.w.x"));
+  }
+
+  @Test
+  public void testNoPrefetchBelowViewsAfterAccessError() throws Exception {
+    // the user has access to s.v, but not to s.t, which s.v references and the owner of s.v has access to
+    final View view = new View("v", "select x from s.t", ImmutableList.of(), ImmutableList.of(), ImmutableList.of("s"), false);
+    final DremioPrepareTable viewTable = mock(DremioPrepareTable.class);
+    when(viewTable.getTable()).thenReturn(new ViewTable(new NamespaceKey(ImmutableList.of("s", "v")), view, "owner", (BatchSchema) null));
+
+    final DremioCatalogReader ownerReader = mock(DremioCatalogReader.class);
+    final DremioCatalogReader userReader = mock(DremioCatalogReader.class);
+    when(userReader.getTable(ImmutableList.of("s", "v"))).thenReturn(viewTable);
+    when(userReader.getTable(ImmutableList.of("s", "t"))).thenThrow(UserException.permissionError().buildSilently());
+    when(userReader.withSchemaPathAndUser(eq("owner"), anyList())).thenReturn(ownerReader);
+
+    final TableMetadataPrefetcher prefetcher = new TableMetadataPrefetcher(sql -> {
+      try {
+        return parse(sql);
+      } catch (SqlParseException e) {
+        throw new IllegalArgumentException(e);
+      }
+    });
+    assertEquals(2, prefetcher.prefetch(userReader,
+      parse("select * from s.v join s.t on v.x = t.x")));
+
+    // s.t would be cached with the access of the owner of the view, and read by the validation of the query
+    verify(ownerReader, never()).getTable(any());
+  }
+}
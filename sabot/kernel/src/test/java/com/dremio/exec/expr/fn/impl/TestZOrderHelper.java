@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.expr.fn.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.junit.Test;
+
+import com.google.common.primitives.UnsignedBytes;
+
+/**
+ * Tests for {@link ZOrderHelper}
+ */
+public class TestZOrderHelper {
+
+  @Test
+  public void testInterleave() {
+    try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         ArrowBuf buf = allocator.buffer(32)) {
+      // keys are compared as signed longs: -1 is 0x7f..ff once flipped and 0 is 0x80..00
+      assertEquals(16, ZOrderHelper.interleave(buf, new long[] {-1L, 0L}));
+      final byte[] bytes = new byte[16];
+      buf.getBytes(0, bytes);
+      final byte[] expected = new byte[16];
+      expected[0] = 0x6a;
+      for (int i = 1; i < 16; i++) {
+        expected[i] = (byte) 0xaa;
+      }
+      assertArrayEquals(expected, bytes);
+
+      // rows close in both keys are close in Z-order
+      final byte[] near = interleave(buf, 10, 10);
+      final byte[] nearToo = interleave(buf, 11, 11);
+      final byte[] farOnSecond = interleave(buf, 10, 1 << 20);
+      assertTrue(UnsignedBytes.lexicographicalComparator().compare(near, nearToo) < 0);
+      assertTrue(UnsignedBytes.lexicographicalComparator().compare(nearToo, farOnSecond) < 0);
+    }
+  }
+
+  private static byte[] interleave(ArrowBuf buf, long first, long second) {
+    final byte[] bytes = new byte[ZOrderHelper.interleave(buf, new long[] {first, second})];
+    buf.getBytes(0, bytes);
+    return bytes;
+  }
+}
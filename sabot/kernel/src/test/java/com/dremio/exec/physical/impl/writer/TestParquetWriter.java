@@ -30,9 +30,12 @@ import java.io.File;
 import java.io.FileWriter;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.vector.BigIntVector;
@@ -41,6 +44,8 @@ import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
 import org.apache.parquet.hadoop.util.PageHeaderUtil;
 import org.joda.time.Period;
@@ -53,17 +58,31 @@ import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentCaptor;
 
 import com.dremio.BaseTestQuery;
+import com.dremio.common.AutoCloseables;
+import com.dremio.common.CloseableByteBuf;
 import com.dremio.common.exceptions.UserRemoteException;
 import com.dremio.common.util.DremioVersionInfo;
+import com.dremio.common.utils.protos.AttemptId;
+import com.dremio.common.utils.protos.ExternalIdHelper;
+import com.dremio.common.utils.protos.QueryWritableBatch;
 import com.dremio.exec.ExecConstants;
 import com.dremio.exec.expr.fn.impl.DateFunctionsUtils;
 import com.dremio.exec.fn.interp.TestConstantFolding;
 import com.dremio.exec.hadoop.HadoopFileSystem;
 import com.dremio.exec.physical.base.OpProps;
+import com.dremio.exec.planner.observer.AbstractAttemptObserver;
+import com.dremio.exec.planner.observer.AbstractQueryObserver;
+import com.dremio.exec.planner.observer.AttemptObserver;
 import com.dremio.exec.planner.physical.PlannerSettings;
 import com.dremio.exec.proto.ExecProtos;
+import com.dremio.exec.proto.GeneralRPCProtos.Ack;
+import com.dremio.exec.proto.UserBitShared;
+import com.dremio.exec.proto.UserProtos.RunQuery;
+import com.dremio.exec.proto.UserProtos.SubmissionSource;
 import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.record.VectorContainer;
+import com.dremio.exec.rpc.Acks;
+import com.dremio.exec.rpc.RpcOutcomeListener;
 import com.dremio.exec.store.RecordWriter;
 import com.dremio.exec.store.WritePartition;
 import com.dremio.exec.store.dfs.FileSystemPlugin;
@@ -71,11 +90,18 @@ import com.dremio.exec.store.parquet.ParquetFormatConfig;
 import com.dremio.exec.store.parquet.ParquetFormatPlugin;
 import com.dremio.exec.store.parquet.ParquetRecordWriter;
 import com.dremio.exec.store.parquet.ParquetWriter;
+import com.dremio.exec.work.protector.UserResult;
+import com.dremio.exec.work.user.LocalExecutionConfig;
+import com.dremio.exec.work.user.SubstitutionSettings;
 import com.dremio.options.OptionManager;
+import com.dremio.proto.model.attempts.AttemptReason;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.context.OperatorStats;
+import com.dremio.sabot.op.scan.ScanOperator;
 import com.dremio.test.AllocatorRule;
 import com.google.common.base.Joiner;
+import com.google.common.base.StandardSystemProperty;
+import com.google.common.collect.ImmutableList;
 
 public class TestParquetWriter extends BaseTestQuery {
 //  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(TestParquetWriter.class);
@@ -355,6 +381,173 @@ public class TestParquetWriter extends BaseTestQuery {
     runTestAndValidate("*", "*", inputTable, "supplier_parquet", false);
   }
 
+  @Test
+  public void testTPCHReadWriteRowBased() throws Exception {
+    try {
+      test(String.format("alter session set \"%s\" = false", ExecConstants.PARQUET_WRITER_COLUMNAR));
+      String inputTable = "cp.\"tpch/lineitem.parquet\"";
+      runTestAndValidate("*", "*", inputTable, "lineitem_parquet_row_based", false);
+    } finally {
+      test(String.format("alter session set \"%s\" = %b", ExecConstants.PARQUET_WRITER_COLUMNAR,
+        ExecConstants.PARQUET_WRITER_COLUMNAR_VALIDATOR.getDefault().getBoolVal()));
+    }
+  }
+
+  @Test
+  public void testBloomFilters() throws Exception {
+    final String outputTable = "nation_bloom_filters";
+    try {
+      test(String.format("alter session set \"%s\" = 'n_nationkey, n_name'", ExecConstants.PARQUET_WRITER_BLOOM_FILTER_COLUMNS));
+      test(String.format("create table dfs_test.%s as select * from cp.\"tpch/nation.parquet\"", outputTable));
+    } finally {
+      test(String.format("alter session reset \"%s\"", ExecConstants.PARQUET_WRITER_BLOOM_FILTER_COLUMNS));
+    }
+
+    try {
+      final Configuration hadoopConf = new Configuration();
+      final Path output = new Path(getDfsTestTmpSchemaLocation(), outputTable);
+      final FileSystem outputFs = output.getFileSystem(hadoopConf);
+      int columnsWithBloomFilter = 0;
+      for (FileStatus file : outputFs.listStatus(output, path -> path.getName().endsWith(".parquet"))) {
+        final ParquetMetadata footer = ParquetFileReader.readFooter(hadoopConf, file.getPath());
+        for (BlockMetaData block : footer.getBlocks()) {
+          for (ColumnChunkMetaData column : block.getColumns()) {
+            final String columnName = column.getPath().toDotString();
+            final boolean expectBloomFilter = columnName.equals("n_nationkey") || columnName.equals("n_name");
+            assertEquals(columnName, expectBloomFilter, column.getBloomFilterOffset() >= 0);
+            columnsWithBloomFilter += expectBloomFilter ? 1 : 0;
+          }
+        }
+      }
+      assertTrue(columnsWithBloomFilter > 0);
+
+      testBuilder()
+        .unOrdered()
+        .sqlQuery(String.format("select n_name from dfs_test.%s where n_nationkey = 6", outputTable))
+        .baselineColumns("n_name")
+        .baselineValues("FRANCE")
+        .go();
+      testBuilder()
+        .unOrdered()
+        .sqlQuery(String.format("select n_nationkey from dfs_test.%s where n_name in ('GERMANY', 'ATLANTIS')", outputTable))
+        .baselineColumns("n_nationkey")
+        .baselineValues(7)
+        .go();
+      testBuilder()
+        .unOrdered()
+        .sqlQuery(String.format("select n_name from dfs_test.%s where n_name = 'ATLANTIS'", outputTable))
+        .expectsEmptyResultSet()
+        .go();
+
+      // ATLANTIS is within the min/max of n_name, only the bloom filter rules it out
+      final UserBitShared.QueryProfile profile = getQueryProfile(
+        String.format("select n_name from dfs_test.%s where n_name = 'ATLANTIS'", outputTable));
+      assertTrue(getScanMetric(profile, ScanOperator.Metric.NUM_ROW_GROUPS_PRUNED_BY_BLOOM_FILTER) > 0);
+    } finally {
+      deleteTableIfExists(outputTable);
+    }
+  }
+
+  @Test
+  public void testBloomFiltersWithLongRuntimeFilterKeys() throws Exception {
+    // keys longer than 15 bytes are truncated in the value lists of runtime filters, they must not prune row groups
+    final String outputTable = "nation_long_names_bloom_filters";
+    try {
+      test(String.format("alter session set \"%s\" = 'long_name'", ExecConstants.PARQUET_WRITER_BLOOM_FILTER_COLUMNS));
+      test(String.format("create table dfs_test.%s as select n_nationkey, " +
+        "concat(n_name, '_with_a_long_suffix') as long_name from cp.\"tpch/nation.parquet\"", outputTable));
+    } finally {
+      test(String.format("alter session reset \"%s\"", ExecConstants.PARQUET_WRITER_BLOOM_FILTER_COLUMNS));
+    }
+
+    try {
+      test(String.format("alter session set \"%s\" = true", ExecConstants.ENABLE_RUNTIME_FILTER_ON_NON_PARTITIONED_PARQUET.getOptionName()));
+      testBuilder()
+        .unOrdered()
+        .sqlQuery(String.format("select t.n_nationkey from dfs_test.%s t " +
+          "join (select concat(n_name, '_with_a_long_suffix') as long_name from cp.\"tpch/nation.parquet\" " +
+          "where n_nationkey in (6, 7)) n on t.long_name = n.long_name", outputTable))
+        .baselineColumns("n_nationkey")
+        .baselineValues(6)
+        .baselineValues(7)
+        .go();
+    } finally {
+      test(String.format("alter session reset \"%s\"", ExecConstants.ENABLE_RUNTIME_FILTER_ON_NON_PARTITIONED_PARQUET.getOptionName()));
+      deleteTableIfExists(outputTable);
+    }
+  }
+
+  private static UserBitShared.QueryProfile getQueryProfile(String query) throws Exception {
+    final CompletableFuture<UserResult> result = new CompletableFuture<>();
+    final AbstractQueryObserver observer = new AbstractQueryObserver() {
+      @Override
+      public AttemptObserver newAttempt(AttemptId attemptId, AttemptReason reason) {
+        return new AbstractAttemptObserver() {
+          @Override
+          public void execDataArrived(RpcOutcomeListener<Ack> outcomeListener, QueryWritableBatch data) {
+            try {
+              AutoCloseables.close(
+                Arrays.stream(data.getBuffers())
+                  .map(CloseableByteBuf::new)
+                  .collect(ImmutableList.toImmutableList()));
+            } catch (Exception e) {
+              result.completeExceptionally(e);
+            }
+            outcomeListener.success(Acks.OK, null);
+          }
+
+          @Override
+          public void attemptCompletion(UserResult userResult) {
+            result.complete(userResult);
+          }
+        };
+      }
+    };
+
+    final RunQuery queryCmd = RunQuery.newBuilder()
+      .setType(UserBitShared.QueryType.SQL)
+      .setSource(SubmissionSource.LOCAL)
+      .setPlan(query)
+      .build();
+    final LocalExecutionConfig config = LocalExecutionConfig.newBuilder()
+      .setEnableLeafLimits(false)
+      .setFailIfNonEmptySent(false)
+      .setUsername(StandardSystemProperty.USER_NAME.value())
+      .setSqlContext(Collections.<String>emptyList())
+      .setInternalSingleThreaded(false)
+      .setAllowPartitionPruning(true)
+      .setExposeInternalSources(false)
+      .setSubstitutionSettings(SubstitutionSettings.of())
+      .build();
+    getLocalQueryExecutor().submitLocalQuery(ExternalIdHelper.generateExternalId(), observer, queryCmd, false, config, false);
+
+    final UserResult userResult = result.get();
+    if (userResult.hasException()) {
+      throw userResult.getException();
+    }
+    return userResult.getProfile();
+  }
+
+  private static long getScanMetric(UserBitShared.QueryProfile profile, ScanOperator.Metric metric) {
+    long value = 0;
+    for (UserBitShared.MajorFragmentProfile majorFragment : profile.getFragmentProfileList()) {
+      for (UserBitShared.MinorFragmentProfile minorFragment : majorFragment.getMinorFragmentProfileList()) {
+        for (UserBitShared.OperatorProfile operator : minorFragment.getOperatorProfileList()) {
+          if (operator.getOperatorType() != UserBitShared.CoreOperatorType.PARQUET_ROW_GROUP_SCAN_VALUE
+            && operator.getOperatorType() != UserBitShared.CoreOperatorType.TABLE_FUNCTION_VALUE) {
+            continue;
+          }
+          for (UserBitShared.MetricValue metricValue : operator.getMetricList()) {
+            if (metricValue.getMetricId() == metric.metricId()) {
+              value += metricValue.getLongValue();
+            }
+          }
+        }
+      }
+    }
+    return value;
+  }
+
   @Test
   public void testTPCHReadWriteNoDictUncompressed() throws Exception {
     try {
@@ -17,12 +17,21 @@ package com.dremio.exec.physical.impl.writer;
 
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
 import java.util.List;
 
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.junit.Test;
 
 import com.dremio.BaseTestQuery;
 import com.dremio.exec.ExecConstants;
+import com.dremio.exec.planner.physical.PlannerSettings;
 import com.dremio.sabot.rpc.user.QueryDataBatch;
 
 public class TestPartitionCreation extends BaseTestQuery {
@@ -179,6 +188,90 @@ public class TestPartitionCreation extends BaseTestQuery {
     test("create table dfs_test.mypart3 PARTITION BY (kind) STORE AS (type => 'TEXT', fieldDelimiter => ',') as select * from sys.options");
   }
 
+  @Test
+  public void testZOrderSort() throws Exception {
+    try (AutoCloseable ignored = withOption(PlannerSettings.WRITER_ZORDER_SORT, true)) {
+      test("create table dfs_test.zorder0 LOCALSORT BY (n_regionkey, n_name) as select * from cp.\"tpch/nation.parquet\"");
+      testBuilder()
+        .unOrdered()
+        .sqlQuery("SELECT * FROM dfs_test.zorder0")
+        .sqlBaselineQuery("SELECT * FROM cp.\"tpch/nation.parquet\"")
+        .go();
+
+      test("create table dfs_test.zorder1 PARTITION BY (kind) LOCALSORT BY (name, num_val) as select * from sys.options");
+      testBuilder()
+        .unOrdered()
+        .sqlQuery("SELECT name, kind, type, num_val, bool_val FROM dfs_test.zorder1")
+        .sqlBaselineQuery("SELECT name, kind, type, num_val, bool_val FROM sys.options")
+        .go();
+    }
+  }
+
+  @Test
+  public void testZOrderClustering() throws Exception {
+    // small row groups, so that each covers a small part of the sort keys
+    try (AutoCloseable ignored = withOption(ExecConstants.PARQUET_BLOCK_SIZE_VALIDATOR, 64 * 1024);
+         AutoCloseable ignored1 = withOption(ExecConstants.PARQUET_MIN_RECORDS_FOR_FLUSH_VALIDATOR, 500)) {
+      test("create table dfs_test.lineitem_sorted LOCALSORT BY (l_orderkey, l_suppkey) as " +
+        "select l_orderkey, l_suppkey from cp.\"tpch/lineitem.parquet\"");
+      try (AutoCloseable ignored2 = withOption(PlannerSettings.WRITER_ZORDER_SORT, true)) {
+        test("create table dfs_test.lineitem_zorder LOCALSORT BY (l_orderkey, l_suppkey) as " +
+          "select l_orderkey, l_suppkey from cp.\"tpch/lineitem.parquet\"");
+      }
+    }
+
+    // l_suppkey has far fewer distinct values than l_orderkey, but the row groups cover small ranges of both
+    final double[] sorted = getRowGroupRanges("lineitem_sorted", "l_orderkey", "l_suppkey");
+    final double[] zOrder = getRowGroupRanges("lineitem_zorder", "l_orderkey", "l_suppkey");
+    assertTrue(Arrays.toString(sorted), sorted[0] < 0.1 && sorted[1] > 0.9);
+    assertTrue(Arrays.toString(zOrder), zOrder[0] < 0.5 && zOrder[1] < 0.5);
+
+    testBuilder()
+      .unOrdered()
+      .sqlQuery("SELECT * FROM dfs_test.lineitem_zorder")
+      .sqlBaselineQuery("SELECT l_orderkey, l_suppkey FROM cp.\"tpch/lineitem.parquet\"")
+      .go();
+  }
+
+  /**
+   * @return for each column, the average range of values in the row groups of the table, relative to the range of
+   * values in the table
+   */
+  private static double[] getRowGroupRanges(String table, String... columns) throws Exception {
+    final Configuration conf = new Configuration();
+    final Path tablePath = new Path(getDfsTestTmpSchemaLocation(), table);
+    final FileSystem fs = tablePath.getFileSystem(conf);
+    final long[] min = new long[columns.length];
+    final long[] max = new long[columns.length];
+    final long[] rangeSum = new long[columns.length];
+    Arrays.fill(min, Long.MAX_VALUE);
+    Arrays.fill(max, Long.MIN_VALUE);
+    int rowGroups = 0;
+    for (FileStatus file : fs.listStatus(tablePath, path -> path.getName().endsWith(".parquet"))) {
+      for (BlockMetaData block : ParquetFileReader.readFooter(conf, file.getPath()).getBlocks()) {
+        rowGroups++;
+        for (ColumnChunkMetaData column : block.getColumns()) {
+          final int i = Arrays.asList(columns).indexOf(column.getPath().toDotString());
+          if (i < 0) {
+            continue;
+          }
+          final long blockMin = ((Number) column.getStatistics().genericGetMin()).longValue();
+          final long blockMax = ((Number) column.getStatistics().genericGetMax()).longValue();
+          min[i] = Math.min(min[i], blockMin);
+          max[i] = Math.max(max[i], blockMax);
+          rangeSum[i] += blockMax - blockMin;
+        }
+      }
+    }
+    assertTrue("row groups: " + rowGroups, rowGroups > 10);
+
+    final double[] ranges = new double[columns.length];
+    for (int i = 0; i < columns.length; i++) {
+      ranges[i] = (double) rangeSum[i] / rowGroups / (max[i] - min[i]);
+    }
+    return ranges;
+  }
+
   @Test
   public void testDistributionBuckets() throws Exception {
     List<QueryDataBatch> result = testSqlWithResults("create table dfs_test.options_name DISTRIBUTE BY (name) STORE AS (type => 'TEXT', fieldDelimiter => ',') as select * from sys.options");
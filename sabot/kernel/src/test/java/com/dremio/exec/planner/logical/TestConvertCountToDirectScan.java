@@ -15,9 +15,13 @@
  */
 package com.dremio.exec.planner.logical;
 
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
 import org.junit.Test;
 
 import com.dremio.PlanTestBase;
+import com.dremio.exec.planner.physical.PlannerSettings;
 
 public class TestConvertCountToDirectScan extends PlanTestBase {
   static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(TestConvertCountToDirectScan.class);
@@ -99,4 +103,52 @@ public class TestConvertCountToDirectScan extends PlanTestBase {
         .go();
   }
 
+  @Test
+  public void ensureConvertMinMaxCountOnPartitionsToDirectScan() throws Exception {
+    final String newTblName = "nation_metadata_aggregates";
+    try {
+      test(String.format("CREATE TABLE %s.%s partition by (n_regionkey) AS SELECT * from cp.\"tpch/nation.parquet\"",
+        TEMP_SCHEMA, newTblName));
+
+      final String sql = String.format("select min(n_regionkey) as mn, max(n_regionkey) as mx, count(*) as cnt, " +
+        "count(n_name) as names from %s.%s", TEMP_SCHEMA, newTblName);
+      testPlanMatchingPatterns(sql, new String[] { "Values" }, new String[] { "Scan" });
+      testBuilder()
+        .sqlQuery(sql)
+        .unOrdered()
+        .baselineColumns("mn", "mx", "cnt", "names")
+        .baselineValues(0, 4, 25L, 25L)
+        .go();
+
+      final String groupedSql = String.format("select n_regionkey, count(*) as cnt from %s.%s group by n_regionkey",
+        TEMP_SCHEMA, newTblName);
+      testPlanMatchingPatterns(groupedSql, new String[] { "Values" }, new String[] { "Scan" });
+      testBuilder()
+        .sqlQuery(groupedSql)
+        .unOrdered()
+        .baselineColumns("n_regionkey", "cnt")
+        .baselineValues(0, 5L)
+        .baselineValues(1, 5L)
+        .baselineValues(2, 5L)
+        .baselineValues(3, 5L)
+        .baselineValues(4, 5L)
+        .go();
+
+      try (AutoCloseable ignored = withOption(PlannerSettings.ENABLE_METADATA_AGGREGATES, false)) {
+        testPlanMatchingPatterns(groupedSql, new String[] { "Scan" }, new String[] { "Values" });
+      }
+    } finally {
+      FileUtils.deleteQuietly(new File(getDfsTestTmpSchemaLocation(), newTblName));
+    }
+  }
+
+  @Test
+  public void ensureMinMaxOnDataColumnsIsScanned() throws Exception {
+    // there are no exact statistics for columns that are not single valued in row groups
+    testPlanMatchingPatterns(
+      "select min(n_name) as mn from cp.\"tpch/nation.parquet\"",
+      new String[] { "Scan" },
+      new String[] { "Values" });
+  }
+
 }
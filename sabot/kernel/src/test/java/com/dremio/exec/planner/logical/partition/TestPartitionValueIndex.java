@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner.logical.partition;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.fun.SqlStdOperatorTable;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.common.types.TypeProtos.MinorType;
+import com.dremio.exec.planner.types.JavaTypeFactoryImpl;
+import com.dremio.service.namespace.PartitionChunkMetadata;
+import com.dremio.service.namespace.dataset.proto.PartitionProtobuf.PartitionValue;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Tests for {@link PartitionValueIndex}
+ */
+public class TestPartitionValueIndex {
+  private static final List<String> FIELD_NAMES = ImmutableList.of("year", "region", "value");
+  private static final Map<String, MinorType> COLUMN_TYPES = ImmutableMap.of("year", MinorType.INT, "region", MinorType.VARCHAR);
+
+  private final RexBuilder rexBuilder = new RexBuilder(JavaTypeFactoryImpl.INSTANCE);
+  private PartitionValueIndex index;
+
+  @Before
+  public void setup() {
+    final List<PartitionChunkMetadata> splits = new ArrayList<>();
+    // split i has year 2000 + i % 5, and region "r" + i % 3, except every 7th split with a null region
+    for (int i = 0; i < 30; i++) {
+      final PartitionValue year = PartitionValue.newBuilder().setColumn("year").setIntValue(2000 + i % 5).build();
+      final PartitionValue region = i % 7 == 0
+        ? PartitionValue.newBuilder().setColumn("region").build()
+        : PartitionValue.newBuilder().setColumn("region").setStringValue("r" + i % 3).build();
+      final PartitionChunkMetadata split = mock(PartitionChunkMetadata.class);
+      when(split.getPartitionValues()).thenReturn(ImmutableList.of(year, region));
+      splits.add(split);
+    }
+    index = PartitionValueIndex.build(splits, COLUMN_TYPES);
+  }
+
+  private RexNode ref(int index, SqlTypeName type) {
+    final RelDataType dataType = rexBuilder.getTypeFactory().createTypeWithNullability(
+      rexBuilder.getTypeFactory().createSqlType(type), true);
+    return rexBuilder.makeInputRef(dataType, index);
+  }
+
+  private RexNode year() {
+    return ref(0, SqlTypeName.INTEGER);
+  }
+
+  private RexNode region() {
+    return ref(1, SqlTypeName.VARCHAR);
+  }
+
+  private RexNode intLiteral(int value) {
+    return rexBuilder.makeExactLiteral(BigDecimal.valueOf(value));
+  }
+
+  private static BitSet expected(IntPredicate predicate) {
+    final BitSet result = new BitSet();
+    for (int i = 0; i < 30; i++) {
+      if (predicate.test(i)) {
+        result.set(i);
+      }
+    }
+    return result;
+  }
+
+  @Test
+  public void testComparisons() {
+    assertEquals(expected(i -> 2000 + i % 5 == 2002),
+      index.evaluate(rexBuilder.makeCall(SqlStdOperatorTable.EQUALS, year(), intLiteral(2002)), FIELD_NAMES));
+    assertEquals(expected(i -> 2000 + i % 5 != 2002),
+      index.evaluate(rexBuilder.makeCall(SqlStdOperatorTable.NOT_EQUALS, year(), intLiteral(2002)), FIELD_NAMES));
+    assertEquals(expected(i -> 2000 + i % 5 < 2002),
+      index.evaluate(rexBuilder.makeCall(SqlStdOperatorTable.LESS_THAN, year(), intLiteral(2002)), FIELD_NAMES));
+    assertEquals(expected(i -> 2000 + i % 5 >= 2003),
+      index.evaluate(rexBuilder.makeCall(SqlStdOperatorTable.GREATER_THAN_OR_EQUAL, year(), intLiteral(2003)), FIELD_NAMES));
+    // literal on the left side
+    assertEquals(expected(i -> 2000 + i % 5 > 2001),
+      index.evaluate(rexBuilder.makeCall(SqlStdOperatorTable.LESS_THAN, intLiteral(2001), year()), FIELD_NAMES));
+    // value not in the dictionary
+    assertEquals(expected(i -> false),
+      index.evaluate(rexBuilder.makeCall(SqlStdOperatorTable.EQUALS, year(), intLiteral(1999)), FIELD_NAMES));
+    assertEquals(expected(i -> i % 7 != 0 && i % 3 == 1),
+      index.evaluate(rexBuilder.makeCall(SqlStdOperatorTable.EQUALS, region(), rexBuilder.makeLiteral("r1")), FIELD_NAMES));
+  }
+
+  @Test
+  public void testNullsAndBooleanOperators() {
+    assertEquals(expected(i -> i % 7 == 0),
+      index.evaluate(rexBuilder.makeCall(SqlStdOperatorTable.IS_NULL, region()), FIELD_NAMES));
+    assertEquals(expected(i -> i % 7 != 0),
+      index.evaluate(rexBuilder.makeCall(SqlStdOperatorTable.IS_NOT_NULL, region()), FIELD_NAMES));
+    // null regions are not different from r1
+    assertEquals(expected(i -> i % 7 != 0 && i % 3 != 1),
+      index.evaluate(rexBuilder.makeCall(SqlStdOperatorTable.NOT_EQUALS, region(), rexBuilder.makeLiteral("r1")), FIELD_NAMES));
+
+    final RexNode inYears = rexBuilder.makeCall(SqlStdOperatorTable.OR,
+      rexBuilder.makeCall(SqlStdOperatorTable.EQUALS, year(), intLiteral(2001)),
+      rexBuilder.makeCall(SqlStdOperatorTable.EQUALS, year(), intLiteral(2004)));
+    final RexNode condition = rexBuilder.makeCall(SqlStdOperatorTable.AND, inYears,
+      rexBuilder.makeCall(SqlStdOperatorTable.GREATER_THAN, region(), rexBuilder.makeLiteral("r0")));
+    assertEquals(expected(i -> (i % 5 == 1 || i % 5 == 4) && i % 7 != 0 && i % 3 != 0),
+      index.evaluate(condition, FIELD_NAMES));
+  }
+
+  @Test
+  public void testUnsupported() {
+    // not a partition column
+    assertNull(index.evaluate(rexBuilder.makeCall(SqlStdOperatorTable.EQUALS, ref(2, SqlTypeName.INTEGER), intLiteral(1)), FIELD_NAMES));
+    // fractional value compared with an integer column
+    assertNull(index.evaluate(rexBuilder.makeCall(SqlStdOperatorTable.EQUALS, year(),
+      rexBuilder.makeExactLiteral(new BigDecimal("2001.5"))), FIELD_NAMES));
+    // unsupported operand of a supported operator
+    assertNull(index.evaluate(rexBuilder.makeCall(SqlStdOperatorTable.AND,
+      rexBuilder.makeCall(SqlStdOperatorTable.EQUALS, year(), intLiteral(2001)),
+      rexBuilder.makeCall(SqlStdOperatorTable.NOT, rexBuilder.makeCall(SqlStdOperatorTable.IS_NULL, region()))), FIELD_NAMES));
+  }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner.physical.visitor;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.calcite.plan.RelOptCluster;
+import org.apache.calcite.plan.RelOptTable;
+import org.apache.calcite.plan.RelTraitSet;
+import org.apache.calcite.plan.volcano.VolcanoPlanner;
+import org.apache.calcite.rel.core.AggregateCall;
+import org.apache.calcite.rel.core.JoinRelType;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rel.type.RelDataTypeFactory;
+import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.calcite.util.ImmutableBitSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.catalog.StoragePluginId;
+import com.dremio.exec.planner.physical.AggPrelBase.OperatorPhase;
+import com.dremio.exec.planner.physical.BroadcastExchangePrel;
+import com.dremio.exec.planner.physical.DistributionTrait.DistributionField;
+import com.dremio.exec.planner.physical.HashAggPrel;
+import com.dremio.exec.planner.physical.HashJoinPrel;
+import com.dremio.exec.planner.physical.HashPrelUtil;
+import com.dremio.exec.planner.physical.HashToRandomExchangePrel;
+import com.dremio.exec.planner.physical.PlannerSettings;
+import com.dremio.exec.planner.physical.Prel;
+import com.dremio.exec.planner.physical.ProjectPrel;
+import com.dremio.exec.planner.physical.ScreenPrel;
+import com.dremio.exec.planner.physical.UnionExchangePrel;
+import com.dremio.exec.planner.types.JavaTypeFactoryImpl;
+import com.dremio.exec.store.TableMetadata;
+import com.dremio.exec.store.sys.SystemPluginConf;
+import com.dremio.exec.store.sys.SystemScanPrel;
+import com.dremio.exec.store.sys.SystemTable;
+import com.dremio.options.OptionList;
+import com.dremio.options.OptionManager;
+import com.dremio.options.OptionValidatorListing;
+import com.dremio.resource.ClusterResourceInformation;
+import com.dremio.sabot.op.join.JoinUtils;
+import com.dremio.service.namespace.NamespaceKey;
+import com.dremio.service.namespace.capabilities.SourceCapabilities;
+import com.dremio.service.namespace.source.proto.SourceConfig;
+import com.dremio.test.DremioTest;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+/**
+ * Tests for {@link HotKeySpreadingVisitor}
+ */
+public class TestHotKeySpreadingVisitor {
+
+  private static final RelTraitSet traits = RelTraitSet.createEmpty().plus(Prel.PHYSICAL);
+  private static final RelDataTypeFactory typeFactory = JavaTypeFactoryImpl.INSTANCE;
+  private static final RexBuilder rexBuilder = new RexBuilder(typeFactory);
+
+  private OptionManager optionManager;
+  private RelOptCluster cluster;
+
+  @Before
+  public void setup() {
+    optionManager = mock(OptionManager.class);
+    when(optionManager.getOptionValidatorListing()).thenReturn(mock(OptionValidatorListing.class));
+    when(optionManager.getNonDefaultOptions()).thenReturn(new OptionList());
+    when(optionManager.getOption(eq(PlannerSettings.FULL_NESTED_SCHEMA_SUPPORT.getOptionName())))
+      .thenReturn(PlannerSettings.FULL_NESTED_SCHEMA_SUPPORT.getDefault());
+    when(optionManager.getOption(ExecConstants.ENABLE_PARTITIONER_HOT_KEY_SPREADING)).thenReturn(true);
+    ClusterResourceInformation info = mock(ClusterResourceInformation.class);
+    when(info.getExecutorNodeCount()).thenReturn(1);
+
+    PlannerSettings plannerSettings = new PlannerSettings(DremioTest.DEFAULT_SABOT_CONFIG, optionManager, () -> info);
+    cluster = RelOptCluster.create(new VolcanoPlanner(plannerSettings), rexBuilder);
+  }
+
+  @Test
+  public void exchangeBelowPartialAggregationSpreadsHotKeys() throws Exception {
+    Prel input =
+      newScreen(
+        newAgg(OperatorPhase.PHASE_2of2,
+          newExchange(HashPrelUtil.HASH32_FUNCTION_NAME,
+            newAgg(OperatorPhase.PHASE_1of2,
+              newExchange(HashPrelUtil.HASH32_FUNCTION_NAME,
+                newScan()
+              )
+            )
+          )
+        )
+      );
+
+    Prel output = HotKeySpreadingVisitor.spreadHotKeys(input, optionManager);
+    // only the exchange feeding the partial aggregation, the final aggregation needs every key in one fragment
+    assertEquals(asList(false, true), spreadHotKeys(output));
+  }
+
+  @Test
+  public void exchangeBelowProjectedPartialAggregationSpreadsHotKeys() throws Exception {
+    Prel input =
+      newScreen(
+        newUnionExchange(
+          newAgg(OperatorPhase.PHASE_2of2,
+            newExchange(HashPrelUtil.HASH32_FUNCTION_NAME,
+              newAgg(OperatorPhase.PHASE_1of2,
+                newProject(
+                  newExchange(HashPrelUtil.HASH32_FUNCTION_NAME,
+                    newScan()
+                  )
+                )
+              )
+            )
+          )
+        )
+      );
+
+    Prel output = HotKeySpreadingVisitor.spreadHotKeys(input, optionManager);
+    assertEquals(asList(false, true), spreadHotKeys(output));
+  }
+
+  @Test
+  public void exchangeFeedingBroadcastJoinProbeSpreadsHotKeys() {
+    Prel input =
+      newScreen(
+        newUnionExchange(
+          newProject(
+            newJoin(
+              newExchange(HashPrelUtil.HASH32_FUNCTION_NAME, newScan()),
+              newBroadcastExchange(newExchange(HashPrelUtil.HASH32_FUNCTION_NAME, newScan()))
+            )
+          )
+        )
+      );
+
+    Prel output = HotKeySpreadingVisitor.spreadHotKeys(input, optionManager);
+    // the probe side, and the input of the broadcast, which is sent in full to every fragment
+    assertEquals(asList(true, true), spreadHotKeys(output));
+  }
+
+  @Test
+  public void broadcastJoinKeepsDistributionNeededAbove() throws Exception {
+    Prel input =
+      newScreen(
+        newUnionExchange(
+          newAgg(OperatorPhase.PHASE_1of1,
+            newJoin(
+              newExchange(HashPrelUtil.HASH32_FUNCTION_NAME, newScan()),
+              newBroadcastExchange(newScan())
+            )
+          )
+        )
+      );
+
+    Prel output = HotKeySpreadingVisitor.spreadHotKeys(input, optionManager);
+    // the single phase aggregation relies on the distribution of the probe side kept by the join
+    assertEquals(asList(false), spreadHotKeys(output));
+  }
+
+  @Test
+  public void splitDistributionKeepsAffinity() throws Exception {
+    Prel input =
+      newScreen(
+        newAgg(OperatorPhase.PHASE_1of2,
+          newExchange(HashPrelUtil.DREMIO_SPLIT_DISTRIBUTE_HASH_FUNCTION_NAME,
+            newScan()
+          )
+        )
+      );
+
+    Prel output = HotKeySpreadingVisitor.spreadHotKeys(input, optionManager);
+    assertEquals(asList(false), spreadHotKeys(output));
+  }
+
+  @Test
+  public void joinInputsKeepKeysColocated() {
+    Prel input =
+      newScreen(
+        newJoin(
+          newExchange(HashPrelUtil.HASH32_FUNCTION_NAME, newScan()),
+          newExchange(HashPrelUtil.HASH32_FUNCTION_NAME, newScan())
+        )
+      );
+
+    Prel output = HotKeySpreadingVisitor.spreadHotKeys(input, optionManager);
+    assertEquals(asList(false, false), spreadHotKeys(output));
+  }
+
+  @Test
+  public void disabled() throws Exception {
+    when(optionManager.getOption(ExecConstants.ENABLE_PARTITIONER_HOT_KEY_SPREADING)).thenReturn(false);
+    Prel input =
+      newScreen(
+        newAgg(OperatorPhase.PHASE_1of2,
+          newExchange(HashPrelUtil.HASH32_FUNCTION_NAME,
+            newScan()
+          )
+        )
+      );
+
+    Prel output = HotKeySpreadingVisitor.spreadHotKeys(input, optionManager);
+    assertEquals(asList(false), spreadHotKeys(output));
+  }
+
+  private List<Boolean> spreadHotKeys(Prel prel) {
+    final List<Boolean> list = Lists.newArrayList();
+    addSpreadHotKeys(list, prel);
+    return list;
+  }
+
+  private void addSpreadHotKeys(List<Boolean> list, Prel prel) {
+    if (prel instanceof HashToRandomExchangePrel) {
+      list.add(((HashToRandomExchangePrel) prel).isSpreadHotKeys());
+    }
+    for (Prel child : prel) {
+      addSpreadHotKeys(list, child);
+    }
+  }
+
+  private Prel newScreen(Prel child) {
+    return new ScreenPrel(cluster, traits, child);
+  }
+
+  private Prel newAgg(OperatorPhase phase, Prel child) throws Exception {
+    return HashAggPrel.create(cluster, traits, child, false, ImmutableBitSet.of(0), null,
+      Collections.<AggregateCall>emptyList(), phase);
+  }
+
+  private Prel newExchange(String hashFunctionName, Prel child) {
+    return new HashToRandomExchangePrel(cluster, traits, child, ImmutableList.of(new DistributionField(0)),
+      hashFunctionName);
+  }
+
+  private Prel newUnionExchange(Prel child) {
+    return new UnionExchangePrel(cluster, traits, child);
+  }
+
+  private Prel newBroadcastExchange(Prel child) {
+    return new BroadcastExchangePrel(cluster, traits, child);
+  }
+
+  private Prel newProject(Prel child) {
+    final List<RexNode> exprs = Lists.newArrayList();
+    for (int i = 0; i < child.getRowType().getFieldCount(); i++) {
+      exprs.add(rexBuilder.makeInputRef(child, i));
+    }
+    return ProjectPrel.create(cluster, traits, child, exprs, child.getRowType());
+  }
+
+  private Prel newJoin(Prel left, Prel right) {
+    return HashJoinPrel.create(cluster, traits, left, right, rexBuilder.makeLiteral(true), JoinRelType.INNER,
+      JoinUtils.projectAll(left.getRowType().getFieldCount() + right.getRowType().getFieldCount()));
+  }
+
+  private Prel newScan() {
+    TableMetadata metadata = Mockito.mock(TableMetadata.class);
+    when(metadata.getName()).thenReturn(new NamespaceKey(ImmutableList.of("sys", "version")));
+    when(metadata.getSchema()).thenReturn(SystemTable.VERSION.getRecordSchema());
+    StoragePluginId pluginId = new StoragePluginId(new SourceConfig().setConfig(new SystemPluginConf().toBytesString()), new SystemPluginConf(), SourceCapabilities.NONE);
+    when(metadata.getStoragePluginId()).thenReturn(pluginId);
+    List<SchemaPath> columns = FluentIterable.from(SystemTable.VERSION.getRecordSchema())
+      .transform((Field input) -> SchemaPath.getSimplePath(input.getName())).toList();
+    return new SystemScanPrel(cluster, traits, Mockito.mock(RelOptTable.class), metadata, columns, 1.0d, rowType());
+  }
+
+  private RelDataType rowType() {
+    return typeFactory.createStructType(
+      asList(typeFactory.createSqlType(SqlTypeName.INTEGER), typeFactory.createSqlType(SqlTypeName.DOUBLE)),
+      asList("intCol", "doubleCol")
+    );
+  }
+}
@@ -17,6 +17,7 @@
 package com.dremio.exec.store.deltalake;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
@@ -85,6 +86,24 @@ public class TestDeltaMetadataFetchJob {
     assertEquals(1333, snapshot.getNetBytesAdded());
   }
 
+  @Test
+  public void testCachedSnapshot() throws IOException {
+    String path = "src/test/resources/deltalake/_delta_log";
+    Path metaDir = Path.of(path);
+
+    FileSystem fs = HadoopFileSystem.getLocal(new Configuration());
+    DeltaLogSnapshotCache.invalidateAll();
+
+    DeltaLogSnapshot snapshot = new DeltaMetadataFetchJob(null, metaDir, fs, System.currentTimeMillis(), false, 11L).get();
+    DeltaLogSnapshot cachedSnapshot = new DeltaMetadataFetchJob(null, metaDir, fs, System.currentTimeMillis(), false, 11L).get();
+
+    // copies of the cached snapshot are returned, as snapshots are merged by the callers
+    assertNotSame(snapshot, cachedSnapshot);
+    assertEquals(snapshot, cachedSnapshot);
+    assertEquals(snapshot.getSplits().size(), cachedSnapshot.getSplits().size());
+    assertEquals(1333, cachedSnapshot.getNetBytesAdded());
+  }
+
   @Test
   public void testCheckpointParquetRead() {
     //TODO
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.dfs;
+
+import static com.dremio.io.file.PathFilters.NO_HIDDEN_FILES;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.nio.file.DirectoryStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.hadoop.conf.Configuration;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.dremio.exec.hadoop.HadoopFileSystem;
+import com.dremio.exec.store.file.proto.FileProtobuf;
+import com.dremio.io.file.FileAttributes;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.FileSystemUtils;
+import com.dremio.io.file.Path;
+
+/**
+ * Tests for {@link FileSelection} expansion and for the update key checks of {@link FileDatasetHandle}
+ */
+public class TestFileSelection {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private FileSystem fs;
+  private File root;
+
+  @Before
+  public void setup() throws Exception {
+    fs = HadoopFileSystem.getLocal(new Configuration());
+    root = folder.newFolder("table");
+    for (int i = 0; i < 20; i++) {
+      final File dir = new File(root, "dir" + i);
+      for (int j = 0; j < 5; j++) {
+        final File subDir = new File(dir, "sub" + j);
+        subDir.mkdirs();
+        new File(subDir, "file.parquet").createNewFile();
+        new File(subDir, ".hidden").createNewFile();
+      }
+      new File(dir, "file.parquet").createNewFile();
+    }
+    new File(root, "_hidden").mkdirs();
+    new File(root, "_hidden/file.parquet").createNewFile();
+  }
+
+  @Test
+  public void testExpandedInRecursiveListingOrder() throws Exception {
+    final List<Path> expected = new ArrayList<>();
+    try (DirectoryStream<FileAttributes> stream = FileSystemUtils.globRecursive(fs, Path.of(root.toURI()), NO_HIDDEN_FILES)) {
+      stream.forEach(attributes -> expected.add(attributes.getPath()));
+    }
+
+    for (int parallelism : new int[] {1, 4, 64}) {
+      final List<Path> actual = paths(FileSelection.create(fs, Path.of(root.toURI()), parallelism));
+      assertEquals(20 * 12 + 1, actual.size());
+      assertEquals(expected, actual);
+    }
+  }
+
+  @Test
+  public void testExpandNotExpanded() throws Exception {
+    final FileSelection expanded = FileSelection.create(fs, Path.of(root.toURI()));
+    final FileSelection selection = FileSelection.createNotExpanded(fs, Path.of(root.toURI()), 2);
+    selection.expand(fs);
+    assertEquals(paths(expanded), paths(selection));
+  }
+
+  @Test
+  public void testCheckMultifileStatus() throws Exception {
+    final FileProtobuf.FileUpdateKey.Builder builder = FileProtobuf.FileUpdateKey.newBuilder();
+    for (FileAttributes attributes : FileSelection.create(fs, Path.of(root.toURI())).getFileAttributesList()) {
+      if (attributes.isDirectory()) {
+        builder.addCachedEntities(FileProtobuf.FileSystemCachedEntity.newBuilder()
+          .setPath(attributes.getPath().toString())
+          .setLastModificationTime(attributes.lastModifiedTime().toMillis()));
+      }
+    }
+    final FileProtobuf.FileUpdateKey updateKey = builder.build();
+    assertEquals(FileDatasetHandle.UpdateStatus.UNCHANGED, FileDatasetHandle.checkMultifileStatus(updateKey, fs, 4));
+
+    final File changed = new File(root, "dir17/sub3");
+    changed.setLastModified(changed.lastModified() + 10_000);
+    assertEquals(FileDatasetHandle.UpdateStatus.CHANGED, FileDatasetHandle.checkMultifileStatus(updateKey, fs, 4));
+
+    new File(changed, "file.parquet").delete();
+    changed.delete();
+    assertEquals(FileDatasetHandle.UpdateStatus.CHANGED, FileDatasetHandle.checkMultifileStatus(updateKey, fs, 4));
+  }
+
+  private static List<Path> paths(FileSelection selection) {
+    return selection.getFileAttributesList().stream()
+      .map(FileAttributes::getPath)
+      .collect(Collectors.toList());
+  }
+}
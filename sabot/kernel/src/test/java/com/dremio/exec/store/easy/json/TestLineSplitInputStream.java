@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.easy.json;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import com.dremio.io.FSInputStream;
+
+/**
+ * Tests for {@link LineSplitInputStream}
+ */
+public class TestLineSplitInputStream {
+
+  private static final String CONTENT =
+      "{\"a\": 1}\n" +
+      "{\"a\": 22}\n" +
+      "\n" +
+      "{\"a\": 333, \"b\": \"some longer value\"}\n" +
+      "{\"a\": 4}\n" +
+      "{\"a\": 55555}";
+
+  @Test
+  public void testWholeFile() throws IOException {
+    assertEquals(CONTENT, read(0, CONTENT.length()));
+  }
+
+  @Test
+  public void testSplitsReadEveryLineOnce() throws IOException {
+    final int length = CONTENT.length();
+    for (int splitSize = 1; splitSize <= length + 1; splitSize++) {
+      final StringBuilder all = new StringBuilder();
+      for (int start = 0; start < length; start += splitSize) {
+        all.append(read(start, Math.min(start + splitSize, length)));
+      }
+      assertEquals("split size " + splitSize, CONTENT, all.toString());
+    }
+  }
+
+  @Test
+  public void testSplitStartingOnLineBoundary() throws IOException {
+    final int secondLine = CONTENT.indexOf('\n') + 1;
+    assertEquals("{\"a\": 1}\n", read(0, secondLine));
+    assertEquals("{\"a\": 22}\n", read(secondLine, secondLine + 1));
+  }
+
+  @Test
+  public void testSplitWithinLine() throws IOException {
+    // the split starts and ends within the first line, which belongs to the previous split
+    assertEquals("", read(2, 5));
+  }
+
+  private static String read(long start, long end) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (InputStream in = new LineSplitInputStream(new ByteArrayFSInputStream(CONTENT.getBytes(StandardCharsets.UTF_8)),
+        start, end)) {
+      final byte[] buffer = new byte[3];
+      int read;
+      while ((read = in.read(buffer, 0, buffer.length)) != -1) {
+        out.write(buffer, 0, read);
+      }
+    }
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  private static final class ByteArrayFSInputStream extends FSInputStream {
+    private final byte[] bytes;
+    private int position;
+
+    private ByteArrayFSInputStream(byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    @Override
+    public int read() {
+      return position < bytes.length ? bytes[position++] & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (position >= bytes.length) {
+        return -1;
+      }
+      final int n = Math.min(len, bytes.length - position);
+      System.arraycopy(bytes, position, b, off, n);
+      position += n;
+      return n;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int read(long position, ByteBuffer dst) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long getPosition() {
+      return position;
+    }
+
+    @Override
+    public void setPosition(long position) {
+      this.position = (int) position;
+    }
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.excel;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.exec.store.easy.excel.OffHeapSharedStringsTable;
+
+/**
+ * Tests for {@link OffHeapSharedStringsTable}
+ */
+public class TestOffHeapSharedStringsTable {
+  private static final String HEADER =
+    "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" count=\"%d\" uniqueCount=\"%d\">";
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void setup() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+  }
+
+  @After
+  public void cleanup() {
+    allocator.close();
+  }
+
+  private static InputStream sst(int count, String items) {
+    return new ByteArrayInputStream((String.format(HEADER, count, count) + items + "</sst>")
+      .getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testPlainAndRichText() throws Exception {
+    final String items =
+      "<si><t>plain</t></si>"
+        + "<si><t xml:space=\"preserve\"> spaced </t></si>"
+        + "<si><r><rPr><b/></rPr><t>rich</t></r><r><t xml:space=\"preserve\"> text</t></r></si>"
+        + "<si><t>\u6f22\u5b57</t><rPh sb=\"0\" eb=\"2\"><t>\u304b\u3093\u3058</t></rPh><phoneticPr fontId=\"1\"/></si>"
+        + "<si><t/></si>"
+        + "<si><t>tab_x0009_escaped &amp; entity</t></si>";
+    try (OffHeapSharedStringsTable table = OffHeapSharedStringsTable.read(sst(6, items), allocator)) {
+      assertEquals(6, table.size());
+      assertEquals("plain", table.getString(0));
+      assertEquals(" spaced ", table.getString(1));
+      assertEquals("rich text", table.getString(2));
+      assertEquals("\u6f22\u5b57", table.getString(3));
+      assertEquals("", table.getString(4));
+      assertEquals("tab\tescaped & entity", table.getString(5));
+
+      assertEquals(6, table.getLength(3));
+      try (ArrowBuf buf = allocator.buffer(16)) {
+        table.copy(3, buf);
+        final byte[] bytes = new byte[6];
+        buf.getBytes(0, bytes);
+        assertEquals("\u6f22\u5b57", new String(bytes, StandardCharsets.UTF_8));
+      }
+    }
+    assertEquals(0, allocator.getAllocatedMemory());
+  }
+
+  @Test
+  public void testGrowBuffers() throws Exception {
+    final StringBuilder items = new StringBuilder();
+    final int count = 5000;
+    for (int i = 0; i < count; i++) {
+      items.append("<si><t>value of shared string ").append(i).append("</t></si>");
+    }
+    // the declared count is smaller than the actual one
+    try (OffHeapSharedStringsTable table = OffHeapSharedStringsTable.read(sst(10, items.toString()), allocator)) {
+      assertEquals(count, table.size());
+      for (int i = 0; i < count; i++) {
+        assertEquals("value of shared string " + i, table.getString(i));
+      }
+    }
+    assertEquals(0, allocator.getAllocatedMemory());
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testInvalidIndex() throws Exception {
+    try (OffHeapSharedStringsTable table = OffHeapSharedStringsTable.read(sst(1, "<si><t>a</t></si>"), allocator)) {
+      table.getString(1);
+    }
+  }
+}
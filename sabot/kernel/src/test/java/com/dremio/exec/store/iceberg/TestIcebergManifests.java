@@ -20,6 +20,14 @@ import static org.apache.iceberg.types.Types.NestedField.required;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.hadoop.conf.Configuration;
@@ -28,8 +36,10 @@ import org.apache.iceberg.DataFile;
 import org.apache.iceberg.DataFiles;
 import org.apache.iceberg.FileFormat;
 import org.apache.iceberg.Files;
+import org.apache.iceberg.ManifestFile;
 import org.apache.iceberg.PartitionSpec;
 import org.apache.iceberg.Schema;
+import org.apache.iceberg.Snapshot;
 import org.apache.iceberg.Table;
 import org.apache.iceberg.TableProperties;
 import org.apache.iceberg.hadoop.HadoopTables;
@@ -99,6 +109,200 @@ public class TestIcebergManifests extends BaseTestQuery {
     Assert.assertTrue(manifestCount < insertCount);
   }
 
+  @Test
+  public void testManifestEntryCache() throws Exception {
+    String columnName = "data";
+    PartitionSpec partitionSpec = PartitionSpec
+      .builderFor(schema)
+      .identity(columnName)
+      .build();
+    String tableName = "icebergManifestCacheTest";
+    File tableFolder = new File(folder.getRoot(), tableName);
+    tableFolder.mkdir();
+
+    IcebergOpCommitter committer = IcebergOperation.getCreateTableCommitter(tableName, Path.of(tableFolder.toPath().toString()),
+      SchemaConverter.fromIceberg(schema), Lists.newArrayList(columnName), new Configuration());
+    committer.consumeData(getDataFiles(partitionSpec, 16, 3, columnName));
+    committer.commit();
+
+    Table table = new HadoopTables(new Configuration()).load(tableFolder.getPath());
+    ManifestFile manifestFile = table.currentSnapshot().dataManifests().get(0);
+
+    List<DataFile> dataFiles = ManifestEntryCache.getDataFiles(manifestFile, table.io(), true);
+    Assert.assertEquals(3, dataFiles.size());
+    // entries are copied rather than reused by the reader
+    Assert.assertEquals(3, dataFiles.stream().map(f -> f.path().toString()).distinct().count());
+    Assert.assertSame(dataFiles, ManifestEntryCache.getDataFiles(manifestFile, table.io(), true));
+
+    List<DataFile> uncachedDataFiles = ManifestEntryCache.getDataFiles(manifestFile, table.io(), false);
+    Assert.assertNotSame(dataFiles, uncachedDataFiles);
+    Assert.assertEquals(dataFiles.stream().map(f -> f.path().toString()).collect(Collectors.toList()),
+      uncachedDataFiles.stream().map(f -> f.path().toString()).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testBatchedInsertCommits() throws Exception {
+    int insertCount = 4;
+    String columnName = "data";
+    PartitionSpec partitionSpec = PartitionSpec
+      .builderFor(schema)
+      .identity(columnName)
+      .build();
+    String tableName = "icebergBatchedInsertTest";
+    File tableFolder = new File(folder.getRoot(), tableName);
+    tableFolder.mkdir();
+    Path tablePath = Path.of(tableFolder.toPath().toString());
+
+    IcebergOpCommitter committer = IcebergOperation.getCreateTableCommitter(tableName, tablePath,
+      SchemaConverter.fromIceberg(schema), Lists.newArrayList(columnName), new Configuration());
+    committer.consumeData(getDataFiles(partitionSpec, 16, 1, columnName));
+    committer.commit();
+
+    // inserts completed within the window are committed in one transaction
+    ExecutorService executor = Executors.newFixedThreadPool(insertCount);
+    try {
+      CountDownLatch latch = new CountDownLatch(insertCount);
+      List<Future<Integer>> results = new ArrayList<>();
+      for (int i = 0; i < insertCount; ++i) {
+        results.add(executor.submit(() -> {
+          IcebergOpCommitter insertCommitter = IcebergOperation.getBatchedInsertTableCommitter(tablePath,
+            new Configuration(), 5_000);
+          insertCommitter.consumeData(getDataFiles(partitionSpec, 16, 2, columnName));
+          latch.countDown();
+          latch.await();
+          insertCommitter.commit();
+          return insertCommitter.getCommittedOperationCount();
+        }));
+      }
+      for (Future<Integer> result : results) {
+        Assert.assertEquals(insertCount, (int) result.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    Table table = new HadoopTables(new Configuration()).load(tableFolder.getPath());
+    List<Snapshot> snapshots = Lists.newArrayList(table.snapshots());
+    Assert.assertEquals(2, snapshots.size());
+    Assert.assertEquals(String.valueOf(insertCount * 2),
+      table.currentSnapshot().summary().get("added-data-files"));
+  }
+
+  @Test
+  public void testBatchedInsertMergesSmallManifests() throws Exception {
+    String columnName = "data";
+    PartitionSpec partitionSpec = PartitionSpec
+      .builderFor(schema)
+      .identity(columnName)
+      .build();
+    String tableName = "icebergSmallManifestsTest";
+    File tableFolder = new File(folder.getRoot(), tableName);
+    tableFolder.mkdir();
+    Path tablePath = Path.of(tableFolder.toPath().toString());
+
+    IcebergOpCommitter committer = IcebergOperation.getCreateTableCommitter(tableName, tablePath,
+      SchemaConverter.fromIceberg(schema), Lists.newArrayList(columnName), new Configuration());
+    committer.consumeData(getDataFiles(partitionSpec, 16, 1, columnName));
+    committer.commit();
+
+    // each insert adds a small manifest, until there are enough of them to be merged
+    for (int i = 1; i < IcebergCommitCoordinator.MIN_SMALL_MANIFESTS - 1; ++i) {
+      Assert.assertEquals(1, IcebergCommitCoordinator.commit(tablePath, new Configuration(),
+        getDataFiles(partitionSpec, 16, 1, columnName), 0));
+      Assert.assertEquals(i + 1, getDataManifests(tableFolder).size());
+    }
+
+    IcebergCommitCoordinator.commit(tablePath, new Configuration(), getDataFiles(partitionSpec, 16, 1, columnName), 0);
+    List<ManifestFile> manifests = getDataManifests(tableFolder);
+    Assert.assertEquals(1, manifests.size());
+    Assert.assertTrue(manifests.get(0).length() < IcebergCommitCoordinator.SMALL_MANIFEST_BYTES);
+    Table table = new HadoopTables(new Configuration()).load(tableFolder.getPath());
+    Assert.assertEquals(String.valueOf(IcebergCommitCoordinator.MIN_SMALL_MANIFESTS),
+      table.currentSnapshot().summary().get("total-data-files"));
+  }
+
+  @Test
+  public void testCancelledBatchedInserts() throws Exception {
+    String columnName = "data";
+    PartitionSpec partitionSpec = PartitionSpec
+      .builderFor(schema)
+      .identity(columnName)
+      .build();
+    String tableName = "icebergCancelledInsertTest";
+    File tableFolder = new File(folder.getRoot(), tableName);
+    tableFolder.mkdir();
+    Path tablePath = Path.of(tableFolder.toPath().toString());
+
+    IcebergOpCommitter committer = IcebergOperation.getCreateTableCommitter(tableName, tablePath,
+      SchemaConverter.fromIceberg(schema), Lists.newArrayList(columnName), new Configuration());
+    committer.consumeData(getDataFiles(partitionSpec, 16, 1, columnName));
+    committer.commit();
+
+    // the leader opens a batch with a window long enough for the test to time out
+    AtomicReference<Throwable> leaderFailure = new AtomicReference<>();
+    AtomicBoolean leaderInterrupted = new AtomicBoolean();
+    Thread leader = new Thread(() -> {
+      try {
+        IcebergCommitCoordinator.commit(tablePath, new Configuration(), getDataFiles(partitionSpec, 16, 2, columnName),
+          3_600_000);
+      } catch (Throwable t) {
+        leaderFailure.set(t);
+      }
+      leaderInterrupted.set(Thread.currentThread().isInterrupted());
+    });
+    leader.start();
+    awaitState(leader, Thread.State.TIMED_WAITING);
+
+    // a cancelled insert withdraws its data files from the batch
+    AtomicReference<Throwable> followerFailure = new AtomicReference<>();
+    Thread follower = new Thread(() -> {
+      try {
+        IcebergCommitCoordinator.commit(tablePath, new Configuration(), getDataFiles(partitionSpec, 16, 3, columnName),
+          3_600_000);
+      } catch (Throwable t) {
+        followerFailure.set(t);
+      }
+    });
+    follower.start();
+    awaitState(follower, Thread.State.WAITING);
+    follower.interrupt();
+    follower.join(60_000);
+    Assert.assertFalse(follower.isAlive());
+    Assert.assertTrue(followerFailure.get().getCause() instanceof InterruptedException);
+
+    AtomicInteger otherInserts = new AtomicInteger();
+    Thread other = new Thread(() -> otherInserts.set(IcebergCommitCoordinator.commit(tablePath, new Configuration(),
+      getDataFiles(partitionSpec, 16, 4, columnName), 3_600_000)));
+    other.start();
+    awaitState(other, Thread.State.WAITING);
+
+    // a cancelled leader withdraws its data files too, and commits the other inserts without waiting for the end of
+    // the window
+    leader.interrupt();
+    leader.join(60_000);
+    other.join(60_000);
+    Assert.assertFalse(leader.isAlive());
+    Assert.assertFalse(other.isAlive());
+    Assert.assertTrue(leaderFailure.get().getCause() instanceof InterruptedException);
+    Assert.assertTrue(leaderInterrupted.get());
+    Assert.assertEquals(1, otherInserts.get());
+
+    Table table = new HadoopTables(new Configuration()).load(tableFolder.getPath());
+    Assert.assertEquals("4", table.currentSnapshot().summary().get("added-data-files"));
+    Assert.assertEquals("5", table.currentSnapshot().summary().get("total-data-files"));
+  }
+
+  private static List<ManifestFile> getDataManifests(File tableFolder) {
+    return new HadoopTables(new Configuration()).load(tableFolder.getPath()).currentSnapshot().dataManifests();
+  }
+
+  private static void awaitState(Thread thread, Thread.State state) throws InterruptedException {
+    while (thread.getState() != state) {
+      Assert.assertTrue(thread.isAlive());
+      Thread.sleep(10);
+    }
+  }
+
   List<DataFile> getDataFiles(PartitionSpec partitionSpec, int partitionValueSize, int dataFilesCount, String columnName) {
     List<DataFile> dataFiles = new ArrayList<>();
     for( int i=0; i<dataFilesCount; ++i) {
@@ -16,7 +16,9 @@
 package com.dremio.exec.store.iceberg;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.File;
@@ -52,6 +54,7 @@ import com.dremio.connector.metadata.PartitionChunk;
 import com.dremio.connector.metadata.PartitionValue;
 import com.dremio.exec.hadoop.HadoopFileSystem;
 import com.dremio.exec.proto.UserBitShared;
+import com.dremio.sabot.exec.store.iceberg.proto.IcebergProtobuf.IcebergDatasetXAttr;
 import com.google.common.collect.ImmutableList;
 
 public class TestIcebergPartitions extends BaseTestQuery {
@@ -196,4 +199,44 @@ public class TestIcebergPartitions extends BaseTestQuery {
     }
   }
 
+  @Test
+  public void testSnapshotIds() throws Exception {
+    File root = tempDir.newFolder();
+    HadoopTables tables = new HadoopTables(conf);
+    Table table = tables.create(schema, spec, root.getAbsolutePath());
+
+    IcebergDatasetXAttr.Builder builder = IcebergDatasetXAttr.newBuilder();
+    IcebergUtils.setSnapshotId(table, builder);
+    assertFalse(builder.hasSnapshotId());
+
+    DataFile d1 = createDataFile(root, "d1", 1, "jack", 100);
+    table.newAppend().appendFile(d1).commit();
+    long s1 = table.currentSnapshot().snapshotId();
+    table.newAppend().appendFile(createDataFile(root, "d2", 1, "jack", 200)).commit();
+    long s2 = table.currentSnapshot().snapshotId();
+
+    builder = IcebergDatasetXAttr.newBuilder();
+    IcebergUtils.setSnapshotId(table, builder);
+    assertEquals(s2, builder.getSnapshotId());
+    assertTrue(IcebergUtils.onlyAppendedSince(table, s2, s2));
+    assertTrue(IcebergUtils.onlyAppendedSince(table, s1, s2));
+    assertFalse(IcebergUtils.onlyAppendedSince(table, s2, s1));
+
+    // appends after a delete only reach back to the delete
+    table.newDelete().deleteFile(d1).commit();
+    long s3 = table.currentSnapshot().snapshotId();
+    table.newAppend().appendFile(createDataFile(root, "d3", 2, "jill", 300)).commit();
+    long s4 = table.currentSnapshot().snapshotId();
+
+    assertTrue(IcebergUtils.onlyAppendedSince(table, s3, s4));
+    assertFalse(IcebergUtils.onlyAppendedSince(table, s2, s4));
+    assertFalse(IcebergUtils.onlyAppendedSince(table, s1, s4));
+
+    // ancestors are walked however long the history of appends
+    for (int i = 0; i < 20; i++) {
+      table.newFastAppend().appendFile(createDataFile(root, "a" + i, 3, "joe", 400 + i)).commit();
+    }
+    assertTrue(IcebergUtils.onlyAppendedSince(table, s4, table.currentSnapshot().snapshotId()));
+  }
+
 }
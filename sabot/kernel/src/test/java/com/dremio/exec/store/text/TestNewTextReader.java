@@ -104,6 +104,32 @@ public class TestNewTextReader extends BaseTestQuery {
       .go();
   }
 
+  @Test
+  public void testBulkCopy() throws Exception {
+    File testFile = new File(tempDir.getRoot(), "bulk_copy.csv");
+    try (PrintWriter pw = new PrintWriter(testFile)) {
+      pw.println("name,description");
+      pw.println("a rather long unquoted value,\"a quoted value, with a delimiter and \"\"escaped\"\" quotes\"");
+      pw.println("x,");
+      pw.println(",\"\"");
+    }
+
+    final String query = String.format("select * from table(dfs.\"%s\" (type => 'text', fieldDelimiter => ',', " +
+      "extractHeader => true))", testFile.getAbsolutePath());
+    for (boolean bulkCopy : new boolean[] { true, false }) {
+      try (AutoCloseable ignored = withSystemOption(ExecConstants.TEXT_READER_BULK_COPY, bulkCopy)) {
+        testBuilder()
+          .sqlQuery(query)
+          .unOrdered()
+          .baselineColumns("name", "description")
+          .baselineValues("a rather long unquoted value", "a quoted value, with a delimiter and \"escaped\" quotes")
+          .baselineValues("x", "")
+          .baselineValues("", "")
+          .go();
+      }
+    }
+  }
+
   @Ignore ("Not needed any more. (DRILL-3178)")
   @Test
   public void ensureFailureOnNewLineDelimiterWithinQuotes() {
@@ -20,6 +20,7 @@ import static org.junit.Assert.assertEquals;
 import java.util.Arrays;
 import java.util.Collections;
 
+import org.apache.calcite.rel.core.JoinRelType;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -27,6 +28,7 @@ import org.mockito.Mockito;
 
 import com.dremio.common.AutoCloseables;
 import com.dremio.common.config.LogicalPlanPersistence;
+import com.dremio.common.expression.CompleteType;
 import com.dremio.datastore.adapter.LegacyKVStoreProviderAdapter;
 import com.dremio.datastore.api.LegacyKVStoreProvider;
 import com.dremio.exec.ExecTest;
@@ -34,8 +36,10 @@ import com.dremio.exec.physical.base.AbstractSingle;
 import com.dremio.exec.physical.base.OpProps;
 import com.dremio.exec.physical.base.PhysicalOperator;
 import com.dremio.exec.physical.base.PhysicalVisitor;
+import com.dremio.exec.physical.config.BroadcastExchange;
 import com.dremio.exec.physical.config.EmptyValues;
 import com.dremio.exec.physical.config.ExternalSort;
+import com.dremio.exec.physical.config.HashJoinPOP;
 import com.dremio.exec.physical.config.SingleSender;
 import com.dremio.exec.physical.config.UnorderedReceiver;
 import com.dremio.exec.planner.fragment.Fragment;
@@ -56,6 +60,10 @@ import com.google.common.collect.ImmutableMap;
 public class TestMemoryAllocationUtilities extends ExecTest {
 
   private static final EmptyValues ARBTRIARY_LEAF;
+  private static final BatchSchema SCHEMA = BatchSchema.newBuilder()
+    .addField(CompleteType.BIGINT.toField("a"))
+    .addField(CompleteType.BIGINT.toField("b"))
+    .build();
   private static final TypeValidators.DoubleValidator SORT_FACTOR = new TypeValidators.RangeDoubleValidator("planner.op.sort.factor", 0.0, 1000.0, 1.0d);
   private static final TypeValidators.BooleanValidator SORT_BOUNDED = new TypeValidators.BooleanValidator("planner.op.sort.bounded", true);
   static {
@@ -167,6 +175,54 @@ public class TestMemoryAllocationUtilities extends ExecTest {
     assertEquals(3l, es2.getProps().getMemLimit());
   }
 
+  @Test
+  public void estimateQueryMemoryScalesWithWidth() {
+    ConfigurableOperator narrow = new ConfigurableOperator(new OpProps(0, "user", 10, Long.MAX_VALUE, 5, false, 1024, 0), ARBTRIARY_LEAF);
+    ConfigurableOperator wide = new ConfigurableOperator(new OpProps(1, "user", 100, Long.MAX_VALUE, 350, false, 1024, 0), narrow);
+    // narrow runs at width 1, wide at ceil(350 / 100) = 4
+    assertEquals(10 + 400, MemoryAllocationUtilities.estimateQueryMemory(Arrays.asList(wide, narrow), 100, 1000, options, null));
+    // width is capped at the max width
+    assertEquals(10 + 200, MemoryAllocationUtilities.estimateQueryMemory(Arrays.asList(wide, narrow), 100, 2, options, null));
+  }
+
+  @Test
+  public void estimateQueryMemoryOfLargeJoin() {
+    // 10M rows of 16 bytes on each side, the join running at width 10
+    ConfigurableOperator probe = new ConfigurableOperator(props(0, Long.MAX_VALUE, 10_000_000), ARBTRIARY_LEAF);
+    ConfigurableOperator build = new ConfigurableOperator(props(0, Long.MAX_VALUE, 10_000_000), ARBTRIARY_LEAF);
+    HashJoinPOP join = new HashJoinPOP(props(1 << 20, Long.MAX_VALUE, 10_000_000), probe, build,
+      Collections.emptyList(), JoinRelType.INNER, true, null);
+    // the hash table holds the build side rows and their entries, rather than the initial reservation of the join
+    assertEquals(10_000_000L * (16 + 16),
+      MemoryAllocationUtilities.estimateQueryMemory(Arrays.asList(join, build, probe), 1_000_000, 10, options, null));
+
+    // each minor fragment of a broadcast join holds the whole build side
+    BroadcastExchange broadcast = new BroadcastExchange(props(0, Long.MAX_VALUE, 10_000_000),
+      props(0, Long.MAX_VALUE, 10_000_000), props(0, Long.MAX_VALUE, 10_000_000), SCHEMA, build);
+    HashJoinPOP broadcastJoin = new HashJoinPOP(props(1 << 20, Long.MAX_VALUE, 10_000_000), probe, broadcast,
+      Collections.emptyList(), JoinRelType.INNER, true, null);
+    assertEquals(10L * 10_000_000L * (16 + 16),
+      MemoryAllocationUtilities.estimateQueryMemory(Arrays.asList(broadcastJoin, broadcast, build, probe), 1_000_000, 10, options, null));
+
+    // capped at the memory limit of the join
+    HashJoinPOP limitedJoin = new HashJoinPOP(props(1 << 20, 16_000_000, 10_000_000), probe, build,
+      Collections.emptyList(), JoinRelType.INNER, true, null);
+    assertEquals(10L * 16_000_000,
+      MemoryAllocationUtilities.estimateQueryMemory(Arrays.asList(limitedJoin, build, probe), 1_000_000, 10, options, null));
+  }
+
+  @Test
+  public void estimateQueryMemoryOfSort() {
+    ConfigurableOperator input = new ConfigurableOperator(props(0, Long.MAX_VALUE, 1_000_000), ARBTRIARY_LEAF);
+    ExternalSort sort = new ExternalSort(props(1 << 20, Long.MAX_VALUE, 1_000_000), input, Collections.emptyList(), false);
+    assertEquals(1_000_000L * 16,
+      MemoryAllocationUtilities.estimateQueryMemory(Arrays.asList(sort, input), 1_000_000, 10, options, null));
+  }
+
+  private static OpProps props(long memReserve, long memLimit, double cost) {
+    return new OpProps(0, "user", memReserve, memLimit, 0, cost, false, 1024, SCHEMA, false, 1.0d, false);
+  }
+
   private static class ConfigurableOperator extends AbstractSingle {
 
     public ConfigurableOperator(OpProps props, PhysicalOperator child) {
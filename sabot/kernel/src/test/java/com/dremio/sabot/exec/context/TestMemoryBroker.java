@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.exec.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.junit.Test;
+
+public class TestMemoryBroker {
+  private static final long MB = 1024 * 1024;
+
+  @Test
+  public void testGrantRaisesLimit() throws Exception {
+    try (BufferAllocator queryAllocator = new RootAllocator(16 * MB);
+         BufferAllocator opAllocator = queryAllocator.newChildAllocator("op", 0, 2 * MB)) {
+      final MemoryBroker broker = new MemoryBroker(queryAllocator);
+      final List<Runnable> work = new ArrayList<>();
+      try (MemoryBroker.Registration registration = broker.register("op", opAllocator, 4 * MB, () -> {}, work::add)) {
+        assertTrue(registration.tryGrow());
+        assertEquals(6 * MB, opAllocator.getLimit());
+        assertEquals(4 * MB, broker.getOutstandingGrants());
+
+        registration.releaseGrants();
+        assertEquals(2 * MB, opAllocator.getLimit());
+        assertEquals(0, broker.getOutstandingGrants());
+      }
+      assertEquals(0, broker.getNumRegistrations());
+    }
+  }
+
+  @Test
+  public void testDeniedGrantRequestsSpillFromLargestConsumer() throws Exception {
+    try (BufferAllocator queryAllocator = new RootAllocator(8 * MB);
+         BufferAllocator small = queryAllocator.newChildAllocator("small", 0, 8 * MB);
+         BufferAllocator large = queryAllocator.newChildAllocator("large", 0, 8 * MB);
+         BufferAllocator requester = queryAllocator.newChildAllocator("requester", 0, 1 * MB)) {
+      final MemoryBroker broker = new MemoryBroker(queryAllocator);
+      final List<Runnable> work = new ArrayList<>();
+      final AtomicInteger smallSpills = new AtomicInteger();
+      final AtomicInteger largeSpills = new AtomicInteger();
+
+      try (ArrowBuf smallBuf = small.buffer(1 * MB);
+           ArrowBuf largeBuf = large.buffer(4 * MB);
+           MemoryBroker.Registration smallReg = broker.register("small", small, 4 * MB, smallSpills::incrementAndGet, work::add);
+           MemoryBroker.Registration largeReg = broker.register("large", large, 4 * MB, largeSpills::incrementAndGet, work::add);
+           MemoryBroker.Registration requesterReg = broker.register("requester", requester, 4 * MB, () -> {}, work::add)) {
+        // only 3MB of headroom is left in the query allocator
+        assertFalse(requesterReg.tryGrow());
+        assertEquals(1 * MB, requester.getLimit());
+
+        // the largest consumer covers the shortfall, so only it is asked to spill
+        assertEquals(1, work.size());
+        work.forEach(Runnable::run);
+        assertEquals(0, smallSpills.get());
+        assertEquals(1, largeSpills.get());
+        assertEquals(1, largeReg.getSpillRequestsReceived());
+        assertEquals(1, requesterReg.getGrantsDenied());
+      }
+    }
+  }
+
+  @Test
+  public void testNodeSpillRequest() throws Exception {
+    try (BufferAllocator queryAllocator = new RootAllocator(16 * MB);
+         BufferAllocator first = queryAllocator.newChildAllocator("first", 0, 8 * MB);
+         BufferAllocator second = queryAllocator.newChildAllocator("second", 0, 8 * MB)) {
+      final MemoryBroker broker = new MemoryBroker(queryAllocator);
+      final List<Runnable> work = new ArrayList<>();
+      final AtomicInteger spills = new AtomicInteger();
+
+      try (ArrowBuf firstBuf = first.buffer(2 * MB);
+           ArrowBuf secondBuf = second.buffer(1 * MB);
+           MemoryBroker.Registration firstReg = broker.register("first", first, 4 * MB, spills::incrementAndGet, work::add);
+           MemoryBroker.Registration secondReg = broker.register("second", second, 4 * MB, spills::incrementAndGet, work::add)) {
+        // more than the first consumer holds, so both are asked
+        assertEquals(3 * MB, broker.requestSpills(5 * MB / 2));
+        assertEquals(2, work.size());
+
+        // requests are not repeated until the previous one was handled
+        assertEquals(0, broker.requestSpills(MB));
+        work.forEach(Runnable::run);
+        assertEquals(2, spills.get());
+      }
+    }
+  }
+
+  @Test
+  public void testSpillOnlyRegistration() throws Exception {
+    try (BufferAllocator queryAllocator = new RootAllocator(16 * MB);
+         BufferAllocator opAllocator = queryAllocator.newChildAllocator("op", 0, 8 * MB)) {
+      final MemoryBroker broker = new MemoryBroker(queryAllocator);
+      final List<Runnable> work = new ArrayList<>();
+      final AtomicInteger spills = new AtomicInteger();
+
+      try (ArrowBuf buf = opAllocator.buffer(2 * MB);
+           MemoryBroker.Registration registration = broker.register("op", opAllocator, 0, spills::incrementAndGet, work::add)) {
+        // registered without a grant size, as when only the direct memory monitor is enabled
+        assertFalse(registration.tryGrow());
+        assertEquals(8 * MB, opAllocator.getLimit());
+
+        // but still asked to spill when the node is short of memory
+        assertEquals(2 * MB, broker.requestSpills(MB));
+        work.forEach(Runnable::run);
+        assertEquals(1, spills.get());
+        assertEquals(1, registration.getSpillRequestsReceived());
+      }
+    }
+  }
+
+  @Test
+  public void testDetachedRegistrationNeverGrants() throws Exception {
+    try (BufferAllocator allocator = new RootAllocator(16 * MB);
+         MemoryBroker.Registration registration = MemoryBroker.detached(allocator)) {
+      assertFalse(registration.tryGrow());
+      assertEquals(16 * MB, allocator.getLimit());
+    }
+  }
+}
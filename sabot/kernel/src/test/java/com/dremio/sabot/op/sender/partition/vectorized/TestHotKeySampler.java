@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.sender.partition.vectorized;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link HotKeySampler}
+ */
+public class TestHotKeySampler {
+
+  @Test
+  public void testUniformKeysAreNotHot() {
+    final HotKeySampler sampler = new HotKeySampler(4, 1);
+    for (int i = 0; i < 10_000; i++) {
+      sampler.offer(i);
+    }
+    sampler.refreshHotHashes();
+    assertFalse(sampler.hasHotHashes());
+  }
+
+  @Test
+  public void testHeavyHitterIsHot() {
+    final HotKeySampler sampler = new HotKeySampler(4, 1);
+    for (int i = 0; i < 10_000; i++) {
+      // 40% of the rows have the same key, more than the 25% share of a receiver
+      sampler.offer(i % 5 < 2 ? 42 : i);
+    }
+    sampler.refreshHotHashes();
+    assertTrue(sampler.hasHotHashes());
+    assertEquals(1, sampler.getNumHot());
+    assertTrue(sampler.isHot(42));
+    assertFalse(sampler.isHot(7));
+  }
+
+  @Test
+  public void testNothingIsHotBeforeEnoughSamples() {
+    final HotKeySampler sampler = new HotKeySampler(4, 1);
+    for (int i = 0; i < 100; i++) {
+      sampler.offer(42);
+    }
+    sampler.refreshHotHashes();
+    assertFalse(sampler.hasHotHashes());
+  }
+
+  @Test
+  public void testSingleReceiverNeverHot() {
+    final HotKeySampler sampler = new HotKeySampler(1, 1);
+    for (int i = 0; i < 10_000; i++) {
+      sampler.offer(42);
+    }
+    sampler.refreshHotHashes();
+    assertFalse(sampler.hasHotHashes());
+  }
+}
@@ -259,7 +259,8 @@ public class AccelerationStoragePlugin extends FileSystemPlugin<AccelerationStor
     List<FileSelection> fileSelections = refreshList.stream()
       .map(refresh -> {
         try {
-          FileSelection currentRefreshSelection = FileSelection.create(getSystemUserFS(), resolveTablePathToValidPath(refresh.getPath()));
+          FileSelection currentRefreshSelection = FileSelection.create(getSystemUserFS(), resolveTablePathToValidPath(refresh.getPath()),
+            FileDatasetHandle.getListingParallelism(getContext()));
           if (currentRefreshSelection != null) {
             return currentRefreshSelection;
           }
@@ -286,7 +287,8 @@ public class AccelerationStoragePlugin extends FileSystemPlugin<AccelerationStor
   private FileSelection getIcebergFileSelection(FluentIterable<Refresh> refreshes) {
     Preconditions.checkState(refreshes.size() > 0, "Unexpected state");
     try {
-      return FileSelection.create(getSystemUserFS(), resolveTablePathToValidPath(refreshes.get(refreshes.size() - 1).getPath()));
+      return FileSelection.create(getSystemUserFS(), resolveTablePathToValidPath(refreshes.get(refreshes.size() - 1).getPath()),
+        FileDatasetHandle.getListingParallelism(getContext()));
     } catch (IOException e) {
       throw Throwables.propagate(e);
     }
@@ -16,33 +16,49 @@
 package com.dremio.service.reflection.refresh;
 
 import java.util.List;
+import java.util.Map;
 
 import org.apache.calcite.rel.RelNode;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.hadoop.HadoopTables;
 
 import com.dremio.common.exceptions.UserException;
+import com.dremio.datastore.LegacyProtobufSerializer;
+import com.dremio.exec.catalog.Catalog;
 import com.dremio.exec.catalog.DremioTable;
 import com.dremio.exec.planner.acceleration.PlanHasher;
 import com.dremio.exec.planner.serialization.LogicalPlanSerializer;
 import com.dremio.exec.planner.serialization.RelSerializerFactory;
+import com.dremio.exec.store.StoragePlugin;
+import com.dremio.exec.store.dfs.FileSystemPlugin;
+import com.dremio.exec.store.iceberg.IcebergUtils;
 import com.dremio.proto.model.UpdateId;
+import com.dremio.sabot.exec.store.iceberg.proto.IcebergProtobuf.IcebergDatasetXAttr;
 import com.dremio.service.job.proto.ScanPath;
+import com.dremio.service.namespace.DatasetHelper;
 import com.dremio.service.namespace.NamespaceService;
 import com.dremio.service.namespace.dataset.proto.AccelerationSettings;
 import com.dremio.service.namespace.dataset.proto.DatasetConfig;
+import com.dremio.service.namespace.dataset.proto.ReadDefinition;
 import com.dremio.service.namespace.dataset.proto.RefreshMethod;
 import com.dremio.service.reflection.IncrementalUpdateServiceUtils;
 import com.dremio.service.reflection.ReflectionSettings;
 import com.dremio.service.reflection.ReflectionUtils;
+import com.dremio.service.reflection.proto.IcebergSnapshot;
 import com.dremio.service.reflection.proto.Materialization;
 import com.dremio.service.reflection.proto.ReflectionEntry;
 import com.dremio.service.reflection.proto.Refresh;
 import com.dremio.service.reflection.proto.RefreshDecision;
 import com.dremio.service.reflection.store.MaterializationStore;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Function;
 import com.google.common.base.Objects;
 import com.google.common.base.Predicate;
 import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
+import com.google.protobuf.InvalidProtocolBufferException;
 
 import io.protostuff.ByteString;
 
@@ -65,7 +81,8 @@ class RefreshDecisionMaker {
       Iterable<DremioTable> requestedTables,
       RelSerializerFactory serializerFactory,
       boolean strictRefresh,
-      boolean forceFullUpdate) {
+      boolean forceFullUpdate,
+      IcebergSnapshotHistory icebergSnapshotHistory) {
 
     final long newSeriesId = System.currentTimeMillis();
 
@@ -76,6 +93,7 @@ class RefreshDecisionMaker {
 
     decision.setAccelerationSettings(settings);
 
+    final Map<List<String>, IcebergDatasetXAttr> icebergDatasets = Maps.newHashMap();
     if (requestedTables != null && !Iterables.isEmpty(requestedTables)) {
       // store all physical dataset paths in the refresh decision
       final List<ScanPath> scanPathsList = FluentIterable.from(requestedTables)
@@ -93,6 +111,18 @@ class RefreshDecisionMaker {
           }
         }).toList();
       decision.setScanPathsList(scanPathsList);
+
+      // store the snapshots of the iceberg datasets, so that the next refresh can check they were only appended to
+      final ImmutableList.Builder<IcebergSnapshot> icebergSnapshots = ImmutableList.builder();
+      for (DremioTable table : requestedTables) {
+        final IcebergDatasetXAttr xAttr = getIcebergDatasetXAttr(table.getDatasetConfig());
+        if (xAttr != null) {
+          final List<String> datasetPath = table.getPath().getPathComponents();
+          icebergDatasets.put(datasetPath, xAttr);
+          icebergSnapshots.add(new IcebergSnapshot().setPathList(datasetPath).setSnapshotId(xAttr.getSnapshotId()));
+        }
+      }
+      decision.setIcebergSnapshotsList(icebergSnapshots.build());
     }
 
     final LogicalPlanSerializer serializer = serializerFactory.getSerializer(plan.getCluster());
@@ -166,10 +196,115 @@ class RefreshDecisionMaker {
           .setSeriesId(newSeriesId);
     }
 
+    if (!onlyAppendedSince(refresh, icebergDatasets, icebergSnapshotHistory)) {
+      logger.trace("Iceberg dataset was not only appended to since last refresh, doing an initial refresh.");
+      return decision.setInitialRefresh(true)
+          .setUpdateId(new UpdateId())
+          .setSeriesId(newSeriesId);
+    }
+
     return decision.setInitialRefresh(false)
         .setUpdateId(refresh.getUpdateId())
         .setSeriesId(refresh.getSeriesId())
         .setSeriesOrdinal(refresh.getSeriesOrdinal() + 1);
   }
 
+  /**
+   * @return the xattr of the iceberg dataset, or null if the dataset is not an iceberg dataset with a snapshot
+   */
+  private static IcebergDatasetXAttr getIcebergDatasetXAttr(DatasetConfig dataset) {
+    if (dataset == null || !DatasetHelper.isIcebergDataset(dataset)) {
+      return null;
+    }
+    final ReadDefinition readDefinition = dataset.getReadDefinition();
+    if (readDefinition == null || readDefinition.getExtendedProperty() == null) {
+      return null;
+    }
+
+    try {
+      final IcebergDatasetXAttr xAttr = LegacyProtobufSerializer.parseFrom(IcebergDatasetXAttr.PARSER,
+        readDefinition.getExtendedProperty().asReadOnlyByteBuffer());
+      return xAttr.hasSnapshotId() ? xAttr : null;
+    } catch (InvalidProtocolBufferException e) {
+      // datasets promoted by older versions store a ParquetDatasetXAttr
+      return null;
+    }
+  }
+
+  /**
+   * Incremental refreshes only read the data added since the previous refresh, so they are only valid if the
+   * iceberg datasets were appended to since the snapshots read by the previous refresh. Overwrites, deletes and
+   * rollbacks require an initial refresh.
+   *
+   * A dataset with no snapshot recorded by the previous refresh, e.g. a refresh done before snapshots were recorded,
+   * can't be checked: the refresh stays incremental, and records the current snapshot of the dataset that the next
+   * refresh checks against.
+   *
+   * The data appended is still selected by the refresh field of the reflection, not by the data files added by the
+   * append snapshots.
+   *
+   * @return true if all the iceberg datasets were only appended to since the previous refresh
+   */
+  @VisibleForTesting
+  static boolean onlyAppendedSince(Refresh refresh, Map<List<String>, IcebergDatasetXAttr> icebergDatasets,
+                                   IcebergSnapshotHistory history) {
+    if (icebergDatasets.isEmpty()) {
+      return true;
+    }
+
+    final Map<List<String>, Long> previousSnapshots = Maps.newHashMap();
+    if (refresh.getIcebergSnapshotsList() != null) {
+      for (IcebergSnapshot snapshot : refresh.getIcebergSnapshotsList()) {
+        previousSnapshots.put(snapshot.getPathList(), snapshot.getSnapshotId());
+      }
+    }
+
+    for (Map.Entry<List<String>, IcebergDatasetXAttr> entry : icebergDatasets.entrySet()) {
+      final Long previousSnapshotId = previousSnapshots.get(entry.getKey());
+      if (previousSnapshotId == null) {
+        logger.debug("No snapshot of iceberg dataset {} recorded by the previous refresh, seeding it with snapshot {}",
+          entry.getKey(), entry.getValue().getSnapshotId());
+        continue;
+      }
+      if (!history.onlyAppendedSince(entry.getKey(), entry.getValue(), previousSnapshotId)) {
+        logger.debug("Iceberg dataset {} was modified by a snapshot other than an append since snapshot {}",
+          entry.getKey(), previousSnapshotId);
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Snapshots of the iceberg datasets.
+   */
+  @FunctionalInterface
+  interface IcebergSnapshotHistory {
+    /**
+     * @return true if the dataset was only appended to from the previous snapshot to the snapshot of its xattr
+     */
+    boolean onlyAppendedSince(List<String> datasetPath, IcebergDatasetXAttr xAttr, long previousSnapshotId);
+
+    /**
+     * Walks the snapshots of the iceberg tables of the file system sources of the catalog. Other datasets, and
+     * tables that can't be loaded, are reported as not only appended to.
+     */
+    static IcebergSnapshotHistory of(Catalog catalog) {
+      return (datasetPath, xAttr, previousSnapshotId) -> {
+        try {
+          final StoragePlugin plugin = catalog.getSource(datasetPath.get(0));
+          if (!(plugin instanceof FileSystemPlugin)) {
+            return false;
+          }
+          final Table table = new HadoopTables(((FileSystemPlugin<?>) plugin).getFsConfCopy())
+            .load(xAttr.getParquetDatasetXAttr().getSelectionRoot());
+          return IcebergUtils.onlyAppendedSince(table, previousSnapshotId, xAttr.getSnapshotId());
+        } catch (RuntimeException e) {
+          logger.debug("Unable to read the snapshots of iceberg dataset {}", datasetPath, e);
+          return false;
+        }
+      };
+    }
+  }
+
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.reflection.refresh;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.dremio.sabot.exec.store.iceberg.proto.IcebergProtobuf.IcebergDatasetXAttr;
+import com.dremio.service.reflection.proto.IcebergSnapshot;
+import com.dremio.service.reflection.proto.Refresh;
+import com.dremio.service.reflection.refresh.RefreshDecisionMaker.IcebergSnapshotHistory;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Tests for the iceberg snapshot checks of {@link RefreshDecisionMaker}
+ */
+public class TestRefreshDecisionMaker {
+  private static final List<String> PATH = Arrays.asList("source", "table");
+
+  // snapshot 2 and 3 appended to their parent, 4 deleted data of 3
+  private static final Map<Long, Long> APPEND_PARENTS = ImmutableMap.of(2L, 1L, 3L, 2L);
+
+  private static final IcebergSnapshotHistory HISTORY = (datasetPath, xAttr, previousSnapshotId) -> {
+    Long snapshotId = xAttr.getSnapshotId();
+    while (snapshotId != null && snapshotId != previousSnapshotId) {
+      snapshotId = APPEND_PARENTS.get(snapshotId);
+    }
+    return snapshotId != null;
+  };
+
+  @Test
+  public void testOnlyAppended() {
+    final Refresh refresh = new Refresh()
+      .setIcebergSnapshotsList(ImmutableList.of(new IcebergSnapshot().setPathList(PATH).setSnapshotId(2L)));
+    assertTrue(RefreshDecisionMaker.onlyAppendedSince(refresh, datasets(3L), HISTORY));
+    assertTrue(RefreshDecisionMaker.onlyAppendedSince(refresh, datasets(2L), HISTORY));
+  }
+
+  @Test
+  public void testNotOnlyAppended() {
+    final Refresh refresh = new Refresh()
+      .setIcebergSnapshotsList(ImmutableList.of(new IcebergSnapshot().setPathList(PATH).setSnapshotId(2L)));
+    // snapshot 4 deleted data of snapshot 3
+    assertFalse(RefreshDecisionMaker.onlyAppendedSince(refresh, datasets(4L), HISTORY));
+    // the history of the table can't be read
+    assertFalse(RefreshDecisionMaker.onlyAppendedSince(refresh, datasets(3L), (datasetPath, xAttr, previous) -> false));
+  }
+
+  @Test
+  public void testNoRecordedSnapshot() {
+    // refreshes done before the snapshots were recorded are seeded with the current snapshot, not fully refreshed
+    assertTrue(RefreshDecisionMaker.onlyAppendedSince(new Refresh(), datasets(4L), HISTORY));
+    final Refresh refresh = new Refresh()
+      .setIcebergSnapshotsList(ImmutableList.of(new IcebergSnapshot().setPathList(Arrays.asList("other")).setSnapshotId(1L)));
+    assertTrue(RefreshDecisionMaker.onlyAppendedSince(refresh, datasets(4L), HISTORY));
+  }
+
+  private static Map<List<String>, IcebergDatasetXAttr> datasets(long snapshotId) {
+    return ImmutableMap.of(PATH, IcebergDatasetXAttr.newBuilder()
+      .setSnapshotId(snapshotId)
+      .build());
+  }
+}
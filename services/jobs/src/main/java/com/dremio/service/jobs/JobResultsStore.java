@@ -236,7 +236,7 @@ public class JobResultsStore implements Service {
                                                     BufferAllocator allocator,
                                                     long fileOffset,
                                                     long fileLimit) throws IOException {
-    try(ArrowFileReader fileReader = new ArrowFileReader(dfs, jobOutputDir, arrowFileMetadata, allocator)) {
+    try(ArrowFileReader fileReader = new ArrowFileReader(dfs, jobOutputDir, arrowFileMetadata, allocator, true)) {
       return fileReader.read(fileOffset, fileLimit);
     }
   }
@@ -343,6 +343,60 @@ public class TestArrowFileReader extends DremioTest {
     }
   }
 
+  @Test
+  public void readingMultiBatchFileMemoryMapped() throws Exception {
+    List<VectorContainer> containers = Lists.newArrayList();
+    try (final BufferAllocator allocator = allocatorRule.newAllocator("test-arrow-file-reader", 0, Long.MAX_VALUE)) {
+      // generate a test file with multiple record batches each containing 5 records.
+      containers.add(createBatch(5, testBitVector(allocator), testVarCharVector(allocator)));
+      containers.add(createBatch(5, testBitVector(allocator), testVarCharVector(allocator)));
+      containers.add(createBatch(5, testBitVector(allocator), testVarCharVector(allocator)));
+
+      Path basePath = new Path(dateGenFolder.getRoot().getPath());
+      ArrowFileMetadata metadata = writeArrowFile(containers.toArray(new VectorContainer[3]));
+      try(ArrowFileReader reader = new ArrowFileReader(HadoopFileSystem.getLocal(FS_CONF), com.dremio.io.file.Path.of(basePath.toUri()), metadata, allocator, true)) {
+        {
+          // Get everything
+          List<RecordBatchHolder> batchHolders = getRecords(reader, 0, 15, allocator);
+          assertEquals(3, batchHolders.size());
+
+          for(int i=0; i<3; i++) {
+            verifyBatchHolder(batchHolders.get(i), 0, 5);
+
+            VectorContainer batchContainer = batchHolders.get(i).getData().getContainer();
+            assertEquals(TEST_BIT_VALUES, getBitValues(batchContainer, 0, 5));
+            assertEquals(TEST_VARCHAR_VALUES, getVarCharValues(batchContainer, 0, 5));
+          }
+
+          releaseBatches(batchHolders);
+        }
+        {
+          // Get a part of the batch starting from the middle of the second batch to middle of thrid batch
+          List<RecordBatchHolder> batchHolders = getRecords(reader, 7, 5, allocator);
+          assertEquals(2, batchHolders.size());
+
+          verifyBatchHolder(batchHolders.get(0), 2, 5);
+          VectorContainer batchContainer = batchHolders.get(0).getData().getContainer();
+          assertEquals(TEST_BIT_VALUES.subList(2, 5), getBitValues(batchContainer, 2, 5));
+          assertEquals(TEST_VARCHAR_VALUES.subList(2, 5), getVarCharValues(batchContainer, 2, 5));
+
+          verifyBatchHolder(batchHolders.get(1), 0, 2);
+          batchContainer = batchHolders.get(1).getData().getContainer();
+          assertEquals(TEST_BIT_VALUES.subList(0, 2), getBitValues(batchContainer, 0, 2));
+          assertEquals(TEST_VARCHAR_VALUES.subList(0, 2), getVarCharValues(batchContainer, 0, 2));
+
+          releaseBatches(batchHolders);
+        }
+      }
+    } finally {
+      for(VectorContainer container : containers) {
+        if (container != null) {
+          container.clear();
+        }
+      }
+    }
+  }
+
   @Test
   public void writeAndReadEmptyListVectors() throws Exception {
     try (final BufferAllocator allocator = allocatorRule.newAllocator("test-arrow-file-reader", 0, Long.MAX_VALUE);
@@ -22,6 +22,8 @@ import com.dremio.service.namespace.dataset.proto.PartitionProtobuf.NormalizedPa
 import com.dremio.service.namespace.dataset.proto.PartitionProtobuf.PartitionChunk;
 import com.dremio.service.namespace.dataset.proto.PartitionProtobuf.PartitionValue;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.protobuf.ByteString;
 
 /**
@@ -30,21 +32,22 @@ import com.google.protobuf.ByteString;
 public abstract class AbstractPartitionChunkMetadata implements PartitionChunkMetadata {
   private static final AtomicLong idGenerator = new AtomicLong(0L);
   private final PartitionChunk partitionChunk;
-  private final NormalizedPartitionInfo normalizedPartitionInfo;
+  private final Supplier<NormalizedPartitionInfo> normalizedPartitionInfo;
 
   AbstractPartitionChunkMetadata(PartitionChunk partitionChunk) {
     this.partitionChunk = partitionChunk;
 
+    // built on first use, as most partition chunks of large datasets are pruned without being used.
     // we need a unique key per partition (atleast at the operator level), which is used as a
     // reference key in the normalized splits. This works fine, but is a bit hacky.
-    this.normalizedPartitionInfo = NormalizedPartitionInfo
+    this.normalizedPartitionInfo = Suppliers.memoize(() -> NormalizedPartitionInfo
       .newBuilder()
       .setId(String.valueOf(idGenerator.incrementAndGet()))
       .setSplitKey(partitionChunk.getSplitKey())
       .setSize(partitionChunk.getSize())
       .setExtendedProperty(partitionChunk.getPartitionExtendedProperty())
       .addAllValues(partitionChunk.getPartitionValuesList())
-      .build();
+      .build());
   }
 
   protected PartitionChunk getPartitionChunk() {
@@ -89,11 +92,11 @@ public abstract class AbstractPartitionChunkMetadata implements PartitionChunkMe
 
   @Override
   public NormalizedPartitionInfo getNormalizedPartitionInfo() {
-    return normalizedPartitionInfo;
+    return normalizedPartitionInfo.get();
   }
 
   @VisibleForTesting
   boolean hasDatasetSplit() {
-    return partitionChunk.hasDatasetSplit();
+    return partitionChunk.hasDatasetSplit() || partitionChunk.hasDatasetSplitData();
   }
 }
@@ -594,8 +594,10 @@ public class NamespaceServiceImpl implements NamespaceService {
       // Once it reaches this limit(=maxSinglePartitionChunks), save splits separately in multi-split store.
       final boolean singleSplitPartitionAllowed = isSingleSplitPartitionAllowed();
       if (accumulatedSplits.size() == 1 && singleSplitPartitionAllowed) {
-        // Single-split partition chunk
-        builder.setDatasetSplit(MetadataProtoUtils.toProtobuf(accumulatedSplits.get(0)));
+        // Single-split partition chunk, the split is kept serialized so that it is only parsed if the partition chunk
+        // survives pruning. It is not compressed: a single split is too small for compression to pay for its header.
+        builder.setDatasetSplitData(serializeAccumulatedSplits(false))
+          .setDatasetSplitCodec(MultiSplit.Codec.UNCOMPRESSED);
         partitionChunkWithSingleSplitCount++;
       }
       PartitionChunkId chunkId = PartitionChunkId.of(datasetId, nextDatasetVersion, splitKey);
@@ -634,17 +636,25 @@ public class NamespaceServiceImpl implements NamespaceService {
     }
 
     /**
-     * Create a MultiSplit from the accumulated splits
-     * @return
+     * Serialize the accumulated splits as a sequence of delimited DatasetSplit(s)
+     * @param compress whether to use the split compression
      */
-    private MultiSplit createMultiSplitFromAccumulated(String splitKey) throws IOException {
+    private ByteString serializeAccumulatedSplits(boolean compress) throws IOException {
       ByteString.Output output = ByteString.newOutput();
-      OutputStream wrappedOutput = wrapIfNeeded(output);
+      OutputStream wrappedOutput = compress ? wrapIfNeeded(output) : output;
       for (DatasetSplit split: accumulatedSplits) {
         MetadataProtoUtils.toProtobuf(split).writeDelimitedTo(wrappedOutput);
       }
       wrappedOutput.flush();
-      ByteString splitData = output.toByteString();
+      return output.toByteString();
+    }
+
+    /**
+     * Create a MultiSplit from the accumulated splits
+     * @return
+     */
+    private MultiSplit createMultiSplitFromAccumulated(String splitKey) throws IOException {
+      ByteString splitData = serializeAccumulatedSplits(true);
       return MultiSplit.newBuilder()
         .setMultiSplitKey(splitKey)
         .setCodec(getCodecType())
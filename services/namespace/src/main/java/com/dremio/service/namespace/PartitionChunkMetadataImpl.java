@@ -17,6 +17,7 @@ package com.dremio.service.namespace;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
 
 import org.xerial.snappy.SnappyInputStream;
 
@@ -27,6 +28,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
 
 /**
  * A partition chunk represented by a pair of objects:
@@ -34,7 +36,8 @@ import com.google.common.collect.ImmutableList;
  * - if the partition chunk has more than one split, a MultiSplit proto
  * The MultiSplit proto is lazily instantiated -- only created when users ask for the splits of this partition chunk
  *
- * Note: if the parition chunk contains only a single split,
+ * Note: if the parition chunk contains only a single split, the split is stored in the PartitionChunk proto itself, and
+ * is only parsed when users ask for the splits of this partition chunk
  */
 public class PartitionChunkMetadataImpl extends AbstractPartitionChunkMetadata {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(PartitionChunkMetadataImpl.class);
@@ -72,6 +75,13 @@ public class PartitionChunkMetadataImpl extends AbstractPartitionChunkMetadata {
       materializedDatasetSplits = ImmutableList.of(partitionChunk.getDatasetSplit());
       return materializedDatasetSplits;
     }
+    if (partitionChunk.hasDatasetSplitData()) {
+      logger.debug("Parsing dataset split for partition chunk with key {}", partitionChunk.getSplitKey());
+      Preconditions.checkState(partitionChunk.getSplitCount() == 1,
+        String.format("Only a partition chunk with 1 split can possibly have a dataset split set directly. split_count == %d", partitionChunk.getSplitCount()));
+      materializedDatasetSplits = readSplits(partitionChunk.getDatasetSplitData(), partitionChunk.getDatasetSplitCodec(), 1);
+      return materializedDatasetSplits;
+    }
     // Build a list of dataset splits from the now-materialized multiset split
     MultiSplit multiSplit = multiSplitSupplier.get();    // NB: multiSplit cached in the supplier
     if (multiSplit == null) {
@@ -89,10 +99,18 @@ public class PartitionChunkMetadataImpl extends AbstractPartitionChunkMetadata {
     final long splitCount = multiSplit.getSplitCount();
 
     Preconditions.checkState(splitCount == partitionChunk.getSplitCount());
+    materializedDatasetSplits = readSplits(multiSplit.getSplitData(), multiSplit.getCodec(), splitCount);
+    return materializedDatasetSplits;
+  }
+
+  /**
+   * Parse a sequence of delimited dataset splits
+   */
+  private List<DatasetSplit> readSplits(ByteString splitData, MultiSplit.Codec codec, long splitCount) {
     ImmutableList.Builder<DatasetSplit> datasetSplits = new ImmutableList.Builder<>();
-    InputStream splitDataStream = multiSplit.getSplitData().newInput();
+    InputStream splitDataStream = splitData.newInput();
     try {
-      switch (multiSplit.getCodec()) {
+      switch (codec) {
         case UNCOMPRESSED:
           // nothing to do
           break;
@@ -101,7 +119,7 @@ public class PartitionChunkMetadataImpl extends AbstractPartitionChunkMetadata {
           break;
         case UNKNOWN:
         default:
-          throw new IllegalStateException("Unsupported multi-split codec: " + multiSplit.getCodec());
+          throw new IllegalStateException("Unsupported multi-split codec: " + codec);
       }
       for (long i = 0; i < splitCount; i++) {
         datasetSplits.add(DatasetSplit.parseDelimitedFrom(splitDataStream));
@@ -109,15 +127,13 @@ public class PartitionChunkMetadataImpl extends AbstractPartitionChunkMetadata {
     } catch (IOException e) {
       throw new RuntimeException(String.format("Unable to get dataset splits from partition chunk with key %s", getSplitKey()), e);
     }
-
-    materializedDatasetSplits = datasetSplits.build();
-    return materializedDatasetSplits;
+    return datasetSplits.build();
   }
 
   @Override
   public boolean checkPartitionChunkMetadataConsistency() {
     PartitionChunk partitionChunk = getPartitionChunk();
-    if (!partitionChunk.hasDatasetSplit()) {
+    if (!hasDatasetSplit()) {
       MultiSplit multiSplit = multiSplitSupplier.get();
       if (multiSplit == null) {
         logger.warn("Dataset Metadata Consistency Validation: MultiSplit does not exist when it should, partitionID {}, split key {}, split count {}, partition values {}, hasSplitCount {}.",
@@ -296,6 +296,39 @@ public class TestDatasetMetadataSaver {
     checkSplits(dsConfig, 1, 1, false, true);
   }
 
+  // Test behavior when we have a single split partition chunk saved with the dataset split inline
+  @Test
+  public void testInlineSingleSplit() throws Exception {
+    EntityPath entityPath = new EntityPath(ImmutableList.of("inline", "one"));
+    long splitVersion = 17;
+    final DatasetConfig dsConfig = new DatasetConfig();
+
+    dsConfig.setId(new EntityId()
+      .setId(UUID.randomUUID().toString()));
+    dsConfig.setCreatedAt(System.currentTimeMillis());
+    dsConfig.setName(entityPath.getName());
+    dsConfig.setFullPathList(entityPath.getComponents());
+    dsConfig.setType(DatasetType.PHYSICAL_DATASET);
+
+    ReadDefinition readDefinition = new ReadDefinition();
+    readDefinition.setSplitVersion(splitVersion);
+    dsConfig.setReadDefinition(readDefinition);
+
+    PartitionProtobuf.PartitionChunk split = PartitionProtobuf.PartitionChunk.newBuilder()
+      .setSize(1)
+      .setRowCount(10)
+      .setSplitKey("inline_1")
+      .setSplitCount(1)
+      .setDatasetSplit(PartitionProtobuf.DatasetSplit.newBuilder()
+        .setSize(1)
+        .setSplitExtendedProperty(ByteString.copyFromUtf8("p0_s0"))
+        .build())
+      .build();
+
+    ((NamespaceServiceImpl)namespaceService).directInsertLegacySplit(dsConfig, split, splitVersion);
+    checkSplits(dsConfig, 1, 1, false, true);
+  }
+
   // Test behavior when we have a multiple legacy split
   @Test
   public void testLegacyMultiSplit() throws Exception {
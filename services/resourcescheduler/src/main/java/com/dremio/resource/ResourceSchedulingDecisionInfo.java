@@ -38,6 +38,9 @@ public class ResourceSchedulingDecisionInfo {
   private String engineName;
   private EngineId engineId;
   private SubEngineId subEngineId;
+  private long queryMemoryEstimate;     // Cluster wide memory the query was charged for on admission, in bytes
+  private long memoryAdmissionWaitMs;   // Time spent waiting for memory to be admitted, in ms
+  private String admissionReason;       // Why the query was admitted the way it was, if memory admission was involved
 
   private ResourceSchedulingProperties resourceSchedulingProperties;
 
@@ -167,4 +170,28 @@ public class ResourceSchedulingDecisionInfo {
   public void setSubEngineId(SubEngineId subEngineId) {
     this.subEngineId = subEngineId;
   }
+
+  public long getQueryMemoryEstimate() {
+    return queryMemoryEstimate;
+  }
+
+  public void setQueryMemoryEstimate(long queryMemoryEstimate) {
+    this.queryMemoryEstimate = queryMemoryEstimate;
+  }
+
+  public long getMemoryAdmissionWaitMs() {
+    return memoryAdmissionWaitMs;
+  }
+
+  public void setMemoryAdmissionWaitMs(long memoryAdmissionWaitMs) {
+    this.memoryAdmissionWaitMs = memoryAdmissionWaitMs;
+  }
+
+  public String getAdmissionReason() {
+    return admissionReason;
+  }
+
+  public void setAdmissionReason(String admissionReason) {
+    this.admissionReason = admissionReason;
+  }
 }
@@ -29,6 +29,7 @@ public class ResourceSchedulingProperties {
   private String routingTag;
   private String routingEngine;
   private String ruleSetEngine;
+  private Long queryMemoryEstimate;
 
   public ResourceSchedulingProperties() {
 
@@ -114,4 +115,13 @@ public class ResourceSchedulingProperties {
     this.ruleSetEngine = ruleSetEngine;
     return this;
   }
+
+  public Long getQueryMemoryEstimate() {
+    return queryMemoryEstimate;
+  }
+
+  public ResourceSchedulingProperties setQueryMemoryEstimate(Long queryMemoryEstimate) {
+    this.queryMemoryEstimate = queryMemoryEstimate;
+    return this;
+  }
 }
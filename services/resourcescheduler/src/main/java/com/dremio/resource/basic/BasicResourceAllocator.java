@@ -22,6 +22,7 @@ import java.util.function.Consumer;
 import javax.annotation.Nullable;
 import javax.inject.Provider;
 
+import com.dremio.common.util.PrettyPrintUtils;
 import com.dremio.exec.proto.CoordinationProtos;
 import com.dremio.exec.proto.UserBitShared;
 import com.dremio.options.OptionManager;
@@ -54,6 +55,10 @@ public class BasicResourceAllocator implements ResourceAllocator {
 
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(BasicResourceAllocator.class);
 
+  // memory admission hands out the cluster memory budget, whatever its size, as a fixed number of permits: the
+  // semaphore is created with the size first seen by the coordinator, while the budget follows the executors
+  private static final int MEMORY_PERMITS = 10_000;
+
   private final Provider<ClusterCoordinator> clusterCoordinatorProvider;
   private final Provider<GroupResourceInformation> clusterResourceInformationProvider;
   private ClusterCoordinator clusterCoordinator;
@@ -80,8 +85,11 @@ public class BasicResourceAllocator implements ResourceAllocator {
 
     resourceSchedulingObserver.beginQueueWait();
     final Pointer<DistributedSemaphore.DistributedLease> lease = new Pointer();
+    final Pointer<DistributedSemaphore.DistributedLease> memoryLease = new Pointer();
     ListenableFuture<ResourceSet> futureAllocation = executorService.submit(() -> {
       lease.value = acquireQuerySemaphoreIfNecessary(queryContext, queueType);
+      memoryLease.value = acquireQueryMemoryIfNecessary(queryContext, queueType, resourceSchedulingProperties,
+        resourceSchedulingDecisionInfo);
 
        // update query limit based on the queueType
       final OptionManager options = queryContext.getOptions();
@@ -100,6 +108,7 @@ public class BasicResourceAllocator implements ResourceAllocator {
       final ResourceSet resourceSet = new BasicResourceSet(
         queryId,
         lease.value,
+        memoryLease.value,
         queryMaxAllocationFinal,
         queueType.name());
 
@@ -113,7 +122,8 @@ public class BasicResourceAllocator implements ResourceAllocator {
 
       @Override
       public void onFailure(Throwable throwable) {
-        // need to close lease
+        // need to close leases
+        releaseLease(memoryLease.value);
         releaseLease(lease.value);
       }
     }, executorService);
@@ -235,6 +245,75 @@ public class BasicResourceAllocator implements ResourceAllocator {
     return lease;
   }
 
+  /**
+   * Charge the query its estimated memory against the cluster wide memory budget, waiting for running queries
+   * to release theirs if the budget is exhausted. The budget is a fraction of the direct memory of all active
+   * executors. A query estimated to need more than the whole budget is charged the whole budget, so it still runs,
+   * but only once nothing else holds admitted memory.
+   *
+   * @return lease holding the admitted memory, or null if memory admission doesn't apply to the query
+   */
+  private DistributedSemaphore.DistributedLease acquireQueryMemoryIfNecessary(final ResourceSchedulingContext queryContext,
+                                                                             final QueueType queueType,
+                                                                             final ResourceSchedulingProperties resourceSchedulingProperties,
+                                                                             final ResourceSchedulingDecisionInfo decisionInfo)
+    throws ResourceAllocationException {
+
+    final OptionManager optionManager = queryContext.getOptions();
+    final Long memoryEstimate = resourceSchedulingProperties.getQueryMemoryEstimate();
+    if (!optionManager.getOption(BasicResourceConstants.ENABLE_MEMORY_ADMISSION) || memoryEstimate == null) {
+      return null;
+    }
+
+    long clusterMemory = 0;
+    for (CoordinationProtos.NodeEndpoint endpoint : queryContext.getActiveEndpoints()) {
+      clusterMemory += endpoint.getMaxDirectMemory();
+    }
+    final long budget = (long) (clusterMemory * optionManager.getOption(BasicResourceConstants.MEMORY_ADMISSION_CLUSTER_FRACTION));
+    decisionInfo.setQueryMemoryEstimate(memoryEstimate);
+    if (budget < 1) {
+      decisionInfo.setAdmissionReason("Memory admission skipped, no executor memory is known to the coordinator.");
+      return null;
+    }
+
+    // share of the budget, rounded up
+    final double requiredPermits = Math.ceil((double) memoryEstimate * MEMORY_PERMITS / budget);
+    final int permits = (int) Math.max(1, Math.min(MEMORY_PERMITS, requiredPermits));
+    final long queueTimeout = (queueType == QueueType.REFLECTION_LARGE || queueType == QueueType.REFLECTION_SMALL) ?
+      optionManager.getOption(BasicResourceConstants.REFLECTION_QUEUE_TIMEOUT) :
+      optionManager.getOption(BasicResourceConstants.QUEUE_TIMEOUT);
+
+    final long startTimeMs = System.currentTimeMillis();
+    DistributedSemaphore.DistributedLease lease;
+    try {
+      @SuppressWarnings("resource")
+      final DistributedSemaphore distributedSemaphore = clusterCoordinator.getSemaphore("query.memory", MEMORY_PERMITS);
+      lease = distributedSemaphore.acquire(permits, queueTimeout, TimeUnit.MILLISECONDS);
+    } catch (final Exception e) {
+      final String message = "Query cancelled by Workload Manager. Cannot reserve memory for the query. Please try again later.";
+      decisionInfo.setAdmissionReason(message);
+      logger.trace(message, e);
+      throw new ResourceUnavailableException(message);
+    } finally {
+      decisionInfo.setMemoryAdmissionWaitMs(System.currentTimeMillis() - startTimeMs);
+    }
+
+    if (lease == null) {
+      final String message = String.format(
+        "Query cancelled by Workload Manager. Query waited %.2f seconds for %s of memory, out of a cluster memory budget of %s.",
+        queueTimeout / 1000.0, PrettyPrintUtils.bytePrint(memoryEstimate, true), PrettyPrintUtils.bytePrint(budget, true));
+      decisionInfo.setAdmissionReason(message);
+      logger.trace(message);
+      throw new ResourceUnavailableException(message);
+    }
+
+    decisionInfo.setAdmissionReason(String.format(requiredPermits > MEMORY_PERMITS ?
+        "Admitted with the whole cluster memory budget of %2$s, estimated memory was %1$s." :
+        "Admitted with estimated memory of %s, out of a cluster memory budget of %s.",
+      PrettyPrintUtils.bytePrint(memoryEstimate, true), PrettyPrintUtils.bytePrint(budget, true)));
+    return lease;
+  }
+
   /**
    * Need for testing purposes
    * @param endpoint
@@ -252,15 +331,18 @@ public class BasicResourceAllocator implements ResourceAllocator {
 
     private final UserBitShared.QueryId queryId;
     private volatile DistributedSemaphore.DistributedLease lease; // used to limit the number of concurrent queries
+    private volatile DistributedSemaphore.DistributedLease memoryLease; // used to limit cluster wide committed memory
     private final long memoryLimit;
     private final String queueName;
 
     BasicResourceSet(UserBitShared.QueryId queryId,
                      DistributedSemaphore.DistributedLease lease,
+                     DistributedSemaphore.DistributedLease memoryLease,
                      long memoryLimit,
                      String queueName) {
       this.queryId = queryId;
       this.lease = lease;
+      this.memoryLease = memoryLease;
       this.memoryLimit = memoryLimit;
       this.queueName = queueName;
     }
@@ -272,6 +354,7 @@ public class BasicResourceAllocator implements ResourceAllocator {
 
     @Override
     public void close() throws IOException {
+      releaseLease(memoryLease);
       releaseLease(lease);
     }
   }
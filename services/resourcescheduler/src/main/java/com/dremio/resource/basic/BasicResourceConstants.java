@@ -38,5 +38,9 @@ public interface BasicResourceConstants {
   TypeValidators.LongValidator SMALL_QUEUE_SIZE = new TypeValidators.PositiveLongValidator("exec.queue.small", 100000, 100);
   TypeValidators.LongValidator REFLECTION_LARGE_QUEUE_SIZE = new TypeValidators.RangeLongValidator("reflection.queue.large", 0, 100, 1);
   TypeValidators.LongValidator REFLECTION_SMALL_QUEUE_SIZE = new TypeValidators.RangeLongValidator("reflection.queue.small", 0, 10000, 10);
+  // admit queries against a cluster wide memory budget, charging each query its estimated memory
+  TypeValidators.BooleanValidator ENABLE_MEMORY_ADMISSION = new TypeValidators.BooleanValidator("exec.queue.memory_admission.enable", false);
+  TypeValidators.DoubleValidator MEMORY_ADMISSION_CLUSTER_FRACTION = new TypeValidators.RangeDoubleValidator(
+    "exec.queue.memory_admission.cluster_fraction", 0.01, 1.0, 0.8);
   TypeValidators.LongValidator QUEUE_THRESHOLD_SIZE = new TypeValidators.PositiveLongValidator("exec.queue.threshold", Long.MAX_VALUE, 30000000);
 }
@@ -154,6 +154,73 @@ public class BasicResourceTest {
     resourceSet2.close();
   }
 
+  @Test
+  public void testMemoryAdmission() throws Exception {
+    final long mb = 1024 * 1024;
+    final CoordinationProtos.NodeEndpoint nodeEndpoint = CoordinationProtos.NodeEndpoint.newBuilder()
+      .setAddress("host1")
+      .setFabricPort(1234)
+      .setUserPort(2345)
+      .setAvailableCores(3)
+      .setMaxDirectMemory(10 * mb)
+      .setRoles(ClusterCoordinator.Role.toEndpointRoles(Sets.newHashSet(ClusterCoordinator.Role.EXECUTOR)))
+      .build();
+
+    final OptionManager optionManager = mock(OptionManager.class);
+
+    when(optionManager.getOption(BasicResourceConstants.ENABLE_QUEUE)).thenReturn(false);
+    when(optionManager.getOption(BasicResourceConstants.ENABLE_MEMORY_ADMISSION)).thenReturn(true);
+    when(optionManager.getOption(BasicResourceConstants.MEMORY_ADMISSION_CLUSTER_FRACTION)).thenReturn(1.0D);
+    when(optionManager.getOption(BasicResourceConstants.QUEUE_THRESHOLD_SIZE)).thenReturn(30000000L);
+    when(optionManager.getOption(BasicResourceConstants.QUEUE_TIMEOUT)).thenReturn(100L);
+
+    final ClusterCoordinator clusterCoordinator = LocalClusterCoordinator.newRunningCoordinator();
+    final BasicResourceAllocator resourceAllocator = new BasicResourceAllocator(DirectProvider.wrap
+      (clusterCoordinator), null);
+    resourceAllocator.start();
+
+    final ResourceSchedulingProperties resourceSchedulingProperties = new ResourceSchedulingProperties();
+    resourceSchedulingProperties.setQueryCost(112100D);
+    resourceSchedulingProperties.setQueryMemoryEstimate(6 * mb);
+
+    final ResourceSchedulingResult result = resourceAllocator.allocate(
+      createQueryContext(ExternalIdHelper.toQueryId(ExternalIdHelper.generateExternalId()), optionManager, nodeEndpoint),
+      resourceSchedulingProperties);
+    final ResourceSet resourceSet = result.getResourceSetFuture().get();
+    assertEquals(6 * mb, result.getResourceSchedulingDecisionInfo().getQueryMemoryEstimate());
+    assertTrue(result.getResourceSchedulingDecisionInfo().getAdmissionReason().startsWith("Admitted"));
+
+    // only 4MB of the budget is left
+    final ResourceSchedulingResult rejected = resourceAllocator.allocate(
+      createQueryContext(ExternalIdHelper.toQueryId(ExternalIdHelper.generateExternalId()), optionManager, nodeEndpoint),
+      resourceSchedulingProperties);
+    try {
+      rejected.getResourceSetFuture().get();
+      fail("Should not be able to admit a second 6MB query with a budget of 10MB");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof ResourceAllocationException);
+      assertTrue(e.getMessage().contains("Workload Manager"));
+      assertTrue(rejected.getResourceSchedulingDecisionInfo().getMemoryAdmissionWaitMs() > 0);
+    }
+
+    // once the executor memory doubles, 6MB is only 30% of the budget, and fits in the 40% left
+    final CoordinationProtos.NodeEndpoint largerNodeEndpoint = nodeEndpoint.toBuilder()
+      .setMaxDirectMemory(20 * mb)
+      .build();
+    final ResourceSet resourceSet2 = resourceAllocator.allocate(
+      createQueryContext(ExternalIdHelper.toQueryId(ExternalIdHelper.generateExternalId()), optionManager, largerNodeEndpoint),
+      resourceSchedulingProperties).getResourceSetFuture().get();
+    resourceSet2.close();
+
+    resourceSet.close();
+
+    final ResourceSet resourceSet1 = resourceAllocator.allocate(
+      createQueryContext(ExternalIdHelper.toQueryId(ExternalIdHelper.generateExternalId()), optionManager, nodeEndpoint),
+      resourceSchedulingProperties).getResourceSetFuture().get();
+    resourceSet1.close();
+    resourceAllocator.close();
+  }
+
   @Test
   public void testQueueingSemaphoreException() throws Exception {
     final CoordinationProtos.NodeEndpoint nodeEndpoint = CoordinationProtos.NodeEndpoint.newBuilder()